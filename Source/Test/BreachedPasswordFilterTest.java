@@ -0,0 +1,78 @@
+package Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import sportapp.BreachedPasswordFilter;
+import sportapp.BreachedPasswordFilterBuilder;
+
+public class BreachedPasswordFilterTest {
+	@TempDir
+	Path tempDir;
+
+	/**
+	 * Builds a filter from generated passwords through the tool's file path and checks that
+	 * every listed password is found and the false positive rate holds.
+	 */
+	@Test
+	public void testBuildAndLookUpPasswords() throws IOException {
+		int listed = 100_000;
+		Path list = tempDir.resolve("breached.txt");
+		try (BufferedWriter writer = Files.newBufferedWriter(list, StandardCharsets.UTF_8)) {
+			for (int i = 0; i < listed; i++) {
+				writer.write("Leaked#" + i);
+				writer.newLine();
+			}
+			writer.newLine();
+		}
+		Path file = tempDir.resolve("breached.bloom");
+		assertEquals(listed, BreachedPasswordFilterBuilder.build(list, file, 0.001));
+
+		BreachedPasswordFilter filter = BreachedPasswordFilter.open(file);
+		assertEquals(listed, filter.getEntryCount());
+		for (int i = 0; i < listed; i++) {
+			assertTrue(filter.mightContain("Leaked#" + i));
+		}
+
+		int probes = 100_000;
+		int falsePositives = 0;
+		for (int i = 0; i < probes; i++) {
+			if (filter.mightContain("Fresh#" + i)) {
+				falsePositives++;
+			}
+		}
+
+		assertTrue(falsePositives < probes * 0.002);
+		assertTrue(Files.size(file) < 256 * 1024);
+	}
+
+	@Test
+	public void testOpenRejectsOtherFiles() throws IOException {
+		Path file = tempDir.resolve("not-a-filter.bloom");
+		Files.write(file, new byte[64]);
+		assertThrows(IOException.class, () -> BreachedPasswordFilter.open(file));
+
+		Path truncated = tempDir.resolve("truncated.bloom");
+		BreachedPasswordFilterBuilder builder = new BreachedPasswordFilterBuilder(100, 0.01);
+		builder.add("password");
+		builder.writeTo(truncated);
+		byte[] bytes = Files.readAllBytes(truncated);
+		Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 8));
+		assertThrows(IOException.class, () -> BreachedPasswordFilter.open(truncated));
+	}
+
+	@Test
+	public void testInvalidSizing() {
+		assertThrows(IllegalArgumentException.class, () -> new BreachedPasswordFilterBuilder(0, 0.01));
+		assertThrows(IllegalArgumentException.class, () -> new BreachedPasswordFilterBuilder(100, 1));
+	}
+}
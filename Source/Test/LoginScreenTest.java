@@ -2,8 +2,11 @@ package Test;
 import java.io.*;
 import java.util.Scanner;
 
+import sportapp.LoginThrottle;
 import sportapp.Route;
-import sportapp.SportApp;
+import sportapp.SessionContext;
+import sportapp.SessionManager;
+import sportapp.User;
 import sportapp.UserCollection;
 import sportapp.UserSecurityAnswer;
 import sportapp.screen.LoginScreen;
@@ -14,16 +17,19 @@ import static org.junit.jupiter.api.Assertions.*;
 class LoginScreenTest {
     private LoginScreen loginscreen;
     private UserCollection userCollection;
+    private SessionContext session;
 
     @BeforeEach
     void setUp() {
         loginscreen = new LoginScreen();
         userCollection = UserCollection.getInstance();
+        session = new SessionContext(SessionManager.getInstance());
     }
     
     @AfterEach
     void tearDown() {
-    	SportApp.setCurrentUser(null);
+    	session.signOut();
+    	LoginThrottle.getInstance().clear();
         userCollection.clear();
     }
 
@@ -32,25 +38,37 @@ class LoginScreenTest {
         userCollection.addUser("bot", "12345", new UserSecurityAnswer("What is your age?", "21"));
         String input = "bot\n12345\n";
         Scanner scanner = new Scanner(new ByteArrayInputStream(input.getBytes()));
-        Route result =loginscreen.display(scanner, null);
+        Route result =loginscreen.display(scanner, session);
         assertEquals(Route.HOME, result);
-        assertEquals("bot", SportApp.getCurrentUser().getUsername());
+        assertEquals("bot", session.getUser().getUsername());
     }
     @Test
     void testDisplay_FailedLogin_Continue(){
         userCollection.addUser("bot", "12345", new UserSecurityAnswer("What is your age?", "21"));
         String input = "bot\n123456\nY\n";
         Scanner scanner = new Scanner(new ByteArrayInputStream(input.getBytes()));
-        Route result =loginscreen.display(scanner, null);
+        Route result =loginscreen.display(scanner, session);
         assertEquals(Route.LOGIN, result);
-        assertEquals(null, SportApp.getCurrentUser());
+        assertEquals(null, session.getUser());
     }
     @Test
     void testDisplay_FailedLogin_NotContinue(){
         userCollection.addUser("bot", "12345", new UserSecurityAnswer("What is your age?", "21"));
         String input = "bot\n123456\nN\n";
         Scanner scanner = new Scanner(new ByteArrayInputStream(input.getBytes()));
-        Route result = loginscreen.display(scanner, null);
+        Route result = loginscreen.display(scanner, (User) null);
         assertEquals(Route.PORTAL, result);
     }
+    @Test
+    void testDisplay_LockedOutAfterRepeatedFailures(){
+        userCollection.addUser("bot", "12345", new UserSecurityAnswer("What is your age?", "21"));
+        for (int i = 0; i < LoginThrottle.DEFAULT_FREE_FAILURES; i++) {
+            Scanner scanner = new Scanner(new ByteArrayInputStream("bot\nwrong\nN\n".getBytes()));
+            assertEquals(Route.PORTAL, loginscreen.display(scanner, session));
+        }
+        Scanner scanner = new Scanner(new ByteArrayInputStream("bot\n12345\n".getBytes()));
+        Route result = loginscreen.display(scanner, session);
+        assertEquals(Route.PORTAL, result);
+        assertEquals(null, session.getUser());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,209 @@
+package Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import sportapp.Clock;
+import sportapp.LoginThrottle;
+
+public class LoginThrottleTest {
+	private Clock realClock;
+	private Clock clock;
+	private LoginThrottle throttle;
+
+	@BeforeEach
+	public void setUp() {
+		realClock = Clock.getInstance();
+		clock = Clock.simulated(LocalDateTime.of(2025, 11, 3, 9, 0), 0);
+		Clock.setInstance(clock);
+		throttle = new LoginThrottle(3, Duration.ofSeconds(10), 4, Duration.ofMinutes(1), Duration.ofMinutes(8));
+	}
+
+	@AfterEach
+	public void tearDown() {
+		Clock.setInstance(realClock);
+	}
+
+	@Test
+	public void testBucketEmptiesAndRefills() {
+		for (int i = 0; i < 3; i++) {
+			assertEquals(Duration.ZERO, throttle.tryAcquire("tom"));
+		}
+		assertEquals(Duration.ofSeconds(10), throttle.tryAcquire("tom"));
+		assertEquals(Duration.ZERO, throttle.tryAcquire("jerry"));
+
+		clock.advance(Duration.ofSeconds(4));
+		assertEquals(Duration.ofSeconds(6), throttle.tryAcquire("tom"));
+		clock.advance(Duration.ofSeconds(6));
+		assertEquals(Duration.ZERO, throttle.tryAcquire("tom"));
+
+		assertEquals(5, throttle.getAllowedCount());
+		assertEquals(2, throttle.getThrottledCount());
+	}
+
+	@Test
+	public void testLockoutDoublesWithEveryFailure() {
+		for (int i = 0; i < 3; i++) {
+			throttle.tryAcquire("tom");
+			throttle.recordFailure("tom");
+		}
+		clock.advance(Duration.ofSeconds(10));
+		throttle.tryAcquire("tom");
+		throttle.recordFailure("tom");
+		assertEquals(Duration.ofMinutes(1), throttle.tryAcquire("tom"));
+
+		Duration[] lockouts = { Duration.ofMinutes(2), Duration.ofMinutes(4), Duration.ofMinutes(8), Duration.ofMinutes(8) };
+		Duration current = Duration.ofMinutes(1);
+		for (Duration lockout : lockouts) {
+			clock.advance(current);
+			assertEquals(Duration.ZERO, throttle.tryAcquire("tom"));
+			throttle.recordFailure("tom");
+			assertEquals(lockout, throttle.tryAcquire("tom"));
+			current = lockout;
+		}
+		assertEquals(5, throttle.getLockoutCount());
+		assertEquals(5, throttle.getLockedOutCount());
+
+		clock.advance(Duration.ofMinutes(8));
+		throttle.tryAcquire("tom");
+		throttle.recordSuccess("tom");
+		assertEquals(0, throttle.getTrackedCount());
+		assertEquals(Duration.ZERO, throttle.tryAcquire("tom"));
+	}
+
+	@Test
+	public void testIdleBucketsAreEvicted() {
+		for (int i = 0; i < 10000; i++) {
+			throttle.tryAcquire("user" + i);
+		}
+		throttle.tryAcquire("locked");
+		for (int i = 0; i < 4; i++) {
+			clock.advance(Duration.ofSeconds(10));
+			throttle.tryAcquire("locked");
+			throttle.recordFailure("locked");
+		}
+		assertEquals(10001, throttle.getTrackedCount());
+
+		// refilled buckets below the lockout threshold go at once
+		clock.advance(Duration.ofMinutes(1));
+		assertEquals(10000, throttle.evictIdle(clock.getDateTime()));
+		assertEquals(1, throttle.getTrackedCount());
+		// a bucket that was locked out is kept for the longest lockout
+		clock.advance(Duration.ofSeconds(390));
+		assertEquals(0, throttle.evictIdle(clock.getDateTime()));
+		clock.advance(Duration.ofMinutes(1));
+		assertEquals(1, throttle.evictIdle(clock.getDateTime()));
+	}
+
+	/**
+	 * Waits for the refill between wrong guesses. The failures must be kept until the lockout
+	 * starts, even though the bucket is idle in between.
+	 */
+	@Test
+	public void testFailuresSurviveTheRefill() {
+		for (int i = 0; i < 3; i++) {
+			throttle.tryAcquire("tom");
+			throttle.recordFailure("tom");
+		}
+		clock.advance(Duration.ofMinutes(2));
+		assertEquals(0, throttle.evictIdle(clock.getDateTime()));
+		assertEquals(0, throttle.getLiveCount());
+		assertEquals(1, throttle.getTrackedCount());
+
+		assertEquals(Duration.ZERO, throttle.tryAcquire("tom"));
+		throttle.recordFailure("tom");
+		assertEquals(Duration.ofMinutes(1), throttle.tryAcquire("tom"));
+		assertEquals(1, throttle.getLockoutCount());
+	}
+
+	@Test
+	public void testFullTableMakesRoomWithoutResettingBuckets() {
+		throttle = new LoginThrottle(3, Duration.ofSeconds(10), 4, Duration.ofMinutes(1), Duration.ofMinutes(8), 100);
+		for (int i = 0; i < 100; i++) {
+			for (int j = 0; j < 3; j++) {
+				assertEquals(Duration.ZERO, throttle.tryAcquire("user" + i));
+			}
+		}
+		for (int i = 0; i < 3; i++) {
+			throttle.recordFailure("user0");
+		}
+		assertEquals(100, throttle.getLiveCount());
+
+		// a new username is let in, and the buckets moved out of the way keep their state
+		assertEquals(Duration.ZERO, throttle.tryAcquire("extra"));
+		assertEquals(1, throttle.getLiveCount());
+		assertEquals(101, throttle.getTrackedCount());
+		assertEquals(Duration.ofSeconds(10), throttle.tryAcquire("user1"));
+
+		clock.advance(Duration.ofSeconds(10));
+		assertEquals(Duration.ZERO, throttle.tryAcquire("user0"));
+		throttle.recordFailure("user0");
+		assertEquals(Duration.ofMinutes(1), throttle.tryAcquire("user0"));
+	}
+
+	/**
+	 * Fails once for each of many distinct usernames, as a credential stuffing run would. The
+	 * tracked usernames must stay within both tables, and a locked out username must be kept.
+	 */
+	@Test
+	public void testFloodOfUsernamesStaysBounded() {
+		throttle = new LoginThrottle(3, Duration.ofSeconds(10), 2, Duration.ofMinutes(1), Duration.ofMinutes(8), 100);
+		for (int i = 0; i < 2; i++) {
+			throttle.tryAcquire("victim");
+			throttle.recordFailure("victim");
+		}
+		for (int i = 0; i < 20000; i++) {
+			throttle.tryAcquire("user" + i);
+			throttle.recordFailure("user" + i);
+			assertTrue(throttle.getTrackedCount() <= 200, () -> throttle.getTrackedCount() + " usernames tracked");
+		}
+		assertEquals(Duration.ofMinutes(1), throttle.tryAcquire("victim"));
+	}
+
+	/**
+	 * Sends many attempts for one username at once. The bucket must hand out exactly its
+	 * capacity, however the attempts interleave.
+	 */
+	@Test
+	public void testConcurrentAttemptsTakeExactlyTheCapacity() throws Exception {
+		int attempts = 200;
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		CountDownLatch start = new CountDownLatch(1);
+		ArrayList<Future<Duration>> futures = new ArrayList<>();
+		for (int i = 0; i < attempts; i++) {
+			futures.add(pool.submit(() -> {
+				start.await();
+				return throttle.tryAcquire("tom");
+			}));
+		}
+		start.countDown();
+		int allowed = 0;
+		for (Future<Duration> future : futures) {
+			if (future.get().isZero()) {
+				allowed++;
+			}
+		}
+		pool.shutdown();
+
+		assertEquals(3, allowed);
+		assertEquals(attempts - 3, throttle.getThrottledCount());
+	}
+
+	@Test
+	public void testInvalidLimits() {
+		assertThrows(IllegalArgumentException.class, () -> new LoginThrottle(0, Duration.ofSeconds(1), 1, Duration.ofSeconds(1), Duration.ofSeconds(1)));
+		assertThrows(IllegalArgumentException.class, () -> new LoginThrottle(1, Duration.ofSeconds(1), 1, Duration.ofSeconds(2), Duration.ofSeconds(1)));
+		assertThrows(IllegalArgumentException.class, () -> new LoginThrottle(1, Duration.ofSeconds(1), 1, Duration.ofSeconds(1), Duration.ofSeconds(1), 0));
+	}
+}
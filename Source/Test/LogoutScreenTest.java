@@ -3,6 +3,7 @@ import java.io.*;
 import java.util.Scanner;
 
 import sportapp.Route;
+import sportapp.User;
 import sportapp.screen.LogoutScreen;
 
 import org.junit.jupiter.api.*;
@@ -18,7 +19,7 @@ class LogoutScreenTest {
     void testDisplay_Logout() {
         String input = "";
         Scanner scanner = new Scanner(new ByteArrayInputStream(input.getBytes()));
-        Route result = logoutScreen.display(scanner,null);
+        Route result = logoutScreen.display(scanner, (User) null);
         assertEquals(Route.PORTAL, result);
     }
 }
\ No newline at end of file
@@ -0,0 +1,154 @@
+package Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import sportapp.CredentialVerifier;
+import sportapp.PasswordHasher;
+import sportapp.User;
+import sportapp.UserSecurityAnswer;
+
+public class PasswordHasherTest {
+
+	@AfterEach
+	public void tearDown() {
+		PasswordHasher.setIterations(PasswordHasher.DEFAULT_ITERATIONS);
+	}
+
+	@Test
+	public void testHashIsSaltedAndVerifies() {
+		String first = PasswordHasher.hash("Passw0rd!");
+		String second = PasswordHasher.hash("Passw0rd!");
+
+		assertTrue(PasswordHasher.isHashed(first));
+		assertNotEquals(first, second);
+		assertTrue(PasswordHasher.verify("Passw0rd!", first));
+		assertFalse(PasswordHasher.verify("passw0rd!", first));
+		assertFalse(PasswordHasher.verify(null, first));
+		assertFalse(PasswordHasher.needsRehash(first));
+	}
+
+	@Test
+	public void testLegacyPasswordMigratesOnLogin() {
+		User user = new User("legacy", 1, "Passw0rd!", new UserSecurityAnswer("Pet?", "Dog"));
+
+		assertFalse(user.verifyPassword("wrong"));
+		assertEquals("Passw0rd!", user.getPassword());
+
+		assertTrue(user.verifyPassword("Passw0rd!"));
+		assertTrue(PasswordHasher.isHashed(user.getPassword()));
+		assertTrue(user.verifyPassword("Passw0rd!"));
+
+		assertTrue(user.verifySercurityAnswer("Dog"));
+		assertTrue(PasswordHasher.isHashed(user.getSecurityAnswer().getAnswer()));
+		assertFalse(user.verifySercurityAnswer("Cat"));
+	}
+
+	@Test
+	public void testCheaperHashIsUpgradedOnLogin() {
+		PasswordHasher.setIterations(PasswordHasher.MIN_ITERATIONS);
+		User user = new User("cheap", 1, PasswordHasher.hash("Passw0rd!"), null);
+		PasswordHasher.setIterations(PasswordHasher.MIN_ITERATIONS * 2);
+		String cheap = user.getPassword();
+		assertTrue(PasswordHasher.needsRehash(cheap));
+
+		assertTrue(user.verifyPassword("Passw0rd!"));
+		assertNotEquals(cheap, user.getPassword());
+		assertFalse(PasswordHasher.needsRehash(user.getPassword()));
+	}
+
+	@Test
+	public void testSlightlyCheaperHashIsKept() {
+		PasswordHasher.setIterations(PasswordHasher.MIN_ITERATIONS * 10);
+		String stored = PasswordHasher.hash("Passw0rd!");
+		PasswordHasher.setIterations(PasswordHasher.MIN_ITERATIONS * 11);
+		assertFalse(PasswordHasher.needsRehash(stored));
+		PasswordHasher.setIterations(PasswordHasher.MIN_ITERATIONS * 12);
+		assertTrue(PasswordHasher.needsRehash(stored));
+	}
+
+	@Test
+	public void testMalformedCredentialMatchesNothing() {
+		String hash = PasswordHasher.hash("Passw0rd!");
+		String[] parts = hash.split("\\$");
+		String[] malformed = {
+			parts[0] + "$many$" + parts[2] + "$" + parts[3],
+			parts[0] + "$0$" + parts[2] + "$" + parts[3],
+			parts[0] + "$" + parts[1] + "$not*base64$" + parts[3],
+			parts[0] + "$" + parts[1] + "$$" + parts[3],
+			parts[0] + "$" + parts[1] + "$" + parts[2] + "$%%%",
+		};
+		for (String stored : malformed) {
+			assertFalse(PasswordHasher.verify("Passw0rd!", stored), stored);
+		}
+		assertTrue(PasswordHasher.needsRehash(malformed[0]));
+		assertTrue(PasswordHasher.needsRehash(malformed[1]));
+
+		User user = new User("damaged", 1, malformed[0], null);
+		assertFalse(user.verifyPassword("Passw0rd!"));
+		assertEquals(malformed[0], user.getPassword());
+	}
+
+	@Test
+	public void testInvalidIterations() {
+		assertThrows(IllegalArgumentException.class, () -> PasswordHasher.setIterations(PasswordHasher.MIN_ITERATIONS - 1));
+		assertThrows(IllegalArgumentException.class, () -> PasswordHasher.calibrate(Duration.ZERO));
+	}
+
+	/**
+	 * Calibrates for two targets. A longer target must never pick a cheaper hash.
+	 */
+	@Test
+	public void testCalibrationScalesWithTarget() {
+		int fast = PasswordHasher.calibrate(Duration.ofMillis(20));
+		int slow = PasswordHasher.calibrate(Duration.ofMillis(200));
+
+		assertTrue(fast >= PasswordHasher.MIN_ITERATIONS);
+		assertTrue(slow >= fast);
+	}
+
+	@Test
+	public void testBurstBeyondTheQueueIsTurnedAway() throws Exception {
+		CredentialVerifier verifier = new CredentialVerifier(1, 1);
+		User user = new User("burst", 1, PasswordHasher.hash("Passw0rd!"), null);
+		int attempts = 16;
+		ExecutorService callers = Executors.newFixedThreadPool(attempts);
+		CountDownLatch start = new CountDownLatch(1);
+		ArrayList<Future<Boolean>> futures = new ArrayList<>();
+		for (int i = 0; i < attempts; i++) {
+			futures.add(callers.submit(() -> {
+				start.await();
+				return verifier.verifyPassword(user, "Passw0rd!");
+			}));
+		}
+		start.countDown();
+		int verified = 0;
+		int rejected = 0;
+		for (Future<Boolean> future : futures) {
+			try {
+				if (future.get()) {
+					verified++;
+				}
+			} catch (java.util.concurrent.ExecutionException ex) {
+				assertTrue(ex.getCause() instanceof IllegalStateException);
+				rejected++;
+			}
+		}
+		callers.shutdown();
+		verifier.shutdown();
+
+		assertTrue(verified >= 1);
+		assertTrue(rejected >= 1);
+		assertEquals(attempts, verified + rejected);
+		assertFalse(CredentialVerifier.getInstance().verifyPassword(null, "Passw0rd!"));
+	}
+}
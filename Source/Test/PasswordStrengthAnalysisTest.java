@@ -1,13 +1,22 @@
 package Test;
 
+import sportapp.BreachedPasswordFilter;
+import sportapp.BreachedPasswordFilterBuilder;
 import sportapp.PasswordStrengthAnalysis;
 
+import java.io.IOException;
+import java.nio.file.Path;
+
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
 import static org.junit.jupiter.api.Assertions.*;
 
 public class PasswordStrengthAnalysisTest {
     PasswordStrengthAnalysis passwordStrengthAnalysis;
 
+    @TempDir
+    Path tempDir;
+
     @BeforeEach
     void setUp() {
         passwordStrengthAnalysis = new PasswordStrengthAnalysis();
@@ -16,6 +25,7 @@ public class PasswordStrengthAnalysisTest {
     @AfterEach
     void tearDown() {
         passwordStrengthAnalysis = null;
+        PasswordStrengthAnalysis.setBreachedPasswords(null);
     }
 
     @Test
@@ -48,6 +58,18 @@ public class PasswordStrengthAnalysisTest {
         assertEquals(false, PasswordStrengthAnalysis.isStrongPassword(password));
     }
 
+    @Test
+    void test_isStrongPassword_Weak_Breached() throws IOException {
+        BreachedPasswordFilterBuilder builder = new BreachedPasswordFilterBuilder(10, 0.001);
+        builder.add("P@ssw0rd123");
+        Path file = tempDir.resolve("breached.bloom");
+        builder.writeTo(file);
+        PasswordStrengthAnalysis.setBreachedPasswords(BreachedPasswordFilter.open(file));
+
+        assertEquals(false, PasswordStrengthAnalysis.isStrongPassword("P@ssw0rd123"));
+        assertEquals(true, PasswordStrengthAnalysis.isStrongPassword("@Strongp4ssword"));
+    }
+
     @Test
     void test_isStrongPassword_Weak_MissingSymbol(){
         String password = "Strongp4ssword";
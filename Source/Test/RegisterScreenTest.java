@@ -3,6 +3,7 @@ import java.io.*;
 import java.util.Scanner;
 
 import sportapp.Route;
+import sportapp.User;
 import sportapp.UserCollection;
 import sportapp.UserSecurityAnswer;
 import sportapp.screen.RegisterScreen;
@@ -26,7 +27,7 @@ public class RegisterScreenTest {
     void testSuccessfulRegistration() {
         String input = "newUser\nStrongPass1!\nMy pet?\nDog\n";
         Scanner scanner = new Scanner(new ByteArrayInputStream(input.getBytes()));
-        Route result = registerScreen.display(scanner, null);
+        Route result = registerScreen.display(scanner, (User) null);
 
         assertEquals(Route.HOME, result);
         assertNotNull(userCollection.findUserByName("newUser"));
@@ -38,7 +39,7 @@ public class RegisterScreenTest {
         String input = "existingUser\nY\nnewUser\nStrongPass1!\nFav color?\nBlue\n";
         Scanner scanner = new Scanner(new ByteArrayInputStream(input.getBytes()));
 
-        Route result = registerScreen.display(scanner, null);
+        Route result = registerScreen.display(scanner, (User) null);
 
         assertEquals(Route.HOME, result);
         assertNotNull(userCollection.findUserByName("newUser"));
@@ -49,10 +50,10 @@ public class RegisterScreenTest {
         String input = "user123\nweak\nY\nStrongPass1!\nFav food?\nPizza\n";
         Scanner scanner = new Scanner(new ByteArrayInputStream(input.getBytes()));
 
-        Route result = registerScreen.display(scanner, null);
+        Route result = registerScreen.display(scanner, (User) null);
 
         assertEquals(Route.HOME, result);
-        assertEquals("StrongPass1!", userCollection.findUserByName("user123").getPassword());
+        assertTrue(userCollection.findUserByName("user123").verifyPassword("StrongPass1!"));
     }
 
     @Test
@@ -61,7 +62,7 @@ public class RegisterScreenTest {
         String input = "taken\nN\n";
         Scanner scanner = new Scanner(new ByteArrayInputStream(input.getBytes()));
 
-        Route result = registerScreen.display(scanner, null);
+        Route result = registerScreen.display(scanner, (User) null);
 
         assertEquals(Route.PORTAL, result);
     }
@@ -71,7 +72,7 @@ public class RegisterScreenTest {
         String input = "userX\nweak\nN\n";
         Scanner scanner = new Scanner(new ByteArrayInputStream(input.getBytes()));
 
-        Route result = registerScreen.display(scanner, null);
+        Route result = registerScreen.display(scanner, (User) null);
 
         assertEquals(Route.PORTAL, result);
     }
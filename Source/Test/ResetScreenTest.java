@@ -2,7 +2,9 @@ package Test;
 import java.io.*;
 import java.util.Scanner;
 
+import sportapp.LoginThrottle;
 import sportapp.Route;
+import sportapp.User;
 import sportapp.UserCollection;
 import sportapp.UserSecurityAnswer;
 import sportapp.screen.ResetScreen;
@@ -21,14 +23,20 @@ class ResetScreenTest {
         userCollection.clear();
     }
 
+    @AfterEach
+    void tearDown() {
+        LoginThrottle.getInstance().clear();
+        userCollection.clear();
+    }
+
     @Test
     void testDisplay_SuccessfulReset() {
         userCollection.addUser("bot", "12345", new UserSecurityAnswer("What is your age?", "21"));
         String input = "bot\n21\nStrongP@ss1\n";
         Scanner scanner = new Scanner(new ByteArrayInputStream(input.getBytes()));
-        Route result = resetScreen.display(scanner, null);
+        Route result = resetScreen.display(scanner, (User) null);
         assertEquals(Route.HOME, result);
-        assertEquals("StrongP@ss1", userCollection.findUserByName("bot").getPassword());
+        assertTrue(userCollection.findUserByName("bot").verifyPassword("StrongP@ss1"));
     }
 
     @Test
@@ -36,7 +44,7 @@ class ResetScreenTest {
         userCollection.addUser("bot", "12345", new UserSecurityAnswer("What is your age?", "21"));
         String input = "Tommy\n";
         Scanner scanner = new Scanner(new ByteArrayInputStream(input.getBytes()));
-        Route result = resetScreen.display(scanner, null);
+        Route result = resetScreen.display(scanner, (User) null);
         assertEquals(Route.RESET, result);
     }
 
@@ -45,9 +53,9 @@ class ResetScreenTest {
         userCollection.addUser("bot", "12345", new UserSecurityAnswer("What is your age?", "21"));
         String input = "bot\n20\nY\n21\nStrongP@ss1\n";
         Scanner scanner = new Scanner(new ByteArrayInputStream(input.getBytes()));
-        Route result = resetScreen.display(scanner, null);
+        Route result = resetScreen.display(scanner, (User) null);
         assertEquals(Route.HOME, result);
-        assertEquals("StrongP@ss1", userCollection.findUserByName("bot").getPassword());
+        assertTrue(userCollection.findUserByName("bot").verifyPassword("StrongP@ss1"));
     }
 
     @Test
@@ -55,9 +63,9 @@ class ResetScreenTest {
         userCollection.addUser("bot", "12345", new UserSecurityAnswer("What is your age?", "21"));
         String input = "bot\n20\nN\n";
         Scanner scanner = new Scanner(new ByteArrayInputStream(input.getBytes()));
-        Route result = resetScreen.display(scanner, null);
+        Route result = resetScreen.display(scanner, (User) null);
         assertEquals(Route.PORTAL, result);
-        assertEquals("12345", userCollection.findUserByName("bot").getPassword());
+        assertTrue(userCollection.findUserByName("bot").verifyPassword("12345"));
     }
 
     @Test
@@ -65,9 +73,9 @@ class ResetScreenTest {
         userCollection.addUser("bot", "12345", new UserSecurityAnswer("What is your age?", "21"));
         String input = "bot\n21\nweakpass\nY\nStrongP@ss1\n";
         Scanner scanner = new Scanner(new ByteArrayInputStream(input.getBytes()));
-        Route result = resetScreen.display(scanner, null);
+        Route result = resetScreen.display(scanner, (User) null);
         assertEquals(Route.HOME, result);
-        assertEquals("StrongP@ss1", userCollection.findUserByName("bot").getPassword());
+        assertTrue(userCollection.findUserByName("bot").verifyPassword("StrongP@ss1"));
     }
 
     @Test
@@ -75,8 +83,22 @@ class ResetScreenTest {
         userCollection.addUser("bot", "12345", new UserSecurityAnswer("What is your age?", "21"));
         String input = "bot\n21\nweakpass\nN\n";
         Scanner scanner = new Scanner(new ByteArrayInputStream(input.getBytes()));
-        Route result = resetScreen.display(scanner, null);
+        Route result = resetScreen.display(scanner, (User) null);
+        assertEquals(Route.PORTAL, result);
+        assertTrue(userCollection.findUserByName("bot").verifyPassword("12345"));
+    }
+
+    @Test
+    void testDisplay_LockedOutAfterRepeatedWrongAnswers(){
+        userCollection.addUser("bot", "12345", new UserSecurityAnswer("What is your age?", "21"));
+        StringBuilder input = new StringBuilder("bot\n");
+        for (int i = 0; i < LoginThrottle.DEFAULT_FREE_FAILURES; i++) {
+            input.append("20\nY\n");
+        }
+        input.append("21\nStrongP@ss1\n");
+        Scanner scanner = new Scanner(new ByteArrayInputStream(input.toString().getBytes()));
+        Route result = resetScreen.display(scanner, (User) null);
         assertEquals(Route.PORTAL, result);
-        assertEquals("12345", userCollection.findUserByName("bot").getPassword());
+        assertTrue(userCollection.findUserByName("bot").verifyPassword("12345"));
     }
 }
\ No newline at end of file
@@ -0,0 +1,177 @@
+package Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import sportapp.Clock;
+import sportapp.Session;
+import sportapp.SessionContext;
+import sportapp.SessionManager;
+import sportapp.User;
+import sportapp.manager.ConfirmedBookManager;
+import sportapp.manager.ConfirmedBookingView;
+
+public class SessionManagerTest {
+	private Clock realClock;
+	private Clock clock;
+	private SessionManager sessionManager;
+	private User tom;
+
+	@BeforeEach
+	public void setUp() {
+		realClock = Clock.getInstance();
+		clock = Clock.simulated(LocalDateTime.of(2025, 11, 3, 9, 0), 0);
+		Clock.setInstance(clock);
+		sessionManager = new SessionManager(Duration.ofMinutes(30), Duration.ofHours(2));
+		tom = new User("Tom", 1, "1234", null);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		Clock.setInstance(realClock);
+	}
+
+	@Test
+	public void testOpenFindAndClose() {
+		Session session = sessionManager.open(tom);
+
+		assertSame(session, sessionManager.find(session.getToken()));
+		assertSame(tom, session.getUser());
+		assertNull(sessionManager.find("no-such-token"));
+		assertNull(sessionManager.find(null));
+
+		sessionManager.close(session.getToken());
+		assertNull(sessionManager.find(session.getToken()));
+		assertEquals(0, sessionManager.getSessionCount());
+		assertThrows(IllegalArgumentException.class, () -> sessionManager.open(null));
+	}
+
+	@Test
+	public void testIdleSessionExpires() {
+		Session session = sessionManager.open(tom);
+
+		clock.advance(Duration.ofMinutes(29));
+		assertEquals(0, sessionManager.evictExpired(clock.getDateTime()));
+		assertNotNull(sessionManager.find(session.getToken()));
+
+		// the access above moved the idle deadline to 9:59
+		clock.advance(Duration.ofMinutes(29));
+		assertEquals(0, sessionManager.evictExpired(clock.getDateTime()));
+		clock.advance(Duration.ofMinutes(1));
+		assertEquals(1, sessionManager.evictExpired(clock.getDateTime()));
+		assertNull(sessionManager.find(session.getToken()));
+	}
+
+	@Test
+	public void testBusySessionExpiresAtAbsoluteTimeout() {
+		Session session = sessionManager.open(tom);
+		for (int i = 0; i < 7; i++) {
+			clock.advance(Duration.ofMinutes(15));
+			assertNotNull(sessionManager.find(session.getToken()));
+		}
+
+		clock.advance(Duration.ofMinutes(15));
+		assertNull(sessionManager.find(session.getToken()));
+		assertEquals(0, sessionManager.getSessionCount());
+	}
+
+	@Test
+	public void testContextSignsInAndOut() {
+		SessionContext context = new SessionContext(sessionManager);
+		assertNull(context.getUser());
+
+		context.signIn(tom);
+		String first = context.getToken();
+		assertSame(tom, context.getUser());
+
+		context.signIn(tom);
+		assertNotEquals(first, context.getToken());
+		assertNull(sessionManager.find(first));
+		assertEquals(1, sessionManager.getSessionCount());
+
+		context.signOut();
+		assertNull(context.getUser());
+		assertEquals(0, sessionManager.getSessionCount());
+	}
+
+	@Test
+	public void testContextSignsOutWhenSessionExpires() {
+		SessionContext context = new SessionContext(sessionManager);
+		context.signIn(tom);
+
+		clock.advance(Duration.ofMinutes(31));
+		assertNull(context.getUser());
+		assertNull(context.getToken());
+	}
+
+	@Test
+	public void testBookingViewIsDroppedWhenLastSessionEnds() {
+		ConfirmedBookManager bookManager = ConfirmedBookManager.getInstance();
+		Session first = sessionManager.open(tom);
+		Session second = sessionManager.open(tom);
+		ConfirmedBookingView view = bookManager.getView(tom);
+
+		sessionManager.close(first.getToken());
+		assertSame(view, bookManager.getView(tom));
+		sessionManager.close(second.getToken());
+		assertNotSame(view, bookManager.getView(tom));
+
+		sessionManager.open(tom);
+		view = bookManager.getView(tom);
+		clock.advance(Duration.ofMinutes(31));
+		assertEquals(1, sessionManager.evictExpired(clock.getDateTime()));
+		assertNotSame(view, bookManager.getView(tom));
+		bookManager.closeUserCollection(tom);
+	}
+
+	/**
+	 * Opens sessions for many users from many threads, then lets half of them go idle.
+	 * Tokens must be unique and eviction must end exactly the idle half.
+	 */
+	@Test
+	public void testManyConcurrentSessions() throws Exception {
+		int users = 5000;
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		ArrayList<Future<Session>> futures = new ArrayList<>();
+		for (int i = 0; i < users; i++) {
+			User user = new User("user" + i, i, "1234", null);
+			futures.add(pool.submit(() -> sessionManager.open(user)));
+		}
+		ArrayList<Session> sessions = new ArrayList<>();
+		HashSet<String> tokens = new HashSet<>();
+		for (Future<Session> future : futures) {
+			Session session = future.get();
+			sessions.add(session);
+			tokens.add(session.getToken());
+		}
+		assertEquals(users, tokens.size());
+
+		clock.advance(Duration.ofMinutes(20));
+		ArrayList<Future<Session>> lookups = new ArrayList<>();
+		for (int i = 0; i < users; i += 2) {
+			String token = sessions.get(i).getToken();
+			lookups.add(pool.submit(() -> sessionManager.find(token)));
+		}
+		for (Future<Session> lookup : lookups) {
+			assertNotNull(lookup.get());
+		}
+		pool.shutdown();
+
+		clock.advance(Duration.ofMinutes(15));
+		assertEquals(users / 2, sessionManager.evictExpired(clock.getDateTime()));
+		assertEquals(users / 2, sessionManager.getSessionCount());
+		assertSame(sessions.get(0), sessionManager.find(sessions.get(0).getToken()));
+		assertNull(sessionManager.find(sessions.get(1).getToken()));
+	}
+}
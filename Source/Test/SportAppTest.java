@@ -1,7 +1,5 @@
 package Test;
 import sportapp.SportApp;
-import sportapp.User;
-import sportapp.UserSecurityAnswer;
 
 import java.io.*;
 import java.util.Scanner;
@@ -25,10 +23,10 @@ public class SportAppTest {
     }   
 
     @Test
-    void test_setAndGetCurrentUser(){
-        User user = new User("bot", 1, "123456", new UserSecurityAnswer("What is your age?", "21"));
-        SportApp.setCurrentUser(user);
-        assertEquals(user, SportApp.getCurrentUser());
+    void test_eachAppHasItsOwnSession(){
+        SportApp other = new SportApp(scanner);
+        assertNotSame(sportApp.getSession(), other.getSession());
+        assertNull(sportApp.getSession().getUser());
     }
 
     @Test
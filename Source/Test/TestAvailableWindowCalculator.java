@@ -0,0 +1,234 @@
+package Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import sportapp.EquipmentBookingControl;
+import sportapp.User;
+import sportapp.manager.AvailableWindowCalculator;
+import sportapp.manager.EquipmentBookManager;
+import sportapp.manager.EquipmentManager;
+import sportapp.model.BookingStatus;
+import sportapp.model.Equipment;
+import sportapp.model.EquipmentBookRecord;
+import sportapp.model.EquipmentCategory;
+import sportapp.model.EquipmentType;
+import sportapp.model.HourSlots;
+
+public class TestAvailableWindowCalculator {
+	private EquipmentBookManager ebm;
+	private EquipmentManager em;
+	private EquipmentBookingControl control;
+	private ArrayList<Equipment> added;
+	private User user;
+	private LocalDate date;
+
+	@BeforeEach
+	public void setUp() {
+		ebm = EquipmentBookManager.getInstance();
+		em = EquipmentManager.getInstance();
+		control = new EquipmentBookingControl();
+		ebm.reset();
+		added = new ArrayList<>();
+		user = new User("gapUser", 901, "pw", null);
+		date = LocalDate.now().plusDays(4);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		ebm.reset();
+		added.forEach(em::removeEquipment);
+	}
+
+	@Test
+	public void testSingleWindowWhenAllFree() {
+		int open = HourSlots.hourMask(9, 21);
+		ArrayList<int[]> windows = AvailableWindowCalculator.findWindows(new int[] {open, open}, 2);
+		assertEquals(1, windows.size());
+		assertArrayEquals(new int[] {9, 21}, windows.get(0));
+	}
+
+	@Test
+	public void testNotEnoughFreePiecesSplitsWindow() {
+		int first = HourSlots.hourMask(9, 21) & ~HourSlots.hourMask(12, 14);
+		int second = HourSlots.hourMask(9, 21);
+		ArrayList<int[]> windows = AvailableWindowCalculator.findWindows(new int[] {first, second}, 2);
+		assertEquals(2, windows.size());
+		assertArrayEquals(new int[] {9, 12}, windows.get(0));
+		assertArrayEquals(new int[] {14, 21}, windows.get(1));
+	}
+
+	@Test
+	public void testWindowEndsWhenTooFewPiecesStayFree() {
+		// each hour has two free pieces, but no two pieces are free from 9:00 to 12:00
+		int first = HourSlots.hourMask(9, 11);
+		int second = HourSlots.hourMask(9, 12);
+		int third = HourSlots.hourMask(9, 10) | HourSlots.hourMask(11, 12);
+		ArrayList<int[]> windows = AvailableWindowCalculator.findWindows(new int[] {first, second, third}, 2);
+		assertEquals(2, windows.size());
+		assertArrayEquals(new int[] {9, 11}, windows.get(0));
+		assertArrayEquals(new int[] {11, 12}, windows.get(1));
+	}
+
+	@Test
+	public void testOverlappingWindowsAreAllOffered() {
+		// two pieces are free from 9:00 to 11:00 and a different two from 10:00 to 12:00
+		int first = HourSlots.hourMask(9, 12);
+		int second = HourSlots.hourMask(9, 11);
+		int third = HourSlots.hourMask(10, 13);
+		ArrayList<int[]> windows = AvailableWindowCalculator.findWindows(new int[] {first, second, third}, 2);
+		assertEquals(2, windows.size());
+		assertArrayEquals(new int[] {9, 11}, windows.get(0));
+		assertArrayEquals(new int[] {10, 12}, windows.get(1));
+	}
+
+	@Test
+	public void testMatchesBruteForce() {
+		Random random = new Random(3343);
+		for (int round = 0; round < 300; round++) {
+			int[] freeHours = bookRandomDay(random, round);
+			int quantity = 1 + random.nextInt(freeHours.length);
+			assertWindows(bruteForceWindows(freeHours, quantity), quantity, round);
+		}
+	}
+
+	/**
+	 * Compares with the implementation this class replaced, on days where every piece is
+	 * asked for. Every hour of a window then has the same free pieces, which is the case the
+	 * old rule of extending while the free pieces of one hour contain the other's got right.
+	 */
+	@Test
+	public void testMatchesLegacyWhenEveryPieceIsNeeded() {
+		Random random = new Random(8841);
+		for (int round = 0; round < 300; round++) {
+			int[] freeHours = bookRandomDay(random, round);
+			assertWindows(legacyWindows(freeHours, freeHours.length), freeHours.length, round);
+		}
+	}
+
+	/**
+	 * Adds up to eight pieces of a new type and books random hours of them.
+	 * @return free hours of each piece, within opening hours
+	 */
+	private int[] bookRandomDay(Random random, int round) {
+		ebm.reset();
+		added.forEach(em::removeEquipment);
+		added.clear();
+
+		EquipmentType type = new EquipmentType("ET-GAP" + round, "Gap Racket", "GAP", "Badminton", 10);
+		type.setCategory(EquipmentCategory.BORROWABLE);
+		int pieces = 1 + random.nextInt(8);
+		for (int i = 1; i <= pieces; i++) {
+			Equipment piece = new Equipment(i, type);
+			added.add(piece);
+			em.addEquipment(piece);
+		}
+
+		int[] booked = new int[pieces];
+		int attempts = random.nextInt(12);
+		for (int a = 0; a < attempts; a++) {
+			int start = 9 + random.nextInt(12);
+			int end = start + 1 + random.nextInt(Math.min(4, 21 - start));
+			int slot = HourSlots.hourMask(start, end);
+			ArrayList<Equipment> chosen = new ArrayList<>();
+			int wanted = 1 + random.nextInt(Math.min(3, pieces));
+			for (int i = 0; i < pieces && chosen.size() < wanted; i++) {
+				int piece = (i + random.nextInt(pieces)) % pieces;
+				if ((booked[piece] & slot) == 0 && !chosen.contains(added.get(piece))) {
+					booked[piece] |= slot;
+					chosen.add(added.get(piece));
+				}
+			}
+			if (!chosen.isEmpty()) {
+				ebm.addBookRecord(new EquipmentBookRecord(chosen, user, date, start, end, BookingStatus.PENDING));
+			}
+		}
+
+		int[] freeHours = new int[pieces];
+		for (int i = 0; i < pieces; i++) {
+			freeHours[i] = HourSlots.hourMask(9, 21) & ~booked[i];
+		}
+		return freeHours;
+	}
+
+	private void assertWindows(ArrayList<int[]> expected, int quantity, int round) {
+		ArrayList<Equipment> request = new ArrayList<>(added.subList(0, quantity));
+		ArrayList<int[]> actual = control.calculateAvailableGapTimeSlot(request, date);
+		assertEquals(expected.size(), actual.size(), "round " + round);
+		for (int i = 0; i < expected.size(); i++) {
+			assertArrayEquals(expected.get(i), actual.get(i), "round " + round);
+		}
+	}
+
+	/**
+	 * Finds the windows by trying every hour range directly: a range is a window if enough
+	 * pieces are free throughout it, but not throughout the range an hour longer at either end.
+	 */
+	private ArrayList<int[]> bruteForceWindows(int[] freeHours, int quantity) {
+		ArrayList<int[]> windows = new ArrayList<>();
+		for (int start = 0; start < 24; start++) {
+			for (int end = start + 1; end <= 24; end++) {
+				if (countFreeThroughout(freeHours, start, end) >= quantity
+						&& (start == 0 || countFreeThroughout(freeHours, start - 1, end) < quantity)
+						&& (end == 24 || countFreeThroughout(freeHours, start, end + 1) < quantity)) {
+					windows.add(new int[] {start, end});
+				}
+			}
+		}
+		return windows;
+	}
+
+	private int countFreeThroughout(int[] freeHours, int start, int end) {
+		int slot = HourSlots.hourMask(start, end);
+		int count = 0;
+		for (int hours : freeHours) {
+			if ((hours & slot) == slot) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Finds the windows the way {@code calculateAvailableGapTimeSlot} did before this class:
+	 * hours with enough free pieces are joined while the free pieces of the hour contain, or
+	 * are contained in, those of the window's first hour.
+	 */
+	private ArrayList<int[]> legacyWindows(int[] freeHours, int quantity) {
+		ArrayList<int[]> windows = new ArrayList<>();
+		TreeMap<Integer, ArrayList<Integer>> freeByHour = new TreeMap<>();
+		for (int piece = 0; piece < freeHours.length; piece++) {
+			for (int hour = 0; hour < 24; hour++) {
+				if ((freeHours[piece] & (1 << hour)) != 0) {
+					freeByHour.computeIfAbsent(hour, key -> new ArrayList<>()).add(piece);
+				}
+			}
+		}
+		for (Map.Entry<Integer, ArrayList<Integer>> entry : freeByHour.entrySet()) {
+			int time = entry.getKey();
+			if (entry.getValue().size() < quantity) {
+				continue;
+			}
+			if (windows.isEmpty() || time - windows.get(windows.size() - 1)[1] >= 1) {
+				windows.add(new int[] {time, time + 1});
+				continue;
+			}
+			int[] last = windows.get(windows.size() - 1);
+			if (entry.getValue().containsAll(freeByHour.get(last[0])) || freeByHour.get(last[0]).containsAll(entry.getValue())) {
+				last[1] = time + 1;
+			} else {
+				windows.add(new int[] {time, time + 1});
+			}
+		}
+		return windows;
+	}
+}
@@ -0,0 +1,89 @@
+package Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import sportapp.User;
+import sportapp.manager.BookRecordTimeline;
+import sportapp.model.BookingStatus;
+import sportapp.model.FacilityBookRecord;
+import sportapp.model.SportFacility;
+import sportapp.model.SportFacilityType;
+
+public class TestBookRecordTimeline {
+	private BookRecordTimeline<FacilityBookRecord> timeline;
+	private SportFacility court;
+	private User user;
+	private LocalDate date;
+
+	@BeforeEach
+	public void setUp() {
+		timeline = new BookRecordTimeline<>();
+		court = new SportFacility("Court 1", new SportFacilityType("Court", "Badminton", 20), SportFacility.Status.AVAILABLE);
+		user = new User("alice", 1, "pw", null);
+		date = LocalDate.of(2025, 10, 20);
+	}
+
+	private FacilityBookRecord createBooking(LocalDate day, int start) {
+		return new FacilityBookRecord(court, user, day, start, start + 1, BookingStatus.PENDING);
+	}
+
+	@Test
+	public void testOrderedIteration() {
+		FacilityBookRecord late = createBooking(date.plusDays(1), 9);
+		FacilityBookRecord noon = createBooking(date, 12);
+		FacilityBookRecord morning = createBooking(date, 9);
+		timeline.add(late);
+		timeline.add(noon);
+		timeline.add(morning);
+
+		ArrayList<FacilityBookRecord> ordered = new ArrayList<>();
+		timeline.forEach(ordered::add);
+		assertEquals(3, timeline.size());
+		assertSame(morning, ordered.get(0));
+		assertSame(noon, ordered.get(1));
+		assertSame(late, ordered.get(2));
+		assertSame(noon, timeline.toList().get(1));
+	}
+
+	@Test
+	public void testDuplicateAndRemove() {
+		FacilityBookRecord record = createBooking(date, 10);
+		assertTrue(timeline.add(record));
+		assertFalse(timeline.add(record));
+		assertTrue(timeline.contains(record));
+		assertTrue(timeline.remove(record));
+		assertFalse(timeline.remove(record));
+		assertEquals(0, timeline.size());
+	}
+
+	@Test
+	public void testRepositionAfterChange() {
+		FacilityBookRecord first = createBooking(date, 9);
+		FacilityBookRecord second = createBooking(date, 12);
+		timeline.add(first);
+		timeline.add(second);
+
+		first.setStartHour(15);
+		timeline.repositionAll();
+		assertSame(second, timeline.toList().get(0));
+		assertSame(first, timeline.toList().get(1));
+		assertTrue(timeline.remove(first));
+	}
+
+	@Test
+	public void testGetRange() {
+		timeline.add(createBooking(date.minusDays(1), 20));
+		timeline.add(createBooking(date, 9));
+		timeline.add(createBooking(date.plusDays(1), 20));
+		timeline.add(createBooking(date.plusDays(2), 9));
+
+		assertEquals(2, timeline.getRange(date, date.plusDays(1)).size());
+		assertTrue(timeline.getRange(date.plusDays(1), date).isEmpty());
+	}
+}
@@ -0,0 +1,88 @@
+package Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import sportapp.User;
+import sportapp.manager.BookingExpiryQueue;
+import sportapp.manager.FacilityBookManager;
+import sportapp.model.BookingStatus;
+import sportapp.model.FacilityBookRecord;
+import sportapp.model.SportFacility;
+import sportapp.model.SportFacilityType;
+
+public class TestBookingExpiryQueue {
+	private BookingExpiryQueue<FacilityBookRecord> queue;
+	private SportFacility court;
+	private User user;
+	private LocalDate date;
+
+	@BeforeEach
+	public void setUp() {
+		queue = new BookingExpiryQueue<>();
+		court = new SportFacility("Court 1", new SportFacilityType("Court", "Badminton", 20), SportFacility.Status.AVAILABLE);
+		user = new User("alice", 1, "pw", null);
+		date = LocalDate.of(2025, 10, 20);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		FacilityBookManager.getInstance().reset();
+	}
+
+	@Test
+	public void testPollOnlyEndedBookings() {
+		FacilityBookRecord today = new FacilityBookRecord(court, user, date, 10, 12, BookingStatus.CONFIRMED);
+		FacilityBookRecord tomorrow = new FacilityBookRecord(court, user, date.plusDays(1), 9, 10, BookingStatus.CONFIRMED);
+		queue.schedule(tomorrow);
+		queue.schedule(today);
+
+		// a later date with an earlier end hour must not end yet
+		assertTrue(queue.pollExpired(date.atTime(11, 0)).isEmpty());
+		ArrayList<FacilityBookRecord> ended = queue.pollExpired(date.atTime(12, 0));
+		assertEquals(1, ended.size());
+		assertSame(today, ended.get(0));
+		assertEquals(1, queue.size());
+		assertSame(tomorrow, queue.pollExpired(date.plusDays(1).atTime(10, 0)).get(0));
+		assertEquals(0, queue.size());
+	}
+
+	@Test
+	public void testCancelAndReschedule() {
+		FacilityBookRecord cancelled = new FacilityBookRecord(court, user, date, 10, 12, BookingStatus.CONFIRMED);
+		FacilityBookRecord moved = new FacilityBookRecord(court, user, date, 13, 14, BookingStatus.CONFIRMED);
+		queue.schedule(cancelled);
+		queue.schedule(moved);
+		queue.cancel(cancelled);
+		moved.setDate(date.plusDays(2));
+
+		LocalDateTime endOfDay = date.atTime(23, 0);
+		assertTrue(queue.pollExpired(endOfDay).isEmpty());
+		assertEquals(1, queue.size());
+		assertSame(moved, queue.pollExpired(date.plusDays(2).atTime(14, 0)).get(0));
+	}
+
+	@Test
+	public void testManagerExpireEndedBookings() {
+		FacilityBookManager manager = FacilityBookManager.getInstance();
+		FacilityBookRecord ended = new FacilityBookRecord(court, user, date, 10, 12, BookingStatus.CONFIRMED);
+		FacilityBookRecord upcoming = new FacilityBookRecord(court, user, date.plusDays(1), 10, 12, BookingStatus.CONFIRMED);
+		manager.addBooking(ended);
+		manager.addBooking(upcoming);
+
+		assertEquals(1, manager.expireEndedBookings(date.atTime(13, 0)).size());
+		assertEquals(BookingStatus.ENDED, ended.getStatus());
+		assertEquals(BookingStatus.CONFIRMED, upcoming.getStatus());
+
+		manager.updateBookingDateTime(upcoming, date, 9, 10);
+		assertEquals(1, manager.expireEndedBookings(date.atTime(13, 0)).size());
+		assertEquals(BookingStatus.ENDED, upcoming.getStatus());
+	}
+}
@@ -0,0 +1,261 @@
+package Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import sportapp.GoldMemberShip;
+import sportapp.PasswordHasher;
+import sportapp.User;
+import sportapp.UserCollection;
+import sportapp.UserSecurityAnswer;
+import sportapp.manager.ChangeJournal;
+import sportapp.manager.EquipmentBookManager;
+import sportapp.manager.EquipmentManager;
+import sportapp.manager.FacilityBookManager;
+import sportapp.manager.SportFacilityManager;
+import sportapp.model.BookRecord;
+import sportapp.model.BookingStatus;
+import sportapp.model.BookingStatusListener;
+import sportapp.model.Equipment;
+import sportapp.model.EquipmentBookRecord;
+import sportapp.model.EquipmentCategory;
+import sportapp.model.EquipmentType;
+import sportapp.model.FacilityBookRecord;
+import sportapp.model.HourSlots;
+import sportapp.model.SportFacility;
+import sportapp.model.SportFacilityType;
+import sportapp.persistence.BookingLog;
+import sportapp.persistence.WriteAheadLog;
+
+public class TestBookingLog {
+	@TempDir
+	Path tempDir;
+
+	private FacilityBookManager fbm;
+	private EquipmentBookManager ebm;
+	private SportFacility court;
+	private Equipment ball;
+	private LocalDate date;
+
+	@BeforeEach
+	public void setUp() {
+		fbm = FacilityBookManager.getInstance();
+		ebm = EquipmentBookManager.getInstance();
+		fbm.reset();
+		ebm.reset();
+		court = new SportFacility("WAL-Court", new SportFacilityType("SFT-WAL", "Badminton", 20), SportFacility.Status.AVAILABLE);
+		EquipmentType ballType = new EquipmentType("ET-WAL", "Log Ball", "WALB", "Basketball", 15);
+		ballType.setCategory(EquipmentCategory.BORROWABLE);
+		ball = new Equipment(1, ballType);
+		SportFacilityManager.getInstance().addSportFacility(court);
+		EquipmentManager.getInstance().addEquipment(ball);
+		date = LocalDate.now().plusDays(3);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		fbm.reset();
+		ebm.reset();
+		SportFacilityManager.getInstance().getSportFacilities().remove(court);
+		EquipmentManager.getInstance().removeEquipment(ball);
+		UserCollection.getInstance().removeUserByName("walUser");
+	}
+
+	@Test
+	public void testReplayRestoresChanges() throws IOException {
+		Path path = tempDir.resolve("bookings.wal");
+		BookingLog log = BookingLog.open(path);
+		log.attach();
+
+		User user = UserCollection.getInstance().addUser("walUser", "Passw0rd!", new UserSecurityAnswer("Pet?", "Cat"));
+		FacilityBookRecord kept = fbm.tryReserve(court, date, 10, 12, user).getBookRecord();
+		kept.setStatus(BookingStatus.CONFIRMED);
+		FacilityBookRecord cancelled = fbm.tryReserve(court, date, 14, 15, user).getBookRecord();
+		fbm.removeBooking(cancelled);
+		EquipmentBookRecord equipment = new EquipmentBookRecord(ball, user, date, 10, 12, BookingStatus.PENDING, 1);
+		ebm.addBookRecord(equipment);
+		ebm.updateBookingDateTime(equipment, date.plusDays(1), 16, 18);
+		log.close();
+
+		fbm.reset();
+		ebm.reset();
+		UserCollection.getInstance().removeUserByName("walUser");
+
+		BookingLog reopened = BookingLog.open(path);
+		assertEquals(7, reopened.replay());
+		assertEquals(0, reopened.getSkippedCount());
+		reopened.close();
+
+		User restoredUser = UserCollection.getInstance().findUserByName("walUser");
+		assertNotNull(restoredUser);
+		assertTrue(restoredUser.verifySercurityAnswer("Cat"));
+
+		assertEquals(1, fbm.getBookingRecords().size());
+		FacilityBookRecord restored = fbm.getBookingRecords().get(0);
+		assertEquals(kept.getBookingId(), restored.getBookingId());
+		assertSame(court, restored.getSportFacility());
+		assertSame(restoredUser, restored.getUser());
+		assertEquals(BookingStatus.CONFIRMED, restored.getStatus());
+		assertEquals(kept.getCreatedAt(), restored.getCreatedAt());
+		assertEquals(HourSlots.hourMask(10, 12), fbm.getOccupiedHours(court, date));
+
+		assertEquals(1, ebm.getBookRecords().size());
+		EquipmentBookRecord restoredEquipment = ebm.getBookRecords().get(0);
+		assertEquals(date.plusDays(1), restoredEquipment.getDate());
+		assertEquals(16, restoredEquipment.getStartHour());
+		assertSame(ball, restoredEquipment.getBookingEquipment().get(0));
+	}
+
+	@Test
+	public void testReplayRestoresCredentialAndMembershipChanges() throws IOException {
+		Path path = tempDir.resolve("users.wal");
+		BookingLog log = BookingLog.open(path);
+		log.attach();
+
+		User user = UserCollection.getInstance().addUser("walUser", "Passw0rd!", new UserSecurityAnswer("Pet?", "Cat"));
+		user.setPassword("N3w#Passw0rd");
+		user.upgradeToGold();
+		int iterations = PasswordHasher.getIterations();
+		PasswordHasher.setIterations(iterations * 2);
+		try {
+			assertTrue(user.verifyPassword("N3w#Passw0rd"));
+		} finally {
+			PasswordHasher.setIterations(iterations);
+		}
+		// users outside the collection are not journaled
+		new User("walGuest", 9999, "pw", null).upgradeToPlatinum();
+		log.close();
+
+		UserCollection.getInstance().removeUserByName("walUser");
+
+		BookingLog reopened = BookingLog.open(path);
+		assertEquals(4, reopened.replay());
+		assertEquals(0, reopened.getSkippedCount());
+		reopened.close();
+
+		User restoredUser = UserCollection.getInstance().findUserByName("walUser");
+		assertNotSame(user, restoredUser);
+		assertEquals(user.getPassword(), restoredUser.getPassword());
+		assertTrue(restoredUser.verifyPassword("N3w#Passw0rd"));
+		assertFalse(restoredUser.verifyPassword("Passw0rd!"));
+		assertTrue(restoredUser.getMembership() instanceof GoldMemberShip);
+	}
+
+	@Test
+	public void testConcurrentAppendsKeepEveryEntry() throws Exception {
+		Path path = tempDir.resolve("group.wal");
+		WriteAheadLog wal = new WriteAheadLog(path);
+		int threads = 8;
+		int appendsPerThread = 50;
+		List<Thread> workers = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			Thread worker = new Thread(() -> {
+				for (int i = 0; i < appendsPerThread; i++) {
+					try {
+						wal.append(new byte[] {1, 2, 3});
+					} catch (IOException e) {
+						throw new RuntimeException(e);
+					}
+				}
+			});
+			workers.add(worker);
+			worker.start();
+		}
+		for (Thread worker : workers) {
+			worker.join();
+		}
+		wal.close();
+
+		assertEquals(threads * appendsPerThread, wal.getAppendCount());
+		assertEquals(threads * appendsPerThread, WriteAheadLog.readEntries(path).size());
+	}
+
+	@Test
+	public void testEnqueuedBurstSharesSyncs() throws IOException {
+		Path path = tempDir.resolve("burst.wal");
+		WriteAheadLog wal = new WriteAheadLog(path);
+		int entries = 500;
+		long last = 0;
+		for (int i = 0; i < entries; i++) {
+			last = wal.enqueue(new byte[] {1, 2, 3});
+		}
+		wal.awaitDurable(last);
+		wal.close();
+
+		assertEquals(entries, wal.getAppendCount());
+		assertTrue(wal.getSyncCount() < wal.getAppendCount(), () -> wal.getSyncCount() + " syncs for " + entries + " entries");
+		assertEquals(entries, WriteAheadLog.readEntries(path).size());
+	}
+
+	@Test
+	public void testStatusChangeWaitsForDiskAfterUnlock() {
+		User user = new User("walLockUser", 8801, "pw", null);
+		FacilityBookRecord record = fbm.tryReserve(court, date, 10, 12, user).getBookRecord();
+		List<Boolean> lockedWhileWaiting = new ArrayList<>();
+		fbm.setJournal(new ChangeJournal() {
+			@Override
+			public void awaitDurable() {
+				lockedWhileWaiting.add(Thread.holdsLock(record));
+			}
+		});
+		try {
+			assertTrue(record.compareAndSetStatus(BookingStatus.PENDING, BookingStatus.CONFIRMED));
+			record.setStatus(BookingStatus.ENDED);
+		} finally {
+			fbm.setJournal(null);
+		}
+
+		assertEquals(List.of(false, false), lockedWhileWaiting);
+	}
+
+	@Test
+	public void testLogFailureStillNotifiesListeners() throws IOException {
+		BookingLog log = BookingLog.open(tempDir.resolve("failed.wal"));
+		log.attach();
+		User user = new User("walFailUser", 8802, "pw", null);
+		FacilityBookRecord record = fbm.tryReserve(court, date, 10, 12, user).getBookRecord();
+		List<BookingStatus> notified = new ArrayList<>();
+		BookingStatusListener listener = (BookRecord changed, BookingStatus oldStatus, BookingStatus newStatus) -> notified.add(newStatus);
+		fbm.addStatusListener(listener);
+		log.getWriteAheadLog().close();
+		try {
+			assertThrows(UncheckedIOException.class, () -> record.setStatus(BookingStatus.CONFIRMED));
+		} finally {
+			fbm.removeStatusListener(listener);
+			log.close();
+		}
+
+		assertEquals(List.of(BookingStatus.CONFIRMED), notified);
+		assertTrue(fbm.getUserBookingRecords(user, BookingStatus.CONFIRMED).contains(record));
+	}
+
+	@Test
+	public void testTornTailIsDropped() throws IOException {
+		Path path = tempDir.resolve("torn.wal");
+		WriteAheadLog wal = new WriteAheadLog(path);
+		wal.append(new byte[] {1});
+		wal.append(new byte[] {2});
+		wal.close();
+		Files.write(path, new byte[] {0, 0, 0, 9, 1, 2}, StandardOpenOption.APPEND);
+
+		assertEquals(2, WriteAheadLog.readEntries(path).size());
+		WriteAheadLog reopened = new WriteAheadLog(path);
+		reopened.append(new byte[] {3});
+		reopened.close();
+		assertEquals(3, WriteAheadLog.readEntries(path).size());
+	}
+
+}
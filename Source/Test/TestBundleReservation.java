@@ -0,0 +1,215 @@
+package Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import sportapp.User;
+import sportapp.manager.BundleReservationManager;
+import sportapp.manager.EquipmentBookManager;
+import sportapp.manager.EquipmentManager;
+import sportapp.manager.EquipmentTypeManager;
+import sportapp.manager.FacilityBookManager;
+import sportapp.manager.SportFacilityManager;
+import sportapp.manager.StockLedger;
+import sportapp.model.BookingStatus;
+import sportapp.model.BundleReservationResult;
+import sportapp.model.Equipment;
+import sportapp.model.EquipmentBookRecord;
+import sportapp.model.EquipmentCategory;
+import sportapp.model.EquipmentType;
+import sportapp.model.FacilityBookRecord;
+import sportapp.model.ReservationResult;
+import sportapp.model.SportFacility;
+import sportapp.model.SportFacilityType;
+
+public class TestBundleReservation {
+	private BundleReservationManager bundles;
+	private FacilityBookManager fbm;
+	private EquipmentBookManager ebm;
+	private SportFacility court;
+	private EquipmentType racketType;
+	private EquipmentType shuttleType;
+	private ArrayList<Equipment> rackets;
+	private Equipment shuttles;
+	private User user;
+	private LocalDate date;
+
+	@BeforeEach
+	public void setUp() {
+		bundles = BundleReservationManager.getInstance();
+		fbm = FacilityBookManager.getInstance();
+		ebm = EquipmentBookManager.getInstance();
+		fbm.reset();
+		ebm.reset();
+
+		court = new SportFacility("Bundle-Court", new SportFacilityType("SFT-BNDL", "Badminton", 20), SportFacility.Status.AVAILABLE);
+		SportFacilityManager.getInstance().addSportFacility(court);
+		racketType = new EquipmentType("ET-BNDR", "Bundle Racket", "BNDR", "Badminton", 10);
+		shuttleType = new EquipmentType("ET-BNDS", "Bundle Shuttle", "BNDS", "Badminton", 5);
+		EquipmentTypeManager.getInstance().addBorrowableType(racketType);
+		EquipmentTypeManager.getInstance().addSellableType(shuttleType);
+		rackets = new ArrayList<>();
+		for (int i = 1; i <= 2; i++) {
+			Equipment racket = new Equipment(i, racketType);
+			rackets.add(racket);
+			EquipmentManager.getInstance().addEquipment(racket);
+		}
+		shuttles = new Equipment(1, shuttleType);
+		EquipmentManager.getInstance().addEquipment(shuttles);
+		StockLedger.getInstance().setStock(shuttleType, 3);
+
+		user = new User("bundleUser", 1, "pw", null);
+		date = LocalDate.now().plusDays(2);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		fbm.reset();
+		ebm.reset();
+		SportFacilityManager.getInstance().getSportFacilities().remove(court);
+		rackets.forEach(EquipmentManager.getInstance()::removeEquipment);
+		EquipmentManager.getInstance().removeEquipment(shuttles);
+		EquipmentTypeManager.getInstance().removeBorrowableType(racketType);
+		EquipmentTypeManager.getInstance().removeSellableType(shuttleType);
+		StockLedger.getInstance().reset();
+	}
+
+	private Map<EquipmentType, Integer> items(int racketCount, int shuttleCount) {
+		Map<EquipmentType, Integer> items = new LinkedHashMap<>();
+		items.put(racketType, racketCount);
+		items.put(shuttleType, shuttleCount);
+		return items;
+	}
+
+	@Test
+	public void testBundleReservesEverything() {
+		BundleReservationResult result = bundles.tryReserve(court, date, 10, 12, user, items(2, 3));
+
+		assertTrue(result.isReserved());
+		assertSame(court, result.getFacilityRecord().getSportFacility());
+		assertEquals(2, result.getEquipmentRecords().size());
+		assertEquals(rackets, result.getEquipmentRecords().get(0).getBookingEquipment());
+		assertEquals(3, result.getEquipmentRecords().get(1).getQuantity());
+		assertEquals(1, fbm.getBookingRecords().size());
+		assertEquals(2, ebm.getBookRecords().size());
+		assertEquals(0, StockLedger.getInstance().getAvailable(shuttleType));
+	}
+
+	@Test
+	public void testTakenCourtReservesNothing() {
+		fbm.tryReserve(court, date, 11, 13, user);
+
+		BundleReservationResult result = bundles.tryReserve(court, date, 10, 12, user, items(1, 1));
+
+		assertEquals(ReservationResult.Outcome.CONFLICT, result.getOutcome());
+		assertNull(result.getFacilityRecord());
+		assertNull(result.getFailedType());
+		assertEquals(1, result.getConflicts().size());
+		assertTrue(ebm.getBookRecords().isEmpty());
+		assertEquals(3, StockLedger.getInstance().getAvailable(shuttleType));
+	}
+
+	@Test
+	public void testTakenRacketsRollBackCourt() {
+		FacilityBookRecord other = fbm.tryReserve(court, date, 14, 16, user).getBookRecord();
+		ebm.tryReserve(racketType, other, 1, user);
+		FacilityBookRecord overlapping = new FacilityBookRecord(court, user, date, 11, 12, BookingStatus.PENDING);
+		EquipmentBookRecord borrowed = ebm.tryReserve(racketType, overlapping, 1, user).getBookRecord();
+
+		BundleReservationResult result = bundles.tryReserve(court, date, 10, 12, user, items(2, 1));
+
+		assertEquals(ReservationResult.Outcome.CONFLICT, result.getOutcome());
+		assertSame(racketType, result.getFailedType());
+		assertEquals(1, result.getConflicts().size());
+		assertSame(borrowed, result.getConflicts().get(0));
+		assertEquals(1, fbm.getBookingRecords().size());
+		assertEquals(2, ebm.getBookRecords().size());
+		assertEquals(3, StockLedger.getInstance().getAvailable(shuttleType));
+	}
+
+	@Test
+	public void testMissingStockRollsBackCourtAndRackets() {
+		BundleReservationResult result = bundles.tryReserve(court, date, 10, 12, user, items(2, 4));
+
+		assertEquals(ReservationResult.Outcome.UNAVAILABLE, result.getOutcome());
+		assertSame(shuttleType, result.getFailedType());
+		assertTrue(result.getEquipmentRecords().isEmpty());
+		assertTrue(fbm.getBookingRecords().isEmpty());
+		assertTrue(ebm.getBookRecords().isEmpty());
+		assertEquals(0, ebm.getBookedHours(rackets.get(0), date));
+		assertEquals(3, StockLedger.getInstance().getAvailable(shuttleType));
+		assertEquals(0, StockLedger.getInstance().getReserved(shuttleType));
+	}
+
+	@Test
+	public void testFailingStepRollsBackEverything() {
+		// a type without an ID makes the equipment step throw after the rackets are held
+		EquipmentType broken = new EquipmentType(null, "Broken", "BRK", "Badminton", 1);
+		broken.setCategory(EquipmentCategory.BORROWABLE);
+		Map<EquipmentType, Integer> items = items(2, 1);
+		items.put(broken, 1);
+
+		assertThrows(NullPointerException.class, () -> bundles.tryReserve(court, date, 10, 12, user, items));
+
+		assertTrue(fbm.getBookingRecords().isEmpty());
+		assertTrue(ebm.getBookRecords().isEmpty());
+		assertEquals(0, ebm.getBookedHours(rackets.get(0), date));
+		assertEquals(3, StockLedger.getInstance().getAvailable(shuttleType));
+		assertEquals(0, StockLedger.getInstance().getReserved(shuttleType));
+	}
+
+	@Test
+	public void testInvalidItems() {
+		assertThrows(IllegalArgumentException.class, () -> bundles.tryReserve(court, date, 10, 12, user, null));
+		assertThrows(IllegalArgumentException.class, () -> bundles.tryReserve(court, date, 10, 12, user, items(0, 1)));
+		assertTrue(fbm.getBookingRecords().isEmpty());
+	}
+
+	@Test
+	public void testConcurrentBundlesLeaveNoOrphans() throws Exception {
+		int threads = 8;
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		ArrayList<Future<BundleReservationResult>> futures = new ArrayList<>();
+		for (int i = 0; i < threads; i++) {
+			// every bundle asks for a different hour of the court but all of the rackets
+			int hour = 9 + i;
+			futures.add(pool.submit(() -> {
+				start.await();
+				return bundles.tryReserve(court, date, hour, hour + 2, user, items(2, 1));
+			}));
+		}
+		start.countDown();
+		int reserved = 0;
+		for (Future<BundleReservationResult> future : futures) {
+			if (future.get().isReserved()) {
+				reserved++;
+			}
+		}
+		pool.shutdown();
+
+		assertTrue(reserved >= 1);
+		assertEquals(reserved, fbm.getBookingRecords().size());
+		assertEquals(reserved * 2, ebm.getBookRecords().size());
+		assertEquals(3 - reserved, StockLedger.getInstance().getAvailable(shuttleType));
+		for (FacilityBookRecord record : fbm.getBookingRecords()) {
+			for (FacilityBookRecord otherRecord : fbm.getBookingRecords()) {
+				if (record != otherRecord) {
+					assertTrue(record.getEndHour() <= otherRecord.getStartHour() || otherRecord.getEndHour() <= record.getStartHour());
+				}
+			}
+		}
+	}
+}
@@ -2,21 +2,39 @@ package Test;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.temporal.ChronoUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import sportapp.Clock;
+import sportapp.User;
+import sportapp.manager.FacilityBookManager;
+import sportapp.manager.SportFacilityManager;
+import sportapp.model.BookingStatus;
+import sportapp.model.FacilityBookRecord;
+import sportapp.model.SportFacility;
+import sportapp.model.SportFacilityType;
 
 class TestClock {
 	private Clock testClock;
+	private Clock realClock;
 	
 	@BeforeEach
 	public void setUp() {
 		testClock = Clock.getInstance();
+		realClock = testClock;
+	}
+
+	@AfterEach
+	public void tearDown() {
+		Clock.setInstance(realClock);
 	}
 
 	@Test
@@ -36,4 +54,108 @@ class TestClock {
 		int currentHour = LocalTime.now().getHour();
 		assertEquals(currentHour, testClock.getHour());
 	}
+
+	@Test
+	public void testSimulatedClockStandsStillUntilAdvanced() {
+		LocalDateTime start = LocalDateTime.of(2030, 1, 7, 8, 30);
+		Clock clock = Clock.simulated(start, 0);
+		assertTrue(clock.isSimulated());
+		assertEquals(start, clock.getDateTime());
+
+		clock.advance(Duration.ofHours(2));
+		assertEquals(start.plusHours(2), clock.getDateTime());
+		assertEquals(10, clock.getHour());
+		assertEquals(LocalDate.of(2030, 1, 7), clock.getToday());
+
+		assertThrows(IllegalArgumentException.class, () -> clock.advance(Duration.ofMinutes(-1)));
+		assertThrows(IllegalStateException.class, () -> Clock.realTime().advance(Duration.ofMinutes(1)));
+		assertThrows(IllegalArgumentException.class, () -> Clock.simulated(start, -1));
+	}
+
+	@Test
+	public void testAcceleratedClockRunsFaster() throws InterruptedException {
+		LocalDateTime start = LocalDateTime.of(2030, 1, 7, 8, 0);
+		Clock clock = Clock.simulated(start, 3600);
+		Thread.sleep(50);
+		assertTrue(Duration.between(start, clock.getDateTime()).getSeconds() >= 150);
+	}
+
+	@Test
+	public void testAdvanceRunsMissedJobsOnce() {
+		Clock clock = Clock.simulated(LocalDateTime.of(2030, 1, 7, 8, 0), 0);
+		AtomicInteger runs = new AtomicInteger();
+		clock.scheduleAtFixedRate(runs::incrementAndGet, LocalDateTime.of(2030, 1, 7, 9, 0), Duration.ofHours(1));
+
+		clock.advance(Duration.ofMinutes(59));
+		assertEquals(0, runs.get());
+		clock.advance(Duration.ofMinutes(1));
+		assertEquals(1, runs.get());
+		clock.advance(Duration.ofHours(5));
+		assertEquals(2, runs.get());
+		clock.advance(Duration.ofMinutes(30));
+		assertEquals(2, runs.get());
+		clock.advance(Duration.ofMinutes(30));
+		assertEquals(3, runs.get());
+	}
+
+	/**
+	 * Advances a simulated clock that is not in use past the end of a pending booking. The
+	 * application jobs must not run on it, so the booking is neither released nor ended.
+	 */
+	@Test
+	public void testUninstalledClockLeavesManagersAlone() {
+		FacilityBookManager fbm = FacilityBookManager.getInstance();
+		fbm.reset();
+		SportFacility court = new SportFacility("Idle-Clock-Court", new SportFacilityType("SFT-ICL", "Badminton", 20), SportFacility.Status.AVAILABLE);
+		SportFacilityManager.getInstance().addSportFacility(court);
+		User user = new User("idleClockUser", 1, "pw", null);
+		try {
+			FacilityBookRecord record = fbm.tryReserve(court, Clock.getInstance().getToday().plusDays(1), 10, 12, user).getBookRecord();
+			Clock clock = Clock.simulated(Clock.getInstance().getDateTime().plusYears(5), 0);
+			clock.advance(Duration.ofDays(2));
+
+			assertSame(realClock, Clock.getInstance());
+			assertTrue(fbm.getBookingRecords().contains(record));
+			assertEquals(BookingStatus.PENDING, record.getStatus());
+		} finally {
+			fbm.reset();
+			SportFacilityManager.getInstance().getSportFacilities().remove(court);
+		}
+	}
+
+	/**
+	 * Replays a simulated week: every day one booking is paid and one is left pending. The
+	 * clock jobs must release the unpaid holds and end the paid bookings as the week passes.
+	 */
+	@Test
+	public void testSimulatedWeekOfBookings() {
+		LocalDateTime start = LocalDateTime.of(2030, 1, 7, 8, 0);
+		Clock clock = Clock.simulated(start, 0);
+		Clock.setInstance(clock);
+		FacilityBookManager fbm = FacilityBookManager.getInstance();
+		fbm.reset();
+		SportFacility court = new SportFacility("Clock-Court", new SportFacilityType("SFT-CLK", "Badminton", 20), SportFacility.Status.AVAILABLE);
+		SportFacilityManager.getInstance().addSportFacility(court);
+		User user = new User("clockUser", 1, "pw", null);
+		try {
+			for (int day = 0; day < 7; day++) {
+				LocalDate date = start.toLocalDate().plusDays(day);
+				FacilityBookRecord paid = fbm.tryReserve(court, date, 10, 12, user).getBookRecord();
+				FacilityBookRecord unpaid = fbm.tryReserve(court, date, 14, 15, user).getBookRecord();
+				paid.setStatus(BookingStatus.CONFIRMED);
+
+				clock.advance(Duration.ofHours(1));
+				assertFalse(fbm.getBookingRecords().contains(unpaid), "Unpaid hold kept on day " + day);
+				assertEquals(BookingStatus.CONFIRMED, paid.getStatus());
+
+				clock.advance(Duration.ofHours(23));
+				assertEquals(BookingStatus.ENDED, paid.getStatus(), "Booking not ended on day " + day);
+			}
+			assertEquals(7, fbm.getBookingRecords().size());
+			assertEquals(start.plusDays(7), clock.getDateTime());
+		} finally {
+			fbm.reset();
+			SportFacilityManager.getInstance().getSportFacilities().remove(court);
+		}
+	}
 }
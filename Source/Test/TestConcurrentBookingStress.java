@@ -0,0 +1,292 @@
+package Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import sportapp.EquipmentBookingControl;
+import sportapp.FacilityBookingControl;
+import sportapp.User;
+import sportapp.manager.EquipmentBookManager;
+import sportapp.manager.EquipmentManager;
+import sportapp.manager.EquipmentTypeManager;
+import sportapp.manager.FacilityBookManager;
+import sportapp.manager.SportFacilityManager;
+import sportapp.model.BookingStatus;
+import sportapp.model.Equipment;
+import sportapp.model.EquipmentBookRecord;
+import sportapp.model.EquipmentType;
+import sportapp.model.FacilityBookRecord;
+import sportapp.model.ReservationResult;
+import sportapp.model.SportFacility;
+import sportapp.model.SportFacilityType;
+
+public class TestConcurrentBookingStress {
+	private static final int THREADS = 32;
+	private static final int OPERATIONS = 400;
+	private static final int RACES = 5000;
+
+	private FacilityBookManager fbm;
+	private EquipmentBookManager ebm;
+	private ArrayList<SportFacility> courts;
+	private EquipmentType racketType;
+	private ArrayList<Equipment> rackets;
+	private LocalDate[] dates;
+
+	@BeforeEach
+	public void setUp() {
+		fbm = FacilityBookManager.getInstance();
+		ebm = EquipmentBookManager.getInstance();
+		fbm.reset();
+		ebm.reset();
+
+		courts = new ArrayList<>();
+		SportFacilityType courtType = new SportFacilityType("SFT-STRS", "Badminton", 20);
+		for (int i = 1; i <= 3; i++) {
+			SportFacility court = new SportFacility("Stress-Court-" + i, courtType, SportFacility.Status.AVAILABLE);
+			courts.add(court);
+			SportFacilityManager.getInstance().addSportFacility(court);
+		}
+		racketType = new EquipmentType("ET-STRS", "Stress Racket", "STRR", "Badminton", 10);
+		EquipmentTypeManager.getInstance().addBorrowableType(racketType);
+		rackets = new ArrayList<>();
+		for (int i = 1; i <= 6; i++) {
+			Equipment racket = new Equipment(i, racketType);
+			rackets.add(racket);
+			EquipmentManager.getInstance().addEquipment(racket);
+		}
+		dates = new LocalDate[] {LocalDate.now().plusDays(5), LocalDate.now().plusDays(6)};
+	}
+
+	@AfterEach
+	public void tearDown() {
+		fbm.reset();
+		ebm.reset();
+		SportFacilityManager.getInstance().getSportFacilities().removeAll(courts);
+		rackets.forEach(EquipmentManager.getInstance()::removeEquipment);
+		EquipmentTypeManager.getInstance().removeBorrowableType(racketType);
+	}
+
+	@Test
+	public void testConcurrentSessionsNeverDoubleBook() throws Exception {
+		ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+		ConcurrentLinkedQueue<FacilityBookRecord> keptFacilities = new ConcurrentLinkedQueue<>();
+		ConcurrentLinkedQueue<EquipmentBookRecord> keptEquipments = new ConcurrentLinkedQueue<>();
+		CountDownLatch start = new CountDownLatch(1);
+		CountDownLatch sessionsDone = new CountDownLatch(THREADS);
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS + 1);
+
+		// background task doing what the clock does while sessions book
+		pool.submit(() -> {
+			try {
+				start.await();
+				while (sessionsDone.getCount() > 0) {
+					fbm.releaseExpiredHolds(LocalDateTime.now());
+					ebm.releaseExpiredHolds(LocalDateTime.now());
+					fbm.expireEndedBookings(LocalDateTime.now());
+					ebm.expireEndedBookings(LocalDateTime.now());
+				}
+			} catch (Throwable e) {
+				failures.add(e);
+			}
+		});
+
+		for (int t = 0; t < THREADS; t++) {
+			int seed = t;
+			pool.submit(() -> {
+				try {
+					start.await();
+					runSession(new Random(seed), new User("stress" + seed, 1000 + seed, "pw", null), keptFacilities, keptEquipments);
+				} catch (Throwable e) {
+					failures.add(e);
+				} finally {
+					sessionsDone.countDown();
+				}
+			});
+		}
+		start.countDown();
+		pool.shutdown();
+		assertTrue(pool.awaitTermination(2, TimeUnit.MINUTES));
+
+		assertTrue(failures.isEmpty(), () -> "Unexpected failure: " + failures.peek());
+		assertEquals(keptFacilities.size(), fbm.getBookingRecords().size());
+		assertEquals(keptEquipments.size(), ebm.getBookRecords().size());
+		assertNoOverlappingFacilities();
+		assertNoOverlappingEquipments();
+	}
+
+	@Test
+	public void testCancelRacingRescheduleLeavesNoStaleSlot() throws Exception {
+		SportFacility court = courts.get(0);
+		LocalDate date = dates[0];
+		User user = new User("stressRace", 999, "pw", null);
+		ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+		CyclicBarrier barrier = new CyclicBarrier(2);
+		FacilityBookRecord[] current = new FacilityBookRecord[1];
+		ExecutorService pool = Executors.newFixedThreadPool(2);
+
+		// one thread cancels each booking while the other reschedules it; a thread that
+		// gives up breaks the barrier or lets it time out so the other one stops too
+		pool.submit(() -> {
+			try {
+				for (int i = 0; i < RACES; i++) {
+					current[0] = fbm.tryReserve(court, date, 9, 10, user).getBookRecord();
+					barrier.await(10, TimeUnit.SECONDS);
+					fbm.removeBooking(current[0]);
+					barrier.await(10, TimeUnit.SECONDS);
+					if (fbm.getOccupiedHours(court, date) != 0 || !fbm.getBookingRecordsByDate(court, date).isEmpty()) {
+						failures.add(new AssertionError("Slot still taken after cancelling in round " + i));
+						barrier.reset();
+						return;
+					}
+				}
+			} catch (Throwable e) {
+				failures.add(e);
+				barrier.reset();
+			}
+		});
+		pool.submit(() -> {
+			try {
+				for (int i = 0; i < RACES; i++) {
+					barrier.await(10, TimeUnit.SECONDS);
+					fbm.tryUpdateBookingDateTime(current[0], date, 11, 12);
+					barrier.await(10, TimeUnit.SECONDS);
+				}
+			} catch (Throwable e) {
+				failures.add(e);
+				barrier.reset();
+			}
+		});
+		pool.shutdown();
+		assertTrue(pool.awaitTermination(2, TimeUnit.MINUTES));
+
+		assertTrue(failures.isEmpty(), () -> "Unexpected failure: " + failures.peek());
+		assertTrue(fbm.getBookingRecords().isEmpty());
+	}
+
+	private void runSession(Random random, User user, ConcurrentLinkedQueue<FacilityBookRecord> keptFacilities, ConcurrentLinkedQueue<EquipmentBookRecord> keptEquipments) {
+		FacilityBookingControl facilityControl = new FacilityBookingControl();
+		EquipmentBookingControl equipmentControl = new EquipmentBookingControl();
+		ArrayList<FacilityBookRecord> facilities = new ArrayList<>();
+		ArrayList<EquipmentBookRecord> equipments = new ArrayList<>();
+
+		for (int i = 0; i < OPERATIONS; i++) {
+			int length = 1 + random.nextInt(3);
+			int startHour = 9 + random.nextInt(12 - length + 1);
+			LocalDate date = dates[random.nextInt(dates.length)];
+			switch (random.nextInt(8)) {
+				case 0:
+				case 1: {
+					ReservationResult<FacilityBookRecord> result = fbm.tryReserve(courts.get(random.nextInt(courts.size())), date, startHour, startHour + length, user);
+					if (result.isReserved()) {
+						facilities.add(result.getBookRecord());
+					}
+					break;
+				}
+				case 2:
+					if (!facilities.isEmpty()) {
+						fbm.removeBooking(facilities.remove(random.nextInt(facilities.size())));
+					}
+					break;
+				case 3:
+					if (!facilities.isEmpty()) {
+						FacilityBookRecord record = facilities.get(random.nextInt(facilities.size()));
+						try {
+							if (random.nextBoolean()) {
+								facilityControl.updateBookingDateTime(record, date, startHour, startHour + length);
+							} else {
+								facilityControl.updateBookingFacility(record, courts.get(random.nextInt(courts.size())), date, startHour, startHour + length);
+							}
+						} catch (IllegalArgumentException e) {
+							// the new court or time slot is taken
+						}
+					}
+					break;
+				case 4:
+					if (!facilities.isEmpty()) {
+						ReservationResult<EquipmentBookRecord> result = ebm.tryReserve(racketType, facilities.get(random.nextInt(facilities.size())), 1 + random.nextInt(2), user);
+						if (result.isReserved()) {
+							equipments.add(result.getBookRecord());
+						}
+					}
+					break;
+				case 5:
+					if (!equipments.isEmpty()) {
+						try {
+							equipmentControl.updateBookingDateTime(equipments.get(random.nextInt(equipments.size())), date, new int[] {startHour, startHour + length});
+						} catch (IllegalArgumentException e) {
+							// not enough rackets at the new time
+						}
+					}
+					break;
+				case 6:
+					if (!equipments.isEmpty()) {
+						equipmentControl.cancelBooking(equipments.remove(random.nextInt(equipments.size())));
+					}
+					break;
+				default:
+					if (!facilities.isEmpty()) {
+						facilities.get(random.nextInt(facilities.size())).compareAndSetStatus(BookingStatus.PENDING, BookingStatus.CONFIRMED);
+					}
+					// readers walking the shared collections while others write
+					for (FacilityBookRecord record : fbm.getBookingRecords()) {
+						record.getSportFacility();
+					}
+					fbm.getUserBookingRecords(user);
+					ebm.getBookingRecordsByUser(user, BookingStatus.PENDING);
+					equipmentControl.calculateAvailableGapTimeSlot(new ArrayList<>(rackets.subList(0, 1)), date);
+					break;
+			}
+		}
+		keptFacilities.addAll(facilities);
+		keptEquipments.addAll(equipments);
+	}
+
+	private void assertNoOverlappingFacilities() {
+		List<FacilityBookRecord> records = new ArrayList<>(fbm.getBookingRecords());
+		for (int i = 0; i < records.size(); i++) {
+			for (int j = i + 1; j < records.size(); j++) {
+				FacilityBookRecord a = records.get(i);
+				FacilityBookRecord b = records.get(j);
+				if (a.getSportFacility() == b.getSportFacility() && a.getDate().equals(b.getDate())) {
+					assertFalse(overlaps(a.getStartHour(), a.getEndHour(), b.getStartHour(), b.getEndHour()),
+						"Double booked " + a.getSportFacility().getName() + " on " + a.getDate());
+				}
+			}
+		}
+	}
+
+	private void assertNoOverlappingEquipments() {
+		List<EquipmentBookRecord> records = new ArrayList<>(ebm.getBookRecords());
+		for (int i = 0; i < records.size(); i++) {
+			for (int j = i + 1; j < records.size(); j++) {
+				EquipmentBookRecord a = records.get(i);
+				EquipmentBookRecord b = records.get(j);
+				if (!a.getDate().equals(b.getDate()) || !overlaps(a.getStartHour(), a.getEndHour(), b.getStartHour(), b.getEndHour())) {
+					continue;
+				}
+				for (Equipment racket : a.getBookingEquipment()) {
+					assertFalse(b.getBookingEquipment().contains(racket), "Double booked racket " + racket.getEquipmentID());
+				}
+			}
+		}
+	}
+
+	private boolean overlaps(int startA, int endA, int startB, int endB) {
+		return startA < endB && startB < endA;
+	}
+}
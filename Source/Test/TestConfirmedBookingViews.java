@@ -0,0 +1,193 @@
+package Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import sportapp.User;
+import sportapp.manager.ConfirmedBookManager;
+import sportapp.manager.ConfirmedBookingView;
+import sportapp.manager.FacilityBookManager;
+import sportapp.manager.SportFacilityManager;
+import sportapp.model.BookingStatus;
+import sportapp.model.FacilityBookRecord;
+import sportapp.model.SportFacility;
+import sportapp.model.SportFacilityType;
+
+public class TestConfirmedBookingViews {
+	private ConfirmedBookManager cbm;
+	private FacilityBookManager fbm;
+	private SportFacility court;
+	private User alice;
+	private User bob;
+	private LocalDate date;
+
+	@BeforeEach
+	public void setUp() {
+		cbm = ConfirmedBookManager.getInstance();
+		fbm = FacilityBookManager.getInstance();
+		fbm.reset();
+		court = new SportFacility("View-Court", new SportFacilityType("SFT-VIEW", "Badminton", 20), SportFacility.Status.AVAILABLE);
+		SportFacilityManager.getInstance().addSportFacility(court);
+		alice = new User("viewAlice", 1, "pw", null);
+		bob = new User("viewBob", 2, "pw", null);
+		date = LocalDate.now().plusDays(3);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		fbm.reset();
+		cbm.closeUserCollection(alice);
+		cbm.closeUserCollection(bob);
+		SportFacilityManager.getInstance().getSportFacilities().remove(court);
+	}
+
+	private FacilityBookRecord book(User user, int startHour, BookingStatus status) {
+		FacilityBookRecord record = new FacilityBookRecord(court, user, date, startHour, startHour + 1, status);
+		fbm.addBooking(record);
+		return record;
+	}
+
+	@Test
+	public void testViewsAreKeptPerUser() {
+		FacilityBookRecord aliceRecord = book(alice, 10, BookingStatus.CONFIRMED);
+		FacilityBookRecord bobRecord = book(bob, 11, BookingStatus.CONFIRMED);
+
+		assertEquals(List.of(aliceRecord), cbm.getFacilityList(alice));
+		assertEquals(List.of(bobRecord), cbm.getFacilityList(bob));
+		assertSame(aliceRecord, cbm.getFacilityRecord(alice, 0));
+		assertNull(cbm.getFacilityRecord(alice, 1));
+		assertTrue(cbm.isCollectionEmpty(new User("viewNobody", 3, "pw", null)));
+	}
+
+	@Test
+	public void testStatusChangesReachTheViewOnRefresh() {
+		FacilityBookRecord early = book(alice, 12, BookingStatus.CONFIRMED);
+		ConfirmedBookingView view = cbm.getView(alice);
+		FacilityBookRecord pending = book(alice, 9, BookingStatus.PENDING);
+		FacilityBookRecord added = book(alice, 15, BookingStatus.CONFIRMED);
+
+		pending.setStatus(BookingStatus.CONFIRMED);
+		assertEquals(List.of(early), view.getFacilityRecords());
+
+		cbm.resetUserCollection(alice);
+		assertEquals(List.of(pending, early, added), view.getFacilityRecords());
+
+		early.setStatus(BookingStatus.ENDED);
+		cbm.resetUserCollection(alice);
+		assertEquals(List.of(pending, added), view.getFacilityRecords());
+	}
+
+	@Test
+	public void testRemovedRecordLeavesTheSnapshot() {
+		book(alice, 10, BookingStatus.CONFIRMED);
+		FacilityBookRecord cancelled = book(alice, 13, BookingStatus.CONFIRMED);
+		FacilityBookRecord kept = book(alice, 16, BookingStatus.CONFIRMED);
+		cbm.resetUserCollection(alice);
+
+		cbm.removeFacilityRecord(cancelled);
+
+		assertEquals(2, cbm.getFacilityList(alice).size());
+		assertSame(kept, cbm.getFacilityRecord(alice, 1));
+		assertFalse(fbm.getBookingRecords().contains(cancelled));
+	}
+
+	@Test
+	public void testManagerResetEmptiesTheViews() {
+		book(alice, 10, BookingStatus.CONFIRMED);
+		assertFalse(cbm.isCollectionEmpty(alice));
+
+		fbm.reset();
+
+		assertTrue(cbm.isCollectionEmpty(alice));
+	}
+
+	@Test
+	public void testViewIsNotReadBeforeItLoads() throws Exception {
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicBoolean holdLoad = new AtomicBoolean();
+		FacilityBookRecord early = book(alice, 10, BookingStatus.CONFIRMED);
+		// the load sorts the records by date, so this record holds it open until released
+		FacilityBookRecord late = new FacilityBookRecord(court, alice, date, 14, 15, BookingStatus.CONFIRMED) {
+			@Override
+			public LocalDate getDate() {
+				if (holdLoad.compareAndSet(true, false)) {
+					loading.countDown();
+					try {
+						release.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+				return super.getDate();
+			}
+		};
+		fbm.addBooking(late);
+		holdLoad.set(true);
+
+		ExecutorService pool = Executors.newFixedThreadPool(2);
+		try {
+			Future<?> loader = pool.submit(() -> cbm.getView(alice));
+			assertTrue(loading.await(5, TimeUnit.SECONDS));
+			Future<List<FacilityBookRecord>> reader = pool.submit(() -> cbm.getFacilityList(alice));
+			assertThrows(TimeoutException.class, () -> reader.get(200, TimeUnit.MILLISECONDS));
+
+			release.countDown();
+			loader.get();
+			assertEquals(List.of(early, late), reader.get());
+		} finally {
+			release.countDown();
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testUsersConfirmConcurrently() throws Exception {
+		int users = 8;
+		ArrayList<User> bookers = new ArrayList<>();
+		for (int i = 0; i < users; i++) {
+			bookers.add(new User("viewUser" + i, 100 + i, "pw", null));
+		}
+		ExecutorService pool = Executors.newFixedThreadPool(users);
+		CountDownLatch start = new CountDownLatch(1);
+		ArrayList<Future<?>> futures = new ArrayList<>();
+		for (int i = 0; i < users; i++) {
+			User user = bookers.get(i);
+			int hour = 9 + i;
+			futures.add(pool.submit(() -> {
+				start.await();
+				cbm.getView(user);
+				FacilityBookRecord record = fbm.tryReserve(court, date, hour, hour + 1, user).getBookRecord();
+				record.compareAndSetStatus(BookingStatus.PENDING, BookingStatus.CONFIRMED);
+				cbm.resetUserCollection(user);
+				return null;
+			}));
+		}
+		start.countDown();
+		for (Future<?> future : futures) {
+			future.get();
+		}
+		pool.shutdown();
+
+		for (int i = 0; i < users; i++) {
+			List<FacilityBookRecord> records = cbm.getFacilityList(bookers.get(i));
+			assertEquals(1, records.size());
+			assertEquals(9 + i, records.get(0).getStartHour());
+			cbm.closeUserCollection(bookers.get(i));
+		}
+	}
+}
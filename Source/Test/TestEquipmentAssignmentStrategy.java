@@ -0,0 +1,117 @@
+package Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import sportapp.manager.EquipmentAssignmentStrategy;
+import sportapp.model.Equipment;
+import sportapp.model.EquipmentType;
+import sportapp.model.HourSlots;
+
+public class TestEquipmentAssignmentStrategy {
+	private static final int OPENING_HOURS = HourSlots.hourMask(9, 21);
+
+	private ArrayList<Equipment> rackets;
+
+	@BeforeEach
+	public void setUp() {
+		EquipmentType racketType = new EquipmentType("ET-FIT", "Fit Racket", "FITR", "Badminton", 10);
+		rackets = new ArrayList<>();
+		for (int i = 1; i <= 10; i++) {
+			rackets.add(new Equipment(i, racketType));
+		}
+	}
+
+	@Test
+	public void testFirstFitTakesListOrder() {
+		int[] freeHours = {OPENING_HOURS, HourSlots.hourMask(10, 12), OPENING_HOURS};
+		ArrayList<Equipment> assigned = EquipmentAssignmentStrategy.FIRST_FIT.assign(rackets.subList(0, 3), freeHours, 10, 12, 2);
+		assertEquals(List.of(rackets.get(0), rackets.get(1)), assigned);
+	}
+
+	@Test
+	public void testBestFitTakesTightestWindow() {
+		int[] freeHours = {
+			OPENING_HOURS,
+			HourSlots.hourMask(9, 13),
+			HourSlots.hourMask(10, 12) | HourSlots.hourMask(15, 21),
+		};
+		ArrayList<Equipment> assigned = EquipmentAssignmentStrategy.BEST_FIT.assign(rackets.subList(0, 3), freeHours, 10, 12, 2);
+		assertEquals(List.of(rackets.get(2), rackets.get(1)), assigned);
+	}
+
+	@Test
+	public void testBestFitKeepsListOrderOnTies() {
+		int[] freeHours = {OPENING_HOURS, OPENING_HOURS, OPENING_HOURS};
+		ArrayList<Equipment> assigned = EquipmentAssignmentStrategy.BEST_FIT.assign(rackets.subList(0, 3), freeHours, 10, 12, 2);
+		assertEquals(List.of(rackets.get(0), rackets.get(1)), assigned);
+	}
+
+	@Test
+	public void testNotEnoughCandidates() {
+		int[] freeHours = {OPENING_HOURS};
+		assertThrows(IllegalArgumentException.class,
+			() -> EquipmentAssignmentStrategy.FIRST_FIT.assign(rackets.subList(0, 1), freeHours, 10, 12, 2));
+		assertThrows(IllegalArgumentException.class,
+			() -> EquipmentAssignmentStrategy.BEST_FIT.assign(rackets.subList(0, 1), freeHours, 10, 12, 2));
+	}
+
+	/**
+	 * Books a short slot on a day where one racket is free all day and another only in the
+	 * morning. First-fit splits the all-day window, so a later long booking no longer fits;
+	 * best-fit takes the morning racket and keeps the long window.
+	 */
+	@Test
+	public void testBestFitKeepsLongWindowForLaterRequest() {
+		int[] bookedHours = {0, HourSlots.hourMask(12, 21)};
+		int[][] requests = {{10, 11, 1}, {9, 15, 1}};
+		assertEquals(1, acceptedRequests(EquipmentAssignmentStrategy.FIRST_FIT, bookedHours, requests));
+		assertEquals(2, acceptedRequests(EquipmentAssignmentStrategy.BEST_FIT, bookedHours, requests));
+	}
+
+	/**
+	 * Same as above with two rackets needed later: first-fit leaves only one racket free for
+	 * the whole afternoon, best-fit leaves two.
+	 */
+	@Test
+	public void testBestFitKeepsEnoughRacketsForLargerRequest() {
+		int[] bookedHours = {0, 0, HourSlots.hourMask(11, 21)};
+		int[][] requests = {{9, 10, 1}, {9, 13, 2}};
+		assertEquals(1, acceptedRequests(EquipmentAssignmentStrategy.FIRST_FIT, bookedHours, requests));
+		assertEquals(2, acceptedRequests(EquipmentAssignmentStrategy.BEST_FIT, bookedHours, requests));
+	}
+
+	/**
+	 * Serves requests in order from the first rackets, each starting with the given booked hours.
+	 * @return number of requests with enough free rackets
+	 */
+	private int acceptedRequests(EquipmentAssignmentStrategy strategy, int[] initialBookedHours, int[][] requests) {
+		int[] bookedHours = initialBookedHours.clone();
+		int accepted = 0;
+		for (int[] request : requests) {
+			int slot = HourSlots.hourMask(request[0], request[1]);
+			ArrayList<Equipment> candidates = new ArrayList<>();
+			ArrayList<Integer> freeHours = new ArrayList<>();
+			for (int i = 0; i < bookedHours.length; i++) {
+				if ((bookedHours[i] & slot) == 0) {
+					candidates.add(rackets.get(i));
+					freeHours.add(OPENING_HOURS & ~bookedHours[i]);
+				}
+			}
+			if (candidates.size() < request[2]) {
+				continue;
+			}
+			int[] free = freeHours.stream().mapToInt(Integer::intValue).toArray();
+			for (Equipment racket : strategy.assign(candidates, free, request[0], request[1], request[2])) {
+				bookedHours[rackets.indexOf(racket)] |= slot;
+			}
+			accepted++;
+		}
+		return accepted;
+	}
+}
@@ -0,0 +1,146 @@
+package Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import sportapp.User;
+import sportapp.manager.EquipmentAvailabilityIndex;
+import sportapp.model.BookingStatus;
+import sportapp.model.Equipment;
+import sportapp.model.EquipmentBookRecord;
+import sportapp.model.EquipmentCategory;
+import sportapp.model.EquipmentType;
+import sportapp.model.HourSlots;
+
+public class TestEquipmentAvailabilityIndex {
+	private EquipmentAvailabilityIndex index;
+	private EquipmentType racketType;
+	private Equipment racketA;
+	private Equipment racketB;
+	private User user;
+	private LocalDate date;
+
+	@BeforeEach
+	public void setUp() {
+		index = new EquipmentAvailabilityIndex();
+		racketType = new EquipmentType("ET-IDX", "Racket", "RKT", "Badminton", 10);
+		racketType.setCategory(EquipmentCategory.BORROWABLE);
+		racketA = new Equipment(1, racketType);
+		racketB = new Equipment(2, racketType);
+		user = new User("alice", 1, "pw", null);
+		date = LocalDate.of(2025, 10, 20);
+	}
+
+	private EquipmentBookRecord booking(int startHour, int endHour, Equipment... equipments) {
+		return new EquipmentBookRecord(new ArrayList<>(Arrays.asList(equipments)), user, date, startHour, endHour, BookingStatus.PENDING);
+	}
+
+	@Test
+	public void testAddAndRemove() {
+		EquipmentBookRecord record = booking(10, 12, racketA, racketB);
+		index.add(record);
+		assertEquals(HourSlots.hourMask(10, 12), index.getBookedHours(racketA, date));
+		assertEquals(2, index.getBookedCount(racketType, date, 11, 12));
+		assertEquals(0, index.getBookedCount(racketType, date, 12, 14));
+
+		index.remove(record);
+		assertEquals(0, index.getBookedHours(racketA, date));
+		assertEquals(0, index.getBookedCount(racketType, date, 9, 21));
+	}
+
+	@Test
+	public void testRangeCountsEachPieceOnce() {
+		index.add(booking(9, 10, racketA));
+		index.add(booking(10, 11, racketB));
+		index.add(booking(13, 14, racketA));
+
+		assertEquals(1, index.getBookedCount(racketType, date, 9, 10));
+		assertEquals(1, index.getBookedCount(racketType, date, 10, 11));
+		// no single racket is free for the whole slot even though each hour has one free
+		assertEquals(2, index.getBookedCount(racketType, date, 9, 11));
+		assertEquals(2, index.getBookedCount(racketType, date, 9, 21));
+		assertEquals(0, index.getBookedCount(racketType, date, 11, 13));
+	}
+
+	@Test
+	public void testUpdateUsesPreviousPlacement() {
+		EquipmentBookRecord record = booking(10, 12, racketA);
+		index.add(record);
+
+		ArrayList<Equipment> moved = new ArrayList<>();
+		moved.add(racketB);
+		record.setBookingEquipment(moved);
+		record.setDate(date.plusDays(1));
+		index.update(record);
+
+		assertEquals(0, index.getBookedHours(racketA, date));
+		assertEquals(0, index.getBookedCount(racketType, date, 9, 21));
+		assertEquals(HourSlots.hourMask(10, 12), index.getBookedHours(racketB, date.plusDays(1)));
+	}
+
+	@Test
+	public void testOverlappingBookingsOfOnePiece() {
+		EquipmentBookRecord first = booking(10, 12, racketA);
+		EquipmentBookRecord second = booking(11, 13, racketA);
+		index.add(first);
+		index.add(second);
+		assertEquals(1, index.getBookedCount(racketType, date, 10, 13));
+
+		index.remove(first);
+		assertEquals(HourSlots.hourMask(11, 13), index.getBookedHours(racketA, date));
+		assertEquals(0, index.getBookedCount(racketType, date, 10, 11));
+	}
+
+	/**
+	 * Moves a booking around one day while another type is changed and a reader polls without
+	 * a lock. The reader must always see the moving racket booked.
+	 */
+	@Test
+	public void testReadersNeverMissAMovedBooking() throws Exception {
+		EquipmentType ballType = new EquipmentType("ET-IDX2", "Ball", "BAL", "Badminton", 10);
+		ballType.setCategory(EquipmentCategory.BORROWABLE);
+		Equipment ball = new Equipment(1, ballType);
+		EquipmentBookRecord moving = booking(9, 11, racketA);
+		index.add(moving);
+
+		AtomicBoolean done = new AtomicBoolean();
+		AtomicInteger misses = new AtomicInteger();
+		Thread reader = new Thread(() -> {
+			while (!done.get()) {
+				if (index.getBookedCount(racketType, date, 9, 21) != 1 || index.getBookedHours(racketA, date) == 0) {
+					misses.incrementAndGet();
+				}
+			}
+		});
+		Thread other = new Thread(() -> {
+			for (int i = 0; i < 20000; i++) {
+				EquipmentBookRecord record = booking(9 + i % 12, 10 + i % 12, ball);
+				index.add(record);
+				index.remove(record);
+			}
+		});
+		reader.start();
+		other.start();
+		for (int i = 0; i < 20000; i++) {
+			int start = 9 + i % 10;
+			moving.setStartHour(start);
+			moving.setEndHour(start + 2);
+			index.update(moving);
+		}
+		other.join();
+		done.set(true);
+		reader.join();
+
+		assertEquals(0, misses.get());
+		assertEquals(0, index.getBookedCount(ballType, date, 9, 21));
+		assertEquals(1, index.getBookedCount(racketType, date, 9, 21));
+	}
+}
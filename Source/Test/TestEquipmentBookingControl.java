@@ -2,19 +2,34 @@ package Test;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import sportapp.EquipmentBookingControl;
+import sportapp.User;
 import sportapp.manager.EquipmentBookManager;
 import sportapp.manager.EquipmentManager;
+import sportapp.model.BookingStatus;
+import sportapp.model.Equipment;
+import sportapp.model.EquipmentBookRecord;
+import sportapp.model.EquipmentCategory;
+import sportapp.model.EquipmentType;
 
 public class TestEquipmentBookingControl {
 	private EquipmentBookingControl testEquipmentBookingControl;
 	private EquipmentBookManager testEquipmentBookManager;
 	private EquipmentManager testEquipmentManager;
+	private EquipmentType racketType;
+	private ArrayList<Equipment> rackets;
+	private User user;
+	private LocalDate date;
 	
 	@BeforeAll
 	public static void setUpBeforeClass() {
@@ -26,16 +41,54 @@ public class TestEquipmentBookingControl {
 		testEquipmentBookingControl = new EquipmentBookingControl();
 		testEquipmentBookManager = EquipmentBookManager.getInstance();
 		testEquipmentManager = EquipmentManager.getInstance();
+		testEquipmentBookManager.reset();
+
+		racketType = new EquipmentType("ET-CTRL", "Control Racket", "CRKT", "Badminton", 10);
+		racketType.setCategory(EquipmentCategory.BORROWABLE);
+		rackets = new ArrayList<>();
+		for (int i = 1; i <= 3; i++) {
+			Equipment racket = new Equipment(i, racketType);
+			rackets.add(racket);
+			testEquipmentManager.addEquipment(racket);
+		}
+		user = new User("ctrlUser", 900, "pw", null);
+		date = LocalDate.now().plusDays(2);
 	}
 
 	@AfterEach
 	public void tearDown() {
-		
+		testEquipmentBookManager.reset();
+		rackets.forEach(testEquipmentManager::removeEquipment);
 	}
 
 	@Test
-	public void test() {
-		
+	public void testAvailableEquipmentsSkipsBookedPieces() {
+		testEquipmentBookManager.addBookRecord(new EquipmentBookRecord(
+			new ArrayList<>(Arrays.asList(rackets.get(0))), user, date, 10, 12, BookingStatus.PENDING));
+
+		ArrayList<Equipment> available = testEquipmentBookingControl.getAvailableEquipments(racketType, date, new int[] {11, 13});
+		assertEquals(2, available.size());
+		assertFalse(available.contains(rackets.get(0)));
+		assertEquals(3, testEquipmentBookingControl.getAvailableEquipments(racketType, date, new int[] {12, 14}).size());
+		assertTrue(testEquipmentBookingControl.getAvailableEquipments(racketType, date, new int[] {8, 10}).isEmpty());
+	}
+
+	@Test
+	public void testAvailableQuantityFollowsBookings() {
+		ArrayList<EquipmentType> types = new ArrayList<>(Arrays.asList(racketType));
+		EquipmentBookRecord record = new EquipmentBookRecord(
+			new ArrayList<>(Arrays.asList(rackets.get(0), rackets.get(1))), user, date, 10, 12, BookingStatus.PENDING);
+		testEquipmentBookManager.addBookRecord(record);
+
+		Map<EquipmentType, Integer> quantities = testEquipmentBookingControl.getAvailableEquipmentsQuantityByType(types, date, 11, 13);
+		assertEquals(1, quantities.get(racketType));
+
+		testEquipmentBookManager.updateBookingDateTime(record, date, 14, 16);
+		assertEquals(3, testEquipmentBookingControl.getAvailableEquipmentsQuantityByType(types, date, 11, 13).get(racketType));
+		assertEquals(1, testEquipmentBookingControl.getAvailableEquipmentsQuantityByType(types, date, 15, 16).get(racketType));
+
+		testEquipmentBookingControl.cancelBooking(record);
+		assertEquals(3, testEquipmentBookingControl.getAvailableEquipmentsQuantityByType(types, date, 9, 21).get(racketType));
 	}
 
 }
@@ -0,0 +1,100 @@
+package Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import sportapp.User;
+import sportapp.manager.EquipmentBookManager;
+import sportapp.manager.EquipmentBookingIndex;
+import sportapp.model.BookingStatus;
+import sportapp.model.Equipment;
+import sportapp.model.EquipmentBookRecord;
+import sportapp.model.EquipmentCategory;
+import sportapp.model.EquipmentType;
+
+public class TestEquipmentBookingIndex {
+	private EquipmentBookingIndex index;
+	private EquipmentBookManager ebm;
+	private Equipment racketA;
+	private Equipment racketB;
+	private User user;
+	private LocalDate date;
+
+	@BeforeEach
+	public void setUp() {
+		index = new EquipmentBookingIndex();
+		ebm = EquipmentBookManager.getInstance();
+		ebm.reset();
+		EquipmentType racketType = new EquipmentType("ET-INV", "Racket", "RKT", "Badminton", 10);
+		racketType.setCategory(EquipmentCategory.BORROWABLE);
+		racketA = new Equipment(1, racketType);
+		racketB = new Equipment(2, racketType);
+		user = new User("alice", 1, "pw", null);
+		date = LocalDate.of(2025, 10, 20);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		ebm.reset();
+	}
+
+	private EquipmentBookRecord booking(LocalDate day, Equipment... equipments) {
+		return new EquipmentBookRecord(new ArrayList<>(Arrays.asList(equipments)), user, day, 10, 12, BookingStatus.PENDING);
+	}
+
+	@Test
+	public void testAddAndRemove() {
+		EquipmentBookRecord both = booking(date, racketA, racketB);
+		EquipmentBookRecord later = booking(date.plusDays(1), racketA);
+		index.add(both);
+		index.add(later);
+
+		assertEquals(Arrays.asList(both), index.get(racketA, date));
+		assertEquals(Arrays.asList(both), index.get(racketB, date));
+		assertEquals(Arrays.asList(later), index.get(racketA, date.plusDays(1)));
+
+		index.remove(both);
+		assertTrue(index.get(racketA, date).isEmpty());
+		assertTrue(index.get(racketB, date).isEmpty());
+		assertEquals(1, index.get(racketA, date.plusDays(1)).size());
+	}
+
+	@Test
+	public void testUpdateUsesPreviousPlacement() {
+		EquipmentBookRecord record = booking(date, racketA);
+		index.add(record);
+		record.setDate(date.plusDays(2));
+		record.setBookingEquipment(new ArrayList<>(Arrays.asList(racketB)));
+		index.update(record);
+
+		assertTrue(index.get(racketA, date).isEmpty());
+		assertEquals(Arrays.asList(record), index.get(racketB, date.plusDays(2)));
+	}
+
+	@Test
+	public void testManagerFollowsEquipmentSwap() {
+		EquipmentBookRecord record = booking(date, racketA);
+		ebm.addBookRecord(record);
+		assertEquals(Arrays.asList(record), ebm.getBookRecordByDate(racketA, date));
+
+		record.setBookingEquipment(new ArrayList<>(Arrays.asList(racketB)));
+		assertTrue(ebm.getBookRecordByDate(racketA, date).isEmpty());
+		assertEquals(Arrays.asList(record), ebm.getBookRecordByDate(racketB, date));
+
+		ebm.updateBookingDateTime(record, date.plusDays(1), 14, 16);
+		assertTrue(ebm.getBookRecordByDate(racketB, date).isEmpty());
+		assertEquals(Arrays.asList(record), ebm.getBookRecordByDate(racketB, date.plusDays(1)));
+
+		ebm.removeBooking(record);
+		assertTrue(ebm.getBookRecordByDate(racketB, date.plusDays(1)).isEmpty());
+		record.setBookingEquipment(new ArrayList<>(Arrays.asList(racketA)));
+		assertTrue(ebm.getBookRecordByDate(racketA, date.plusDays(1)).isEmpty());
+	}
+}
@@ -3,6 +3,7 @@ package Test;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
@@ -111,4 +112,43 @@ public class TestEquipmentTypeManager {
 			assertEquals(testEquipmentTypeManager.getEquipmentTypeByID(id), type);
 		}
 	}
+	
+	@Test
+	public void testGetEquipmentTypeByLowerCaseID() {
+		assertEquals(testBadm_Borrow, testEquipmentTypeManager.getEquipmentTypeByID("et-003"));
+		assertNull(testEquipmentTypeManager.getEquipmentTypeByID("ET-999"));
+	}
+	
+	@Test
+	public void testLookupsFollowRemovedTypes() {
+		assertThrows(UnsupportedOperationException.class, () -> testEquipmentTypeManager.getBorrowableTypes().remove(testBadm_Borrow));
+		assertTrue(testEquipmentTypeManager.removeBorrowableType(testBadm_Borrow));
+		assertFalse(testEquipmentTypeManager.removeBorrowableType(testBadm_Borrow));
+		assertNull(testEquipmentTypeManager.getEquipmentTypeByID("ET-003"));
+		assertTrue(testEquipmentTypeManager.getBorrowableTypesBySportType("Badminton").isEmpty());
+		
+		testEquipmentTypeManager.addBorrowableType(testBadm_Borrow);
+		assertEquals(testBadm_Borrow, testEquipmentTypeManager.getEquipmentTypeByID("ET-003"));
+		assertEquals(1, testEquipmentTypeManager.getBorrowableTypesBySportType("Badminton").size());
+	}
+	
+	@Test
+	public void testTypeListsAreSnapshots() {
+		List<EquipmentType> before = testEquipmentTypeManager.getSellableTypes();
+		int size = before.size();
+		for (EquipmentType type : before) {
+			testEquipmentTypeManager.removeSellableType(type);
+		}
+		assertEquals(size, before.size());
+		assertTrue(testEquipmentTypeManager.getSellableTypes().isEmpty());
+		before.forEach(testEquipmentTypeManager::addSellableType);
+		assertEquals(before, testEquipmentTypeManager.getSellableTypes());
+	}
+	
+	@Test
+	public void testTypesBySportTypeAreShared() {
+		assertSame(testEquipmentTypeManager.getSellableTypesBySportType("Badminton"), testEquipmentTypeManager.getSellableTypesBySportType("Badminton"));
+		assertTrue(testEquipmentTypeManager.getBorrowableTypesBySportType("Hockey").isEmpty());
+		assertThrows(UnsupportedOperationException.class, () -> testEquipmentTypeManager.getSellableTypesBySportType("Badminton").clear());
+	}
 }
@@ -8,13 +8,19 @@ import org.junit.jupiter.api.Test;
 import sportapp.User;
 import sportapp.UserCollection;
 import sportapp.manager.FacilityBookManager;
+import sportapp.manager.SportFacilityManager;
 import sportapp.model.BookingStatus;
 import sportapp.model.FacilityBookRecord;
+import sportapp.model.ReservationResult;
 import sportapp.model.SportFacility;
 import sportapp.model.SportFacilityType;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -29,7 +35,7 @@ public class TestFacilityBookManager {
     public void setUp() {
         manager = FacilityBookManager.getInstance();
         // Clear shared singleton state before each test
-        manager.getBookingRecords().clear();
+        manager.reset();
 
         // Prepare a simple facility
         SportFacilityType t = new SportFacilityType("Court", "SomeSport", 10.0);
@@ -186,5 +192,59 @@ public class TestFacilityBookManager {
         assertFalse(confirmed.contains(pendingForA));
         assertFalse(confirmed.contains(confirmedForB));
     }
-}
 
+    // -------------------------
+    // tryReserve tests
+    // -------------------------
+    @Test
+    public void tryReserve_freeSlot_reserves() {
+        SportFacilityManager.getInstance().addSportFacility(sf);
+        ReservationResult<FacilityBookRecord> result = manager.tryReserve(sf, LocalDate.of(2025,6,1), 10, 12, userA);
+        assertTrue(result.isReserved());
+        assertEquals(BookingStatus.PENDING, result.getBookRecord().getStatus());
+        assertTrue(manager.isBookingExist(result.getBookRecord()));
+    }
+
+    @Test
+    public void tryReserve_overlap_returnsConflict() {
+        SportFacilityManager.getInstance().addSportFacility(sf);
+        FacilityBookRecord existing = manager.tryReserve(sf, LocalDate.of(2025,6,2), 10, 12, userA).getBookRecord();
+        ReservationResult<FacilityBookRecord> result = manager.tryReserve(sf, LocalDate.of(2025,6,2), 11, 13, userB);
+        assertEquals(ReservationResult.Outcome.CONFLICT, result.getOutcome());
+        assertNull(result.getBookRecord());
+        assertTrue(result.getConflicts().contains(existing));
+        assertEquals(1, manager.getBookingRecords().size());
+    }
+
+    @Test
+    public void tryReserve_invalidSlotOrFacility_rejected() {
+        SportFacility unknown = new SportFacility("Court X", new SportFacilityType("Court", "SomeSport", 10.0), SportFacility.Status.AVAILABLE);
+        assertEquals(ReservationResult.Outcome.UNAVAILABLE, manager.tryReserve(unknown, LocalDate.of(2025,6,3), 10, 12, userA).getOutcome());
+        SportFacilityManager.getInstance().addSportFacility(sf);
+        assertEquals(ReservationResult.Outcome.INVALID_TIME_SLOT, manager.tryReserve(sf, LocalDate.of(2025,6,3), 12, 12, userA).getOutcome());
+        assertEquals(ReservationResult.Outcome.INVALID_TIME_SLOT, manager.tryReserve(sf, LocalDate.of(2025,6,3), 8, 10, userA).getOutcome());
+    }
+
+    @Test
+    public void tryReserve_concurrentRequests_onlyOneSucceeds() throws Exception {
+        SportFacilityManager.getInstance().addSportFacility(sf);
+        int threads = 16;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        ArrayList<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                return manager.tryReserve(sf, LocalDate.of(2025,6,4), 14, 16, userA).isReserved();
+            }));
+        }
+        start.countDown();
+        int reserved = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get()) { reserved++; }
+        }
+        pool.shutdown();
+        assertEquals(1, reserved);
+        assertEquals(1, manager.getBookingRecords().size());
+    }
+}
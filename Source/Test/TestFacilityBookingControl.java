@@ -6,17 +6,24 @@ import org.junit.jupiter.api.Test;
 import sportapp.*;
 import sportapp.manager.FacilityBookManager;
 import sportapp.manager.SportFacilityManager;
+import sportapp.model.AvailabilityCalendar;
 import sportapp.model.BookingStatus;
 import sportapp.model.FacilityBookRecord;
+import sportapp.model.ReservationResult;
 import sportapp.model.SportFacility;
 import sportapp.model.SportFacilityType;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
 
 public class TestFacilityBookingControl {
 
@@ -120,7 +127,7 @@ private FacilityBookRecord createBooking(int start, int end) {
 
          // Clear any data from previous tests to prevent interference
          facilityManager.getSportFacilities().clear();
-         facilityBookManager.getBookingRecords().clear();
+         facilityBookManager.reset();
 
          // Create and add fresh test data
          SportFacilityType basketballType = new SportFacilityType("Basketball court","Basketball", 30);
@@ -227,6 +234,69 @@ private FacilityBookRecord createBooking(int start, int end) {
          ArrayList<FacilityBookRecord> records = facilityBookingControl.getFacilityBookRecordsByDate(basketballCourt, testDate);
          assertTrue(records.isEmpty());
      }
+
+     // =================================================================
+     // Tests for getAvailabilityCalendar()
+     // =================================================================
+
+     @Test
+     void testGetAvailabilityCalendar_ShouldMatchSingleLookups() {
+         addBooking(basketballCourt, testDate, 10, 12);
+         addBooking(basketballCourt, testDate.plusDays(2), 14, 16);
+         addBooking(badmintonCourt, testDate.plusDays(1), 9, 21);
+         addBooking(badmintonCourt, testDate.plusDays(7), 9, 21); // Outside of the range
+         AvailabilityCalendar calendar = facilityBookingControl.getAvailabilityCalendar(testDate, testDate.plusDays(6), Arrays.asList(basketballCourt, badmintonCourt));
+         for (int day = 0; day < 7; day++) {
+             for (SportFacility facility : Arrays.asList(basketballCourt, badmintonCourt)) {
+                 ArrayList<int[]> expected = facilityBookingControl.getAvailableTimeSlot(facility, testDate.plusDays(day));
+                 ArrayList<int[]> actual = calendar.getAvailableTimeSlot(facility, testDate.plusDays(day));
+                 assertEquals(expected.size(), actual.size());
+                 for (int i = 0; i < expected.size(); i++) {
+                     assertArrayEquals(expected.get(i), actual.get(i));
+                 }
+             }
+         }
+         assertFalse(calendar.isFree(basketballCourt, testDate, 11, 13));
+         assertTrue(calendar.isFree(basketballCourt, testDate, 12, 14));
+     }
+
+     @Test
+     void testGetAvailabilityCalendar_BySportType_ShouldOnlyIncludeMatchingFacilities() {
+         AvailabilityCalendar calendar = facilityBookingControl.getAvailabilityCalendar(testDate, testDate.plusDays(6), "Badminton");
+         assertEquals(1, calendar.getFacilities().size());
+         assertSame(badmintonCourt, calendar.getFacilities().get(0));
+         assertThrows(IllegalArgumentException.class, () -> calendar.getOccupiedHours(basketballCourt, testDate));
+     }
+
+     // =================================================================
+     // Tests for findFreeFacility() and reserveAnyFreeFacility()
+     // =================================================================
+
+     @Test
+     void testFindFreeFacility_ShouldSkipBookedFacility() {
+         SportFacility secondBadmintonCourt = new SportFacility("Room Bad102", badmintonCourt.getSportFacilityType(), SportFacility.Status.AVAILABLE);
+         facilityManager.addSportFacility(secondBadmintonCourt);
+         addBooking(badmintonCourt, testDate, 17, 19);
+         assertSame(secondBadmintonCourt, facilityBookingControl.findFreeFacility("Badminton", testDate, 18, 20));
+         assertSame(badmintonCourt, facilityBookingControl.findFreeFacility("Badminton", testDate, 19, 21));
+         assertNull(facilityBookingControl.findFreeFacility("Squash", testDate, 18, 20));
+     }
+
+     @Test
+     void testReserveAnyFreeFacility_ShouldReserveUntilAllTaken() {
+         ReservationResult<FacilityBookRecord> first = facilityBookingControl.reserveAnyFreeFacility("Basketball", testDate, 18, 20, testUser);
+         assertTrue(first.isReserved());
+         assertSame(basketballCourt, first.getBookRecord().getSportFacility());
+         ReservationResult<FacilityBookRecord> second = facilityBookingControl.reserveAnyFreeFacility("Basketball", testDate, 19, 21, testUser);
+         assertEquals(ReservationResult.Outcome.CONFLICT, second.getOutcome());
+         assertEquals(ReservationResult.Outcome.UNAVAILABLE, facilityBookingControl.reserveAnyFreeFacility("Squash", testDate, 18, 20, testUser).getOutcome());
+     }
+
+     @Test
+     void testReserveAnyFreeFacility_NullDate_ShouldThrowException() {
+         assertThrows(IllegalArgumentException.class, () -> facilityBookingControl.reserveAnyFreeFacility("Basketball", null, 18, 20, testUser));
+         assertThrows(IllegalArgumentException.class, () -> facilityBookingControl.findFreeFacility("Basketball", null, 18, 20));
+     }
 }
 
 //     @Test
@@ -15,8 +15,14 @@ import java.util.Scanner;
 import sportapp.Route;
 import sportapp.User;
 import sportapp.ui.FacilityBookingUI;
+import sportapp.manager.EquipmentBookManager;
+import sportapp.manager.EquipmentManager;
+import sportapp.manager.EquipmentTypeManager;
 import sportapp.manager.FacilityBookManager;
 import sportapp.manager.SportFacilityManager;
+import sportapp.model.Equipment;
+import sportapp.model.EquipmentBookRecord;
+import sportapp.model.EquipmentType;
 import sportapp.model.SportFacility;
 import sportapp.model.SportFacilityType;
 import sportapp.model.BookingStatus;
@@ -40,7 +46,10 @@ public class TestFacilityBookingUI {
 
         // Clear existing data
         facilityManager.getSportFacilities().clear();
-        bookingManager.getBookingRecords().clear();
+        bookingManager.reset();
+        EquipmentBookManager.getInstance().reset();
+        EquipmentManager.getInstance().reset();
+        EquipmentTypeManager.getInstance().reset();
 
         // Recreate facilities used by the UI
         SportFacilityType basketballType = new SportFacilityType("Basketball court", "Basketball", 30);
@@ -347,5 +356,67 @@ public class TestFacilityBookingUI {
         assertEquals(9, rec.getStartHour());
         assertEquals(10, rec.getEndHour());
     }
+
+    @Test
+    void testBookingWithEquipment_ReservesFacilityAndEquipmentTogether() {
+        EquipmentType balls = addBasketballs(3);
+        String input = String.join("\n",
+            "1",
+            testValidDate.format(formatter),
+            "09",
+            "11",
+            "y",               // borrow equipment
+            "ET-BALL",
+            "4",               // more than are free -> asked again
+            "ET-BALL",
+            "2",
+            "D",
+            "n"
+        ) + "\n";
+
+        Scanner scanner = createScanner(input);
+        FacilityBookingUI ui = new FacilityBookingUI(scanner, testUser);
+
+        assertEquals(Route.HOME, ui.display(scanner, testUser));
+        assertEquals(1, bookingManager.getBookingRecords().size());
+        FacilityBookRecord rec = bookingManager.getBookingRecords().get(0);
+
+        EquipmentBookRecord equipmentRecord = EquipmentBookManager.getInstance().getBookRecords().get(0);
+        assertEquals(1, EquipmentBookManager.getInstance().getBookRecords().size());
+        assertEquals(2, equipmentRecord.getBookingEquipment().size());
+        assertEquals(balls, equipmentRecord.getBookingEquipment().get(0).getEquipmentType());
+        assertEquals(rec.getDate(), equipmentRecord.getDate());
+        assertEquals(9, equipmentRecord.getStartHour());
+        assertEquals(11, equipmentRecord.getEndHour());
+    }
+
+    @Test
+    void testBookingWithoutEquipment_ReservesOnlyFacility() {
+        addBasketballs(3);
+        String input = String.join("\n",
+            "1",
+            testValidDate.format(formatter),
+            "09",
+            "10",
+            "n",               // no equipment
+            "n"
+        ) + "\n";
+
+        Scanner scanner = createScanner(input);
+        FacilityBookingUI ui = new FacilityBookingUI(scanner, testUser);
+
+        assertEquals(Route.HOME, ui.display(scanner, testUser));
+        assertEquals(1, bookingManager.getBookingRecords().size());
+        assertTrue(EquipmentBookManager.getInstance().getBookRecords().isEmpty());
+    }
+
+    private EquipmentType addBasketballs(int count) {
+        EquipmentType balls = new EquipmentType("ET-BALL", "Basketball", "BALL", "Basketball", 10);
+        EquipmentTypeManager.getInstance().addBorrowableType(balls);
+        for (int i = 1; i <= count; i++) {
+            EquipmentManager.getInstance().addEquipment(new Equipment(900 + i, balls));
+        }
+        return balls;
+    }
 }
 
@@ -0,0 +1,62 @@
+package Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import sportapp.User;
+import sportapp.manager.FacilityOccupancyIndex;
+import sportapp.model.BookingStatus;
+import sportapp.model.FacilityBookRecord;
+import sportapp.model.HourSlots;
+import sportapp.model.SportFacility;
+import sportapp.model.SportFacilityType;
+
+public class TestFacilityOccupancyIndex {
+	private FacilityOccupancyIndex index;
+	private SportFacility court;
+	private User user;
+	private LocalDate date;
+
+	@BeforeEach
+	public void setUp() {
+		index = new FacilityOccupancyIndex();
+		court = new SportFacility("Court 1", new SportFacilityType("Court", "Badminton", 20), SportFacility.Status.AVAILABLE);
+		user = new User("alice", 1, "pw", null);
+		date = LocalDate.of(2025, 10, 20);
+	}
+
+	@Test
+	public void testHourMask() {
+		assertEquals(0b1100, HourSlots.hourMask(2, 4));
+		assertEquals(0, HourSlots.hourMask(5, 5));
+		assertEquals(0, HourSlots.hourMask(6, 5));
+	}
+
+	@Test
+	public void testAddAndRemove() {
+		FacilityBookRecord first = new FacilityBookRecord(court, user, date, 10, 12, BookingStatus.PENDING);
+		FacilityBookRecord second = new FacilityBookRecord(court, user, date, 11, 13, BookingStatus.PENDING);
+		index.add(first);
+		index.add(second);
+		assertEquals(HourSlots.hourMask(10, 13), index.getOccupiedHours(court, date));
+		assertEquals(2, index.getRecords(court, date).size());
+
+		index.remove(first);
+		assertEquals(HourSlots.hourMask(11, 13), index.getOccupiedHours(court, date));
+		assertEquals(1, index.getRecords(court, date).size());
+
+		index.remove(second);
+		assertEquals(0, index.getOccupiedHours(court, date));
+		assertTrue(index.getRecords(court, date).isEmpty());
+	}
+
+	@Test
+	public void testOtherDateNotAffected() {
+		index.add(new FacilityBookRecord(court, user, date, 10, 12, BookingStatus.PENDING));
+		assertEquals(0, index.getOccupiedHours(court, date.plusDays(1)));
+	}
+}
@@ -0,0 +1,88 @@
+package Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import sportapp.User;
+import sportapp.manager.FacilityBookManager;
+import sportapp.manager.PendingHoldPolicy;
+import sportapp.model.BookingStatus;
+import sportapp.model.FacilityBookRecord;
+import sportapp.model.SportFacility;
+import sportapp.model.SportFacilityType;
+
+public class TestPendingHoldPolicy {
+	private PendingHoldPolicy policy;
+	private FacilityBookManager manager;
+	private SportFacility court;
+	private User user;
+	private LocalDate date;
+
+	@BeforeEach
+	public void setUp() {
+		policy = PendingHoldPolicy.getInstance();
+		policy.resetCounters();
+		manager = FacilityBookManager.getInstance();
+		manager.reset();
+		court = new SportFacility("Court 1", new SportFacilityType("Court", "Badminton", 20), SportFacility.Status.AVAILABLE);
+		user = new User("alice", 1, "pw", null);
+		date = LocalDate.now().plusDays(1);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		policy.setHoldTtl(PendingHoldPolicy.DEFAULT_HOLD_TTL);
+		policy.resetCounters();
+		manager.reset();
+	}
+
+	@Test
+	public void testExpiredHoldIsReleased() {
+		FacilityBookRecord hold = new FacilityBookRecord(court, user, date, 10, 12, BookingStatus.PENDING);
+		manager.addBooking(hold);
+		LocalDateTime deadline = policy.getHoldDeadline(hold);
+
+		assertTrue(manager.releaseExpiredHolds(deadline.minusSeconds(1)).isEmpty());
+		assertSame(hold, manager.releaseExpiredHolds(deadline).get(0));
+		assertFalse(manager.isBookingExist(hold));
+		assertEquals(0, manager.getOccupiedHours(court, date));
+		assertEquals(1, policy.getHoldsCreated());
+		assertEquals(1, policy.getHoldsExpired());
+	}
+
+	@Test
+	public void testConfirmedHoldIsKept() {
+		FacilityBookRecord hold = new FacilityBookRecord(court, user, date, 10, 12, BookingStatus.PENDING);
+		manager.addBooking(hold);
+		hold.setStatus(BookingStatus.CONFIRMED);
+
+		assertTrue(manager.releaseExpiredHolds(policy.getHoldDeadline(hold).plusHours(1)).isEmpty());
+		assertTrue(manager.isBookingExist(hold));
+		assertEquals(1, policy.getHoldsConverted());
+		assertEquals(0, policy.getHoldsExpired());
+	}
+
+	@Test
+	public void testLongerTtlDelaysRelease() {
+		FacilityBookRecord hold = new FacilityBookRecord(court, user, date, 10, 12, BookingStatus.PENDING);
+		manager.addBooking(hold);
+		LocalDateTime oldDeadline = policy.getHoldDeadline(hold);
+		policy.setHoldTtl(PendingHoldPolicy.DEFAULT_HOLD_TTL.plusMinutes(30));
+
+		assertTrue(manager.releaseExpiredHolds(oldDeadline).isEmpty());
+		assertEquals(1, manager.releaseExpiredHolds(oldDeadline.plusMinutes(30)).size());
+	}
+
+	@Test
+	public void testInvalidTtl() {
+		assertThrows(IllegalArgumentException.class, () -> policy.setHoldTtl(Duration.ZERO));
+		assertThrows(IllegalArgumentException.class, () -> policy.setHoldTtl(null));
+	}
+}
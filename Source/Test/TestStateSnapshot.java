@@ -0,0 +1,219 @@
+package Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import sportapp.PlatinumMemberShip;
+import sportapp.User;
+import sportapp.UserCollection;
+import sportapp.UserSecurityAnswer;
+import sportapp.manager.EquipmentBookManager;
+import sportapp.manager.EquipmentManager;
+import sportapp.manager.EquipmentTypeManager;
+import sportapp.manager.FacilityBookManager;
+import sportapp.manager.PendingHoldPolicy;
+import sportapp.manager.SportFacilityManager;
+import sportapp.model.BookingStatus;
+import sportapp.model.Equipment;
+import sportapp.model.EquipmentBookRecord;
+import sportapp.model.EquipmentType;
+import sportapp.model.FacilityBookRecord;
+import sportapp.model.SportFacility;
+import sportapp.model.SportFacilityType;
+import sportapp.persistence.DataStore;
+import sportapp.persistence.RecoveryReport;
+import sportapp.persistence.StateSnapshot;
+import sportapp.persistence.WriteAheadLog;
+
+public class TestStateSnapshot {
+	@TempDir
+	Path tempDir;
+
+	private FacilityBookManager fbm;
+	private EquipmentBookManager ebm;
+	private SportFacility court;
+	private EquipmentType ballType;
+	private Equipment ball;
+	private LocalDate date;
+
+	private ArrayList<User> savedUsers;
+	private ArrayList<SportFacility> savedFacilities;
+	private ArrayList<EquipmentType> savedBorrowableTypes;
+	private ArrayList<EquipmentType> savedSellableTypes;
+	private ArrayList<Equipment> savedBorrowable;
+	private ArrayList<Equipment> savedSellable;
+	private ArrayList<FacilityBookRecord> savedFacilityRecords;
+	private ArrayList<EquipmentBookRecord> savedEquipmentRecords;
+
+	@BeforeEach
+	public void setUp() {
+		fbm = FacilityBookManager.getInstance();
+		ebm = EquipmentBookManager.getInstance();
+		// loading a snapshot replaces the whole application state, so keep it for tearDown
+		savedUsers = new ArrayList<>(UserCollection.getInstance().findUser());
+		savedFacilities = new ArrayList<>(SportFacilityManager.getInstance().getSportFacilities());
+		savedBorrowableTypes = new ArrayList<>(EquipmentTypeManager.getInstance().getBorrowableTypes());
+		savedSellableTypes = new ArrayList<>(EquipmentTypeManager.getInstance().getSellableTypes());
+		savedBorrowable = new ArrayList<>(EquipmentManager.getInstance().getBorrowableCollection());
+		savedSellable = new ArrayList<>(EquipmentManager.getInstance().getSellableCollection());
+		savedFacilityRecords = new ArrayList<>(fbm.getBookingRecords());
+		savedEquipmentRecords = new ArrayList<>(ebm.getBookRecords());
+
+		fbm.reset();
+		ebm.reset();
+		// other tests may leave equipment whose type is no longer registered
+		EquipmentManager.getInstance().reset();
+		court = new SportFacility("Snap-Court", new SportFacilityType("SFT-SNAP", "Badminton", 20), SportFacility.Status.AVAILABLE);
+		ballType = new EquipmentType("ET-SNAP", "Snap Ball", "SNPB", "Basketball", 15);
+		EquipmentTypeManager.getInstance().addBorrowableType(ballType);
+		ball = new Equipment(1, ballType);
+		SportFacilityManager.getInstance().addSportFacility(court);
+		EquipmentManager.getInstance().addEquipment(ball);
+		date = LocalDate.now().plusDays(3);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		UserCollection.getInstance().clear();
+		for (User user : savedUsers) {
+			UserCollection.getInstance().addUser(user);
+		}
+		SportFacilityManager.getInstance().reset();
+		for (SportFacility facility : savedFacilities) {
+			SportFacilityManager.getInstance().addSportFacility(facility);
+		}
+		EquipmentTypeManager.getInstance().reset();
+		savedBorrowableTypes.forEach(EquipmentTypeManager.getInstance()::addBorrowableType);
+		savedSellableTypes.forEach(EquipmentTypeManager.getInstance()::addSellableType);
+		EquipmentManager.getInstance().reset();
+		savedBorrowable.forEach(EquipmentManager.getInstance()::addEquipment);
+		savedSellable.forEach(EquipmentManager.getInstance()::addEquipment);
+		fbm.reset();
+		ebm.reset();
+		for (FacilityBookRecord record : savedFacilityRecords) {
+			fbm.addBooking(record);
+		}
+		for (EquipmentBookRecord record : savedEquipmentRecords) {
+			ebm.addBookRecord(record);
+		}
+	}
+
+	@Test
+	public void testSnapshotRoundTrip() throws IOException {
+		User user = UserCollection.getInstance().addUser("snapUser", "Passw0rd!", new UserSecurityAnswer("Pet?", "Dog"));
+		user.upgradeToPlatinum();
+		FacilityBookRecord booking = fbm.tryReserve(court, date, 10, 12, user).getBookRecord();
+		booking.setStatus(BookingStatus.CONFIRMED);
+		EquipmentBookRecord borrowed = new EquipmentBookRecord(ball, user, date, 10, 12, BookingStatus.PENDING, 1);
+		ebm.addBookRecord(borrowed);
+
+		Path path = tempDir.resolve("state.snapshot");
+		StateSnapshot.write(path);
+		fbm.reset();
+		ebm.reset();
+		UserCollection.getInstance().clear();
+
+		assertTrue(StateSnapshot.load(path));
+
+		User restoredUser = UserCollection.getInstance().findUserByName("snapUser");
+		assertNotNull(restoredUser);
+		assertEquals(user.getUserID(), restoredUser.getUserID());
+		assertTrue(restoredUser.verifyPassword("Passw0rd!"));
+		assertTrue(restoredUser.verifySercurityAnswer("Dog"));
+		assertTrue(restoredUser.getMembership() instanceof PlatinumMemberShip);
+
+		assertEquals(1, fbm.getBookingRecords().size());
+		FacilityBookRecord restored = fbm.getBookingRecords().get(0);
+		assertEquals(booking.getBookingId(), restored.getBookingId());
+		assertEquals("Snap-Court", restored.getSportFacility().getName());
+		assertSame(SportFacilityManager.getInstance().getSportFacilityByName("Snap-Court"), restored.getSportFacility());
+		assertSame(restoredUser, restored.getUser());
+		assertEquals(BookingStatus.CONFIRMED, restored.getStatus());
+		assertEquals(booking.getCreatedAt(), restored.getCreatedAt());
+
+		assertEquals(1, ebm.getBookRecords().size());
+		EquipmentBookRecord restoredBorrowed = ebm.getBookRecords().get(0);
+		assertEquals(borrowed.getBookingId(), restoredBorrowed.getBookingId());
+		assertEquals(ball.getEquipmentID(), restoredBorrowed.getBookingEquipment().get(0).getEquipmentID());
+		assertNotNull(EquipmentTypeManager.getInstance().getEquipmentTypeByID("ET-SNAP"));
+	}
+
+	@Test
+	public void testMissingSnapshotIsNotLoaded() throws IOException {
+		assertFalse(StateSnapshot.load(tempDir.resolve("missing.snapshot")));
+		assertSame(court, SportFacilityManager.getInstance().getSportFacilityByName("Snap-Court"));
+	}
+
+	@Test
+	public void testBookingOfUnknownUserIsSkipped() throws IOException {
+		User user = UserCollection.getInstance().addUser("snapUser", "Passw0rd!", new UserSecurityAnswer("Pet?", "Dog"));
+		fbm.tryReserve(court, date, 10, 12, user);
+		// a booking whose user is not in the snapshot, such as one removed while it was written
+		User stranger = new User("snapStranger", 424242, "pw", null);
+		fbm.tryReserve(court, date, 14, 15, stranger);
+
+		Path path = tempDir.resolve("state.snapshot");
+		StateSnapshot.write(path);
+		fbm.reset();
+
+		assertTrue(StateSnapshot.load(path));
+		assertEquals(1, StateSnapshot.getSkippedCount());
+		assertEquals(1, fbm.getBookingRecords().size());
+		assertEquals("snapUser", fbm.getBookingRecords().get(0).getUser().getUsername());
+	}
+
+	@Test
+	public void testCheckpointCompactsLog() throws IOException {
+		Path logPath = tempDir.resolve("bookings.wal");
+		Path snapshotPath = tempDir.resolve("state.snapshot");
+		DataStore store = DataStore.open(logPath, snapshotPath);
+		RecoveryReport first = store.recover();
+		assertFalse(first.isSnapshotLoaded());
+		assertEquals(0, first.getReplayedCount());
+		store.attach();
+
+		User user = UserCollection.getInstance().addUser("snapUser", "Passw0rd!", new UserSecurityAnswer("Pet?", "Dog"));
+		FacilityBookRecord booking = fbm.tryReserve(court, date, 10, 12, user).getBookRecord();
+		assertEquals(2, WriteAheadLog.readEntries(logPath).size());
+
+		store.checkpoint();
+		assertEquals(0, WriteAheadLog.readEntries(logPath).size());
+
+		booking.setStatus(BookingStatus.CONFIRMED);
+		fbm.tryReserve(court, date, 14, 15, user);
+		store.close();
+		assertEquals(2, WriteAheadLog.readEntries(logPath).size());
+
+		fbm.reset();
+		UserCollection.getInstance().removeUserByName("snapUser");
+
+		DataStore reopened = DataStore.open(logPath, snapshotPath);
+		RecoveryReport report = reopened.recover();
+		reopened.close();
+
+		assertTrue(report.isSnapshotLoaded());
+		assertEquals(2, report.getReplayedCount());
+		assertEquals(0, report.getSkippedCount());
+		assertEquals(2, report.getBookingCount());
+		assertEquals(UserCollection.getInstance().findUser().size(), report.getUserCount());
+		// restored holds were counted in the run that made them
+		assertEquals(0, PendingHoldPolicy.getInstance().getHoldsCreated());
+		assertEquals(0, PendingHoldPolicy.getInstance().getHoldsConverted());
+
+		User restoredUser = UserCollection.getInstance().findUserByName("snapUser");
+		assertEquals(2, fbm.getUserBookingRecords(restoredUser).size());
+		FacilityBookRecord restored = fbm.getUserBookingRecords(restoredUser).get(0);
+		assertEquals(booking.getBookingId(), restored.getBookingId());
+		assertEquals(BookingStatus.CONFIRMED, restored.getStatus());
+	}
+
+}
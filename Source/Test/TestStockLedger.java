@@ -0,0 +1,192 @@
+package Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import sportapp.User;
+import sportapp.UserCollection;
+import sportapp.UserSecurityAnswer;
+import sportapp.manager.EquipmentBookManager;
+import sportapp.manager.EquipmentTypeManager;
+import sportapp.manager.StockLedger;
+import sportapp.model.BookingStatus;
+import sportapp.model.Equipment;
+import sportapp.model.EquipmentBookRecord;
+import sportapp.model.EquipmentType;
+
+public class TestStockLedger {
+	private StockLedger ledger;
+	private EquipmentBookManager ebm;
+	private EquipmentType shirtType;
+	private Equipment shirt;
+	private User user;
+	private ArrayList<EquipmentBookRecord> added;
+
+	@BeforeEach
+	public void setUp() {
+		ledger = StockLedger.getInstance();
+		ebm = EquipmentBookManager.getInstance();
+		shirtType = new EquipmentType("ET-STOCK", "Stock Shirt", "STKS", "Basketball", 30);
+		EquipmentTypeManager.getInstance().addSellableType(shirtType);
+		shirt = new Equipment(1, shirtType);
+		user = UserCollection.getInstance().addUser("stockUser", "Passw0rd!", new UserSecurityAnswer("Pet?", "Dog"));
+		added = new ArrayList<>();
+	}
+
+	@AfterEach
+	public void tearDown() {
+		for (EquipmentBookRecord record : added) {
+			ebm.removeBooking(record);
+		}
+		EquipmentTypeManager.getInstance().removeSellableType(shirtType);
+		UserCollection.getInstance().removeUserByName("stockUser");
+		ledger.reset();
+	}
+
+	private EquipmentBookRecord sale(int quantity) {
+		EquipmentBookRecord record = new EquipmentBookRecord(shirt, user, LocalDate.now(), 0, 0, BookingStatus.PENDING, quantity);
+		ebm.addBookRecord(record);
+		added.add(record);
+		return record;
+	}
+
+	@Test
+	public void testUntrackedTypeIsUnlimited() {
+		assertFalse(ledger.isTracked(shirtType));
+		assertEquals(Long.MAX_VALUE, ledger.getAvailable(shirtType));
+		assertTrue(ledger.reserve(shirtType, 1000));
+		assertEquals(0, ledger.getReserved(shirtType));
+	}
+
+	@Test
+	public void testReserveCommitRelease() {
+		ledger.setStock(shirtType, 10);
+		assertTrue(ledger.reserve(shirtType, 4));
+		assertEquals(6, ledger.getAvailable(shirtType));
+		assertEquals(4, ledger.getReserved(shirtType));
+
+		ledger.commit(shirtType, 3);
+		assertEquals(1, ledger.getReserved(shirtType));
+		assertEquals(3, ledger.getSold(shirtType));
+
+		ledger.release(shirtType, 1);
+		assertEquals(7, ledger.getAvailable(shirtType));
+		assertEquals(0, ledger.getReserved(shirtType));
+
+		assertFalse(ledger.reserve(shirtType, 8));
+		assertEquals(7, ledger.getAvailable(shirtType));
+	}
+
+	@Test
+	public void testInvalidStock() {
+		assertThrows(IllegalArgumentException.class, () -> ledger.setStock(shirtType, -1));
+		assertThrows(IllegalArgumentException.class, () -> ledger.addStock(shirtType, 5));
+		ledger.setStock(shirtType, 0);
+		assertThrows(IllegalArgumentException.class, () -> ledger.addStock(shirtType, 0));
+		ledger.addStock(shirtType, 5);
+		assertEquals(5, ledger.getAvailable(shirtType));
+	}
+
+	@Test
+	public void testConcurrentReservesNeverOversell() throws InterruptedException {
+		ledger.setStock(shirtType, 1000);
+		AtomicInteger granted = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		Thread[] threads = new Thread[8];
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					return;
+				}
+				for (int j = 0; j < 500; j++) {
+					if (ledger.reserve(shirtType, 1)) {
+						granted.incrementAndGet();
+					}
+				}
+			});
+			threads[i].start();
+		}
+		start.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		assertEquals(1000, granted.get());
+		assertEquals(0, ledger.getAvailable(shirtType));
+		assertEquals(1000, ledger.getReserved(shirtType));
+	}
+
+	@Test
+	public void testSaleLifecycle() {
+		ledger.setStock(shirtType, 5);
+		EquipmentBookRecord confirmed = sale(2);
+		EquipmentBookRecord dropped = sale(2);
+		assertEquals(1, ledger.getAvailable(shirtType));
+		assertEquals(4, ledger.getReserved(shirtType));
+
+		confirmed.setStatus(BookingStatus.CONFIRMED);
+		assertEquals(2, ledger.getReserved(shirtType));
+		assertEquals(2, ledger.getSold(shirtType));
+
+		ebm.removeBooking(dropped);
+		assertEquals(3, ledger.getAvailable(shirtType));
+		assertEquals(0, ledger.getReserved(shirtType));
+
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> sale(4));
+		assertEquals("Not enough stock of Stock Shirt left.", e.getMessage());
+		assertEquals(3, ledger.getAvailable(shirtType));
+		assertEquals(0, ledger.getReserved(shirtType));
+	}
+
+	/**
+	 * Adds the same sale from several threads at once, then drops it. Only one add may reserve
+	 * stock, so nothing stays reserved once the sale is gone.
+	 */
+	@Test
+	public void testConcurrentAddsOfOneSaleReserveOnce() throws Exception {
+		ledger.setStock(shirtType, 10);
+		CyclicBarrier barrier = new CyclicBarrier(4);
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+		try {
+			for (int i = 0; i < 10000; i++) {
+				EquipmentBookRecord record = new EquipmentBookRecord(shirt, user, LocalDate.now(), 0, 0, BookingStatus.PENDING, 1);
+				Runnable add = () -> {
+					try {
+						barrier.await(10, TimeUnit.SECONDS);
+					} catch (Exception e) {
+						throw new IllegalStateException(e);
+					}
+					ebm.addBookRecord(record);
+				};
+				ArrayList<Future<?>> adds = new ArrayList<>();
+				for (int t = 0; t < 4; t++) {
+					adds.add(pool.submit(add));
+				}
+				for (Future<?> future : adds) {
+					future.get();
+				}
+				assertEquals(1, ledger.getReserved(shirtType), "Reserved twice in round " + i);
+
+				ebm.removeBooking(record);
+				assertEquals(0, ledger.getReserved(shirtType), "Reservation leaked in round " + i);
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,96 @@
+package Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import sportapp.User;
+import sportapp.UserCollection;
+import sportapp.manager.FacilityBookManager;
+import sportapp.manager.UserBookingIndex;
+import sportapp.model.BookingStatus;
+import sportapp.model.FacilityBookRecord;
+import sportapp.model.SportFacility;
+import sportapp.model.SportFacilityType;
+
+public class TestUserBookingIndex {
+	private UserBookingIndex<FacilityBookRecord> index;
+	private SportFacility court;
+	private User alice;
+	private User bob;
+	private LocalDate date;
+
+	@BeforeEach
+	public void setUp() {
+		index = new UserBookingIndex<>();
+		court = new SportFacility("Court 1", new SportFacilityType("Court", "Badminton", 20), SportFacility.Status.AVAILABLE);
+		alice = new User("alice", 1, "pw", null);
+		bob = new User("bob", 2, "pw", null);
+		date = LocalDate.of(2025, 10, 20);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		FacilityBookManager.getInstance().reset();
+	}
+
+	@Test
+	public void testGetByUserAndStatus() {
+		FacilityBookRecord later = new FacilityBookRecord(court, alice, date.plusDays(1), 10, 12, BookingStatus.PENDING);
+		FacilityBookRecord earlier = new FacilityBookRecord(court, alice, date, 14, 15, BookingStatus.PENDING);
+		FacilityBookRecord confirmed = new FacilityBookRecord(court, alice, date, 9, 10, BookingStatus.CONFIRMED);
+		FacilityBookRecord other = new FacilityBookRecord(court, bob, date, 12, 13, BookingStatus.PENDING);
+		index.add(later);
+		index.add(earlier);
+		index.add(confirmed);
+		index.add(other);
+
+		ArrayList<FacilityBookRecord> pending = index.get(alice, BookingStatus.PENDING);
+		assertEquals(2, pending.size());
+		assertSame(earlier, pending.get(0));
+		assertSame(later, pending.get(1));
+		assertEquals(1, index.get(alice, BookingStatus.CONFIRMED).size());
+		assertEquals(3, index.get(alice).size());
+		assertSame(confirmed, index.get(alice).get(0));
+		assertTrue(index.get(null).isEmpty());
+	}
+
+	@Test
+	public void testMoveAndRemove() {
+		FacilityBookRecord record = new FacilityBookRecord(court, alice, date, 10, 12, BookingStatus.PENDING);
+		index.add(record);
+		record.setStatus(BookingStatus.CONFIRMED);
+		index.move(record, BookingStatus.PENDING);
+		assertTrue(index.get(alice, BookingStatus.PENDING).isEmpty());
+		assertEquals(1, index.get(alice, BookingStatus.CONFIRMED).size());
+
+		index.remove(record);
+		assertTrue(index.get(alice).isEmpty());
+
+		index.move(record, BookingStatus.CONFIRMED);
+		assertTrue(index.get(alice).isEmpty());
+	}
+
+	@Test
+	public void testManagerFollowsStatusChanges() {
+		UserCollection.getInstance().addUser(alice);
+		FacilityBookManager manager = FacilityBookManager.getInstance();
+		FacilityBookRecord record = new FacilityBookRecord(court, alice, date, 10, 12, BookingStatus.PENDING);
+		manager.addBooking(record);
+		assertEquals(1, manager.getUserBooking(alice).size());
+
+		record.setStatus(BookingStatus.CONFIRMED);
+		assertTrue(manager.getUserBooking(alice).isEmpty());
+		assertSame(record, manager.getUserConfirmedBooking(alice).get(0));
+
+		manager.removeBooking(record);
+		assertTrue(manager.getUserBookingRecords(alice).isEmpty());
+		record.setStatus(BookingStatus.PENDING);
+		assertTrue(manager.getUserBookingRecords(alice).isEmpty());
+	}
+}
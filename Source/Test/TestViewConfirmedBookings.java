@@ -393,7 +393,7 @@ public class TestViewConfirmedBookings {
     public void UpdateDateTime_DoneEquipment() { 
     	//not allowed
     	try {
-    		//System.out.println("!!!!!!!!!!!!#####THIS IS EQUIPMENTSELLABLE: " + cbm.getEquipmentList().get(2-1).getBookingEquipment().get(0).getEquipmentName() + "Sellable: " + cbm.getEquipmentList().get(3-1).isSellable());
+    		//System.out.println("!!!!!!!!!!!!#####THIS IS EQUIPMENTSELLABLE: " + cbm.getEquipmentList(uc.findUserByName("Tom")).get(2-1).getBookingEquipment().get(0).getEquipmentName() + "Sellable: " + cbm.getEquipmentList(uc.findUserByName("Tom")).get(3-1).isSellable());
 			LocalDate bookDate = LocalDate.now().plusDays(4);
 			String bookDateString = bookDate.format(formatter);
     		
@@ -411,7 +411,7 @@ public class TestViewConfirmedBookings {
     public void UpdateDateTime_EquipSellable() { 
     	//not allowed
     	try {
-    		//System.out.println("!!!!!!!!!!!!#####THIS IS EQUIPMENTSELLABLE: " + cbm.getEquipmentList().get(2-1).getBookingEquipment().get(0).getEquipmentName() + "Sellable: " + cbm.getEquipmentList().get(3-1).isSellable());
+    		//System.out.println("!!!!!!!!!!!!#####THIS IS EQUIPMENTSELLABLE: " + cbm.getEquipmentList(uc.findUserByName("Tom")).get(2-1).getBookingEquipment().get(0).getEquipmentName() + "Sellable: " + cbm.getEquipmentList(uc.findUserByName("Tom")).get(3-1).isSellable());
 			LocalDate bookDate = LocalDate.now().plusDays(2);
 			String bookDateString = bookDate.format(formatter);
     		
@@ -419,7 +419,7 @@ public class TestViewConfirmedBookings {
       	   invokeSelectFunctionWithInput("1\n2\n" + bookDateString + "\n9\n10\ny", uc.findUserByName("Tom"), TEST_PART.UPDATE_DATETIME)
       	   );
       	   
-      	   assertEquals(true, cbm.getEquipmentList().get(2-1).isSellable());
+      	   assertEquals(true, cbm.getEquipmentList(uc.findUserByName("Tom")).get(2-1).isSellable());
       	   
       	   assertEquals("Cannot update Equipment which is sellable!", exception.getMessage());
          } catch (Exception e) {
@@ -435,7 +435,7 @@ public class TestViewConfirmedBookings {
 			String bookDateString = bookDate.format(formatter);
             //assertDoesNotThrow( ()-> invokeSelectFunctionWithInput("1\n1\n30/12/2025\n9\n10\nn", uc.findUserByName("Tom"), TEST_PART.UPDATE_DATETIME));
     		 invokeSelectFunctionWithInput("1\n4\n"+ bookDateString +"\n9\n10\nn", uc.findUserByName("Tom"), TEST_PART.UPDATE_DATETIME);
-    		 assertEquals(bookDate, cbm.getEquipmentList().get(4-1).getDate());
+    		 assertEquals(bookDate, cbm.getEquipmentList(uc.findUserByName("Tom")).get(4-1).getDate());
             //cbm.displayConfirmedRecord(0);
     	 } catch (Exception e) {
     		 
@@ -450,7 +450,7 @@ public class TestViewConfirmedBookings {
 			LocalDate bookDate = LocalDate.now().plusDays(2);
 			String bookDateString = bookDate.format(formatter);
     		 invokeSelectFunctionWithInput("2\n6\n" + bookDateString + "\n9\n10\nn", uc.findUserByName("Tom"), TEST_PART.UPDATE_DATETIME);
-    		 assertEquals(bookDate, cbm.getFacilityList().get(6-1).getDate());
+    		 assertEquals(bookDate, cbm.getFacilityList(uc.findUserByName("Tom")).get(6-1).getDate());
     		 
     		 //invokeSelectFunctionWithInput("2\n6\n4/12/2025\n20\n21\nn", uc.findUserByName("Tom"), TEST_PART.UPDATE_DATETIME);
             //cbm.displayConfirmedRecord(0);
@@ -533,8 +533,8 @@ public class TestViewConfirmedBookings {
          	 invokeSelectFunctionWithInput("6\n3\n", uc.findUserByName("Tom"), TEST_PART.UPDATE_FACILITY);
          	 //);
      		
-         	 System.out.print("!$@#Q$@#EFASRFRQ#$RFQWEFAS: "+cbm.getFacilityList().get(6-1).getSportFacility().getName());
-         	 assertEquals(sfm.getSportFacilityByName("SF-003"), cbm.getFacilityList().get(6-1).getSportFacility());
+         	 System.out.print("!$@#Q$@#EFASRFRQ#$RFQWEFAS: "+cbm.getFacilityList(uc.findUserByName("Tom")).get(6-1).getSportFacility().getName());
+         	 assertEquals(sfm.getSportFacilityByName("SF-003"), cbm.getFacilityList(uc.findUserByName("Tom")).get(6-1).getSportFacility());
          	   //get method.?
           } catch (Exception e) {
          	//System.out.println("############ Error: " + e.getMessage());
@@ -629,12 +629,12 @@ public class TestViewConfirmedBookings {
      	 try {
      		 boolean foundRecordCBM = false;
      		 boolean foundRecordEBM = false;
-     		 	EquipmentBookRecord testSubject = cbm.getEquipmentRecord(6);
+     		 	EquipmentBookRecord testSubject = cbm.getEquipmentRecord(uc.findUserByName("Tom"), 6);
      		 	
          	   invokeSelectFunctionWithInput("1\n7\ny", uc.findUserByName("Tom"), TEST_PART.CANCEL_BOOKING);
          	   
          	   
-         	   for ( EquipmentBookRecord i : cbm.getEquipmentList()) {
+         	   for ( EquipmentBookRecord i : cbm.getEquipmentList(uc.findUserByName("Tom"))) {
          		   if (i.equals(testSubject))
          			   foundRecordCBM = true;
          	   }
@@ -656,7 +656,7 @@ public class TestViewConfirmedBookings {
      	 try {
      		 boolean foundRecordCBM = false;
      		 boolean foundRecordEBM = false;
-     		 EquipmentBookRecord testSubject = cbm.getEquipmentRecord(2-1);
+     		 EquipmentBookRecord testSubject = cbm.getEquipmentRecord(uc.findUserByName("Tom"), 2-1);
      		 //System.out.println("!!!#New Sellable equipment: " + testSubject.getBookingEquipment().get(0).getEquipmentName());
      		 	
          	Exception exception = assertThrows(Exception.class, () -> invokeSelectFunctionWithInput("1\n2\ny", uc.findUserByName("Tom"), TEST_PART.CANCEL_BOOKING));
@@ -672,13 +672,13 @@ public class TestViewConfirmedBookings {
      	 try {
      		 boolean foundRecordCBM = false;
      		 boolean foundRecordFBM = false;
-     		 	FacilityBookRecord testSubject = cbm.getFacilityRecord(6-1);
+     		 	FacilityBookRecord testSubject = cbm.getFacilityRecord(uc.findUserByName("Tom"), 6-1);
          	   
      		 	assertDoesNotThrow( //for testing this, testing time also matter.
      		 		() -> invokeSelectFunctionWithInput("2\n6\ny", uc.findUserByName("Tom"), TEST_PART.CANCEL_BOOKING)
           	   );
          	   
-         	   for ( FacilityBookRecord i : cbm.getFacilityList()) {
+         	   for ( FacilityBookRecord i : cbm.getFacilityList(uc.findUserByName("Tom"))) {
          		   if (i.equals(testSubject))
          			   foundRecordCBM = true;
          	   }
@@ -699,13 +699,13 @@ public class TestViewConfirmedBookings {
      	 try {
      		 boolean foundRecordCBM = false;
      		 boolean foundRecordFBM = false;
-     		 	FacilityBookRecord testSubject = cbm.getFacilityRecord(6-1);
+     		 	FacilityBookRecord testSubject = cbm.getFacilityRecord(uc.findUserByName("Tom"), 6-1);
          	   
      		 	assertDoesNotThrow( //for testing this, testing time also matter.
      		 		() -> invokeSelectFunctionWithInput("2\n6\nn", uc.findUserByName("Tom"), TEST_PART.CANCEL_BOOKING)
           	   );
          	   
-         	   for ( FacilityBookRecord i : cbm.getFacilityList()) {
+         	   for ( FacilityBookRecord i : cbm.getFacilityList(uc.findUserByName("Tom"))) {
          		   if (i.equals(testSubject))
          			   foundRecordCBM = true;
          	   }
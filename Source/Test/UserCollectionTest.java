@@ -8,6 +8,9 @@ import org.junit.jupiter.api.*;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.beans.Transient;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
 
 
 
@@ -48,4 +51,60 @@ public class UserCollectionTest {
         User newuser = new User("bot", 1, "123456", new UserSecurityAnswer("What is your age?", "21"));
         assertEquals(false, userCollection.checkUserExist(newuser));
     }
+
+    @Test
+    void test_registerUserRejectsTakenName(){
+        User first = userCollection.registerUser("bot", "123456", new UserSecurityAnswer("What is your age?", "21"));
+        assertNotNull(first);
+        assertNull(userCollection.registerUser("bot", "654321", new UserSecurityAnswer("What is your age?", "22")));
+        assertSame(first, userCollection.findUserByName("bot"));
+        assertSame(first, userCollection.findUserByID(first.getUserID()));
+    }
+
+    @Test
+    void test_restoredUserKeepsIDAndLaterUsersGetGreaterIDs(){
+        User restored = new User("restored", 5000, "123456", null);
+        userCollection.restoreUser(restored);
+        User later = userCollection.registerUser("later", "123456", null);
+        assertSame(restored, userCollection.findUserByID(5000));
+        assertTrue(later.getUserID() > 5000);
+        userCollection.removeUserByName("restored");
+        assertNull(userCollection.findUserByID(5000));
+        assertFalse(userCollection.checkUserExist(restored));
+    }
+
+    @Test
+    void test_concurrentSignUpsCreateOneUserPerName() throws InterruptedException {
+        int threads = 8;
+        AtomicInteger registered = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ArrayList<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int j = 0; j < 200; j++) {
+                    if (userCollection.registerUser("user" + j, "123456", null) != null) {
+                        registered.incrementAndGet();
+                    }
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertEquals(200, registered.get());
+        assertEquals(200, userCollection.findUser().size());
+        ArrayList<User> users = userCollection.findUser();
+        for (int i = 1; i < users.size(); i++) {
+            assertTrue(users.get(i - 1).getUserID() < users.get(i).getUserID());
+        }
+    }
 }
@@ -39,7 +39,9 @@ public class UserTest {
     @Test
     void test_setPassword(){
         user.setPassword("654321");
-        assertEquals("654321", user.getPassword());
+        assertTrue(user.verifyPassword("654321"));
+        assertFalse(user.verifyPassword("123456"));
+        assertNotEquals("654321", user.getPassword());
     }
 
     @Test
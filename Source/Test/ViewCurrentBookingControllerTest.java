@@ -28,7 +28,7 @@ class ViewCurrentBookingControllerTest {
     void setUp() {
     	// Clear all data
         UserCollection.getInstance().clear();
-        FacilityBookManager.getInstance().getBookingRecords().clear();
+        FacilityBookManager.getInstance().reset();
         SportFacilityManager.getInstance().getSportFacilities().clear();
         
         // Create test data
@@ -265,6 +265,7 @@ class ViewCurrentBookingControllerTest {
         
         // Assert
         assertFalse(result);
+        assertNotSame(newFacility, testFacilityBooking.getSportFacility());
     }
     
     @Test
@@ -477,11 +478,9 @@ class ViewCurrentBookingControllerTest {
     @DisplayName("Test updateBookingDateTime for Equipment - success (borrowable)")
     void testUpdateBookingDateTime_Equipment_SuccessBorrowable() {
         // Clear equipment-related managers
-        EquipmentManager.getInstance().getBorrowableCollection().clear();
-        EquipmentManager.getInstance().getSellableCollection().clear();
-        EquipmentBookManager.getInstance().getBookRecords().clear();
-        EquipmentTypeManager.getInstance().getBorrowableTypes().clear();
-        EquipmentTypeManager.getInstance().getSellableTypes().clear();
+        EquipmentManager.getInstance().reset();
+        EquipmentBookManager.getInstance().reset();
+        EquipmentTypeManager.getInstance().reset();
 
         // Arrange: create a borrowable equipment type and two equipment items
         EquipmentType type = new EquipmentType("ET-SUCC", "Success Equip", "EQ", "GEN", 5.0);
@@ -507,11 +506,9 @@ class ViewCurrentBookingControllerTest {
     @DisplayName("Test updateBookingDateTime for Equipment - failure invalid time")
     void testUpdateBookingDateTime_Equipment_InvalidTime() {
         // Clear equipment managers
-        EquipmentManager.getInstance().getBorrowableCollection().clear();
-        EquipmentManager.getInstance().getSellableCollection().clear();
-        EquipmentBookManager.getInstance().getBookRecords().clear();
-        EquipmentTypeManager.getInstance().getBorrowableTypes().clear();
-        EquipmentTypeManager.getInstance().getSellableTypes().clear();
+        EquipmentManager.getInstance().reset();
+        EquipmentBookManager.getInstance().reset();
+        EquipmentTypeManager.getInstance().reset();
 
         // Arrange
         EquipmentType type = new EquipmentType("ET-INV", "InvalidTimeEquip", "EQ", "GEN", 5.0);
@@ -531,11 +528,9 @@ class ViewCurrentBookingControllerTest {
     @DisplayName("Test updateBookingDateTime for Equipment - failure insufficient equipments")
     void testUpdateBookingDateTime_Equipment_Insufficient() {
         // Clear equipment managers
-        EquipmentManager.getInstance().getBorrowableCollection().clear();
-        EquipmentManager.getInstance().getSellableCollection().clear();
-        EquipmentBookManager.getInstance().getBookRecords().clear();
-        EquipmentTypeManager.getInstance().getBorrowableTypes().clear();
-        EquipmentTypeManager.getInstance().getSellableTypes().clear();
+        EquipmentManager.getInstance().reset();
+        EquipmentBookManager.getInstance().reset();
+        EquipmentTypeManager.getInstance().reset();
 
         // Arrange: only one equipment of given type exists
         EquipmentType type = new EquipmentType("ET-ONE", "SingleEquip", "EQ", "GEN", 5.0);
@@ -14,6 +14,7 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import sportapp.Clock;
 import sportapp.Route;
 import sportapp.User;
 import sportapp.UserSecurityAnswer;
@@ -148,8 +149,8 @@ class ViewCurrentBookingUITest {
     @Test
     void display_withFacilityAndEquipment_listsBoth() throws Exception {
         FakeController fc = new FakeController();
-        FacilityBookRecord fr = makeFacilityBooking("CourtA", LocalDate.now().plusDays(1), 9, 11, BookingStatus.PENDING);
-        EquipmentBookRecord er = makeEquipmentBooking("Racket", LocalDate.now().plusDays(1), 12, 13, BookingStatus.PENDING, true, 1);
+        FacilityBookRecord fr = makeFacilityBooking("CourtA", Clock.getInstance().getToday().plusDays(1), 9, 11, BookingStatus.PENDING);
+        EquipmentBookRecord er = makeEquipmentBooking("Racket", Clock.getInstance().getToday().plusDays(1), 12, 13, BookingStatus.PENDING, true, 1);
         fc.pendingFacility.add(fr);
         fc.pendingEquipment.add(er);
 
@@ -165,7 +166,7 @@ class ViewCurrentBookingUITest {
     @Test
     void cancelFacility_confirmYes_removesBooking() throws Exception {
         FakeController fc = new FakeController();
-        FacilityBookRecord fr = makeFacilityBooking("CourtB", LocalDate.now().plusDays(2), 10, 12, BookingStatus.PENDING);
+        FacilityBookRecord fr = makeFacilityBooking("CourtB", Clock.getInstance().getToday().plusDays(2), 10, 12, BookingStatus.PENDING);
         fc.pendingFacility.add(fr);
 
         // menu: display -> choose 3 (cancel) -> select 1 -> confirm Y -> exit
@@ -181,10 +182,10 @@ class ViewCurrentBookingUITest {
     @Test
     void updateDateTime_facility_noSlots_printsNoAvailable() throws Exception {
         FakeController fc = new FakeController();
-        FacilityBookRecord f = makeFacilityBooking("F2", LocalDate.now().plusDays(2), 9, 10, BookingStatus.PENDING);
+        FacilityBookRecord f = makeFacilityBooking("F2", Clock.getInstance().getToday().plusDays(2), 9, 10, BookingStatus.PENDING);
         fc.pendingFacility.add(f);
 
-        String date = LocalDate.now().plusDays(5).toString();
+        String date = Clock.getInstance().getToday().plusDays(5).toString();
         String input = String.join("\n", "1", "1", date, "5") + "\n"; // choose update date/time, select booking 1, input date, then return
         ViewCurrentBookingUI ui = makeUIWithController(fc, input);
         Route r = ui.display(new Scanner(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8))), testUser());
@@ -196,7 +197,7 @@ class ViewCurrentBookingUITest {
     @Test
     void updateDateTime_facility_success_and_failure() throws Exception {
         FakeController fc = new FakeController();
-        FacilityBookRecord f = makeFacilityBooking("F3", LocalDate.now().plusDays(3), 9, 10, BookingStatus.PENDING);
+        FacilityBookRecord f = makeFacilityBooking("F3", Clock.getInstance().getToday().plusDays(3), 9, 10, BookingStatus.PENDING);
         fc.pendingFacility.add(f);
 
         ArrayList<int[]> s = new ArrayList<>();
@@ -205,7 +206,7 @@ class ViewCurrentBookingUITest {
 
         // success path
         fc.updateBookingDateTimeResult = true;
-        String date = LocalDate.now().plusDays(6).toString();
+        String date = Clock.getInstance().getToday().plusDays(6).toString();
         String input1 = String.join("\n", "1", "1", date, "10", "12", "5") + "\n"; // pick update, select booking 1, date, start 10 end 12
         ViewCurrentBookingUI ui1 = makeUIWithController(fc, input1);
         Route r1 = ui1.display(new Scanner(new ByteArrayInputStream(input1.getBytes(StandardCharsets.UTF_8))), testUser());
@@ -228,7 +229,7 @@ class ViewCurrentBookingUITest {
     @Test
     void updateFacility_success_and_failure() throws Exception {
         FakeController fc = new FakeController();
-        FacilityBookRecord fr = makeFacilityBooking("FUF", LocalDate.now().plusDays(2), 10, 11, BookingStatus.PENDING);
+        FacilityBookRecord fr = makeFacilityBooking("FUF", Clock.getInstance().getToday().plusDays(2), 10, 11, BookingStatus.PENDING);
         fc.pendingFacility.add(fr);
 
         SportFacilityType sft = new SportFacilityType("T-1", "Type1", 10);
@@ -240,7 +241,7 @@ class ViewCurrentBookingUITest {
         slots.add(new int[]{9,21});
         fc.slots.put(newF, slots);
 
-        String date = LocalDate.now().plusDays(5).toString();
+        String date = Clock.getInstance().getToday().plusDays(5).toString();
 
         // success
         fc.updateBookingFacilityResult = true;
@@ -267,9 +268,9 @@ class ViewCurrentBookingUITest {
     void selectBooking_invalidThenValid_thenCancelEquipment() throws Exception {
         FakeController fc = new FakeController();
         // two facilities and one equipment
-        fc.pendingFacility.add(makeFacilityBooking("F1", LocalDate.now().plusDays(1), 9, 10, BookingStatus.PENDING));
-        fc.pendingFacility.add(makeFacilityBooking("F2", LocalDate.now().plusDays(1), 10, 11, BookingStatus.PENDING));
-        EquipmentBookRecord er = makeEquipmentBooking("E1", LocalDate.now().plusDays(1), 12, 13, BookingStatus.PENDING, true, 1);
+        fc.pendingFacility.add(makeFacilityBooking("F1", Clock.getInstance().getToday().plusDays(1), 9, 10, BookingStatus.PENDING));
+        fc.pendingFacility.add(makeFacilityBooking("F2", Clock.getInstance().getToday().plusDays(1), 10, 11, BookingStatus.PENDING));
+        EquipmentBookRecord er = makeEquipmentBooking("E1", Clock.getInstance().getToday().plusDays(1), 12, 13, BookingStatus.PENDING, true, 1);
         fc.pendingEquipment.add(er);
 
         // choose cancel (3), then invalid input 'abc', then out-of-range 99, then choose 3 (equipment), confirm Y, exit
@@ -286,11 +287,11 @@ class ViewCurrentBookingUITest {
     @Test
     void inputDate_empty_invalid_past_then_future_noSlots() throws Exception {
         FakeController fc = new FakeController();
-        FacilityBookRecord f = makeFacilityBooking("FD", LocalDate.now().plusDays(1), 9, 10, BookingStatus.PENDING);
+        FacilityBookRecord f = makeFacilityBooking("FD", Clock.getInstance().getToday().plusDays(1), 9, 10, BookingStatus.PENDING);
         fc.pendingFacility.add(f);
 
-        String datePast = LocalDate.now().minusDays(1).toString();
-        String dateFuture = LocalDate.now().plusDays(3).toString();
+        String datePast = Clock.getInstance().getToday().minusDays(1).toString();
+        String dateFuture = Clock.getInstance().getToday().plusDays(3).toString();
         String input = String.join("\n", "1", "1", "", "bad", datePast, dateFuture, "5") + "\n";
         ViewCurrentBookingUI ui = makeUIWithController(fc, input);
         Route r = ui.display(new Scanner(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8))), testUser());
@@ -305,13 +306,13 @@ class ViewCurrentBookingUITest {
     @Test
     void selectTimeSlot_invalidThenValid() throws Exception {
         FakeController fc = new FakeController();
-        FacilityBookRecord fr = makeFacilityBooking("TS", LocalDate.now().plusDays(2), 9, 10, BookingStatus.PENDING);
+        FacilityBookRecord fr = makeFacilityBooking("TS", Clock.getInstance().getToday().plusDays(2), 9, 10, BookingStatus.PENDING);
         fc.pendingFacility.add(fr);
         ArrayList<int[]> s = new ArrayList<>();
         s.add(new int[]{9,21});
         fc.slots.put(fr.getSportFacility(), s);
 
-        String date = LocalDate.now().plusDays(4).toString();
+        String date = Clock.getInstance().getToday().plusDays(4).toString();
         // invalid (end <= start), then start outside slot, then valid
         String input = String.join("\n", "1", "1", date, "15", "14", "8", "10", "10", "12", "5") + "\n";
         ViewCurrentBookingUI ui = makeUIWithController(fc, input);
@@ -326,8 +327,8 @@ class ViewCurrentBookingUITest {
     @Test
     void equipment_borrowable_and_nonBorrowable_updatePaths() throws Exception {
         FakeController fc = new FakeController();
-        EquipmentBookRecord eqBorrow = makeEquipmentBooking("EQB", LocalDate.now().plusDays(1), 9, 10, BookingStatus.PENDING, true, 1);
-        EquipmentBookRecord eqNon = makeEquipmentBooking("EQN", LocalDate.now().plusDays(1), 10, 11, BookingStatus.PENDING, false, 1);
+        EquipmentBookRecord eqBorrow = makeEquipmentBooking("EQB", Clock.getInstance().getToday().plusDays(1), 9, 10, BookingStatus.PENDING, true, 1);
+        EquipmentBookRecord eqNon = makeEquipmentBooking("EQN", Clock.getInstance().getToday().plusDays(1), 10, 11, BookingStatus.PENDING, false, 1);
         fc.pendingEquipment.add(eqBorrow);
         fc.pendingEquipment.add(eqNon);
 
@@ -336,7 +337,7 @@ class ViewCurrentBookingUITest {
         // key for borrowable is the booking.getBookingEquipment() (ArrayList<Equipment>)
         fc.slots.put(eqBorrow.getBookingEquipment(), slots);
 
-        String date = LocalDate.now().plusDays(3).toString();
+        String date = Clock.getInstance().getToday().plusDays(3).toString();
         // update borrowable (choice 1 -> booking 1), then update non-borrowable (choice 1 -> booking 2)
         String input = String.join("\n",
                 "1", "2", date, "10", "12",
@@ -354,7 +355,7 @@ class ViewCurrentBookingUITest {
     void display_menuInvalidAndDefault() throws Exception {
         FakeController fc = new FakeController();
         // need at least one booking so menu appears
-        fc.pendingFacility.add(makeFacilityBooking("M1", LocalDate.now().plusDays(1), 9, 10, BookingStatus.PENDING));
+        fc.pendingFacility.add(makeFacilityBooking("M1", Clock.getInstance().getToday().plusDays(1), 9, 10, BookingStatus.PENDING));
         String input = String.join("\n", "abc", "9", "5") + "\n";
         ViewCurrentBookingUI ui = makeUIWithController(fc, input);
         Route r = ui.display(new Scanner(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8))), testUser());
@@ -369,9 +370,9 @@ class ViewCurrentBookingUITest {
         FakeController fc = new FakeController();
         // Create a pending facility booking
         FacilityBookRecord fr = new FacilityBookRecord(
-                makeFacilityBooking("PayF", LocalDate.now().plusDays(1), 9, 10, BookingStatus.PENDING).getSportFacility(),
+                makeFacilityBooking("PayF", Clock.getInstance().getToday().plusDays(1), 9, 10, BookingStatus.PENDING).getSportFacility(),
                 testUser(),
-                LocalDate.now().plusDays(1), 9, 10, BookingStatus.PENDING) {
+                Clock.getInstance().getToday().plusDays(1), 9, 10, BookingStatus.PENDING) {
             @Override public double getTotalPrice() { return 25.0; }
         };
         fc.pendingFacility.add(fr);
@@ -0,0 +1,162 @@
+package sportapp;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Bloom filter of common and breached passwords, memory-mapped from a file built by
+ * {@link BreachedPasswordFilterBuilder}.
+ * <p>
+ * The bits stay in the mapped file rather than on the heap, so a list of millions of passwords
+ * costs a few MB of page cache and almost no heap. A lookup hashes the password once and reads
+ * a handful of words. A password on the list is always found; a password not on the list is
+ * found by mistake at about the false positive rate the file was built for.
+ * <p>
+ * The file holds a header of {@link #HEADER_BYTES} bytes (magic number, version, hash count,
+ * bit count and entry count) followed by the bits, 64 to a word.
+ */
+public class BreachedPasswordFilter {
+    /**
+     * Magic number at the start of a filter file, "SPBF".
+     */
+    static final int MAGIC = 0x53504246;
+
+    /**
+     * Format version of filter files.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * Size of the file header in bytes.
+     */
+    static final int HEADER_BYTES = 28;
+
+    private final ByteBuffer words;
+    private final int hashCount;
+    private final long bitCount;
+    private final long entryCount;
+
+    /**
+     * Constructs a filter over mapped bits.
+     * @param words buffer holding the header and the bits
+     * @param hashCount number of bits set per password
+     * @param bitCount number of bits
+     * @param entryCount number of passwords added
+     */
+    private BreachedPasswordFilter(ByteBuffer words, int hashCount, long bitCount, long entryCount) {
+        this.words = words;
+        this.hashCount = hashCount;
+        this.bitCount = bitCount;
+        this.entryCount = entryCount;
+    }
+
+    /**
+     * Maps a filter file into memory.
+     * @param path filter file
+     * @return filter backed by the file
+     * @throws IOException if the file cannot be read or is not a filter file
+     */
+    public static BreachedPasswordFilter open(Path path) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES || channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Not a password filter file: " + path);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Not a password filter file: " + path);
+        }
+        int hashCount = buffer.getInt(8);
+        long bitCount = buffer.getLong(12);
+        long entryCount = buffer.getLong(20);
+        if (hashCount <= 0 || bitCount <= 0 || bitCount % 64 != 0 || HEADER_BYTES + bitCount / 8 != buffer.capacity()) {
+            throw new IOException("Password filter file is damaged: " + path);
+        }
+        return new BreachedPasswordFilter(buffer, hashCount, bitCount, entryCount);
+    }
+
+    /**
+     * Checks whether a password may be on the list.
+     * @param password password to check
+     * @return false if the password is certainly not on the list
+     */
+    public boolean mightContain(String password) {
+        long hash = hash(password);
+        long h1 = mix(hash);
+        long h2 = step(hash);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            if ((words.getLong(HEADER_BYTES + (int) (bit >>> 6) * 8) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Retrieves the number of bits set per password.
+     * @return hash count
+     */
+    public int getHashCount() {
+        return hashCount;
+    }
+
+    /**
+     * Retrieves the size of the filter in bits.
+     * @return bit count
+     */
+    public long getBitCount() {
+        return bitCount;
+    }
+
+    /**
+     * Retrieves the number of passwords the filter was built from.
+     * @return entry count
+     */
+    public long getEntryCount() {
+        return entryCount;
+    }
+
+    /**
+     * Hashes a password with 64-bit FNV-1a over its characters.
+     * @param password password
+     * @return hash
+     */
+    static long hash(String password) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < password.length(); i++) {
+            char c = password.charAt(i);
+            hash = (hash ^ (c & 0xFF)) * 0x100000001B3L;
+            hash = (hash ^ (c >>> 8)) * 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Spreads the bits of a hash (the MurmurHash3 finalizer).
+     * @param hash hash
+     * @return mixed hash
+     */
+    static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    /**
+     * Derives the odd step between the bits of a password from its hash, so the bits are
+     * h1, h1 + step, h1 + 2 * step and so on.
+     * @param hash hash of the password
+     * @return step
+     */
+    static long step(long hash) {
+        return mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+    }
+}
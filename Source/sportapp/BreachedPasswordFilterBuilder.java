@@ -0,0 +1,135 @@
+package sportapp;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Builds the file read by {@link BreachedPasswordFilter} from a plain text list of passwords,
+ * one per line.
+ * <p>
+ * Run it as a tool:
+ * {@code java sportapp.BreachedPasswordFilterBuilder <list.txt> <filter.bloom> [false positive rate]}.
+ * The filter is sized from the number of passwords and the false positive rate, 0.001 unless
+ * given; ten million passwords take about 18 MB.
+ */
+public class BreachedPasswordFilterBuilder {
+    /**
+     * False positive rate used unless one is given.
+     */
+    public static final double DEFAULT_FALSE_POSITIVE_RATE = 0.001;
+
+    private long[] words;
+    private int hashCount;
+    private long bitCount;
+    private long entryCount;
+
+    /**
+     * Constructs an empty filter sized for a number of passwords.
+     * @param expectedEntries number of passwords to be added
+     * @param falsePositiveRate rate at which passwords not added should be found
+     * @throws IllegalArgumentException if the number is not positive, the rate is not between
+     * 0 and 1, or the filter would not fit in one file
+     */
+    public BreachedPasswordFilterBuilder(long expectedEntries, double falsePositiveRate) {
+        if (expectedEntries <= 0 || !(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("Filter needs a positive size and a false positive rate between 0 and 1");
+        }
+        double ln2 = Math.log(2);
+        long bits = (long) Math.ceil(-expectedEntries * Math.log(falsePositiveRate) / (ln2 * ln2));
+        long wordCount = Math.max(1, (bits + 63) / 64);
+        if (wordCount > (Integer.MAX_VALUE - BreachedPasswordFilter.HEADER_BYTES) / 8) {
+            throw new IllegalArgumentException("Filter is too large for one file");
+        }
+        words = new long[(int) wordCount];
+        bitCount = wordCount * 64;
+        hashCount = (int) Math.max(1, Math.min(30, Math.round((double) bitCount / expectedEntries * ln2)));
+    }
+
+    /**
+     * Adds a password to the filter.
+     * @param password password on the list
+     */
+    public void add(String password) {
+        long hash = BreachedPasswordFilter.hash(password);
+        long h1 = BreachedPasswordFilter.mix(hash);
+        long h2 = BreachedPasswordFilter.step(hash);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            words[(int) (bit >>> 6)] |= 1L << bit;
+        }
+        entryCount++;
+    }
+
+    /**
+     * Writes the filter to a file, replacing it.
+     * @param path filter file
+     * @throws IOException if the file cannot be written
+     */
+    public void writeTo(Path path) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16))) {
+            out.writeInt(BreachedPasswordFilter.MAGIC);
+            out.writeInt(BreachedPasswordFilter.VERSION);
+            out.writeInt(hashCount);
+            out.writeLong(bitCount);
+            out.writeLong(entryCount);
+            for (long word : words) {
+                out.writeLong(word);
+            }
+        }
+    }
+
+    /**
+     * Builds a filter file from a password list, skipping blank lines.
+     * @param list password list, one per line in UTF-8
+     * @param filter filter file to write
+     * @param falsePositiveRate rate at which passwords not on the list should be found
+     * @return number of passwords added
+     * @throws IOException if the list cannot be read or the filter cannot be written
+     */
+    public static long build(Path list, Path filter, double falsePositiveRate) throws IOException {
+        long count;
+        try (BufferedReader reader = Files.newBufferedReader(list, StandardCharsets.UTF_8)) {
+            count = reader.lines().filter(line -> !line.isEmpty()).count();
+        }
+        BreachedPasswordFilterBuilder builder = new BreachedPasswordFilterBuilder(Math.max(1, count), falsePositiveRate);
+        try (BufferedReader reader = Files.newBufferedReader(list, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty()) {
+                    builder.add(line);
+                }
+            }
+        }
+        builder.writeTo(filter);
+        return builder.entryCount;
+    }
+
+    /**
+     * Command line entry of the tool.
+     * @param args password list, filter file and optionally the false positive rate
+     */
+    public static void main(String[] args) {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("Usage: java sportapp.BreachedPasswordFilterBuilder <list.txt> <filter.bloom> [false positive rate]");
+            System.exit(2);
+        }
+        try {
+            double rate = (args.length == 3) ? Double.parseDouble(args[2]) : DEFAULT_FALSE_POSITIVE_RATE;
+            Path filter = Paths.get(args[1]);
+            long count = build(Paths.get(args[0]), filter, rate);
+            System.out.printf("Wrote %d passwords to %s (%d bytes)\n", count, filter, Files.size(filter));
+        } catch (IOException | IllegalArgumentException ex) {
+            System.err.println(ex.getMessage());
+            System.exit(1);
+        }
+    }
+}
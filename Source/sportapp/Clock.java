@@ -6,55 +6,236 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.ZoneId;
 import java.time.temporal.ChronoUnit;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
- * Singleton clock used by the application to provide current date/time and to
- * schedule periodic background tasks (e.g. booking status updates).
+ * Clock used by the application to provide current date/time and to schedule periodic
+ * background tasks (e.g. booking status updates).
+ * <p>
+ * A real-time clock follows the wall clock of the application's timezone. A simulated clock
+ * starts at a given date and time and runs at a given speed, or stands still until it is
+ * advanced, so a week of bookings can be replayed in seconds. The clock in use can be replaced
+ * with {@link #setInstance}.
+ * <p>
+ * Periodic jobs run in clock time. One shared scheduler thread checks the jobs of the clock in
+ * use, and advancing a simulated clock runs the jobs that became due at once. Application jobs,
+ * such as ending bookings or evicting sessions, belong to no clock: they run only on the clock
+ * in use, so a clock that is created and advanced without being installed leaves the shared
+ * managers alone.
  */
 public class Clock {
-  private static Clock instance;
-  private LocalDateTime currentDateTime;
-  // private LocalTime currentTime;
-  private LocalDateTime nextHour;
-  private Timer timer;
-
-  private Clock() {
-    currentDateTime = LocalDateTime.now(ZoneId.of("Asia/Hong_Kong"));
-    // currentTime = LocalTime.now(ZoneId.of("Asia/Hong_Kong"));
-    nextHour = currentDateTime.plusHours(1).withMinute(0).withSecond(0).withNano(0);
-    
-    TimerTask timerTask = new TimerTask() {
-      @Override
-      public void run() {
-        EquipmentBookingControl equipmentBookingControl = new EquipmentBookingControl();
-        FacilityBookingControl facilityBookingControl = new FacilityBookingControl();
-
-        equipmentBookingControl.updateBookingStatus();
-        facilityBookingControl.updateBookingStatus();
+  /**
+   * Timezone of the application.
+   */
+  public static final ZoneId ZONE = ZoneId.of("Asia/Hong_Kong");
+
+  /**
+   * Real time between two checks for due jobs, in milliseconds.
+   */
+  private static final long TICK_MILLIS = 100;
+
+  /**
+   * Scheduler shared by the clock and other periodic work, running on one daemon thread.
+   */
+  private static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+    Thread thread = new Thread(task, "clock-scheduler");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  /**
+   * The clock in use, a real-time clock unless replaced.
+   */
+  private static volatile Clock instance = realTime();
+
+  /**
+   * Jobs run on whichever clock is in use, registered by the parts of the application.
+   */
+  private static final CopyOnWriteArrayList<Job> applicationJobs = new CopyOnWriteArrayList<>();
+
+  static {
+    scheduler.scheduleWithFixedDelay(() -> {
+      try {
+        instance.runDueJobs();
+      } catch (RuntimeException ex) {
+        System.err.println("Clock job failed: " + ex.getMessage());
       }
-    };
-    
-    timer = new Timer(true);
-    timer.scheduleAtFixedRate(timerTask, Duration.between(currentDateTime, nextHour).toMillis(), (60 * 60 * 1000));
+    }, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * A job run periodically in clock time.
+   */
+  private static class Job {
+    /**
+     * The task to run, given the clock time it runs at.
+     */
+    private final Consumer<LocalDateTime> task;
+
+    /**
+     * Clock time between two runs.
+     */
+    private final Duration period;
+
+    /**
+     * Clock time of the next run.
+     */
+    private LocalDateTime nextRun;
+
+    /**
+     * Constructs a job.
+     * @param task task to run
+     * @param firstRun clock time of the first run
+     * @param period clock time between two runs
+     */
+    private Job(Consumer<LocalDateTime> task, LocalDateTime firstRun, Duration period) {
+      this.task = task;
+      this.nextRun = firstRun;
+      this.period = period;
+    }
+  }
+
+  /**
+   * Whether this clock is simulated.
+   */
+  private final boolean simulated;
+
+  /**
+   * Clock time at the anchor of a simulated clock.
+   */
+  private LocalDateTime anchorTime;
+
+  /**
+   * Real time at the anchor of a simulated clock, from System.nanoTime().
+   */
+  private long anchorNanos;
+
+  /**
+   * Clock seconds passing per real second on a simulated clock; 0 stands still.
+   */
+  private double speed;
+
+  /**
+   * Jobs scheduled on this clock.
+   */
+  private CopyOnWriteArrayList<Job> jobs;
+
+  /**
+   * Constructs a clock.
+   * @param simulated whether the clock is simulated
+   * @param start clock time a simulated clock starts at
+   * @param speed clock seconds passing per real second on a simulated clock
+   */
+  private Clock(boolean simulated, LocalDateTime start, double speed) {
+    this.simulated = simulated;
+    this.anchorTime = start;
+    this.anchorNanos = System.nanoTime();
+    this.speed = speed;
+    jobs = new CopyOnWriteArrayList<>();
+  }
+
+  /**
+   * Creates a clock following the wall clock of the application's timezone.
+   * @return real-time clock
+   */
+  public static Clock realTime() {
+    return new Clock(false, null, 1);
+  }
+
+  /**
+   * Creates a simulated clock.
+   * @param start clock time to start at
+   * @param speed clock seconds passing per real second; 0 to stand still until advanced
+   * @return simulated clock
+   * @throws IllegalArgumentException if the start is null or the speed is negative
+   */
+  public static Clock simulated(LocalDateTime start, double speed) {
+    if (start == null || speed < 0) {
+      throw new IllegalArgumentException("Simulated clock needs a start time and a non-negative speed");
+    }
+    return new Clock(true, start, speed);
   }
 
   /**
-   * Returns the singleton Clock instance.
+   * Returns the Clock instance in use.
    * @return Clock instance
    */
   public static Clock getInstance() {
-    if (instance == null) { instance = new Clock(); }
     return instance;
   }
 
+  /**
+   * Replaces the Clock instance in use. Jobs scheduled on the previous clock stop running, and
+   * application jobs are timed again from the time of the new clock.
+   * @param clock clock to use
+   * @throws IllegalArgumentException if the clock is null
+   */
+  public static void setInstance(Clock clock) {
+    if (clock == null) {
+      throw new IllegalArgumentException("Clock cannot be null");
+    }
+    instance = clock;
+    LocalDateTime now = clock.getDateTime();
+    for (Job job : applicationJobs) {
+      synchronized (job) {
+        job.nextRun = nextBoundary(now, job.period);
+      }
+    }
+  }
+
+  /**
+   * Schedules an application job, run periodically on whichever clock is in use. Runs fall on
+   * whole multiples of the period counted from midnight, so an hourly job runs on the hour; the
+   * period should divide a day.
+   * @param task task to run, given the clock time it runs at
+   * @param period clock time between two runs
+   * @throws IllegalArgumentException if the period is not positive
+   */
+  public static void scheduleOnClockInUse(Consumer<LocalDateTime> task, Duration period) {
+    if (period.isZero() || period.isNegative()) {
+      throw new IllegalArgumentException("Period must be positive");
+    }
+    applicationJobs.add(new Job(task, nextBoundary(instance.getDateTime(), period), period));
+  }
+
+  /**
+   * Returns the first whole multiple of a period from midnight that is after a time.
+   * @param time clock time
+   * @param period period to count in
+   * @return next boundary of the period
+   */
+  private static LocalDateTime nextBoundary(LocalDateTime time, Duration period) {
+    LocalDateTime midnight = time.truncatedTo(ChronoUnit.DAYS);
+    long periods = Duration.between(midnight, time).toNanos() / period.toNanos();
+    return midnight.plus(period.multipliedBy(periods + 1));
+  }
+
+  /**
+   * Returns the scheduler shared by the clock and other periodic work. Its tasks must be short.
+   * @return shared scheduler
+   */
+  public static ScheduledExecutorService getScheduler() {
+    return scheduler;
+  }
+
+  /**
+   * Returns whether this clock is simulated.
+   * @return true for a simulated clock
+   */
+  public boolean isSimulated() {
+    return simulated;
+  }
+
   /**
    * Returns today's date according to the application's timezone.
    * @return current date
    */
   public LocalDate getToday() {
-    return this.currentDateTime.toLocalDate();
+    return getDateTime().toLocalDate();
   }
 
   /**
@@ -62,7 +243,20 @@ public class Clock {
    * @return current local time
    */
   public LocalTime getNow() {
-    return this.currentDateTime.toLocalTime().truncatedTo(ChronoUnit.SECONDS);
+    return getDateTime().toLocalTime().truncatedTo(ChronoUnit.SECONDS);
+  }
+
+  /**
+   * Returns the current date and time according to the application's timezone.
+   * @return current date and time
+   */
+  public LocalDateTime getDateTime() {
+    if (!simulated) {
+      return LocalDateTime.now(ZONE);
+    }
+    synchronized (this) {
+      return anchorTime.plusNanos((long) ((System.nanoTime() - anchorNanos) * speed));
+    }
   }
 
   /**
@@ -70,6 +264,73 @@ public class Clock {
    * @return hour (0-23)
    */
   public int getHour() {
-    return this.currentDateTime.getHour();
+    return getDateTime().getHour();
+  }
+
+  /**
+   * Moves a simulated clock forward and runs the jobs that became due.
+   * @param amount clock time to move forward
+   * @throws IllegalArgumentException if the amount is negative
+   * @throws IllegalStateException if the clock is not simulated
+   */
+  public void advance(Duration amount) {
+    if (!simulated) {
+      throw new IllegalStateException("Only a simulated clock can be advanced");
+    }
+    if (amount.isNegative()) {
+      throw new IllegalArgumentException("Clock cannot move backwards");
+    }
+    synchronized (this) {
+      anchorTime = getDateTime().plus(amount);
+      anchorNanos = System.nanoTime();
+    }
+    runDueJobs();
+  }
+
+  /**
+   * Schedules a task to run periodically in clock time.
+   * @param task task to run
+   * @param firstRun clock time of the first run
+   * @param period clock time between two runs
+   * @throws IllegalArgumentException if the period is not positive
+   */
+  public void scheduleAtFixedRate(Runnable task, LocalDateTime firstRun, Duration period) {
+    if (period.isZero() || period.isNegative()) {
+      throw new IllegalArgumentException("Period must be positive");
+    }
+    jobs.add(new Job(time -> task.run(), firstRun, period));
+  }
+
+  /**
+   * Runs the jobs whose next run is due: the jobs of this clock and, if this is the clock in
+   * use, the application jobs. A job that missed several runs runs once, because every task
+   * works from the current clock time.
+   */
+  public void runDueJobs() {
+    LocalDateTime now = getDateTime();
+    for (Job job : jobs) {
+      runIfDue(job, now);
+    }
+    if (this == instance) {
+      for (Job job : applicationJobs) {
+        runIfDue(job, now);
+      }
+    }
+  }
+
+  /**
+   * Runs a job if its next run is due and moves its next run past the given time.
+   * @param job job to check
+   * @param now current clock time
+   */
+  private static void runIfDue(Job job, LocalDateTime now) {
+    synchronized (job) {
+      if (job.nextRun.isAfter(now)) {
+        return;
+      }
+      long missed = Duration.between(job.nextRun, now).toNanos() / job.period.toNanos();
+      job.nextRun = job.nextRun.plus(job.period.multipliedBy(missed + 1));
+      job.task.accept(now);
+    }
   }
-}
\ No newline at end of file
+}
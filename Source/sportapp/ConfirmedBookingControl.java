@@ -33,6 +33,11 @@ public class ConfirmedBookingControl {
      */
     public OBJECT_TYPE currTargetType;
 
+    /**
+     * The user whose confirmed bookings are modified.
+     */
+    public User user;
+
     /**
      * Manager for handling confirmed bookings.
      */
@@ -50,8 +55,11 @@ public class ConfirmedBookingControl {
 
     /**
      * Constructs a ConfirmedBookingControl with default values.
+     *
+     * @param user The user whose confirmed bookings are modified.
      */
-    public ConfirmedBookingControl() {
+    public ConfirmedBookingControl(User user) {
+        this.user = user;
         facilityRecord = null;
         equipmentRecord = null;
         facilityBookingControl = new FacilityBookingControl();
@@ -64,8 +72,10 @@ public class ConfirmedBookingControl {
      * @param fbr The facility booking record.
      * @param ebr The equipment booking record.
      * @param typeInput The target type for the booking (equipment or facility).
+     * @param user The user whose confirmed bookings are modified.
      */
-    public ConfirmedBookingControl(FacilityBookRecord fbr, EquipmentBookRecord ebr, OBJECT_TYPE typeInput) {
+    public ConfirmedBookingControl(FacilityBookRecord fbr, EquipmentBookRecord ebr, OBJECT_TYPE typeInput, User user) {
+        this.user = user;
         facilityRecord = fbr;
         equipmentRecord = ebr;
         currTargetType = typeInput;
@@ -96,7 +106,7 @@ public class ConfirmedBookingControl {
 	 */
 	public void setRecord(int updateChoice, String action) throws Exception {
 	    if (currTargetType == OBJECT_TYPE.OBJECT_TYPE_FACILITY) {
-	        facilityRecord = cbm.getFacilityRecord(updateChoice);
+	        facilityRecord = cbm.getFacilityRecord(user, updateChoice);
 	        currTargetType = OBJECT_TYPE.OBJECT_TYPE_FACILITY;
 	        if (facilityRecord == null) {
 	            throw new Exception("No Chosen Record with Input Found!");
@@ -118,7 +128,7 @@ public class ConfirmedBookingControl {
                 }
             }
 	    } else {
-	        equipmentRecord = cbm.getEquipmentRecord(updateChoice);
+	        equipmentRecord = cbm.getEquipmentRecord(user, updateChoice);
 	        if (equipmentRecord == null) {
 	            throw new Exception("No Chosen Record with Input Found!");
 	        } else if (equipmentRecord.isSellable()) {
@@ -215,15 +225,14 @@ public class ConfirmedBookingControl {
      * @param date The new date for the booking.
      * @param startHour The new start hour for the booking.
      * @param endHour The new end hour for the booking.
+     * @throws IllegalArgumentException If the new time slot is invalid or already taken.
      */
     public void updateRecordDateTime(LocalDate date, int startHour, int endHour) {
             
 
             if (currTargetType == OBJECT_TYPE.OBJECT_TYPE_FACILITY) {
                 //cbm.updateFacilityRecordTimeDate(facilityRecord, date, startHour, endHour);
-                facilityRecord.setDate(date);
-    	        facilityRecord.setStartHour(startHour);
-    	        facilityRecord.setEndHour(endHour);
+                facilityBookingControl.updateBookingDateTime(facilityRecord, date, startHour, endHour);
             } else if (currTargetType == OBJECT_TYPE.OBJECT_TYPE_EQUIPMENT) {
                 //cbm.updateEquipmentRecordTimeDate(equipmentRecord, date, startHour, endHour);
                 equipmentBookingControl.updateBookingDateTime(equipmentRecord, date, new int[] {startHour, endHour});
@@ -255,9 +264,10 @@ public class ConfirmedBookingControl {
      * Updates the facility associated with the current booking record.
      *
      * @param sportFacility The new facility to associate with the booking.
+     * @throws IllegalArgumentException If the facility is unavailable or already booked at that time.
      */
     public void updateFacilityRecordFacility(SportFacility sportFacility) {
-        facilityRecord.updateFacility(sportFacility);
+        cbm.updateFacilityRecordFacility(facilityRecord, sportFacility);
     }
     /**
      * Removes the current booking record.
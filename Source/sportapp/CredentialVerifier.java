@@ -0,0 +1,112 @@
+package sportapp;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs password and security answer checks on a small, bounded pool of worker threads.
+ * <p>
+ * A check hashes on purpose slowly, so a burst of logins would otherwise take every CPU from
+ * the booking threads. At most a fixed number of checks run at once and a fixed number wait;
+ * further attempts are turned away until the burst passes.
+ */
+public class CredentialVerifier {
+
+    private static final CredentialVerifier instance =
+        new CredentialVerifier(Math.max(1, Runtime.getRuntime().availableProcessors() / 2), 64);
+
+    /**
+     * Credential checked when the user does not exist, so unknown names take as long as wrong passwords.
+     */
+    private static final String DUMMY_CREDENTIAL = PasswordHasher.hash("no such user");
+
+    private ThreadPoolExecutor pool;
+
+    /**
+     * Constructs a verifier.
+     * @param threads number of checks run at once
+     * @param queueCapacity number of checks allowed to wait
+     * @throws IllegalArgumentException if either number is not positive
+     */
+    public CredentialVerifier(int threads, int queueCapacity) {
+        if (threads <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("Thread count and queue capacity must be positive");
+        }
+        AtomicInteger count = new AtomicInteger();
+        pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity), task -> {
+            Thread thread = new Thread(task, "credential-verifier-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Returns the shared verifier, using half of the processors.
+     * @return CredentialVerifier singleton
+     */
+    public static CredentialVerifier getInstance() {
+        return instance;
+    }
+
+    /**
+     * Verifies the password of a user, migrating its stored credential on success.
+     * @param user user logging in, or null if the username is unknown
+     * @param password password to verify
+     * @return true if the user exists and the password matches
+     * @throws IllegalStateException if too many checks are running or waiting
+     */
+    public boolean verifyPassword(User user, String password) {
+        if (user == null) {
+            return run(() -> {
+                PasswordHasher.verify(password, DUMMY_CREDENTIAL);
+                return false;
+            });
+        }
+        return run(() -> user.verifyPassword(password));
+    }
+
+    /**
+     * Verifies the security answer of a user, migrating its stored answer on success.
+     * @param user user resetting the password
+     * @param answer answer to verify
+     * @return true if the answer matches
+     * @throws IllegalStateException if too many checks are running or waiting
+     */
+    public boolean verifySecurityAnswer(User user, String answer) {
+        return run(() -> user.verifySercurityAnswer(answer));
+    }
+
+    /**
+     * Stops the worker threads once the waiting checks are done.
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Runs a check on the pool and waits for its result.
+     * @param check check to run
+     * @return result of the check, or false if the waiting thread was interrupted
+     * @throws IllegalStateException if the pool is saturated
+     */
+    private boolean run(Callable<Boolean> check) {
+        try {
+            return pool.submit(check).get();
+        } catch (RejectedExecutionException ex) {
+            throw new IllegalStateException("Too many sign-in attempts right now. Please try again shortly.");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+}
@@ -2,18 +2,17 @@ package sportapp;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.TreeMap;
 
+import sportapp.manager.AvailableWindowCalculator;
 import sportapp.manager.EquipmentBookManager;
 import sportapp.manager.EquipmentManager;
 import sportapp.model.BookingStatus;
 import sportapp.model.Equipment;
 import sportapp.model.EquipmentBookRecord;
 import sportapp.model.EquipmentType;
+import sportapp.model.HourSlots;
 
 /**
  * Controls the booking operations for equipment.
@@ -54,13 +53,7 @@ public class EquipmentBookingControl {
      * @return A list of booking records for the user.
      */
     public ArrayList<EquipmentBookRecord> getBookingRecordsByUser(User user) {
-        ArrayList<EquipmentBookRecord> result = new ArrayList<>();
-        for (EquipmentBookRecord bookRecord: equipmentBookManager.getBookRecords()) {
-            if (bookRecord.getUser().equals(user))
-                result.add(bookRecord);
-        }
-
-        return result;
+        return equipmentBookManager.getBookingRecordsByUser(user);
     }
 
     /**
@@ -71,14 +64,7 @@ public class EquipmentBookingControl {
      * @return A list of booking records matching the equipment and date.
      */
     public ArrayList<EquipmentBookRecord> getBookRecordByDate(Equipment target, LocalDate date) {
-        ArrayList<EquipmentBookRecord> result = new ArrayList<>();
-        for (EquipmentBookRecord equipBookRecord: equipmentBookManager.getBookRecords()) {
-            if ((equipBookRecord.getBookingEquipment().contains(target)) && (equipBookRecord.getDate().equals(date))) {
-                result.add(equipBookRecord);
-            }
-        }
-
-        return result;
+        return equipmentBookManager.getBookRecordByDate(target, date);
     }
 
     /**
@@ -88,13 +74,7 @@ public class EquipmentBookingControl {
      * @return A list of pending booking records for the user.
      */
     public ArrayList<EquipmentBookRecord> getPeningBookRecords(User user) {
-        ArrayList<EquipmentBookRecord> result = new ArrayList<>();
-        for (EquipmentBookRecord equipBookRecord: equipmentBookManager.getBookRecords()) {
-            if (equipBookRecord.getStatus() == BookingStatus.PENDING && equipBookRecord.getUser().equals(user)) {
-                result.add(equipBookRecord);
-            }
-        }
-        return result;
+        return equipmentBookManager.getBookingRecordsByUser(user, BookingStatus.PENDING);
     }
 
     /**
@@ -111,39 +91,28 @@ public class EquipmentBookingControl {
         }
         
         if (bookRecord.isBorrowable()) {
-            ArrayList<Equipment> targetEquips = new ArrayList<>();
-            ArrayList<Equipment> availableEquips = getAvailableEquipments(bookRecord.getBookingEquipment().get(0).getEquipmentType(), date, timeslot);
-
-            if ((availableEquips.isEmpty()) || (availableEquips.size() < bookRecord.getQuantity())) {
-                // not enough equipment for update
-                throw new IllegalArgumentException("Not enough available equipments in selected time slot.");
-            } else {
-                // enough equipment for update
-                for (int i=0; i<bookRecord.getQuantity(); i++) {
-                    targetEquips.add(availableEquips.get(i));
-                }
-            }
-            bookRecord.setBookingEquipment(targetEquips);
+            // picks free equipment and moves the booking in one step
+            equipmentBookManager.rescheduleBorrowing(bookRecord, date, timeslot[0], timeslot[1]);
+        } else {
+            equipmentBookManager.updateBookingDateTime(bookRecord, date, timeslot[0], timeslot[1]);
         }
-
-        bookRecord.setDate(date);
-        bookRecord.setStartHour(timeslot[0]);
-        bookRecord.setEndHour(timeslot[1]);
-        equipmentBookManager.sortCollection();
     }
 
     /**
      * Updates the status of bookings based on the current time.
      * <p>
-     * This method sets the status of bookings to ENDED if the end time is before the current time.
+     * This method sets the status of bookings to ENDED once their date and end hour have passed.
      * </p>
      */
     public void updateBookingStatus() {
-        for (EquipmentBookRecord record: equipmentBookManager.getBookRecords()) {
-            if (record.getEndHour() < clock.getHour()) {
-                record.setStatus(BookingStatus.ENDED);
-            }
-        }
+        equipmentBookManager.expireEndedBookings(clock.getDateTime());
+    }
+
+    /**
+     * Releases the pending bookings that were not paid within the hold time.
+     */
+    public void releaseExpiredHolds() {
+        equipmentBookManager.releaseExpiredHolds(clock.getDateTime());
     }
 
     /**
@@ -166,86 +135,65 @@ public class EquipmentBookingControl {
     public ArrayList<Equipment> getAvailableEquipments(EquipmentType type, LocalDate date, int[] targetTimeslot) {
         // all available equipments in the target time slot
         ArrayList<Equipment> availableEquipment = new ArrayList<>();
-        
-        // get all equipments with the target type
-        ArrayList<Equipment> targetEquipments = equipmentManager.getBorrowableEquipmentByType(type);
+        if (!isWithinOpeningHours(targetTimeslot[0], targetTimeslot[1])) {
+            return availableEquipment;
+        }
+        int targetHours = HourSlots.hourMask(targetTimeslot[0], targetTimeslot[1]);
 
-        // check which equipment is available in the target time slot.
-        for (Equipment targetEquipment: targetEquipments) {
-            for (int[] timeslot: getAvailableTimeSlot(targetEquipment, date)) {
-                if ((timeslot[0] <= targetTimeslot[0]) && (timeslot[1] >= targetTimeslot[1])) {
-                    availableEquipment.add(targetEquipment);
-                }
+        // check which equipment of the target type has no booked hour in the target time slot.
+        for (Equipment targetEquipment: equipmentManager.getBorrowableEquipmentByType(type)) {
+            if ((equipmentBookManager.getBookedHours(targetEquipment, date) & targetHours) == 0) {
+                availableEquipment.add(targetEquipment);
             }
         }
 
         return availableEquipment;
     }
 
+    /**
+     * Chooses which of the available equipment serve a request, using the assignment strategy
+     * of the booking manager.
+     *
+     * @param availableEquips The equipment free for the whole time slot.
+     * @param date The date of the request.
+     * @param timeslot The time slot of the request.
+     * @param quantity The number of pieces requested.
+     * @return A new list of the chosen equipment.
+     * @throws IllegalArgumentException If there is not enough equipment available.
+     */
+    public ArrayList<Equipment> assignEquipments(ArrayList<Equipment> availableEquips, LocalDate date, int[] timeslot, int quantity) throws IllegalArgumentException {
+        return equipmentBookManager.assignEquipments(availableEquips, date, timeslot[0], timeslot[1], quantity);
+    }
+
     /**
      * Calculates the available gap time slots for a list of booking equipments on a given date.
+     * <p>
+     * The free hours of every equipment of the same type are read from the booked hours kept
+     * by the booking manager, and the windows with enough free equipment are found by
+     * {@link AvailableWindowCalculator}.
      *
      * @param bookingEquipments The list of equipment bookings to calculate available gaps for.
      * @param date The date to calculate available gaps on.
      * @return A list of available gap time slots.
      */
     public ArrayList<int[]> calculateAvailableGapTimeSlot(ArrayList<Equipment> bookingEquipments, LocalDate date) {
-        // if(existBooking == null || existBooking.isEmpty()) {
-        //   throw new IllegalArgumentException("No existing booking records found.");
-        // }
-
-        ArrayList<int[]> availableTimeSlot = new ArrayList<>();
-        Map<Integer, ArrayList<Equipment>> availableTimeSlotMapping = new TreeMap<>();
         EquipmentType targetType = bookingEquipments.get(0).getEquipmentType();
-        int quantity = bookingEquipments.size();
+        ArrayList<Equipment> targetEquipments = equipmentManager.getBorrowableEquipmentByType(targetType);
+        int openingHours = HourSlots.hourMask(9, 21);
 
-        for (Equipment equip: equipmentManager.getBorrowableEquipmentByType(targetType)) {
-            // for every equipment with target type
-            for (int[] targetTimeslot: getAvailableTimeSlot(equip, date)) {
-                // extract timeslot: [9, 10], [12, 21] => {9, 12, 13, 14, ..., 20}
-                for (int t=targetTimeslot[0]; t<targetTimeslot[1]; t++) {
-                    if (!availableTimeSlotMapping.containsKey(t)) {
-                        availableTimeSlotMapping.put(t, new ArrayList<Equipment>());
-                    }
-                    availableTimeSlotMapping.get(t).add(equip);
-                }
-            }
+        int[] freeHours = new int[targetEquipments.size()];
+        for (int i = 0; i < freeHours.length; i++) {
+            freeHours[i] = openingHours & ~equipmentBookManager.getBookedHours(targetEquipments.get(i), date);
         }
 
-        for (Map.Entry<Integer, ArrayList<Equipment>> timeslotEntry: availableTimeSlotMapping.entrySet()) {
-            int time = timeslotEntry.getKey();
-            if (timeslotEntry.getValue().size() >= quantity) {
-                if (availableTimeSlot.isEmpty()) {
-                    // first timeslot, return arraylist is empty
-                    availableTimeSlot.add(new int[] {time, time+1});
-
-                } else {
-                    // return arraylist is not empty, do comparison
-                    int[] last = availableTimeSlot.getLast();
-                    if ((time - last[1]) >= 1) {
-                        // time is not continue, add new record
-                        availableTimeSlot.add(new int[]{time, time+1});
-
-                    } else if (availableTimeSlotMapping.get(time).containsAll(availableTimeSlotMapping.get(last[0]))) {
-                        // equipments is same as last added record timeslot, extends the timeslot
-                        availableTimeSlot.getLast()[1] = (time+1);
-                    } else if (availableTimeSlotMapping.get(last[0]).containsAll(availableTimeSlotMapping.get(time))) {
-                        // equipments is same as last added record timeslot, extends the timeslot
-                        availableTimeSlot.getLast()[1] = (time+1);
-                    } else {
-                        availableTimeSlot.add(new int[]{time, time+1});
-                    }
-                }
-            } else {
-                continue;
-            }
-        }
-
-        return availableTimeSlot;
+        return AvailableWindowCalculator.findWindows(freeHours, bookingEquipments.size());
     }
 
     /**
      * Retrieves the quantity of available equipments by type for a list of equipment types, date, start hour, and end hour.
+     * <p>
+     * The quantities are read from the booked counts kept per equipment type and date, without
+     * looking at individual equipment or booking records.
      *
      * @param equipmentTypesList The list of equipment types to check availability for.
      * @param date The date to check availability on.
@@ -256,70 +204,26 @@ public class EquipmentBookingControl {
     public Map<EquipmentType, Integer> getAvailableEquipmentsQuantityByType(ArrayList<EquipmentType> equipmentTypesList, LocalDate date, int startHour, int endHour) {
         Map<EquipmentType, Integer> availableEquipmentsQuantityByType = new HashMap<>();
 
-        //find all equipment of each type and check their availability in the given time slot
         for(EquipmentType type: equipmentTypesList) {
-            //check if the equipmentType is already in the map
-            if(!availableEquipmentsQuantityByType.containsKey(type)) {
-                availableEquipmentsQuantityByType.put(type, 0);
-                continue;
-            }
-            availableEquipmentsQuantityByType.putIfAbsent(type, 0);
-
-            for (Equipment equipment: equipmentManager.getBorrowableEquipmentByType(type)) {
-                ArrayList<int[]> availableTimeSlots = getAvailableTimeSlot(equipment, date);
-
-                for (int[] timeSlot: availableTimeSlots) {
-                    if (timeSlot[0] <= startHour && timeSlot[1] >= endHour) {
-                        availableEquipmentsQuantityByType.put(type, availableEquipmentsQuantityByType.getOrDefault(type, 0) + 1);
-                        break; // No need to check other time slots for this equipment
-                    }
-                }
+            int quantity = 0;
+            if (isWithinOpeningHours(startHour, endHour)) {
+                // all equipment of the type minus those booked at some hour of the time slot
+                quantity = equipmentManager.getBorrowableCountByType(type) - equipmentBookManager.getBookedEquipmentCount(type, date, startHour, endHour);
             }
+            availableEquipmentsQuantityByType.put(type, Math.max(quantity, 0));
         }
 
         return availableEquipmentsQuantityByType;
     }
 
     /**
-     * Retrieves the available time slots for a specific piece of equipment on a given date.
+     * Checks if a time slot lies within the opening hours from 09:00 to 21:00.
      *
-     * @param target The equipment to check available time slots for.
-     * @param date The date to check available time slots on.
-     * @return A list of available time slots for the equipment on the date.
+     * @param startHour The start hour of the time slot.
+     * @param endHour The end hour of the time slot.
+     * @return true if the time slot is within the opening hours, false otherwise.
      */
-    private ArrayList<int[]> getAvailableTimeSlot(Equipment target, LocalDate date) {
-        ArrayList<int[]> availableTimeSlot = new ArrayList<>();
-
-        // get the existing booking of the facility in the day
-        ArrayList<EquipmentBookRecord> equipmentBookings = getBookRecordByDate(target, date);
-
-        // sort the booking records by the start time
-        Collections.sort(equipmentBookings, Comparator.comparingInt(EquipmentBookRecord::getStartHour));
-
-        // if there are no bookings, return the whole day as available
-        availableTimeSlot.add(new int[] {9, 21});
-
-        for (EquipmentBookRecord currentBookRecord: equipmentBookings) {
-            int[] record = {currentBookRecord.getStartHour(), currentBookRecord.getEndHour()};
-            for (int[] avail: availableTimeSlot) {
-                if (avail[0] == record[0]) {
-                    availableTimeSlot.remove(avail);
-                    availableTimeSlot.add(new int[] {record[1], avail[1]});
-                    break;
-                    
-                } else if (record[1] == avail[1]) {
-                    availableTimeSlot.remove(avail);
-                    availableTimeSlot.add(new int[] {avail[0], record[0]});
-                    break;
-
-                } else if ((avail[0] < record[0]) && (record[1] < avail[1])) {
-                    availableTimeSlot.remove(avail);
-                    availableTimeSlot.add(new int[] {avail[0], record[0]});
-                    availableTimeSlot.add(new int[] {record[1], avail[1]});
-                    break;
-                }
-            }
-        }
-        return availableTimeSlot;
+    private boolean isWithinOpeningHours(int startHour, int endHour) {
+        return (startHour >= 9) && (endHour <= 21) && (startHour <= endHour);
     }
 }
@@ -1,14 +1,19 @@
 package sportapp;
 
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 
 import sportapp.manager.FacilityBookManager;
 import sportapp.manager.SportFacilityManager;
+import sportapp.model.AvailabilityCalendar;
 import sportapp.model.BookingStatus;
 import sportapp.model.FacilityBookRecord;
+import sportapp.model.HourSlots;
+import sportapp.model.ReservationResult;
 import sportapp.model.SportFacility;
 
 /**
@@ -76,13 +81,7 @@ public class FacilityBookingControl {
             throw new IllegalArgumentException("Requested facility does not exist");
         }
 
-        ArrayList<FacilityBookRecord> matchedBookings = new ArrayList<>();
-        for(FacilityBookRecord facilityBookRecord : collectionManager.getBookingRecords()) {
-            if(facilityBookRecord.getDate().isEqual(requestedDate) && facilityBookRecord.getSportFacility() == requestedFacility) {
-                matchedBookings.add(facilityBookRecord);
-            }
-        }
-        return matchedBookings;
+        return collectionManager.getBookingRecordsByDate(requestedFacility, requestedDate);
     }
 
     /**
@@ -92,14 +91,8 @@ public class FacilityBookingControl {
      * @return A list of pending booking records for the user.
      */
     public ArrayList<FacilityBookRecord> getPeningBookRecords(User user) {
-    ArrayList<FacilityBookRecord> result = new ArrayList<>();
-    for (FacilityBookRecord faciBookRecord: collectionManager.getBookingRecords()) {
-      if (faciBookRecord.getStatus() == BookingStatus.PENDING && faciBookRecord.getUser().equals(user)) {
-        result.add(faciBookRecord);
-      }
+        return collectionManager.getUserBookingRecords(user, BookingStatus.PENDING);
     }
-    return result;
-  }
     
     /**
      * Calculates gaps between bookings for a facility.
@@ -148,32 +141,173 @@ public class FacilityBookingControl {
      * @return A list of available time slots represented as start and end times.
      */
     public ArrayList<int[]> getAvailableTimeSlot(SportFacility facility, LocalDate date) {
-        // 1. Get all bookings for the specific facility and date
-        ArrayList<FacilityBookRecord> facilityBookings = getFacilityBookRecordsByDate(facility, date);
-        ArrayList<int[]> availableTimeSlot = new ArrayList<>();
+        if(facility == null || date == null) {
+            throw new IllegalArgumentException("Requested facility and date cannot be null");
+        }
+
+        if(!SportFacilityManager.getInstance().checkFacilityExist(facility)) {
+            throw new IllegalArgumentException("Requested facility does not exist");
+        }
+
+        // Read the occupied hours of the day from the occupancy index
+        int occupiedHours = collectionManager.getOccupiedHours(facility, date);
+        return HourSlots.calculateFreeSlots(occupiedHours, 9, 21);
+    }
+
+   
+    /**
+     * Builds the availability grid of several facilities over a range of days.
+     * <p>
+     * Only the booking records dated within the range are visited, once each, so a week view of
+     * many facilities costs about the same as a single availability lookup.
+     *
+     * @param fromDate The first day of the range (inclusive).
+     * @param toDate The last day of the range (inclusive).
+     * @param facilities The facilities to include in the grid.
+     * @return The availability calendar of the facilities.
+     * @throws IllegalArgumentException If any argument is null or the range is empty.
+     */
+    public AvailabilityCalendar getAvailabilityCalendar(LocalDate fromDate, LocalDate toDate, Collection<SportFacility> facilities) throws IllegalArgumentException {
+        if(fromDate == null || toDate == null || facilities == null) {
+            throw new IllegalArgumentException("Date range and facilities cannot be null");
+        }
+        if(fromDate.isAfter(toDate)) {
+            throw new IllegalArgumentException("Start date cannot be after end date");
+        }
+
+        int days = (int) ChronoUnit.DAYS.between(fromDate, toDate) + 1;
+        AvailabilityCalendar calendar = new AvailabilityCalendar(new ArrayList<>(facilities), fromDate, days);
+        for(FacilityBookRecord record : collectionManager.getBookingRecordsBetween(fromDate, toDate)) {
+            calendar.markOccupied(record.getSportFacility(), record.getDate(), HourSlots.hourMask(record.getStartHour(), record.getEndHour()));
+        }
+        return calendar;
+    }
+
+    /**
+     * Builds the availability grid of all available facilities of a sport type over a range of days.
+     *
+     * @param fromDate The first day of the range (inclusive).
+     * @param toDate The last day of the range (inclusive).
+     * @param sportType The sport type of the facilities, e.g. "Badminton".
+     * @return The availability calendar of the matching facilities.
+     * @throws IllegalArgumentException If any argument is null or the range is empty.
+     */
+    public AvailabilityCalendar getAvailabilityCalendar(LocalDate fromDate, LocalDate toDate, String sportType) throws IllegalArgumentException {
+        return getAvailabilityCalendar(fromDate, toDate, getFacilitiesBySportType(sportType));
+    }
+
+    /**
+     * Finds the first available facility of a sport type that is free for a whole time slot.
+     * <p>
+     * Each candidate is checked against its hour-occupancy bitmap, so the search never scans
+     * the booking records.
+     *
+     * @param sportType The sport type of the facility, e.g. "Badminton".
+     * @param date The date of the time slot.
+     * @param startHour The start hour of the time slot.
+     * @param endHour The end hour of the time slot.
+     * @return The first free facility, or null if every matching facility is booked.
+     * @throws IllegalArgumentException If the sport type or date is null.
+     */
+    public SportFacility findFreeFacility(String sportType, LocalDate date, int startHour, int endHour) throws IllegalArgumentException {
+        ArrayList<SportFacility> freeFacilities = getFreeFacilities(sportType, date, startHour, endHour);
+        return freeFacilities.isEmpty() ? null : freeFacilities.get(0);
+    }
+
+    /**
+     * Reserves the first available facility of a sport type that is free for a whole time slot.
+     * <p>
+     * If another user takes a candidate between the check and the reservation, the next free
+     * facility is tried.
+     *
+     * @param sportType The sport type of the facility, e.g. "Badminton".
+     * @param date The date of the reservation.
+     * @param startHour The start hour of the reservation.
+     * @param endHour The end hour of the reservation.
+     * @param user The user making the reservation.
+     * @return The result holding the new pending booking record, CONFLICT if every matching facility
+     *         is booked, or UNAVAILABLE if there is no facility of the sport type.
+     * @throws IllegalArgumentException If the sport type, date or user is null.
+     */
+    public ReservationResult<FacilityBookRecord> reserveAnyFreeFacility(String sportType, LocalDate date, int startHour, int endHour, User user) throws IllegalArgumentException {
+        if(user == null) {
+            throw new IllegalArgumentException("User cannot be null");
+        }
+        if(date == null) {
+            throw new IllegalArgumentException("Date cannot be null");
+        }
+        if(startHour < 9 || endHour > 21 || startHour >= endHour) {
+            return ReservationResult.rejected(ReservationResult.Outcome.INVALID_TIME_SLOT);
+        }
+
+        ArrayList<SportFacility> candidates = getFacilitiesBySportType(sportType);
+        if(candidates.isEmpty()) {
+            return ReservationResult.rejected(ReservationResult.Outcome.UNAVAILABLE);
+        }
 
-        // 2. Sort the bookings by their start time. This is the crucial step.
-        Collections.sort(facilityBookings, Comparator.comparingInt(FacilityBookRecord::getStartHour));
+        int requestedHours = HourSlots.hourMask(startHour, endHour);
+        ArrayList<FacilityBookRecord> conflicts = new ArrayList<>();
+        for(SportFacility facility : candidates) {
+            if((collectionManager.getOccupiedHours(facility, date) & requestedHours) != 0) {
+                continue;
+            }
+            ReservationResult<FacilityBookRecord> result = collectionManager.tryReserve(facility, date, startHour, endHour, user);
+            if(result.isReserved()) {
+                return result;
+            }
+            conflicts.addAll(result.getConflicts());
+        }
+        return ReservationResult.conflict(conflicts);
+    }
 
-        int lastEndTime = 9; // Start tracking from the opening time (9 AM)
+    /**
+     * Retrieves all available facilities of a sport type that are free for a whole time slot.
+     *
+     * @param sportType The sport type of the facilities, e.g. "Badminton".
+     * @param date The date of the time slot.
+     * @param startHour The start hour of the time slot.
+     * @param endHour The end hour of the time slot.
+     * @return A list of the free facilities.
+     * @throws IllegalArgumentException If the sport type or date is null.
+     */
+    public ArrayList<SportFacility> getFreeFacilities(String sportType, LocalDate date, int startHour, int endHour) throws IllegalArgumentException {
+        if(date == null) {
+            throw new IllegalArgumentException("Date cannot be null");
+        }
+        ArrayList<SportFacility> freeFacilities = new ArrayList<>();
+        if(startHour < 9 || endHour > 21 || startHour >= endHour) {
+            return freeFacilities;
+        }
 
-        // 3. Loop through the SORTED bookings to find gaps
-        for (FacilityBookRecord booking : facilityBookings) {
-            // If there's a gap between the last booking's end time and the current booking's start time
-            if (booking.getStartHour() > lastEndTime) {
-                availableTimeSlot.add(new int[]{lastEndTime, booking.getStartHour()});
+        int requestedHours = HourSlots.hourMask(startHour, endHour);
+        for(SportFacility facility : getFacilitiesBySportType(sportType)) {
+            if((collectionManager.getOccupiedHours(facility, date) & requestedHours) == 0) {
+                freeFacilities.add(facility);
             }
-            // Update the last end time to the end time of the current booking
-            lastEndTime = booking.getEndHour();
         }
+        return freeFacilities;
+    }
 
-        // 4. Check for a final gap between the last booking and the closing time (9 PM)
-        if (lastEndTime < 21) {
-            availableTimeSlot.add(new int[]{lastEndTime, 21});
+    /**
+     * Retrieves the available facilities of a sport type.
+     *
+     * @param sportType The sport type of the facilities, e.g. "Badminton".
+     * @return A list of the available facilities of the sport type.
+     * @throws IllegalArgumentException If the sport type is null.
+     */
+    private ArrayList<SportFacility> getFacilitiesBySportType(String sportType) throws IllegalArgumentException {
+        if(sportType == null) {
+            throw new IllegalArgumentException("Sport type cannot be null");
+        }
+        ArrayList<SportFacility> facilities = new ArrayList<>();
+        for(SportFacility facility : getAvailableFacilitys()) {
+            if(facility.getSportFacilityType().getSportType().equals(sportType)) {
+                facilities.add(facility);
+            }
         }
-        return availableTimeSlot;
+        return facilities;
     }
-   
+
     /**
      * Retrieves all booking records for a specific user.
      *
@@ -193,14 +327,7 @@ public class FacilityBookingControl {
             throw new IllegalArgumentException("User does not exist");
         }
 
-        ArrayList<FacilityBookRecord> bookingRecords = new ArrayList<>();
-        for(FacilityBookRecord facilityBookRecord : collectionManager.getBookingRecords()) {
-            //need to be confirm the facility book record status name
-            if(facilityBookRecord.getUser() == user) {
-                bookingRecords.add(facilityBookRecord);
-            }
-        }
-        return bookingRecords;
+        return collectionManager.getUserBookingRecords(user);
     }
 
     /**
@@ -215,7 +342,6 @@ public class FacilityBookingControl {
             throw new IllegalArgumentException("The booking record does not exist.");
         }
         collectionManager.removeBooking(bookRecord);
-        collectionManager.sortCollection();
     }
 
     /**
@@ -227,12 +353,33 @@ public class FacilityBookingControl {
      */
 
     public void updateBookingFacility(FacilityBookRecord bookRecord, SportFacility newFacility) throws IllegalArgumentException {
-        //check if the sport facility is available
-        if(!SportFacilityManager.getInstance().checkFacilityExist(newFacility) || newFacility.getStatus() != SportFacility.Status.AVAILABLE) {
-            throw new IllegalArgumentException("The sport facility does not exist.");
+        updateBookingFacility(bookRecord, newFacility, bookRecord.getDate(), bookRecord.getStartHour(), bookRecord.getEndHour());
+    }
+
+    /**
+     * Moves a booking record to another facility, date and time slot.
+     * The record is left unchanged if the move is not possible.
+     *
+     * @param bookRecord The booking record to update.
+     * @param newFacility The new sport facility.
+     * @param newDate The new date for the booking.
+     * @param newStartTime The new start time for the booking.
+     * @param newEndTime The new end time for the booking.
+     * @throws IllegalArgumentException If the facility is unavailable or the time slot is invalid or taken.
+     */
+    public void updateBookingFacility(FacilityBookRecord bookRecord, SportFacility newFacility, LocalDate newDate, int newStartTime, int newEndTime) throws IllegalArgumentException {
+        //check and move in one step, so no one can take the new facility and time slot in between
+        ReservationResult<FacilityBookRecord> result = collectionManager.tryUpdateBookingFacility(bookRecord, newFacility, newDate, newStartTime, newEndTime);
+        switch (result.getOutcome()) {
+            case RESERVED:
+                return;
+            case UNAVAILABLE:
+                throw new IllegalArgumentException("The sport facility does not exist.");
+            case INVALID_TIME_SLOT:
+                throw new IllegalArgumentException("Invalid time slot. Please select a time between 09:00 and 21:00.");
+            default:
+                throw new IllegalArgumentException("The selected time slot is not available on that day.");
         }
-        
-        bookRecord.setSportFacility(newFacility);
     }
 
     /**
@@ -256,34 +403,24 @@ public class FacilityBookingControl {
             throw new IllegalArgumentException("Invalid time slot. Please select a time between 09:00 and 21:00.");
         }
 
-        //check if the new date and time slot is available
-        ArrayList<int[]> availableSlots = getAvailableTimeSlot(bookRecord.getSportFacility(), newDate);
-        boolean isAvailable = false;
-        for(int[] slot : availableSlots) {
-            if(slot[0] <= newStartTime && slot[1] >= newEndTime) {
-                isAvailable = true;
-                break;
-            }
-        }
-        if(!isAvailable) {
+        //check and move in one step, so no one can take the new time slot in between
+        if(!collectionManager.tryUpdateBookingDateTime(bookRecord, newDate, newStartTime, newEndTime).isReserved()) {
             throw new IllegalArgumentException("The selected time slot is not available on that day.");
         }
-
-        bookRecord.setDate(newDate);
-        bookRecord.setStartHour(newStartTime);
-        bookRecord.setEndHour(newEndTime);
-        collectionManager.sortCollection();
     }
     
     /**
-     * Updates the status of all booking records based on the current time.
+     * Marks the booking records whose date and end hour have passed as ENDED.
      */
     public void updateBookingStatus() {
-        for (FacilityBookRecord record: collectionManager.getBookingRecords()) {
-            if (record.getEndHour() <= clock.getHour()) {
-                record.setStatus(BookingStatus.ENDED);
-            }
-        }
+        collectionManager.expireEndedBookings(clock.getDateTime());
+    }
+
+    /**
+     * Releases the pending bookings that were not paid within the hold time.
+     */
+    public void releaseExpiredHolds() {
+        collectionManager.releaseExpiredHolds(clock.getDateTime());
     }
 
 }
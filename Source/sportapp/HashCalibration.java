@@ -0,0 +1,35 @@
+package sportapp;
+
+import java.time.Duration;
+
+/**
+ * Measures this machine and prints the PBKDF2 iteration count to store in app.properties.
+ * <p>
+ * Run it once per deployment machine as a tool:
+ * {@code java sportapp.HashCalibration [target-ms]}, 250 ms unless given, and copy the printed
+ * {@code password.hash.iterations} line into app.properties. The application reads the stored
+ * count at startup instead of measuring on every start, so timing noise cannot change the
+ * cost of new hashes from one run to the next.
+ */
+public class HashCalibration {
+
+    /**
+     * Constructs a HashCalibration instance.
+     * <p>
+     * This class only provides static methods.
+     */
+    private HashCalibration() {
+    }
+
+    /**
+     * Command line entry of the tool.
+     *
+     * @param args The target time of one verification in milliseconds, optional.
+     */
+    public static void main(String[] args) {
+        long targetMillis = (args.length > 0) ? Long.parseLong(args[0]) : 250;
+        int iterations = PasswordHasher.calibrate(Duration.ofMillis(targetMillis));
+        System.out.printf("# about %d ms per login on this machine\n", targetMillis);
+        System.out.printf("password.hash.iterations = %d\n", iterations);
+    }
+}
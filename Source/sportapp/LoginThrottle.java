@@ -0,0 +1,514 @@
+package sportapp;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Limits login attempts per username, so guessing passwords for one account cannot keep the
+ * slow password checks busy.
+ * <p>
+ * Every username has a token bucket: an attempt takes a token and tokens refill at a fixed
+ * rate. After a number of failures in a row the account is locked out, for a time that doubles
+ * with every further failure. A successful login forgets the username.
+ * <p>
+ * Each bucket is an immutable state swapped with compare-and-set, so attempts never take a
+ * lock. A bucket is forgotten once it is back to the state of a new one: refilled, not locked,
+ * and either without failures or unused for the longest lockout. A refilled bucket that still
+ * counts failures is moved to a dormant table, which keeps its state in a few primitive fields,
+ * and comes back from there on the next attempt; failures are never forgotten early, so
+ * waiting for the refill does not reset the road to a lockout.
+ * <p>
+ * At most a fixed number of usernames have a live bucket. When the table is full, the next new
+ * username makes room: forgettable buckets are dropped and the rest are moved to the dormant
+ * table with their tokens, failures and lockout intact, so no one is turned away and no one
+ * gains attempts. Dormant entries take a few dozen bytes each and are forgotten after the
+ * longest lockout. The dormant table holds the same fixed number of usernames: once it is full,
+ * the oldest entries that never reached a lockout are dropped first, and locked out ones only
+ * when nothing else is left, so a flood of distinct usernames cannot grow it without bound.
+ */
+public class LoginThrottle {
+    /**
+     * Attempts allowed in a burst, unless set otherwise.
+     */
+    public static final int DEFAULT_CAPACITY = 5;
+
+    /**
+     * Time to refill one attempt, unless set otherwise.
+     */
+    public static final Duration DEFAULT_REFILL_INTERVAL = Duration.ofSeconds(30);
+
+    /**
+     * Failures in a row before the first lockout, unless set otherwise.
+     */
+    public static final int DEFAULT_FREE_FAILURES = 5;
+
+    /**
+     * Length of the first lockout, unless set otherwise.
+     */
+    public static final Duration DEFAULT_BASE_LOCKOUT = Duration.ofMinutes(1);
+
+    /**
+     * Longest lockout, unless set otherwise.
+     */
+    public static final Duration DEFAULT_MAX_LOCKOUT = Duration.ofHours(1);
+
+    /**
+     * Most usernames tracked at once in each of the live and the dormant table, unless set otherwise.
+     */
+    public static final int DEFAULT_MAX_TRACKED = 100_000;
+
+    private static final LoginThrottle instance = new LoginThrottle(DEFAULT_CAPACITY, DEFAULT_REFILL_INTERVAL,
+        DEFAULT_FREE_FAILURES, DEFAULT_BASE_LOCKOUT, DEFAULT_MAX_LOCKOUT, DEFAULT_MAX_TRACKED);
+
+    static {
+        Clock.scheduleOnClockInUse(instance::evictIdle, Duration.ofMinutes(1));
+    }
+
+    /**
+     * Immutable state of a username's bucket.
+     */
+    private static class State {
+        private final double tokens;
+        private final LocalDateTime refilledAt;
+        private final int failures;
+        private final LocalDateTime lockedUntil;
+
+        private State(double tokens, LocalDateTime refilledAt, int failures, LocalDateTime lockedUntil) {
+            this.tokens = tokens;
+            this.refilledAt = refilledAt;
+            this.failures = failures;
+            this.lockedUntil = lockedUntil;
+        }
+    }
+
+    /**
+     * State of a bucket moved to the dormant table, with times as nanoseconds since the epoch
+     * and no lockout stored as zero.
+     */
+    private static class Dormant {
+        private final double tokens;
+        private final long refilledAt;
+        private final int failures;
+        private final long lockedUntil;
+
+        private Dormant(State state) {
+            tokens = state.tokens;
+            refilledAt = toNanos(state.refilledAt);
+            failures = state.failures;
+            lockedUntil = (state.lockedUntil == null) ? 0 : toNanos(state.lockedUntil);
+        }
+
+        private State toState() {
+            return new State(tokens, fromNanos(refilledAt), failures, (lockedUntil == 0) ? null : fromNanos(lockedUntil));
+        }
+    }
+
+    /**
+     * State of a bucket that has been dropped or moved to the dormant table; whoever finds it
+     * looks the username up again.
+     */
+    private static final State RETIRED = new State(0, null, 0, null);
+
+    private ConcurrentHashMap<String, AtomicReference<State>> buckets;
+    private ConcurrentHashMap<String, Dormant> dormant;
+    private int capacity;
+    private Duration refillInterval;
+    private int freeFailures;
+    private Duration baseLockout;
+    private Duration maxLockout;
+    private int maxTracked;
+
+    /**
+     * Number of attempts allowed.
+     */
+    private AtomicLong allowedCount;
+
+    /**
+     * Number of attempts turned away because the bucket was empty.
+     */
+    private AtomicLong throttledCount;
+
+    /**
+     * Number of attempts turned away because the account was locked out.
+     */
+    private AtomicLong lockedOutCount;
+
+    /**
+     * Number of lockouts started.
+     */
+    private AtomicLong lockoutCount;
+
+    /**
+     * Constructs a login throttle tracking up to {@link #DEFAULT_MAX_TRACKED} usernames.
+     * @param capacity attempts allowed in a burst
+     * @param refillInterval time to refill one attempt
+     * @param freeFailures failures in a row before the first lockout
+     * @param baseLockout length of the first lockout
+     * @param maxLockout longest lockout
+     * @throws IllegalArgumentException if a count or time is not positive, or the longest
+     * lockout is shorter than the first
+     */
+    public LoginThrottle(int capacity, Duration refillInterval, int freeFailures, Duration baseLockout, Duration maxLockout) {
+        this(capacity, refillInterval, freeFailures, baseLockout, maxLockout, DEFAULT_MAX_TRACKED);
+    }
+
+    /**
+     * Constructs a login throttle.
+     * @param capacity attempts allowed in a burst
+     * @param refillInterval time to refill one attempt
+     * @param freeFailures failures in a row before the first lockout
+     * @param baseLockout length of the first lockout
+     * @param maxLockout longest lockout
+     * @param maxTracked most usernames tracked at once in each of the live and the dormant table
+     * @throws IllegalArgumentException if a count or time is not positive, or the longest
+     * lockout is shorter than the first
+     */
+    public LoginThrottle(int capacity, Duration refillInterval, int freeFailures, Duration baseLockout, Duration maxLockout, int maxTracked) {
+        if (capacity <= 0 || freeFailures <= 0 || maxTracked <= 0 || refillInterval.isZero() || refillInterval.isNegative()
+                || baseLockout.isZero() || baseLockout.isNegative() || maxLockout.compareTo(baseLockout) < 0) {
+            throw new IllegalArgumentException("Throttle limits must be positive");
+        }
+        this.capacity = capacity;
+        this.refillInterval = refillInterval;
+        this.freeFailures = freeFailures;
+        this.baseLockout = baseLockout;
+        this.maxLockout = maxLockout;
+        this.maxTracked = maxTracked;
+        buckets = new ConcurrentHashMap<>();
+        dormant = new ConcurrentHashMap<>();
+        allowedCount = new AtomicLong();
+        throttledCount = new AtomicLong();
+        lockedOutCount = new AtomicLong();
+        lockoutCount = new AtomicLong();
+    }
+
+    /**
+     * Returns the shared login throttle.
+     * @return LoginThrottle singleton
+     */
+    public static LoginThrottle getInstance() {
+        return instance;
+    }
+
+    /**
+     * Takes an attempt for a username if one is available.
+     * @param username username being tried
+     * @return zero if the attempt is allowed, otherwise the time until the next attempt is
+     */
+    public Duration tryAcquire(String username) {
+        String name = key(username);
+        AtomicReference<State> bucket = bucketFor(name);
+        while (true) {
+            LocalDateTime now = Clock.getInstance().getDateTime();
+            State state = bucket.get();
+            if (state == RETIRED) {
+                bucket = bucketFor(name);
+                continue;
+            }
+            if (state.lockedUntil != null && state.lockedUntil.isAfter(now)) {
+                lockedOutCount.incrementAndGet();
+                return Duration.between(now, state.lockedUntil);
+            }
+            double tokens = refill(state, now);
+            if (tokens < 1) {
+                throttledCount.incrementAndGet();
+                return Duration.ofNanos((long) ((1 - tokens) * refillInterval.toNanos()));
+            }
+            if (bucket.compareAndSet(state, new State(tokens - 1, now, state.failures, state.lockedUntil))) {
+                allowedCount.incrementAndGet();
+                return Duration.ZERO;
+            }
+        }
+    }
+
+    /**
+     * Records a failed login, locking the username out once it has failed too often in a row.
+     * @param username username that failed
+     */
+    public void recordFailure(String username) {
+        String name = key(username);
+        AtomicReference<State> bucket = bucketFor(name);
+        while (true) {
+            LocalDateTime now = Clock.getInstance().getDateTime();
+            State state = bucket.get();
+            if (state == RETIRED) {
+                bucket = bucketFor(name);
+                continue;
+            }
+            int failures = state.failures + 1;
+            LocalDateTime lockedUntil = state.lockedUntil;
+            if (failures >= freeFailures) {
+                lockedUntil = now.plus(lockoutFor(failures - freeFailures));
+            }
+            if (bucket.compareAndSet(state, new State(refill(state, now), now, failures, lockedUntil))) {
+                if (failures >= freeFailures) {
+                    lockoutCount.incrementAndGet();
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Records a successful login, forgetting the failures of the username.
+     * @param username username that logged in
+     */
+    public void recordSuccess(String username) {
+        String name = key(username);
+        AtomicReference<State> bucket = buckets.remove(name);
+        if (bucket != null) {
+            bucket.set(RETIRED); // so a concurrent move to the dormant table gives up
+        }
+        dormant.remove(name);
+    }
+
+    /**
+     * Forgets the buckets that are back to the state of a new one and moves refilled buckets
+     * that still count failures to the dormant table.
+     * @param now current clock time
+     * @return number of buckets forgotten
+     */
+    public int evictIdle(LocalDateTime now) {
+        return sweep(now, false);
+    }
+
+    /**
+     * Retrieves the number of usernames with a bucket, live or dormant.
+     * @return number of buckets
+     */
+    public int getTrackedCount() {
+        return buckets.size() + dormant.size();
+    }
+
+    /**
+     * Retrieves the number of usernames with a live bucket.
+     * @return number of live buckets
+     */
+    public int getLiveCount() {
+        return buckets.size();
+    }
+
+    /**
+     * Retrieves the number of attempts allowed.
+     * @return number of attempts allowed
+     */
+    public long getAllowedCount() {
+        return allowedCount.get();
+    }
+
+    /**
+     * Retrieves the number of attempts turned away because the bucket was empty.
+     * @return number of throttled attempts
+     */
+    public long getThrottledCount() {
+        return throttledCount.get();
+    }
+
+    /**
+     * Retrieves the number of attempts turned away because the account was locked out.
+     * @return number of locked out attempts
+     */
+    public long getLockedOutCount() {
+        return lockedOutCount.get();
+    }
+
+    /**
+     * Retrieves the number of lockouts started.
+     * @return number of lockouts
+     */
+    public long getLockoutCount() {
+        return lockoutCount.get();
+    }
+
+    /**
+     * Forgets every username (used by tests).
+     */
+    public void clear() {
+        synchronized (dormant) {
+            buckets.clear();
+            dormant.clear();
+        }
+    }
+
+    /**
+     * Finds the live bucket of a username, bringing it back from the dormant table or creating
+     * it if needed.
+     * @param name map key of the username
+     * @return live bucket, which may be retired by the time it is used
+     */
+    private AtomicReference<State> bucketFor(String name) {
+        while (true) {
+            AtomicReference<State> bucket = buckets.get(name);
+            if (bucket == null) {
+                if (buckets.size() >= maxTracked) {
+                    makeRoom();
+                }
+                bucket = buckets.computeIfAbsent(name, key -> {
+                    Dormant entry = dormant.remove(key);
+                    return new AtomicReference<>((entry == null)
+                        ? new State(capacity, Clock.getInstance().getDateTime(), 0, null) : entry.toState());
+                });
+            }
+            if (bucket.get() != RETIRED) {
+                return bucket;
+            }
+            buckets.remove(name, bucket); // finish the move of a retired bucket
+        }
+    }
+
+    /**
+     * Empties the live table once it is full, forgetting what can be forgotten and moving the
+     * rest to the dormant table.
+     */
+    private void makeRoom() {
+        synchronized (dormant) {
+            if (buckets.size() >= maxTracked) {
+                sweep(Clock.getInstance().getDateTime(), true);
+            }
+        }
+    }
+
+    /**
+     * Forgets idle buckets, live and dormant, and moves live buckets to the dormant table.
+     * @param now current clock time
+     * @param all true to move every remaining live bucket, false to move only refilled,
+     * unlocked ones
+     * @return number of buckets forgotten
+     */
+    private int sweep(LocalDateTime now, boolean all) {
+        int evicted = 0;
+        synchronized (dormant) {
+            for (String name : dormant.keySet()) {
+                Dormant entry = dormant.get(name);
+                if (entry != null && isIdle(entry.toState(), now) && dormant.remove(name, entry)) {
+                    evicted++;
+                }
+            }
+            for (String name : buckets.keySet()) {
+                AtomicReference<State> bucket = buckets.get(name);
+                State state = (bucket == null) ? RETIRED : bucket.get();
+                if (state == RETIRED) {
+                    continue;
+                }
+                if (isIdle(state, now)) {
+                    if (bucket.compareAndSet(state, RETIRED)) {
+                        buckets.remove(name, bucket);
+                        evicted++;
+                    }
+                } else if (all || isRested(state, now)) {
+                    // publish the dormant copy before retiring, so whoever finds the retired
+                    // bucket brings it back with its failures
+                    Dormant entry = new Dormant(state);
+                    if (dormant.size() >= maxTracked) {
+                        trimDormant();
+                    }
+                    dormant.put(name, entry);
+                    if (bucket.compareAndSet(state, RETIRED)) {
+                        buckets.remove(name, bucket);
+                    } else {
+                        dormant.remove(name, entry); // used since it was read; keep it live
+                    }
+                }
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * Drops a quarter of the full dormant table, so the next entries fit. Entries that never
+     * reached a lockout go first, oldest first; locked out ones follow in the same order.
+     * The caller holds the lock of the dormant table.
+     */
+    private void trimDormant() {
+        ArrayList<Map.Entry<String, Dormant>> entries = new ArrayList<>(dormant.entrySet());
+        entries.sort(Comparator.comparing((Map.Entry<String, Dormant> entry) -> entry.getValue().failures >= freeFailures)
+            .thenComparingLong(entry -> entry.getValue().refilledAt));
+        int drop = entries.size() - (maxTracked - Math.max(1, maxTracked / 4));
+        for (int i = 0; i < drop && i < entries.size(); i++) {
+            dormant.remove(entries.get(i).getKey(), entries.get(i).getValue());
+        }
+    }
+
+    /**
+     * Computes the tokens of a bucket at a given time.
+     * @param state bucket state
+     * @param now current clock time
+     * @return available tokens
+     */
+    private double refill(State state, LocalDateTime now) {
+        double elapsed = Math.max(0, Duration.between(state.refilledAt, now).toNanos());
+        return Math.min(capacity, state.tokens + elapsed / refillInterval.toNanos());
+    }
+
+    /**
+     * Computes the length of a lockout, doubling from the first lockout up to the longest.
+     * @param extraFailures failures beyond those allowed before the first lockout
+     * @return lockout length
+     */
+    private Duration lockoutFor(int extraFailures) {
+        if (extraFailures >= 62) {
+            return maxLockout;
+        }
+        long nanos = baseLockout.toNanos();
+        long factor = 1L << extraFailures;
+        if (nanos > maxLockout.toNanos() / factor) {
+            return maxLockout;
+        }
+        return Duration.ofNanos(nanos * factor);
+    }
+
+    /**
+     * Checks whether a bucket is refilled and not locked out.
+     * @param state bucket state
+     * @param now current clock time
+     * @return true if the bucket is at rest
+     */
+    private boolean isRested(State state, LocalDateTime now) {
+        return refill(state, now) >= capacity && (state.lockedUntil == null || !state.lockedUntil.isAfter(now));
+    }
+
+    /**
+     * Checks whether a bucket can be forgotten: at rest, and either without failures or unused
+     * for the longest lockout, after which its failures no longer count.
+     * @param state bucket state
+     * @param now current clock time
+     * @return true if the bucket can be evicted
+     */
+    private boolean isIdle(State state, LocalDateTime now) {
+        return isRested(state, now) && (state.failures == 0 || !state.refilledAt.plus(maxLockout).isAfter(now));
+    }
+
+    /**
+     * Converts a clock time to nanoseconds since the epoch.
+     * @param time clock time
+     * @return nanoseconds
+     */
+    private static long toNanos(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + time.getNano();
+    }
+
+    /**
+     * Converts nanoseconds since the epoch back to a clock time.
+     * @param nanos nanoseconds
+     * @return clock time
+     */
+    private static LocalDateTime fromNanos(long nanos) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L), (int) Math.floorMod(nanos, 1_000_000_000L), ZoneOffset.UTC);
+    }
+
+    /**
+     * Returns the map key of a username.
+     * @param username username, possibly null
+     * @return map key
+     */
+    private static String key(String username) {
+        return (username == null) ? "" : username;
+    }
+}
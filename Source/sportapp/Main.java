@@ -1,15 +1,25 @@
 package sportapp;
 
 import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.Properties;
 import java.util.Scanner;
 
+import sportapp.manager.EquipmentAssignmentStrategy;
+import sportapp.manager.EquipmentBookManager;
+import sportapp.manager.PendingHoldPolicy;
+import sportapp.persistence.DataStore;
+import sportapp.persistence.RecoveryReport;
 import sportapp.util.DataInit;
 
 /**
  * Application entry point.
  * <p>
- * Reads application properties, initializes default data and starts the console UI loop.
+ * Reads application properties, initializes default data, recovers the saved snapshot and
+ * booking log and starts the console UI loop.
  */
 public class Main {
     /**
@@ -29,6 +39,13 @@ public class Main {
         String root_path = Thread.currentThread().getContextClassLoader().getResource("").getPath();
         String version, course_info, proj_name, proj_title, proj_group;
         String loadRecord = "false";
+        String logPath = "data/bookings.wal";
+        String snapshotPath = "data/state.snapshot";
+        long snapshotInterval = 10;
+        String assignment = "first-fit";
+        long holdTtlMinutes = 15;
+        int hashIterations = 0;
+        String breachedPath = "";
 
         try {
             String prop_path = "app.properties";
@@ -41,6 +58,13 @@ public class Main {
             proj_title = prop.getProperty("project.title", "CS3343 Group Project");
             proj_group = prop.getProperty("project.group", "5");
             loadRecord = prop.getProperty("load.record", "false");
+            logPath = prop.getProperty("data.log", logPath);
+            snapshotPath = prop.getProperty("data.snapshot", snapshotPath);
+            snapshotInterval = Long.parseLong(prop.getProperty("snapshot.interval.minutes", "10"));
+            assignment = prop.getProperty("equipment.assignment", assignment);
+            holdTtlMinutes = Long.parseLong(prop.getProperty("booking.hold.ttl.minutes", "15"));
+            hashIterations = Integer.parseInt(prop.getProperty("password.hash.iterations", "0"));
+            breachedPath = prop.getProperty("password.breached.filter", breachedPath);
 
             System.out.printf("\n%s\n", course_info);
             System.out.printf("%s Group %s\n", proj_title, proj_group);
@@ -51,12 +75,54 @@ public class Main {
             System.err.println(ex.getMessage());
         }
 
+        if (hashIterations > 0) {
+            try {
+                PasswordHasher.setIterations(hashIterations);
+            } catch (IllegalArgumentException ex) {
+                System.err.println(ex.getMessage());
+            }
+        }
+        if (!breachedPath.isEmpty() && Files.exists(Paths.get(breachedPath))) {
+            try {
+                BreachedPasswordFilter filter = BreachedPasswordFilter.open(Paths.get(breachedPath));
+                PasswordStrengthAnalysis.setBreachedPasswords(filter);
+                System.out.printf("Breached password check: %d passwords\n\n", filter.getEntryCount());
+            } catch (IOException ex) {
+                System.err.println("Breached password check is unavailable: " + ex.getMessage());
+            }
+        }
         DataInit.initDefaultData(loadRecord);
+        EquipmentBookManager.getInstance().setAssignmentStrategy(
+            assignment.equals("best-fit") ? EquipmentAssignmentStrategy.BEST_FIT : EquipmentAssignmentStrategy.FIRST_FIT);
+        if (holdTtlMinutes > 0) {
+            PendingHoldPolicy.getInstance().setHoldTtl(Duration.ofMinutes(holdTtlMinutes));
+        }
+
+        DataStore dataStore = null;
+        try {
+            dataStore = DataStore.open(Paths.get(logPath), Paths.get(snapshotPath));
+            RecoveryReport report = dataStore.recover();
+            System.out.printf("%s\n\n", report);
+            dataStore.attach();
+            if (snapshotInterval > 0) {
+                dataStore.startCheckpoints(snapshotInterval * 60 * 1000);
+            }
+        } catch (IOException ex) {
+            System.err.println("Saved data is unavailable, changes will not be saved: " + ex.getMessage());
+        }
 
         Scanner scanner = new Scanner(System.in);
         SportApp app = new SportApp(scanner);
         app.run();
 
         scanner.close();
+        if (dataStore != null) {
+            try {
+                dataStore.checkpoint();
+                dataStore.close();
+            } catch (IOException ex) {
+                System.err.println(ex.getMessage());
+            }
+        }
     }
 }
\ No newline at end of file
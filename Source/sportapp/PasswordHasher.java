@@ -0,0 +1,187 @@
+package sportapp;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * Utility class for salted, slow hashing of passwords and security answers with PBKDF2.
+ * <p>
+ * A stored credential reads {@code pbkdf2-sha256$<iterations>$<salt>$<hash>}, with the salt
+ * and hash in Base64, so every credential keeps the cost it was hashed with. Credentials saved
+ * before hashing was introduced are plain text; they still verify, and
+ * {@link #needsRehash} tells the caller to replace them.
+ */
+public class PasswordHasher {
+    /**
+     * JDK name of the key derivation function.
+     */
+    public static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+
+    /**
+     * Iteration count used until {@link #setIterations} is called.
+     */
+    public static final int DEFAULT_ITERATIONS = 100_000;
+
+    /**
+     * Lowest iteration count accepted.
+     */
+    public static final int MIN_ITERATIONS = 10_000;
+
+    /**
+     * How far, in percent, a stored iteration count may fall below the current one before the
+     * credential is rehashed, so a slightly different calibration does not rehash every user.
+     */
+    public static final int REHASH_TOLERANCE_PERCENT = 10;
+
+    private static final String PREFIX = "pbkdf2-sha256";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+    private static final SecureRandom random = new SecureRandom();
+    private static volatile int iterations = DEFAULT_ITERATIONS;
+
+    private PasswordHasher() {
+        // Utility class
+    }
+
+    /**
+     * Returns the iteration count used for new hashes.
+     * @return iteration count
+     */
+    public static int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Sets the iteration count used for new hashes. Credentials hashed with meaningfully fewer
+     * iterations are rehashed on their next successful verification; see {@link #needsRehash}.
+     * @param newIterations iteration count
+     * @throws IllegalArgumentException if the count is below {@link #MIN_ITERATIONS}
+     */
+    public static void setIterations(int newIterations) {
+        if (newIterations < MIN_ITERATIONS) {
+            throw new IllegalArgumentException("Iteration count must be at least " + MIN_ITERATIONS);
+        }
+        iterations = newIterations;
+    }
+
+    /**
+     * Hashes a secret with a new random salt and the current iteration count.
+     * @param secret password or answer in plain text
+     * @return stored credential
+     */
+    public static String hash(String secret) {
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        int cost = iterations;
+        Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        return PREFIX + "$" + cost + "$" + encoder.encodeToString(salt) + "$" + encoder.encodeToString(derive(secret, salt, cost));
+    }
+
+    /**
+     * Checks whether a stored credential is a hash rather than legacy plain text.
+     * @param stored stored credential
+     * @return true if the credential is hashed
+     */
+    public static boolean isHashed(String stored) {
+        return stored != null && stored.startsWith(PREFIX + "$");
+    }
+
+    /**
+     * Verifies a secret against a stored credential, hashed or legacy plain text. A damaged
+     * hashed credential matches nothing.
+     * @param secret password or answer in plain text
+     * @param stored stored credential
+     * @return true if the secret matches
+     */
+    public static boolean verify(String secret, String stored) {
+        if (secret == null || stored == null) {
+            return false;
+        }
+        if (!isHashed(stored)) {
+            return MessageDigest.isEqual(secret.getBytes(StandardCharsets.UTF_8), stored.getBytes(StandardCharsets.UTF_8));
+        }
+        String[] parts = stored.split("\\$");
+        if (parts.length != 4) {
+            return false;
+        }
+        Base64.Decoder decoder = Base64.getDecoder();
+        try {
+            byte[] expected = decoder.decode(parts[3]);
+            return MessageDigest.isEqual(expected, derive(secret, decoder.decode(parts[2]), Integer.parseInt(parts[1])));
+        } catch (IllegalArgumentException ex) {
+            // bad iteration count or Base64, or an empty salt
+            return false;
+        }
+    }
+
+    /**
+     * Checks whether a stored credential should be replaced, because it is plain text or was
+     * hashed with more than {@link #REHASH_TOLERANCE_PERCENT} percent fewer iterations than new
+     * hashes use, or its iteration count cannot be read.
+     * @param stored stored credential
+     * @return true if the credential should be rehashed
+     */
+    public static boolean needsRehash(String stored) {
+        if (!isHashed(stored)) {
+            return true;
+        }
+        String[] parts = stored.split("\\$");
+        try {
+            return parts.length != 4 || Integer.parseInt(parts[1]) * 100L < (long) iterations * (100 - REHASH_TOLERANCE_PERCENT);
+        } catch (NumberFormatException ex) {
+            return true;
+        }
+    }
+
+    /**
+     * Measures this machine and picks the iteration count at which one verification takes
+     * about the target time. The result is rounded to thousands and is never below
+     * {@link #MIN_ITERATIONS}; it is not applied until passed to {@link #setIterations}.
+     * Run it once through {@link HashCalibration} and store the result, as the count varies
+     * from run to run.
+     * @param target verification latency to aim for
+     * @return iteration count
+     * @throws IllegalArgumentException if the target is not positive
+     */
+    public static int calibrate(Duration target) {
+        if (target.isZero() || target.isNegative()) {
+            throw new IllegalArgumentException("Target latency must be positive");
+        }
+        byte[] salt = new byte[SALT_BYTES];
+        int probe = MIN_ITERATIONS;
+        derive("calibration", salt, probe); // warm up the JIT
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            long start = System.nanoTime();
+            derive("calibration", salt, probe);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        long picked = Math.round((double) probe * target.toNanos() / Math.max(best, 1) / 1000) * 1000;
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(MIN_ITERATIONS, picked));
+    }
+
+    /**
+     * Derives the PBKDF2 hash of a secret.
+     * @param secret secret in plain text
+     * @param salt salt
+     * @param cost iteration count
+     * @return derived hash
+     */
+    private static byte[] derive(String secret, byte[] salt, int cost) {
+        PBEKeySpec spec = new PBEKeySpec(secret.toCharArray(), salt, cost, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException(ALGORITHM + " is not available", ex);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
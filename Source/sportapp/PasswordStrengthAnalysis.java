@@ -2,8 +2,13 @@ package sportapp;
 
 /**
  * Utility class for password strength checking.
+ * <p>
+ * Besides the character rules, a password can be checked against a list of common and
+ * breached passwords, once a {@link BreachedPasswordFilter} has been set.
  */
 public class PasswordStrengthAnalysis {
+    private static volatile BreachedPasswordFilter breachedPasswords = null;
+
     /**
      * Constructs a PasswordStrengthAnalysis instance.
      * <p>
@@ -13,9 +18,28 @@ public class PasswordStrengthAnalysis {
         // Default constructor
     }
 
+    /**
+     * Sets the list of common and breached passwords that are never strong.
+     * @param filter filter of the list, or null to skip the check
+     */
+    public static void setBreachedPasswords(BreachedPasswordFilter filter) {
+        breachedPasswords = filter;
+    }
+
+    /**
+     * Checks whether a password is on the list of common and breached passwords.
+     * @param password candidate password
+     * @return true when the password is (very likely) on the list; false when no list is set
+     */
+    public static boolean isBreachedPassword(String password) {
+        BreachedPasswordFilter filter = breachedPasswords;
+        return filter != null && filter.mightContain(password);
+    }
+
     /**
      * Evaluates whether a password meets the project's strength policy.
-     * Policy: at least 8 characters, contains upper/lower/digit/special.
+     * Policy: at least 8 characters, contains upper/lower/digit/special, and is not on the
+     * list of common and breached passwords.
      * @param password candidate password
      * @return true when password is considered strong
      */
@@ -29,6 +53,6 @@ public class PasswordStrengthAnalysis {
             else if (Character.isDigit(c)) { hasDigit = true; }
             else { hasSpecial = true; }
         }
-        return (hasUpper && hasLower && hasDigit && hasSpecial);
+        return (hasUpper && hasLower && hasDigit && hasSpecial) && !isBreachedPassword(password);
     }
 }
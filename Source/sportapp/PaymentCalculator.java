@@ -109,14 +109,14 @@ public class PaymentCalculator {
         if (facilityBookingsPending != null) {
             for (FacilityBookRecord facilityBookRecord : facilityBookingsPending) {
                 if (facilityBookRecord != null) {
-                    facilityBookRecord.setStatus(BookingStatus.CONFIRMED);
+                    facilityBookRecord.compareAndSetStatus(BookingStatus.PENDING, BookingStatus.CONFIRMED);
                 }
             }
         }
         if (equipmentBookingsPending != null) {
             for (EquipmentBookRecord equipmentBookRecord : equipmentBookingsPending) {
                 if (equipmentBookRecord != null) {
-                    equipmentBookRecord.setStatus(BookingStatus.CONFIRMED);
+                    equipmentBookRecord.compareAndSetStatus(BookingStatus.PENDING, BookingStatus.CONFIRMED);
                 }
             }
         }
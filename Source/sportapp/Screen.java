@@ -3,6 +3,10 @@ import java.util.Scanner;
 
 /**
  * Screen interface represents a UI screen that can be displayed to a user.
+ * <p>
+ * The application passes each screen the session context of its console. Screens that only
+ * need the signed-in user implement {@link #display(Scanner, User)}; screens that sign users
+ * in or out also override {@link #display(Scanner, SessionContext)}.
  */
 public interface Screen {
     /**
@@ -12,4 +16,15 @@ public interface Screen {
      * @return next application route
      */
     Route display(Scanner scanner, User user);
+
+    /**
+     * Displays the screen for a console session and returns the next route.
+     * By default the screen is displayed for the signed-in user of the session.
+     * @param scanner input scanner
+     * @param session session context of the console
+     * @return next application route
+     */
+    default Route display(Scanner scanner, SessionContext session) {
+        return display(scanner, session.getUser());
+    }
 }
\ No newline at end of file
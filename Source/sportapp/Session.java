@@ -0,0 +1,71 @@
+package sportapp;
+
+import java.time.LocalDateTime;
+
+/**
+ * A signed-in user's session, identified by an opaque token.
+ * <p>
+ * Sessions are issued and evicted by {@link SessionManager}. A session ends when it has been
+ * idle too long or has lasted too long, whichever comes first.
+ */
+public class Session {
+    private final String token;
+    private final User user;
+    private final LocalDateTime createdAt;
+    private volatile LocalDateTime lastAccess;
+
+    /**
+     * Constructs a session.
+     * @param token opaque session token
+     * @param user signed-in user
+     * @param createdAt clock time the session starts
+     */
+    Session(String token, User user, LocalDateTime createdAt) {
+        this.token = token;
+        this.user = user;
+        this.createdAt = createdAt;
+        this.lastAccess = createdAt;
+    }
+
+    /**
+     * Returns the opaque token of the session.
+     * @return session token
+     */
+    public String getToken() {
+        return token;
+    }
+
+    /**
+     * Returns the signed-in user.
+     * @return user of the session
+     */
+    public User getUser() {
+        return user;
+    }
+
+    /**
+     * Returns the clock time the session started.
+     * @return start time
+     */
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Returns the clock time the session was last used.
+     * @return last access time
+     */
+    public LocalDateTime getLastAccess() {
+        return lastAccess;
+    }
+
+    /**
+     * Records a use of the session.
+     * @param now current clock time
+     */
+    void touch(LocalDateTime now) {
+        if (now.isAfter(lastAccess)) {
+            lastAccess = now;
+        }
+    }
+}
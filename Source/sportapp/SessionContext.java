@@ -0,0 +1,59 @@
+package sportapp;
+
+/**
+ * Session state of one console, passed to every screen it displays.
+ * <p>
+ * The context only holds the session token; the user is looked up through the
+ * {@link SessionManager} on every access, so an expired or closed session signs the console
+ * out. Each console has its own context, so one process can serve many users at once.
+ */
+public class SessionContext {
+    private final SessionManager sessionManager;
+    private volatile String token;
+
+    /**
+     * Constructs a signed-out context.
+     * @param sessionManager manager issuing the sessions
+     */
+    public SessionContext(SessionManager sessionManager) {
+        this.sessionManager = sessionManager;
+    }
+
+    /**
+     * Returns the token of the current session.
+     * @return session token, or null when signed out
+     */
+    public String getToken() {
+        return token;
+    }
+
+    /**
+     * Returns the signed-in user and records the access.
+     * @return user, or null when signed out or the session expired
+     */
+    public User getUser() {
+        Session session = sessionManager.find(token);
+        if (session == null) {
+            token = null;
+            return null;
+        }
+        return session.getUser();
+    }
+
+    /**
+     * Starts a new session for a user, ending any current one.
+     * @param user signed-in user
+     */
+    public void signIn(User user) {
+        sessionManager.close(token);
+        token = sessionManager.open(user).getToken();
+    }
+
+    /**
+     * Ends the current session, if any.
+     */
+    public void signOut() {
+        sessionManager.close(token);
+        token = null;
+    }
+}
@@ -0,0 +1,213 @@
+package sportapp;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+import sportapp.manager.ConfirmedBookManager;
+
+/**
+ * Issues and evicts session tokens for signed-in users.
+ * <p>
+ * Sessions are kept in a concurrent hash map by token, so looking one up never blocks other
+ * sessions. A session expires after an idle timeout or an absolute timeout, whichever comes
+ * first. Expiry is indexed by a queue ordered by deadline: using a session only updates its
+ * last access time, and an entry whose session was used since it was queued is requeued under
+ * the later deadline when it reaches the head of the queue.
+ * <p>
+ * Once the last session of a user ends, by sign-out or expiry, the user's cached view of
+ * confirmed bookings is dropped. A view dropped just as the user signs in again is simply
+ * rebuilt on first use.
+ */
+public class SessionManager {
+    /**
+     * Idle time after which a session expires, unless set otherwise.
+     */
+    public static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(30);
+
+    /**
+     * Time after sign-in at which a session expires however much it is used, unless set otherwise.
+     */
+    public static final Duration DEFAULT_ABSOLUTE_TIMEOUT = Duration.ofHours(12);
+
+    private static final int TOKEN_BYTES = 32;
+    private static final SessionManager instance = new SessionManager(DEFAULT_IDLE_TIMEOUT, DEFAULT_ABSOLUTE_TIMEOUT);
+
+    static {
+        Clock.scheduleOnClockInUse(instance::evictExpired, Duration.ofMinutes(1));
+    }
+
+    /**
+     * A session queued under the deadline it had when it was queued.
+     */
+    private static class Entry implements Comparable<Entry> {
+        private final LocalDateTime deadline;
+        private final Session session;
+
+        private Entry(LocalDateTime deadline, Session session) {
+            this.deadline = deadline;
+            this.session = session;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            return deadline.compareTo(other.deadline);
+        }
+    }
+
+    private final SecureRandom random = new SecureRandom();
+    private ConcurrentHashMap<String, Session> sessions;
+    private ConcurrentHashMap<User, Integer> openCounts;
+    private PriorityQueue<Entry> expiries;
+    private Duration idleTimeout;
+    private Duration absoluteTimeout;
+
+    /**
+     * Constructs a session manager.
+     * @param idleTimeout idle time after which a session expires
+     * @param absoluteTimeout time after sign-in at which a session expires
+     * @throws IllegalArgumentException if either timeout is not positive
+     */
+    public SessionManager(Duration idleTimeout, Duration absoluteTimeout) {
+        if (idleTimeout.isZero() || idleTimeout.isNegative() || absoluteTimeout.isZero() || absoluteTimeout.isNegative()) {
+            throw new IllegalArgumentException("Session timeouts must be positive");
+        }
+        this.idleTimeout = idleTimeout;
+        this.absoluteTimeout = absoluteTimeout;
+        sessions = new ConcurrentHashMap<>();
+        openCounts = new ConcurrentHashMap<>();
+        expiries = new PriorityQueue<>();
+    }
+
+    /**
+     * Returns the shared session manager.
+     * @return SessionManager singleton
+     */
+    public static SessionManager getInstance() {
+        return instance;
+    }
+
+    /**
+     * Starts a session for a user.
+     * @param user signed-in user
+     * @return new session with a fresh token
+     * @throws IllegalArgumentException if the user is null
+     */
+    public Session open(User user) {
+        if (user == null) {
+            throw new IllegalArgumentException("A session needs a user");
+        }
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        Session session = new Session(Base64.getUrlEncoder().withoutPadding().encodeToString(bytes), user,
+            Clock.getInstance().getDateTime());
+        openCounts.merge(user, 1, Integer::sum);
+        sessions.put(session.getToken(), session);
+        synchronized (expiries) {
+            expiries.add(new Entry(deadlineOf(session), session));
+        }
+        return session;
+    }
+
+    /**
+     * Finds the live session of a token and records the access.
+     * @param token session token
+     * @return session, or null if the token is unknown, closed or expired
+     */
+    public Session find(String token) {
+        Session session = (token == null) ? null : sessions.get(token);
+        if (session == null) {
+            return null;
+        }
+        LocalDateTime now = Clock.getInstance().getDateTime();
+        if (!deadlineOf(session).isAfter(now)) {
+            if (sessions.remove(token, session)) {
+                ended(session);
+            }
+            return null;
+        }
+        session.touch(now);
+        return session;
+    }
+
+    /**
+     * Ends a session. Unknown tokens are ignored.
+     * @param token session token
+     */
+    public void close(String token) {
+        Session session = (token == null) ? null : sessions.remove(token);
+        if (session != null) {
+            ended(session);
+        }
+    }
+
+    /**
+     * Ends the sessions whose deadline is at or before a given time.
+     * @param now current clock time
+     * @return number of sessions ended
+     */
+    public int evictExpired(LocalDateTime now) {
+        int evicted = 0;
+        synchronized (expiries) {
+            while (!expiries.isEmpty() && !expiries.peek().deadline.isAfter(now)) {
+                Session session = expiries.poll().session;
+                if (sessions.get(session.getToken()) != session) {
+                    continue; // closed, or already found expired
+                }
+                LocalDateTime deadline = deadlineOf(session);
+                if (deadline.isAfter(now)) {
+                    // used since it was queued
+                    expiries.add(new Entry(deadline, session));
+                } else if (sessions.remove(session.getToken(), session)) {
+                    ended(session);
+                    evicted++;
+                }
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * Returns the number of sessions not yet closed or evicted.
+     * @return session count
+     */
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Ends every session (used by tests).
+     */
+    public void clear() {
+        synchronized (expiries) {
+            sessions.clear();
+            openCounts.clear();
+            expiries.clear();
+        }
+    }
+
+    /**
+     * Counts a session as ended, dropping the user's booking view after their last session.
+     * @param session session removed from the map
+     */
+    private void ended(Session session) {
+        User user = session.getUser();
+        if (openCounts.computeIfPresent(user, (key, count) -> (count == 1) ? null : count - 1) == null) {
+            ConfirmedBookManager.getInstance().closeUserCollection(user);
+        }
+    }
+
+    /**
+     * Computes the clock time a session expires at, from its current last access time.
+     * @param session session
+     * @return expiry time
+     */
+    private LocalDateTime deadlineOf(Session session) {
+        LocalDateTime idleDeadline = session.getLastAccess().plus(idleTimeout);
+        LocalDateTime absoluteDeadline = session.getCreatedAt().plus(absoluteTimeout);
+        return idleDeadline.isBefore(absoluteDeadline) ? idleDeadline : absoluteDeadline;
+    }
+}
@@ -24,9 +24,9 @@ public class SportApp {
     private Scanner scanner;
 
     /**
-     * The currently logged-in user. This is shared across the application.
+     * Session context of this console.
      */
-    private static User currentUser = null;
+    private SessionContext session;
 
     /**
      * Constructs a SportApp instance with the provided Scanner.
@@ -34,25 +34,47 @@ public class SportApp {
      * @param scanner The Scanner object for reading user input.
      */
     public SportApp(Scanner scanner) {
+        this(scanner, new SessionContext(SessionManager.getInstance()));
+    }
+
+    /**
+     * Constructs a SportApp instance serving one console with its own session context.
+     *
+     * @param scanner The Scanner object for reading user input.
+     * @param session The session context of the console.
+     */
+    public SportApp(Scanner scanner, SessionContext session) {
         this.scanner = scanner;
+        this.session = session;
     }
 
     /**
-     * Sets the current user of the application.
+     * Retrieves the session context of this console.
      *
-     * @param user The user to set as the current user.
+     * @return The session context.
      */
-    public static void setCurrentUser(User user) {
-        currentUser = user;
+    public SessionContext getSession() {
+        return session;
     }
 
     /**
-     * Retrieves the current user of the application.
+     * Checks whether a route can only be displayed to a signed-in user.
      *
-     * @return The currently logged-in user.
+     * @param route The route to check.
+     * @return True if the route needs a session.
      */
-    public static User getCurrentUser() {
-        return currentUser;
+    private static boolean requiresSession(Route route) {
+        switch (route) {
+            case HOME:
+            case FACILITY_BOOKING:
+            case BOOK_EQUIPMENT:
+            case CURRENT_BOOKINGS:
+            case CONFIRMED_BOOKINGS:
+            case PAYMENT:
+                return true;
+            default:
+                return false;
+        }
     }
 
     /**
@@ -66,49 +88,52 @@ public class SportApp {
         Screen resetScreen = new ResetScreen();
         Screen logoutScreen = new LogoutScreen();
         Screen homeScreen = new HomeScreen();
-        Screen facilityScreen = new FacilityBookingUI(scanner, currentUser);
+        Screen facilityScreen = new FacilityBookingUI(scanner, null);
         Screen bookEquipmentScreen = new BookEquipmentScreen();
-        Screen currentBookingScreen = new ViewCurrentBookingUI(scanner, currentUser);
+        Screen currentBookingScreen = new ViewCurrentBookingUI(scanner, null);
         Screen confirmedBookingScreen = new ViewConfirmedBookingUI();
         Screen paymentScreen = new PaymentScreen();
 
         Route router = Route.PORTAL;
 
         while(router != Route.EXIT){
+            if (requiresSession(router) && session.getUser() == null) {
+                System.out.println("Your session has expired. Please log in again.");
+                router = Route.PORTAL;
+            }
             switch (router) {
                 case PORTAL:
-                    router = portalScreen.display(scanner, currentUser);
+                    router = portalScreen.display(scanner, session);
                     break;
                 case LOGIN:
-                    router = loginScreen.display(scanner, currentUser);
+                    router = loginScreen.display(scanner, session);
                     break;
                 case REGISTER:
-                    router = registerScreen.display(scanner, currentUser);
+                    router = registerScreen.display(scanner, session);
                     break;
                 case RESET:
-                    router = resetScreen.display(scanner, currentUser);
+                    router = resetScreen.display(scanner, session);
                     break;
                 case HOME:
-                    router = homeScreen.display(scanner, currentUser);
+                    router = homeScreen.display(scanner, session);
                     break;
                 case FACILITY_BOOKING:
-                    router = facilityScreen.display(scanner, currentUser);
+                    router = facilityScreen.display(scanner, session);
                     break;
                 case BOOK_EQUIPMENT:
-                    router = bookEquipmentScreen.display(scanner, currentUser);
+                    router = bookEquipmentScreen.display(scanner, session);
                     break;
                 case CURRENT_BOOKINGS:
-                    router = currentBookingScreen.display(scanner, currentUser);
+                    router = currentBookingScreen.display(scanner, session);
                     break;
                 case CONFIRMED_BOOKINGS:
-                    router = confirmedBookingScreen.display(scanner, currentUser);
+                    router = confirmedBookingScreen.display(scanner, session);
                     break;
                 case PAYMENT:
-                    router = paymentScreen.display(scanner, currentUser);
+                    router = paymentScreen.display(scanner, session);
                     break;
                 case LOGOUT:
-                    router = logoutScreen.display(scanner, currentUser);
-                    currentUser = null; // Clear the current user on logout
+                    router = logoutScreen.display(scanner, session);
                     break;
                 case EXIT:
                     break;
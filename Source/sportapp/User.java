@@ -10,15 +10,16 @@ import sportapp.membership.*;
 public class User {
     private String username;
     private int userID;
-    private String password;
+    private volatile String password;
     private MemberShip membership;
-    private UserSecurityAnswer securityAnswer;
+    private volatile UserSecurityAnswer securityAnswer;
 
     /**
      * Constructs a new User with the given attributes. New users default to Basic membership.
      * @param username username string
      * @param userID unique user identifier
-     * @param password plaintext password (the project may substitute hashing in future)
+     * @param password stored password credential: a {@link PasswordHasher} hash, or plain text
+     *                 for users saved before hashing, which is hashed on their next login
      * @param securityAnswer security question/answer object for password recovery
      */
     public User(String username,int userID, String password, UserSecurityAnswer securityAnswer) {
@@ -54,21 +55,41 @@ public class User {
     }
 
     /**
-     * Returns the user's password (stored in plain text in this prototype).
-     * @return password string
+     * Returns the user's stored password credential: a {@link PasswordHasher} hash, or the
+     * plain text of a user who has not logged in since hashing was introduced.
+     * @return stored password credential
      */
     public String getPassword() {
         return password;
     }
 
     /**
-     * Updates the user's password.
-     * @param password new password
+     * Updates the user's password, storing it hashed.
+     * @param password new password in plain text
      */
     public void setPassword(String password) {
+        this.password = PasswordHasher.hash(password);
+        UserCollection.getInstance().credentialsChanged(this);
+    }
+
+    /**
+     * Replaces the stored credentials with ones loaded from storage, as they are.
+     * @param password stored password credential
+     * @param securityAnswer stored security question and answer
+     */
+    public void restoreCredentials(String password, UserSecurityAnswer securityAnswer) {
         this.password = password;
+        this.securityAnswer = securityAnswer;
     }
     
+    /**
+     * Returns the security question and answer of this user.
+     * @return security answer object
+     */
+    public UserSecurityAnswer getSecurityAnswer() {
+        return securityAnswer;
+    }
+
     /**
      * Returns the security question associated with this user.
      * @return security question text
@@ -79,20 +100,34 @@ public class User {
     
     /**
      * Verifies whether the provided answer matches the stored security answer.
+     * This is slow on purpose; see {@link CredentialVerifier}.
      * @param answer answer to check
      * @return true if the answer matches, false otherwise
      */
     public boolean verifySercurityAnswer(String answer) {
-        return this.securityAnswer.getAnswer().equals(answer);
+        String stored = this.securityAnswer.getAnswer();
+        boolean matches = this.securityAnswer.verify(answer);
+        if (this.securityAnswer.getAnswer() != stored) {
+            UserCollection.getInstance().credentialsChanged(this);
+        }
+        return matches;
     }
     
     /**
      * Verifies whether the provided password matches the user's password.
+     * A plain text or outdated credential is rehashed once the password matches.
+     * This is slow on purpose; see {@link CredentialVerifier}.
      * @param password password to verify
      * @return true if passwords match
      */
     public boolean verifyPassword(String password) {
-        return this.password.equals(password);
+        String stored = this.password;
+        boolean matches = PasswordHasher.verify(password, stored);
+        if (matches && PasswordHasher.needsRehash(stored)) {
+            this.password = PasswordHasher.hash(password);
+            UserCollection.getInstance().credentialsChanged(this);
+        }
+        return matches;
     }
     
     /**
@@ -100,6 +135,7 @@ public class User {
      */
     public void upgradeToGold() {
         this.membership = new GoldMemberShip();
+        UserCollection.getInstance().membershipChanged(this);
     }
     
     /**
@@ -107,5 +143,6 @@ public class User {
      */
     public void upgradeToPlatinum() {
         this.membership = new PlatinumMemberShip();
+        UserCollection.getInstance().membershipChanged(this);
     }
 }
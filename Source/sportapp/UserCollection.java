@@ -1,19 +1,30 @@
 package sportapp;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import sportapp.manager.ChangeJournal;
 
 /**
  * Singleton collection that manages application users.
  * <p>
- * Provides simple CRUD-like helpers used by the UI and tests.
+ * Provides simple CRUD-like helpers used by the UI and tests. Users are kept in concurrent
+ * hash indexes by username and by user ID, so logins, registration checks and existence
+ * checks take constant time and never block each other. Usernames are unique: registration
+ * is an atomic put-if-absent, so two sessions signing up with the same name cannot both win.
  */
 public class UserCollection {
 
     private static final UserCollection instance = new UserCollection();
-    private ArrayList<User> users;
-    private static int userIDCounter = 0;
+    private ConcurrentHashMap<String, User> usersByName;
+    private ConcurrentHashMap<Integer, User> usersByID;
+    private AtomicInteger nextUserID = new AtomicInteger();
+    private volatile ChangeJournal journal = ChangeJournal.NONE;
 
     private UserCollection() {
-        users = new ArrayList<>();
+        usersByName = new ConcurrentHashMap<>();
+        usersByID = new ConcurrentHashMap<>();
     }
 
     /**
@@ -25,26 +36,71 @@ public class UserCollection {
     }
 
     /**
-     * Creates a new user and adds it to the collection.
+     * Creates a new user with hashed credentials and adds it to the collection, replacing any
+     * user with the same name.
+     * Used by initialization and tests; sign-ups go through {@link #registerUser}.
      * @param username username string
      * @param password password string
      * @param securityAnswer user's security question/answer
      * @return created User object
      */
     public User addUser(String username,String password, UserSecurityAnswer securityAnswer) {
-        int userID = userIDCounter++;
-        User user = new User(username, userID, password, securityAnswer);
-        users.add(user);
+        User user = new User(username, nextUserID.getAndIncrement(), PasswordHasher.hash(password),
+            (securityAnswer == null) ? null : securityAnswer.hashed());
+        addUser(user);
+        journal.userRegistered(user);
         
         return user;
     }
 
     /**
-     * Adds an existing user object to the collection.
+     * Registers a new user with hashed credentials unless the username is already taken.
+     * The check and the insert are one atomic step, so concurrent sign-ups with the same
+     * username create a single user.
+     * @param username username string
+     * @param password password string
+     * @param securityAnswer user's security question/answer
+     * @return created User object, or null when the username is already taken
+     */
+    public User registerUser(String username, String password, UserSecurityAnswer securityAnswer) {
+        // hash before taking the name, so the slow part does not hold the index
+        String storedPassword = PasswordHasher.hash(password);
+        UserSecurityAnswer storedAnswer = (securityAnswer == null) ? null : securityAnswer.hashed();
+        User[] created = new User[1];
+        usersByName.computeIfAbsent(username, name -> {
+            created[0] = new User(name, nextUserID.getAndIncrement(), storedPassword, storedAnswer);
+            return created[0];
+        });
+        User user = created[0];
+        if (user == null) {
+            return null;
+        }
+        usersByID.put(user.getUserID(), user);
+        journal.userRegistered(user);
+
+        return user;
+    }
+
+    /**
+     * Adds an existing user object to the collection, replacing any user with the same name.
      * @param user user instance
      */
     public void addUser(User user) {
-        users.add(user);
+        User replaced = usersByName.put(user.getUsername(), user);
+        if (replaced != null && replaced != user) {
+            usersByID.remove(replaced.getUserID(), replaced);
+        }
+        usersByID.put(user.getUserID(), user);
+    }
+
+    /**
+     * Adds a user loaded from storage, keeping its ID.
+     * Users created later receive greater IDs.
+     * @param user user instance
+     */
+    public void restoreUser(User user) {
+        addUser(user);
+        nextUserID.accumulateAndGet(user.getUserID() + 1, Math::max);
     }
 
     /**
@@ -52,9 +108,9 @@ public class UserCollection {
      * @param username username of user to remove
      */
     public void removeUserByName(String username) {
-        User userToRemove = findUserByName(username);
+        User userToRemove = (username == null) ? null : usersByName.remove(username);
         if (userToRemove != null) {
-            users.remove(userToRemove);
+            usersByID.remove(userToRemove.getUserID(), userToRemove);
         }
     }
 
@@ -64,12 +120,16 @@ public class UserCollection {
      * @return matching User or null when not found
      */
     public User findUserByName(String username) {
-        for (User user : users) {
-            if (user.getUsername().equals(username)) {
-                return user;
-            }
-        }
-        return null;
+        return (username == null) ? null : usersByName.get(username);
+    }
+
+    /**
+     * Finds a user by user ID.
+     * @param userID user ID to search
+     * @return matching User or null when not found
+     */
+    public User findUserByID(int userID) {
+        return usersByID.get(userID);
     }
 
     /**
@@ -78,21 +138,54 @@ public class UserCollection {
      * @return true if present
      */
     public boolean checkUserExist(User user) {
-        return users.contains(user);
+        return user != null && usersByName.get(user.getUsername()) == user;
     }
 
     /**
-     * Returns the backing list of users. Caller should not modify directly.
+     * Returns a copy of the users in user ID order. Changes to the list do not affect the collection.
      * @return list of users
      */
     public ArrayList<User> findUser() {
+        ArrayList<User> users = new ArrayList<>(usersByName.values());
+        users.sort(Comparator.comparingInt(User::getUserID));
         return users;
     }
-    
+
+    /**
+     * Notifies the journal that the stored credentials of a user changed, if the user is in
+     * the collection.
+     * @param user user whose password or security answer changed
+     */
+    void credentialsChanged(User user) {
+        if (checkUserExist(user)) {
+            journal.credentialsChanged(user);
+        }
+    }
+
+    /**
+     * Notifies the journal that the membership of a user changed, if the user is in the
+     * collection.
+     * @param user user whose membership changed
+     */
+    void membershipChanged(User user) {
+        if (checkUserExist(user)) {
+            journal.membershipChanged(user);
+        }
+    }
+
+    /**
+     * Sets the journal notified of new registrations and of credential and membership changes.
+     * @param journal journal, or null to stop journaling
+     */
+    public void setJournal(ChangeJournal journal) {
+        this.journal = (journal == null) ? ChangeJournal.NONE : journal;
+    }
+
     /**
      * Clears the collection (used by tests/initialization).
      */
     public void clear() {
-    	users.clear();
+    	usersByName.clear();
+    	usersByID.clear();
     }
 }
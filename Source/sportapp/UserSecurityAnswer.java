@@ -2,15 +2,18 @@ package sportapp;
 
 /**
  * Simple container for a user's security question and answer.
+ * <p>
+ * The answer is stored like a password: hashed with {@link PasswordHasher}, or as plain text
+ * until it is first verified.
  */
 public class UserSecurityAnswer {
     private String question;
-    private String answer;
+    private volatile String answer;
 
     /**
      * Constructs a new pair of security question and answer.
      * @param question question text
-     * @param answer answer text
+     * @param answer stored answer: plain text or a {@link PasswordHasher} hash
      */
     public UserSecurityAnswer(String question, String answer) {
         this.question = question;
@@ -18,7 +21,7 @@ public class UserSecurityAnswer {
     }
 
     /**
-     * Returns the stored answer.
+     * Returns the stored answer, hashed unless it was never hashed or verified.
      * @return answer string
      */
     public String getAnswer() {
@@ -32,4 +35,27 @@ public class UserSecurityAnswer {
     public String getQuestion() {
         return question;
     }
+
+    /**
+     * Returns a copy of this question and answer with the answer hashed.
+     * @return hashed copy
+     */
+    public UserSecurityAnswer hashed() {
+        String stored = answer;
+        return new UserSecurityAnswer(question, PasswordHasher.isHashed(stored) ? stored : PasswordHasher.hash(stored));
+    }
+
+    /**
+     * Verifies an answer. A plain text or outdated stored answer is rehashed once the answer matches.
+     * @param candidate answer to check
+     * @return true if the answer matches
+     */
+    public boolean verify(String candidate) {
+        String stored = answer;
+        boolean matches = PasswordHasher.verify(candidate, stored);
+        if (matches && PasswordHasher.needsRehash(stored)) {
+            answer = PasswordHasher.hash(candidate);
+        }
+        return matches;
+    }
 }
@@ -151,8 +151,7 @@ public class ViewCurrentBookingControl {
      */
     public boolean updateBookingFacility(FacilityBookRecord booking, SportFacility facility, LocalDate date, int startTime, int endTime) {
         try {
-            facilityBookingControl.updateBookingFacility(booking, facility);
-            facilityBookingControl.updateBookingDateTime(booking, date, startTime, endTime);
+            facilityBookingControl.updateBookingFacility(booking, facility, date, startTime, endTime);
             return true;
         } catch (IllegalArgumentException e) {
             return false;
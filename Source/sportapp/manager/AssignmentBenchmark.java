@@ -0,0 +1,120 @@
+package sportapp.manager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+
+import sportapp.model.Equipment;
+import sportapp.model.EquipmentType;
+import sportapp.model.HourSlots;
+
+/**
+ * Replays synthetic days of borrowing requests against the assignment strategies and reports
+ * how many requests each accepts.
+ * <p>
+ * Run it as a tool:
+ * {@code java sportapp.manager.AssignmentBenchmark [days] [pieces]}, 500 days of 10 pieces
+ * unless given. Each day holds 50 requests in two workloads: short bookings of one or two
+ * pieces followed by longer bookings of up to three, and the same mix in random order. A
+ * request is accepted when enough pieces are free for its whole time slot. The days are
+ * seeded, so every run and every strategy sees the same requests.
+ */
+public class AssignmentBenchmark {
+
+    /**
+     * Bitmap of the opening hours.
+     */
+    private static final int OPENING_HOURS = HourSlots.hourMask(9, 21);
+
+    /**
+     * Constructs an AssignmentBenchmark instance.
+     * <p>
+     * This class only provides static methods.
+     */
+    private AssignmentBenchmark() {
+    }
+
+    /**
+     * Generates the requests of a day as {start hour, end hour, quantity}.
+     *
+     * @param random The source of the day's requests.
+     * @param shuffled Whether the short and long bookings are mixed rather than short first.
+     * @return The requests in arrival order.
+     */
+    private static ArrayList<int[]> generateDay(Random random, boolean shuffled) {
+        ArrayList<int[]> requests = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            boolean isShort = i < 30;
+            int length = isShort ? 1 + random.nextInt(2) : 2 + random.nextInt(3);
+            int start = 9 + random.nextInt(12 - length + 1);
+            int quantity = 1 + random.nextInt(isShort ? 2 : 3);
+            requests.add(new int[] {start, start + length, quantity});
+        }
+        if (shuffled) {
+            Collections.shuffle(requests, random);
+        }
+        return requests;
+    }
+
+    /**
+     * Replays a day of requests with a strategy.
+     *
+     * @param strategy The strategy choosing the pieces.
+     * @param pieces The pieces that can be borrowed.
+     * @param bookedHours The hours already booked of each piece, updated as requests are accepted.
+     * @param requests The requests as {start hour, end hour, quantity}.
+     * @return The number of accepted requests.
+     */
+    private static int simulateDay(EquipmentAssignmentStrategy strategy, ArrayList<Equipment> pieces, int[] bookedHours, ArrayList<int[]> requests) {
+        int accepted = 0;
+        for (int[] request : requests) {
+            int slot = HourSlots.hourMask(request[0], request[1]);
+            ArrayList<Equipment> candidates = new ArrayList<>();
+            ArrayList<Integer> freeHours = new ArrayList<>();
+            for (int i = 0; i < pieces.size(); i++) {
+                if ((bookedHours[i] & slot) == 0) {
+                    candidates.add(pieces.get(i));
+                    freeHours.add(OPENING_HOURS & ~bookedHours[i]);
+                }
+            }
+            if (candidates.size() < request[2]) {
+                continue;
+            }
+            int[] free = freeHours.stream().mapToInt(Integer::intValue).toArray();
+            for (Equipment piece : strategy.assign(candidates, free, request[0], request[1], request[2])) {
+                bookedHours[pieces.indexOf(piece)] |= slot;
+            }
+            accepted++;
+        }
+        return accepted;
+    }
+
+    /**
+     * Command line entry of the tool.
+     *
+     * @param args The number of days and the number of pieces, both optional.
+     */
+    public static void main(String[] args) {
+        int days = (args.length > 0) ? Integer.parseInt(args[0]) : 500;
+        int count = (args.length > 1) ? Integer.parseInt(args[1]) : 10;
+        EquipmentType type = new EquipmentType("ET-SIM", "Simulated Racket", "SIMR", "Badminton", 0);
+        ArrayList<Equipment> pieces = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            pieces.add(new Equipment(i, type));
+        }
+
+        for (boolean shuffled : new boolean[] {false, true}) {
+            int requests = 0;
+            int firstFit = 0;
+            int bestFit = 0;
+            for (int day = 0; day < days; day++) {
+                ArrayList<int[]> dayRequests = generateDay(new Random(day), shuffled);
+                requests += dayRequests.size();
+                firstFit += simulateDay(EquipmentAssignmentStrategy.FIRST_FIT, pieces, new int[count], dayRequests);
+                bestFit += simulateDay(EquipmentAssignmentStrategy.BEST_FIT, pieces, new int[count], dayRequests);
+            }
+            System.out.printf("%s: %d requests over %d days for %d pieces; first-fit accepted %d, best-fit accepted %d\n",
+                shuffled ? "mixed order" : "short first", requests, days, count, firstFit, bestFit);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package sportapp.manager;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+
+/**
+ * Finds the time windows in which enough pieces of equipment are free.
+ * <p>
+ * The free hours of each piece are given as an hour bitmap, where bit {@code h} covers
+ * {@code h}:00 to {@code h+1}:00. They are turned into one bitset per hour holding the pieces
+ * free in that hour, so counting and comparing the free pieces of two hours are word
+ * operations instead of list scans.
+ */
+public class AvailableWindowCalculator {
+
+    /**
+     * Number of hours in a day.
+     */
+    private static final int HOURS = 24;
+
+    /**
+     * Constructs an AvailableWindowCalculator instance.
+     * <p>
+     * This class only provides static methods.
+     */
+    private AvailableWindowCalculator() {
+    }
+
+    /**
+     * Finds the maximal windows in which at least a given quantity of pieces is free, in order
+     * of their start hour.
+     * <p>
+     * A window needs the same pieces free in every hour, so from each start hour the pieces
+     * free so far are intersected hour by hour, and the window ends before the hour that would
+     * leave too few. A window is only kept if it is not part of the window starting an hour
+     * earlier, which happens exactly when it ends later. Windows may overlap: when different
+     * pieces are free at different times, each range the same pieces can cover is offered.
+     *
+     * @param freeHours The bitmap of the free hours of each piece.
+     * @param quantity The number of pieces that must be free.
+     * @return A list of windows, each as {start hour, end hour}.
+     */
+    public static ArrayList<int[]> findWindows(int[] freeHours, int quantity) {
+        BitSet[] freeByHour = new BitSet[HOURS];
+        for (int hour = 0; hour < HOURS; hour++) {
+            freeByHour[hour] = new BitSet(freeHours.length);
+        }
+        for (int piece = 0; piece < freeHours.length; piece++) {
+            int hours = freeHours[piece];
+            while (hours != 0) {
+                int hour = Integer.numberOfTrailingZeros(hours);
+                freeByHour[hour].set(piece);
+                hours &= hours - 1;
+            }
+        }
+
+        // at least one piece must be free, even if no quantity is asked for
+        int needed = Math.max(quantity, 1);
+        ArrayList<int[]> windows = new ArrayList<>();
+        // end of the window starting an hour earlier, or -1 if no window starts there
+        int previousEnd = -1;
+        for (int start = 0; start < HOURS; start++) {
+            if (freeByHour[start].cardinality() < needed) {
+                previousEnd = -1;
+                continue;
+            }
+
+            BitSet freeThroughout = (BitSet) freeByHour[start].clone();
+            int end = start + 1;
+            while (end < HOURS) {
+                BitSet extended = (BitSet) freeThroughout.clone();
+                extended.and(freeByHour[end]);
+                if (extended.cardinality() < needed) {
+                    break;
+                }
+                freeThroughout = extended;
+                end++;
+            }
+            if (end > previousEnd) {
+                windows.add(new int[] {start, end});
+            }
+            previousEnd = end;
+        }
+        return windows;
+    }
+}
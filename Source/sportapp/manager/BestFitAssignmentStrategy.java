@@ -0,0 +1,81 @@
+package sportapp.manager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import sportapp.model.Equipment;
+
+/**
+ * Assigns the pieces of equipment whose free window fits the requested time slot most tightly.
+ * <p>
+ * The free window of a piece is the run of free hours that contains the time slot. A piece is
+ * preferred when booking it leaves fewer free fragments inside its window, that is when the
+ * slot touches the start or end of the window, and then when its window is shorter. This
+ * fills existing gaps first and leaves the long free windows of other pieces intact, so later
+ * multi-hour or large-quantity requests still find room. Pieces that fit equally well keep
+ * their list order.
+ */
+public class BestFitAssignmentStrategy implements EquipmentAssignmentStrategy {
+
+    /**
+     * Number of hours in a day.
+     */
+    private static final int HOURS = 24;
+
+    /**
+     * Chooses the candidates with the shortest free windows around the time slot.
+     *
+     * @param candidates The pieces free for the whole time slot.
+     * @param freeHours The bitmap of the free hours of each candidate, in the same order.
+     * @param startHour The start hour of the time slot.
+     * @param endHour The end hour of the time slot.
+     * @param quantity The number of pieces requested.
+     * @return A new list of the chosen pieces.
+     * @throws IllegalArgumentException If there are fewer candidates than the quantity.
+     */
+    @Override
+    public ArrayList<Equipment> assign(List<Equipment> candidates, int[] freeHours, int startHour, int endHour, int quantity) throws IllegalArgumentException {
+        if (candidates.size() < quantity) {
+            throw new IllegalArgumentException("Not enough available equipments in selected time slot.");
+        }
+
+        ArrayList<Integer> order = new ArrayList<>();
+        int[] fragments = new int[candidates.size()];
+        int[] windowLengths = new int[candidates.size()];
+        for (int i = 0; i < candidates.size(); i++) {
+            int[] window = getWindow(freeHours[i], startHour, endHour);
+            fragments[i] = ((window[0] < startHour) ? 1 : 0) + ((window[1] > endHour) ? 1 : 0);
+            windowLengths[i] = window[1] - window[0];
+            order.add(i);
+        }
+        // List.sort is stable, so pieces that fit equally well stay in list order
+        order.sort(Comparator.<Integer>comparingInt(i -> fragments[i]).thenComparingInt(i -> windowLengths[i]));
+
+        ArrayList<Equipment> assigned = new ArrayList<>();
+        for (int i = 0; i < quantity; i++) {
+            assigned.add(candidates.get(order.get(i)));
+        }
+        return assigned;
+    }
+
+    /**
+     * Finds the run of free hours that contains a time slot.
+     *
+     * @param freeHours The bitmap of the free hours of a piece.
+     * @param startHour The start hour of the time slot.
+     * @param endHour The end hour of the time slot.
+     * @return The run as {start hour, end hour}.
+     */
+    private static int[] getWindow(int freeHours, int startHour, int endHour) {
+        int start = Math.max(startHour, 0);
+        int end = Math.min(endHour, HOURS);
+        while ((start > 0) && ((freeHours & (1 << (start - 1))) != 0)) {
+            start--;
+        }
+        while ((end < HOURS) && ((freeHours & (1 << end)) != 0)) {
+            end++;
+        }
+        return new int[] {start, end};
+    }
+}
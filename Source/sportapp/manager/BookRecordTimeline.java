@@ -0,0 +1,218 @@
+package sportapp.manager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import sportapp.model.BookRecord;
+
+/**
+ * Ordered collection of booking records sorted by date and start hour.
+ * <p>
+ * Records are filed in a skip list under a key built from their date and start hour, which
+ * gives the same order as the {@code compareTo} of the booking records. Records sharing a slot
+ * keep their insertion order. Insertion and removal cost O(log n), a date range can be iterated
+ * without scanning the whole collection, and concurrent readers and writers never block each
+ * other.
+ *
+ * @param <T> The type of booking record.
+ */
+public class BookRecordTimeline<T extends BookRecord> implements Iterable<T> {
+
+    /**
+     * Number of low bits of a key holding the insertion sequence.
+     */
+    private static final int SEQUENCE_BITS = 40;
+
+    /**
+     * Records by key, in ascending order.
+     */
+    private ConcurrentSkipListMap<Long, T> entries;
+
+    /**
+     * Key each record was filed under, so it can be found after its fields changed.
+     */
+    private ConcurrentHashMap<T, Long> filedKeys;
+
+    /**
+     * Sequence keeping records of the same slot in insertion order.
+     */
+    private AtomicLong sequence;
+
+    /**
+     * Constructs an empty timeline.
+     */
+    public BookRecordTimeline() {
+        entries = new ConcurrentSkipListMap<>();
+        filedKeys = new ConcurrentHashMap<>();
+        sequence = new AtomicLong();
+    }
+
+    /**
+     * Builds the slot key of a date and start hour.
+     *
+     * @param date The date.
+     * @param startHour The start hour.
+     * @return The slot key.
+     */
+    private static long slotKey(LocalDate date, int startHour) {
+        return date.toEpochDay() * 24 + startHour;
+    }
+
+    /**
+     * Builds the first key of a slot.
+     *
+     * @param date The date.
+     * @param startHour The start hour.
+     * @return The first key of the slot.
+     */
+    private static long firstKey(LocalDate date, int startHour) {
+        return slotKey(date, startHour) << SEQUENCE_BITS;
+    }
+
+    /**
+     * Builds a new key for a record from its date and start hour.
+     *
+     * @param record The record.
+     * @return A key not given to any other record of the slot.
+     */
+    private long nextKey(T record) {
+        return firstKey(record.getDate(), record.getStartHour()) | (sequence.getAndIncrement() & ((1L << SEQUENCE_BITS) - 1));
+    }
+
+    /**
+     * Adds a record at the position given by its date and start hour.
+     *
+     * @param record The record to add.
+     * @return true if the record was added, false if it is already in the timeline.
+     */
+    public boolean add(T record) {
+        long key = nextKey(record);
+        if (filedKeys.putIfAbsent(record, key) != null) {
+            return false;
+        }
+        entries.put(key, record);
+        return true;
+    }
+
+    /**
+     * Removes a record from the timeline.
+     *
+     * @param record The record to remove.
+     * @return true if the record was removed, false if it is not in the timeline.
+     */
+    public boolean remove(T record) {
+        Long key = filedKeys.remove(record);
+        if (key == null) {
+            return false;
+        }
+        entries.remove(key);
+        return true;
+    }
+
+    /**
+     * Moves a record to the position given by its current date and start hour.
+     * <p>
+     * Call this after changing the date or start hour of a record in the timeline. The record
+     * is filed under its new key before the old one is dropped, so it never looks missing to
+     * {@link #contains} or {@link #remove}.
+     *
+     * @param record The record to reposition.
+     */
+    public void reposition(T record) {
+        Long oldKey = filedKeys.get(record);
+        if (oldKey == null || (oldKey >> SEQUENCE_BITS) == slotKey(record.getDate(), record.getStartHour())) {
+            return;
+        }
+        long newKey = nextKey(record);
+        entries.put(newKey, record);
+        if (filedKeys.replace(record, oldKey, newKey)) {
+            entries.remove(oldKey);
+        } else {
+            // removed or moved by another caller in the meantime
+            entries.remove(newKey);
+        }
+    }
+
+    /**
+     * Moves every record whose date or start hour changed since it was added.
+     */
+    public void repositionAll() {
+        ArrayList<T> moved = new ArrayList<>();
+        for (Map.Entry<T, Long> entry : filedKeys.entrySet()) {
+            T record = entry.getKey();
+            if ((entry.getValue() >> SEQUENCE_BITS) != slotKey(record.getDate(), record.getStartHour())) {
+                moved.add(record);
+            }
+        }
+        for (T record : moved) {
+            reposition(record);
+        }
+    }
+
+    /**
+     * Checks whether a record is in the timeline.
+     *
+     * @param record The record to check.
+     * @return true if the record is in the timeline, false otherwise.
+     */
+    public boolean contains(Object record) {
+        return (record != null) && filedKeys.containsKey(record);
+    }
+
+    /**
+     * Retrieves the number of records.
+     *
+     * @return The number of records.
+     */
+    public int size() {
+        return filedKeys.size();
+    }
+
+    /**
+     * Copies all records into a list, in order.
+     *
+     * @return A list of the records.
+     */
+    public ArrayList<T> toList() {
+        return new ArrayList<>(entries.values());
+    }
+
+    /**
+     * Retrieves the records dated within a range, in order.
+     *
+     * @param fromDate The first date of the range (inclusive).
+     * @param toDate The last date of the range (inclusive).
+     * @return A list of the records within the range.
+     */
+    public ArrayList<T> getRange(LocalDate fromDate, LocalDate toDate) {
+        if (fromDate.isAfter(toDate)) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(entries.subMap(firstKey(fromDate, 0), true, firstKey(toDate.plusDays(1), 0), false).values());
+    }
+
+    /**
+     * Removes all records.
+     */
+    public void clear() {
+        filedKeys.clear();
+        entries.clear();
+    }
+
+    /**
+     * Returns an iterator over the records in order.
+     * <p>
+     * The iterator is weakly consistent and never throws ConcurrentModificationException.
+     *
+     * @return An iterator over the records.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return entries.values().iterator();
+    }
+}
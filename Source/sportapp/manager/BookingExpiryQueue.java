@@ -0,0 +1,174 @@
+package sportapp.manager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import sportapp.model.BookRecord;
+
+/**
+ * Queue of booking records ordered by a deadline, by default the date and time their booking ends.
+ * <p>
+ * Polling only touches the records whose deadline has passed, instead of walking the whole
+ * booking collection. Cancelled or rescheduled records leave stale entries behind, which are
+ * dropped when they reach the head of the queue.
+ *
+ * @param <T> The type of booking record.
+ */
+public class BookingExpiryQueue<T extends BookRecord> {
+
+    /**
+     * A record queued under the deadline it had when it was scheduled.
+     */
+    private static class Entry<T> implements Comparable<Entry<T>> {
+
+        /**
+         * The deadline of the record when it was scheduled.
+         */
+        private final LocalDateTime deadline;
+
+        /**
+         * The booking record.
+         */
+        private final T record;
+
+        /**
+         * Constructs an entry for a record and its deadline.
+         *
+         * @param deadline The deadline of the record.
+         * @param record The booking record.
+         */
+        private Entry(LocalDateTime deadline, T record) {
+            this.deadline = deadline;
+            this.record = record;
+        }
+
+        @Override
+        public int compareTo(Entry<T> other) {
+            return deadline.compareTo(other.deadline);
+        }
+    }
+
+    /**
+     * Entries in deadline order, possibly including stale ones.
+     */
+    private PriorityQueue<Entry<T>> queue;
+
+    /**
+     * Current deadline of each scheduled record.
+     */
+    private ConcurrentHashMap<T, LocalDateTime> deadlines;
+
+    /**
+     * Computes the deadline of a record from its current fields.
+     */
+    private Function<? super T, LocalDateTime> deadlineOf;
+
+    /**
+     * Constructs an empty expiry queue ordered by the end time of the bookings.
+     */
+    public BookingExpiryQueue() {
+        this(BookingExpiryQueue::endOf);
+    }
+
+    /**
+     * Constructs an empty expiry queue ordered by a custom deadline.
+     *
+     * @param deadlineOf Computes the deadline of a record.
+     */
+    public BookingExpiryQueue(Function<? super T, LocalDateTime> deadlineOf) {
+        queue = new PriorityQueue<>();
+        deadlines = new ConcurrentHashMap<>();
+        this.deadlineOf = deadlineOf;
+    }
+
+    /**
+     * Retrieves the date and time a booking ends.
+     *
+     * @param record The booking record.
+     * @return The end date and time of the booking.
+     */
+    public static LocalDateTime endOf(BookRecord record) {
+        return record.getDate().atStartOfDay().plusHours(record.getEndHour());
+    }
+
+    /**
+     * Schedules a record under its current deadline, replacing any earlier schedule.
+     *
+     * @param record The booking record to schedule.
+     */
+    public synchronized void schedule(T record) {
+        LocalDateTime deadline = deadlineOf.apply(record);
+        deadlines.put(record, deadline);
+        queue.add(new Entry<>(deadline, record));
+    }
+
+    /**
+     * Removes a record from the schedule.
+     *
+     * @param record The booking record to remove.
+     */
+    public synchronized void cancel(T record) {
+        deadlines.remove(record);
+    }
+
+    /**
+     * Reschedules every record whose deadline changed since it was scheduled.
+     */
+    public synchronized void rescheduleAll() {
+        ArrayList<T> moved = new ArrayList<>();
+        for (Map.Entry<T, LocalDateTime> entry : deadlines.entrySet()) {
+            if (!entry.getValue().equals(deadlineOf.apply(entry.getKey()))) {
+                moved.add(entry.getKey());
+            }
+        }
+        for (T record : moved) {
+            schedule(record);
+        }
+    }
+
+    /**
+     * Removes and retrieves the records whose deadline is at or before a given time.
+     *
+     * @param now The current date and time.
+     * @return A list of the expired records, in deadline order.
+     */
+    public synchronized ArrayList<T> pollExpired(LocalDateTime now) {
+        ArrayList<T> expired = new ArrayList<>();
+        while (!queue.isEmpty() && !queue.peek().deadline.isAfter(now)) {
+            Entry<T> entry = queue.poll();
+            if (!deadlines.remove(entry.record, entry.deadline)) {
+                continue;
+            }
+            LocalDateTime deadline = deadlineOf.apply(entry.record);
+            if (deadline.isAfter(now)) {
+                // the deadline moved later without the record being rescheduled
+                deadlines.put(entry.record, deadline);
+                queue.add(new Entry<>(deadline, entry.record));
+            } else {
+                expired.add(entry.record);
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * Retrieves the number of scheduled records.
+     *
+     * @return The number of scheduled records.
+     */
+    public int size() {
+        return deadlines.size();
+    }
+
+    /**
+     * Clears the queue.
+     */
+    public synchronized void clear() {
+        queue.clear();
+        deadlines.clear();
+    }
+}
@@ -0,0 +1,113 @@
+package sportapp.manager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Map;
+
+import sportapp.User;
+import sportapp.model.BundleReservationResult;
+import sportapp.model.EquipmentBookRecord;
+import sportapp.model.EquipmentType;
+import sportapp.model.FacilityBookRecord;
+import sportapp.model.ReservationResult;
+import sportapp.model.SportFacility;
+
+/**
+ * Reserves a facility together with borrowable and sellable equipment as one unit.
+ * <p>
+ * The facility is reserved first, then each equipment type in turn. Every step is atomic on
+ * its own under the lock of the facility or equipment type, or the stock ledger for sellable
+ * types, so no global lock is taken and unrelated bookings proceed in parallel. When a step
+ * fails, the steps already taken are undone in reverse order and no record is left behind.
+ * Other users may briefly see a facility or piece held by a bundle that is then rolled back.
+ */
+public class BundleReservationManager {
+
+    /**
+     * Singleton instance of BundleReservationManager.
+     */
+    private static final BundleReservationManager instance = new BundleReservationManager();
+
+    /**
+     * Private constructor to enforce singleton pattern.
+     */
+    private BundleReservationManager() {
+    }
+
+    /**
+     * Retrieves the singleton instance of BundleReservationManager.
+     *
+     * @return The singleton instance of BundleReservationManager.
+     */
+    public static BundleReservationManager getInstance() {
+        return instance;
+    }
+
+    /**
+     * Reserves a facility for a time slot together with equipment, or nothing at all.
+     * If a step throws, everything reserved so far is removed before the exception is passed on.
+     *
+     * @param facility The facility to reserve.
+     * @param date The date of the reservation.
+     * @param startHour The start hour of the reservation.
+     * @param endHour The end hour of the reservation.
+     * @param user The user making the reservation.
+     * @param items The quantity to reserve of each equipment type, in the order they are reserved.
+     * @return The result holding the new pending booking records, or the reason they were not created.
+     * @throws IllegalArgumentException If the facility, date, user or items are null, or a quantity is not positive.
+     */
+    public BundleReservationResult tryReserve(SportFacility facility, LocalDate date, int startHour, int endHour, User user, Map<EquipmentType, Integer> items) throws IllegalArgumentException {
+        if (items == null) {
+            throw new IllegalArgumentException("Items cannot be null");
+        }
+        for (Map.Entry<EquipmentType, Integer> item : items.entrySet()) {
+            if (item.getKey() == null || item.getValue() == null || item.getValue() <= 0) {
+                throw new IllegalArgumentException("Every item needs an equipment type and a positive quantity");
+            }
+        }
+
+        FacilityBookManager facilityBookManager = FacilityBookManager.getInstance();
+        EquipmentBookManager equipmentBookManager = EquipmentBookManager.getInstance();
+
+        ReservationResult<FacilityBookRecord> facilityResult = facilityBookManager.tryReserve(facility, date, startHour, endHour, user);
+        if (!facilityResult.isReserved()) {
+            return BundleReservationResult.facilityFailed(facilityResult);
+        }
+        FacilityBookRecord facilityRecord = facilityResult.getBookRecord();
+
+        ArrayList<EquipmentBookRecord> equipmentRecords = new ArrayList<>();
+        try {
+            for (Map.Entry<EquipmentType, Integer> item : items.entrySet()) {
+                ReservationResult<EquipmentBookRecord> result = equipmentBookManager.tryReserve(item.getKey(), facilityRecord, item.getValue(), user);
+                if (!result.isReserved()) {
+                    rollback(facilityRecord, equipmentRecords);
+                    return BundleReservationResult.equipmentFailed(item.getKey(), result);
+                }
+                equipmentRecords.add(result.getBookRecord());
+            }
+        } catch (RuntimeException e) {
+            // release the holds taken so far before passing the failure on
+            rollback(facilityRecord, equipmentRecords);
+            throw e;
+        }
+        return BundleReservationResult.reserved(facilityRecord, equipmentRecords);
+    }
+
+    /**
+     * Removes the records reserved so far, in reverse order.
+     *
+     * @param facilityRecord The reserved facility booking record.
+     * @param equipmentRecords The reserved equipment booking records.
+     */
+    private void rollback(FacilityBookRecord facilityRecord, ArrayList<EquipmentBookRecord> equipmentRecords) {
+        EquipmentBookManager equipmentBookManager = EquipmentBookManager.getInstance();
+        for (int i = equipmentRecords.size() - 1; i >= 0; i--) {
+            equipmentBookManager.removeBooking(equipmentRecords.get(i));
+        }
+        try {
+            FacilityBookManager.getInstance().removeBooking(facilityRecord);
+        } catch (IllegalArgumentException e) {
+            // the hold was already released
+        }
+    }
+}
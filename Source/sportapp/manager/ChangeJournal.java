@@ -0,0 +1,95 @@
+package sportapp.manager;
+
+import sportapp.User;
+import sportapp.model.BookRecord;
+import sportapp.model.BookingStatus;
+import sportapp.model.BookingStatusListener;
+
+/**
+ * Receives every change made to the booking managers and the user collection.
+ * <p>
+ * A journal is attached to the managers after startup data has been loaded, so it only sees
+ * changes made while the application runs. All methods do nothing by default.
+ */
+public interface ChangeJournal extends BookingStatusListener {
+
+    /**
+     * Journal that ignores every change.
+     */
+    ChangeJournal NONE = new ChangeJournal() {
+    };
+
+    /**
+     * Called after a booking record has been added to a manager.
+     *
+     * @param record The booking record that was added.
+     */
+    default void recordAdded(BookRecord record) {
+    }
+
+    /**
+     * Called after the date, time, facility or equipment of a managed booking record changed.
+     *
+     * @param record The booking record that was updated.
+     */
+    default void recordUpdated(BookRecord record) {
+    }
+
+    /**
+     * Called after a booking record has been removed from a manager.
+     *
+     * @param record The booking record that was removed.
+     */
+    default void recordRemoved(BookRecord record) {
+    }
+
+    /**
+     * Called after the status of a managed booking record changed.
+     * <p>
+     * This is called while the lock of the record is held, so the changes of one record reach
+     * the journal in the order they were made. A journal should only queue the change here and
+     * wait for the disk in {@link #awaitDurable}, which is called once the lock is released.
+     *
+     * @param record The booking record whose status changed.
+     * @param oldStatus The previous status of the booking.
+     * @param newStatus The new status of the booking.
+     */
+    @Override
+    default void onStatusChange(BookRecord record, BookingStatus oldStatus, BookingStatus newStatus) {
+    }
+
+    /**
+     * Waits until the changes the calling thread handed over while holding the lock of a
+     * booking record are durable.
+     * <p>
+     * The managers call this after releasing the lock of the record, so a slow disk does not
+     * hold up other changes to the same record.
+     */
+    default void awaitDurable() {
+    }
+
+    /**
+     * Called after a new user has registered.
+     *
+     * @param user The user that registered.
+     */
+    default void userRegistered(User user) {
+    }
+
+    /**
+     * Called after the stored password or security answer of a registered user changed,
+     * either because it was reset or because it was rehashed on login.
+     *
+     * @param user The user whose credentials changed.
+     */
+    default void credentialsChanged(User user) {
+    }
+
+    /**
+     * Called after the membership tier of a registered user changed.
+     *
+     * @param user The user whose membership changed.
+     */
+    default void membershipChanged(User user) {
+    }
+}
@@ -3,9 +3,12 @@ import java.lang.reflect.Array;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import sportapp.User;
+import sportapp.model.BookRecord;
 import sportapp.model.BookingStatus;
 import sportapp.model.Equipment;
 import sportapp.model.EquipmentBookRecord;
@@ -20,6 +23,11 @@ import sportapp.FacilityBookingControl;
  * <p>
  * This singleton class provides methods to retrieve and manage confirmed booking records
  * for both facilities and equipment, ensuring centralized access and control.
+ * <p>
+ * Every user browsing their confirmed bookings gets a {@link ConfirmedBookingView} of their
+ * own. A view is built the first time it is needed and is then kept current by the status
+ * changes reported by the booking managers, so many users can browse and modify their
+ * bookings at once without rebuilding anything.
  */
 public class ConfirmedBookManager {
 
@@ -29,14 +37,9 @@ public class ConfirmedBookManager {
     private static ConfirmedBookManager instance = new ConfirmedBookManager();
 
     /**
-     * List of confirmed facility booking records.
+     * Views of the confirmed bookings by user.
      */
-    private static ArrayList<FacilityBookRecord> confirmedFacilityBookRecords;
-
-    /**
-     * List of confirmed equipment booking records.
-     */
-    private static ArrayList<EquipmentBookRecord> confirmedEquipmentBookRecords;
+    private ConcurrentHashMap<User, ConfirmedBookingView> views;
 
     /**
      * Manager for facility bookings.
@@ -52,10 +55,11 @@ public class ConfirmedBookManager {
      * Private constructor to enforce singleton pattern.
      */
     private ConfirmedBookManager() {
-        confirmedFacilityBookRecords = new ArrayList<>();
-        confirmedEquipmentBookRecords = new ArrayList<>();
+        views = new ConcurrentHashMap<>();
         fbm = FacilityBookManager.getInstance();
         ebm = EquipmentBookManager.getInstance();
+        fbm.addStatusListener(this::onStatusChange);
+        ebm.addStatusListener(this::onStatusChange);
     }
 
     /**
@@ -67,33 +71,52 @@ public class ConfirmedBookManager {
         return instance;
     }
 
+    /**
+     * Retrieves the view of a user's confirmed bookings, building it on first use.
+     *
+     * @param user The user whose confirmed bookings are to be viewed.
+     * @return The view of the user's confirmed bookings.
+     * @throws IllegalArgumentException If the user is null.
+     */
+    public ConfirmedBookingView getView(User user) throws IllegalArgumentException {
+        if (user == null) {
+            throw new IllegalArgumentException("User cannot be null");
+        }
+        ConfirmedBookingView view = views.get(user);
+        if (view != null) {
+            return view;
+        }
+        // publish the empty view first so status changes made while it loads are not missed;
+        // anyone reading it meanwhile waits for the load
+        ConfirmedBookingView created = new ConfirmedBookingView(user);
+        view = views.putIfAbsent(user, created);
+        if (view != null) {
+            return view;
+        }
+        try {
+            created.load(fbm, ebm);
+        } catch (RuntimeException e) {
+            views.remove(user, created);
+            throw e;
+        }
+        return created;
+    }
+
     /**
      * Sets up the user's collection of confirmed bookings.
      *
      * @param user The user whose confirmed bookings are to be set up.
      */
     public void setUpUserCollection(User user) {
-        ArrayList<FacilityBookRecord>tempFacilityRecord = fbm.getUserConfirmedBooking(user);
-        for (FacilityBookRecord i : tempFacilityRecord) {
-            //String temp = i.getSportFacility().getStatus();    //outdated, as status might be available or booked only
-            if (i.getStatus().equals(BookingStatus.CONFIRMED)) { //now only get future and not ended booking
-				confirmedFacilityBookRecords.add(i);
-			}
-        }
-
-        ArrayList<EquipmentBookRecord> tempEquipmentRecord = ebm.getBookingRecordsByUser(user);
-        for (EquipmentBookRecord i : tempEquipmentRecord) {
-
-            if (i.getStatus().equals(BookingStatus.CONFIRMED)) { 
-                confirmedEquipmentBookRecords.add(i);
-            }
-        }
+        getView(user);
     }
 
 
 
     /**
      * Resets the user's collection of confirmed bookings.
+     * <p>
+     * The view is already current, so this only renumbers the bookings.
      *
      * @param user The user whose confirmed bookings are to be reset.
      */
@@ -101,32 +124,43 @@ public class ConfirmedBookManager {
     	if (user == null) {
 			return;
 		}
-    	if (!confirmedEquipmentBookRecords.isEmpty()) {
-			confirmedEquipmentBookRecords.clear();
-		}
-    	if (!confirmedFacilityBookRecords.isEmpty()) {
-			confirmedFacilityBookRecords.clear();
-		}
-        setUpUserCollection(user);
+        getView(user).refresh();
+    }
+
+    /**
+     * Drops the view of a user's confirmed bookings, for example once the user leaves.
+     *
+     * @param user The user whose view is to be dropped.
+     */
+    public void closeUserCollection(User user) {
+        if (user != null) {
+            views.remove(user);
+        }
     }
 
     /**
      * Checks if the collection of confirmed bookings is empty.
      *
+     * @param user The user owning the collection.
      * @return true if the collection is empty, false otherwise.
      */
-    public boolean isCollectionEmpty() {
-        return confirmedEquipmentBookRecords.isEmpty() && confirmedFacilityBookRecords.isEmpty();
+    public boolean isCollectionEmpty(User user) {
+        ConfirmedBookingView view = getView(user);
+        return view.getEquipmentRecords().isEmpty() && view.getFacilityRecords().isEmpty();
     }
 
     /**
      * Displays the confirmed booking records.
      *
+     * @param user The user owning the records.
      * @param displayType The type of display: 0 for equipment, 1 for facility, 2 for all.
      * @return true if records were displayed, false otherwise.
      */
-    public boolean displayConfirmedRecord(int displayType) { // 2 for all, 0: Equipment, 1: Facility
+    public boolean displayConfirmedRecord(User user, int displayType) { // 2 for all, 0: Equipment, 1: Facility
         // display in [date, venue/equipment, time, status(paid)]
+        ConfirmedBookingView view = getView(user);
+        List<FacilityBookRecord> confirmedFacilityBookRecords = view.getFacilityRecords();
+        List<EquipmentBookRecord> confirmedEquipmentBookRecords = view.getEquipmentRecords();
         boolean didDisplay;
         switch (displayType) {
             case 0:
@@ -136,7 +170,7 @@ public class ConfirmedBookManager {
                 didDisplay = !confirmedFacilityBookRecords.isEmpty();
                 break;
             case 2:
-                didDisplay = !isCollectionEmpty();
+                didDisplay = !confirmedEquipmentBookRecords.isEmpty() || !confirmedFacilityBookRecords.isEmpty();
                 break;
             default:
                 didDisplay = false;
@@ -195,13 +229,15 @@ public class ConfirmedBookManager {
     /**
      * Retrieves the facility booking record at the specified index.
      *
+     * @param user The user owning the record.
      * @param index The index of the facility booking record to retrieve.
      * @return The facility booking record at the specified index, or null if not found.
      */
-    public FacilityBookRecord getFacilityRecord(int index) {
+    public FacilityBookRecord getFacilityRecord(User user, int index) {
         //assume no more than one user book same time selection
+        List<FacilityBookRecord> confirmedFacilityBookRecords = getView(user).getFacilityRecords();
         FacilityBookRecord result = null;
-        if (index > confirmedFacilityBookRecords.size() || confirmedFacilityBookRecords.size() == 0 || index < 0 ) {
+        if (index >= confirmedFacilityBookRecords.size() || confirmedFacilityBookRecords.size() == 0 || index < 0 ) {
 			return result;
 		}
         result = confirmedFacilityBookRecords.get(index);
@@ -211,13 +247,15 @@ public class ConfirmedBookManager {
     /**
      * Retrieves the equipment booking record at the specified index.
      *
+     * @param user The user owning the record.
      * @param index The index of the equipment booking record to retrieve.
      * @return The equipment booking record at the specified index, or null if not found.
      */
-    public EquipmentBookRecord getEquipmentRecord(int index) {
+    public EquipmentBookRecord getEquipmentRecord(User user, int index) {
         //assume no more than one user book same time selection
+        List<EquipmentBookRecord> confirmedEquipmentBookRecords = getView(user).getEquipmentRecords();
         EquipmentBookRecord result = null;
-        if (index > confirmedEquipmentBookRecords.size() || confirmedEquipmentBookRecords.size() == 0 || index < 0) {
+        if (index >= confirmedEquipmentBookRecords.size() || confirmedEquipmentBookRecords.size() == 0 || index < 0) {
         	// would size == 0 here even make no sense...
 			return result;
 		}
@@ -249,9 +287,13 @@ public class ConfirmedBookManager {
      *
      * @param facilityBookRecord The facility booking record to update.
      * @param facility The new facility to associate with the booking record.
+     * @throws IllegalArgumentException If the facility is unavailable or already booked at that time.
      */
     public void updateFacilityRecordFacility(FacilityBookRecord facilityBookRecord, SportFacility facility) {
-        facilityBookRecord.updateFacility(facility);
+        if (!fbm.tryUpdateBookingFacility(facilityBookRecord, facility, facilityBookRecord.getDate(),
+                facilityBookRecord.getStartHour(), facilityBookRecord.getEndHour()).isReserved()) {
+            throw new IllegalArgumentException("This Sport Facility with this Date/Time is already booked.");
+        }
     }
 
     /**
@@ -261,8 +303,7 @@ public class ConfirmedBookManager {
      */
     public void removeFacilityRecord(FacilityBookRecord facilityBookRecord) {
 //        facilityBookRecord.emptyFacilitySlot();
-        confirmedFacilityBookRecords.remove(facilityBookRecord);
-        fbm.removeBooking(facilityBookRecord);
+        fbm.removeBooking(facilityBookRecord);  //the view drops the record when the manager reports it
         facilityBookRecord = null;
     }
 
@@ -272,8 +313,7 @@ public class ConfirmedBookManager {
      * @param equipmentBookRecord The equipment booking record to remove.
      */
     public void removeEquipmentRecord(EquipmentBookRecord equipmentBookRecord) {
-        confirmedEquipmentBookRecords.remove(equipmentBookRecord);  //some may still want facility holds.
-        ebm.removeBooking(equipmentBookRecord);
+        ebm.removeBooking(equipmentBookRecord);  //some may still want facility holds.
         equipmentBookRecord = null;
     }
 
@@ -290,21 +330,39 @@ public class ConfirmedBookManager {
 	/**
      * Retrieves the list of confirmed equipment booking records.
      *
+     * @param user The user owning the records.
      * @return A list of confirmed equipment booking records.
      */
-	public ArrayList<EquipmentBookRecord> getEquipmentList() {
+	public List<EquipmentBookRecord> getEquipmentList(User user) {
 		
-		return confirmedEquipmentBookRecords;
+		return getView(user).getEquipmentRecords();
 	}
 	
 	/**
      * Retrieves the list of confirmed facility booking records.
      *
+     * @param user The user owning the records.
      * @return A list of confirmed facility booking records.
      */
-	public ArrayList<FacilityBookRecord> getFacilityList() {
+	public List<FacilityBookRecord> getFacilityList(User user) {
 		
-		return confirmedFacilityBookRecords;
+		return getView(user).getFacilityRecords();
 	}
 
+    /**
+     * Applies a status change reported by a booking manager to the view of the record's user.
+     * <p>
+     * Users without a view are skipped; their view reads the current state when it is built.
+     *
+     * @param record The booking record whose status changed.
+     * @param oldStatus The previous status, or null if the record was added.
+     * @param newStatus The new status, or null if the record was removed.
+     */
+    private void onStatusChange(BookRecord record, BookingStatus oldStatus, BookingStatus newStatus) {
+        ConfirmedBookingView view = (record.getUser() == null) ? null : views.get(record.getUser());
+        if (view != null && (oldStatus == BookingStatus.CONFIRMED || newStatus == BookingStatus.CONFIRMED)) {
+            view.onStatusChange(record, newStatus);
+        }
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,204 @@
+package sportapp.manager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import sportapp.User;
+import sportapp.model.BookRecord;
+import sportapp.model.BookingStatus;
+import sportapp.model.EquipmentBookRecord;
+import sportapp.model.FacilityBookRecord;
+
+/**
+ * The confirmed bookings of one user.
+ * <p>
+ * The view is filled once from the user indexes of the booking managers, and then kept current
+ * by the status changes reported by the managers. A view can be handed out before it is filled;
+ * readers then wait for the load to finish rather than seeing no bookings. Screens number the bookings from a snapshot
+ * that is only taken again when the screen refreshes, so the numbers a user sees keep pointing
+ * at the same bookings while other sessions book and cancel.
+ */
+public class ConfirmedBookingView {
+
+    /**
+     * Order of the bookings in a snapshot.
+     */
+    private static final Comparator<BookRecord> DATE_TIME_ORDER =
+        Comparator.comparing(BookRecord::getDate).thenComparingInt(BookRecord::getStartHour);
+
+    /**
+     * The user owning the bookings.
+     */
+    private final User user;
+
+    /**
+     * Confirmed facility bookings of the user, kept current by status changes.
+     */
+    private LinkedHashSet<FacilityBookRecord> facilityRecords;
+
+    /**
+     * Confirmed equipment bookings of the user, kept current by status changes.
+     */
+    private LinkedHashSet<EquipmentBookRecord> equipmentRecords;
+
+    /**
+     * Facility bookings as numbered by the last refresh.
+     */
+    private volatile List<FacilityBookRecord> facilitySnapshot;
+
+    /**
+     * Equipment bookings as numbered by the last refresh.
+     */
+    private volatile List<EquipmentBookRecord> equipmentSnapshot;
+
+    /**
+     * Whether the view has been filled from the booking managers.
+     */
+    private volatile boolean loaded;
+
+    /**
+     * Constructs an empty view of the confirmed bookings of a user.
+     *
+     * @param user The user owning the bookings.
+     */
+    ConfirmedBookingView(User user) {
+        this.user = user;
+        facilityRecords = new LinkedHashSet<>();
+        equipmentRecords = new LinkedHashSet<>();
+        facilitySnapshot = Collections.emptyList();
+        equipmentSnapshot = Collections.emptyList();
+    }
+
+    /**
+     * Retrieves the user owning the bookings.
+     *
+     * @return The user owning the bookings.
+     */
+    public User getUser() {
+        return user;
+    }
+
+    /**
+     * Fills the view from the user indexes of the booking managers.
+     * <p>
+     * Status changes wait for the load to finish, so a change made while the indexes are read
+     * is applied on top of what was read. Readers waiting for the view are released once the
+     * load ends, even if it fails.
+     *
+     * @param fbm The facility booking manager.
+     * @param ebm The equipment booking manager.
+     */
+    synchronized void load(FacilityBookManager fbm, EquipmentBookManager ebm) {
+        try {
+            facilityRecords.addAll(fbm.getUserBookingRecords(user, BookingStatus.CONFIRMED));
+            equipmentRecords.addAll(ebm.getBookingRecordsByUser(user, BookingStatus.CONFIRMED));
+            takeSnapshot();
+        } finally {
+            loaded = true;
+            notifyAll();
+        }
+    }
+
+    /**
+     * Applies a status change of a booking record of the user.
+     *
+     * @param record The booking record whose status changed.
+     * @param newStatus The new status, or null if the record left its manager.
+     */
+    synchronized void onStatusChange(BookRecord record, BookingStatus newStatus) {
+        boolean isConfirmed = newStatus == BookingStatus.CONFIRMED;
+        if (record instanceof FacilityBookRecord) {
+            if (isConfirmed) {
+                facilityRecords.add((FacilityBookRecord) record);
+            } else if (facilityRecords.remove(record) && newStatus == null) {
+                facilitySnapshot = without(facilitySnapshot, record);
+            }
+        } else if (record instanceof EquipmentBookRecord) {
+            if (isConfirmed) {
+                equipmentRecords.add((EquipmentBookRecord) record);
+            } else if (equipmentRecords.remove(record) && newStatus == null) {
+                equipmentSnapshot = without(equipmentSnapshot, record);
+            }
+        }
+    }
+
+    /**
+     * Takes a new snapshot of the confirmed bookings, in date and start hour order.
+     */
+    public synchronized void refresh() {
+        awaitLoad();
+        takeSnapshot();
+    }
+
+    /**
+     * Retrieves the facility bookings as numbered by the last refresh.
+     *
+     * @return An unmodifiable list of the facility bookings.
+     */
+    public List<FacilityBookRecord> getFacilityRecords() {
+        if (!loaded) {
+            awaitLoad();
+        }
+        return facilitySnapshot;
+    }
+
+    /**
+     * Retrieves the equipment bookings as numbered by the last refresh.
+     *
+     * @return An unmodifiable list of the equipment bookings.
+     */
+    public List<EquipmentBookRecord> getEquipmentRecords() {
+        if (!loaded) {
+            awaitLoad();
+        }
+        return equipmentSnapshot;
+    }
+
+    /**
+     * Waits until the view has been filled from the booking managers.
+     * <p>
+     * An interrupt does not cut the wait short, as the load is quick; it is kept for the caller.
+     */
+    private synchronized void awaitLoad() {
+        boolean interrupted = false;
+        while (!loaded) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Sorts the confirmed bookings into new snapshots.
+     */
+    private void takeSnapshot() {
+        ArrayList<FacilityBookRecord> facilities = new ArrayList<>(facilityRecords);
+        facilities.sort(DATE_TIME_ORDER);
+        ArrayList<EquipmentBookRecord> equipments = new ArrayList<>(equipmentRecords);
+        equipments.sort(DATE_TIME_ORDER);
+        facilitySnapshot = Collections.unmodifiableList(facilities);
+        equipmentSnapshot = Collections.unmodifiableList(equipments);
+    }
+
+    /**
+     * Copies a snapshot without a booking record that left its manager.
+     *
+     * @param snapshot The snapshot.
+     * @param record The booking record to leave out.
+     * @param <T> The type of booking record.
+     * @return An unmodifiable copy of the snapshot without the record.
+     */
+    private static <T extends BookRecord> List<T> without(List<T> snapshot, BookRecord record) {
+        ArrayList<T> copy = new ArrayList<>(snapshot);
+        copy.remove(record);
+        return Collections.unmodifiableList(copy);
+    }
+}
@@ -0,0 +1,46 @@
+package sportapp.manager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import sportapp.model.Equipment;
+
+/**
+ * Chooses which pieces of equipment serve a borrowing request.
+ * <p>
+ * Every candidate is free for the whole requested time slot. The strategy only decides which
+ * of them are taken, which matters for the requests that come later on the same day.
+ */
+public interface EquipmentAssignmentStrategy {
+
+    /**
+     * Strategy that takes the first candidates in list order.
+     */
+    EquipmentAssignmentStrategy FIRST_FIT = new EquipmentAssignmentStrategy() {
+        @Override
+        public ArrayList<Equipment> assign(List<Equipment> candidates, int[] freeHours, int startHour, int endHour, int quantity) {
+            if (candidates.size() < quantity) {
+                throw new IllegalArgumentException("Not enough available equipments in selected time slot.");
+            }
+            return new ArrayList<>(candidates.subList(0, quantity));
+        }
+    };
+
+    /**
+     * Strategy that takes the candidates whose free window fits the time slot most tightly.
+     */
+    EquipmentAssignmentStrategy BEST_FIT = new BestFitAssignmentStrategy();
+
+    /**
+     * Chooses the pieces of equipment for a request.
+     *
+     * @param candidates The pieces free for the whole time slot.
+     * @param freeHours The bitmap of the free hours of each candidate, in the same order.
+     * @param startHour The start hour of the time slot.
+     * @param endHour The end hour of the time slot.
+     * @param quantity The number of pieces requested.
+     * @return A new list of the chosen pieces.
+     * @throws IllegalArgumentException If there are fewer candidates than the quantity.
+     */
+    ArrayList<Equipment> assign(List<Equipment> candidates, int[] freeHours, int startHour, int endHour, int quantity) throws IllegalArgumentException;
+}
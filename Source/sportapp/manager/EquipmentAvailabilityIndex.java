@@ -0,0 +1,410 @@
+package sportapp.manager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import sportapp.model.Equipment;
+import sportapp.model.EquipmentBookRecord;
+import sportapp.model.EquipmentCategory;
+import sportapp.model.EquipmentType;
+import sportapp.model.HourSlots;
+
+/**
+ * Index of the booked hours of borrowable equipment keyed by equipment type and date.
+ * <p>
+ * Every (type, date) entry keeps, for each booked piece of equipment, how many bookings
+ * cover each hour, together with an array counting the booked pieces of every hour range.
+ * The entry at {@code [start][end]} holds the number of pieces booked at some hour from
+ * {@code start}:00 to {@code end}:00, so the free quantity of a time slot is read directly
+ * instead of checking the bookings of every piece. The arrays are updated whenever a booking
+ * is added, removed or moved.
+ * <p>
+ * The index remembers where each record was placed, so a record can be moved after its date,
+ * hours or equipment have already been changed.
+ * <p>
+ * Writers lock only the equipment type they change, so bookings of different types never wait
+ * for each other. Readers take no lock: every change publishes new immutable counts for the
+ * days it touched, so a reader sees each day as it was after some complete change. A moved
+ * record may briefly be seen at both its old and new place, but never at neither.
+ */
+public class EquipmentAvailabilityIndex {
+
+    /**
+     * Number of hours in a day.
+     */
+    private static final int HOURS = 24;
+
+    /**
+     * Day entries of one equipment type. The entry is also the lock of its type.
+     */
+    private static class TypeEntry {
+
+        /**
+         * Day entries keyed by date.
+         */
+        private final ConcurrentHashMap<LocalDate, DayEntry> days = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Counts of one day as published to readers. Never changed once published.
+     */
+    private static class DayCounts {
+
+        /**
+         * Bitmap of the booked hours of each booked piece of equipment.
+         */
+        private final HashMap<Equipment, Integer> bookedHours;
+
+        /**
+         * Number of booked pieces in each hour range, indexed by {@link #rangeIndex}.
+         */
+        private final int[] bookedCounts;
+
+        /**
+         * Constructs the published counts of a day.
+         *
+         * @param bookedHours The booked hours of each piece.
+         * @param bookedCounts The booked pieces of each hour range.
+         */
+        private DayCounts(HashMap<Equipment, Integer> bookedHours, int[] bookedCounts) {
+            this.bookedHours = bookedHours;
+            this.bookedCounts = bookedCounts;
+        }
+    }
+
+    /**
+     * Booked hours of the equipment of one type on one day.
+     * All fields but {@link #published} are guarded by the lock of the type.
+     */
+    private static class DayEntry {
+
+        /**
+         * Number of bookings covering each hour, for each booked piece of equipment.
+         */
+        private HashMap<Equipment, int[]> bookingCounts = new HashMap<>();
+
+        /**
+         * Number of booked pieces in each hour range, indexed by {@link #rangeIndex}.
+         */
+        private int[] bookedCounts = new int[(HOURS + 1) * (HOURS + 1)];
+
+        /**
+         * Counts read without a lock, replaced by {@link #publish}.
+         */
+        private volatile DayCounts published = new DayCounts(new HashMap<>(), bookedCounts.clone());
+
+        /**
+         * Publishes the current counts to readers.
+         */
+        private void publish() {
+            HashMap<Equipment, Integer> bookedHours = new HashMap<>();
+            for (Map.Entry<Equipment, int[]> entry : bookingCounts.entrySet()) {
+                bookedHours.put(entry.getKey(), bookedHours(entry.getValue()));
+            }
+            published = new DayCounts(bookedHours, bookedCounts.clone());
+        }
+
+        /**
+         * Adds or removes one booking of a piece of equipment, without publishing it.
+         *
+         * @param equipment The booked equipment.
+         * @param startHour The start hour of the booking.
+         * @param endHour The end hour of the booking.
+         * @param delta 1 to add the booking, -1 to remove it.
+         */
+        private void update(Equipment equipment, int startHour, int endHour, int delta) {
+            int[] counts = bookingCounts.computeIfAbsent(equipment, key -> new int[HOURS]);
+            int oldHours = bookedHours(counts);
+            for (int hour = Math.max(startHour, 0); hour < Math.min(endHour, HOURS); hour++) {
+                counts[hour] += delta;
+            }
+            int newHours = bookedHours(counts);
+            if (newHours == 0) {
+                bookingCounts.remove(equipment);
+            }
+            if (oldHours == newHours) {
+                return;
+            }
+
+            for (int start = 0; start < HOURS; start++) {
+                for (int end = start + 1; end <= HOURS; end++) {
+                    int range = HourSlots.hourMask(start, end);
+                    boolean wasBooked = (oldHours & range) != 0;
+                    boolean isBooked = (newHours & range) != 0;
+                    if (wasBooked != isBooked) {
+                        bookedCounts[rangeIndex(start, end)] += isBooked ? 1 : -1;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Date, hours and equipment a booking record was indexed with.
+     */
+    private static class Placement {
+
+        /**
+         * The equipment type of the booking.
+         */
+        private EquipmentType type;
+
+        /**
+         * The date of the booking.
+         */
+        private LocalDate date;
+
+        /**
+         * The start hour of the booking.
+         */
+        private int startHour;
+
+        /**
+         * The end hour of the booking.
+         */
+        private int endHour;
+
+        /**
+         * The booked equipment.
+         */
+        private ArrayList<Equipment> equipments;
+
+        /**
+         * Captures the current placement of a booking record.
+         *
+         * @param record The booking record.
+         */
+        private Placement(EquipmentBookRecord record) {
+            equipments = new ArrayList<>(record.getBookingEquipment());
+            type = equipments.get(0).getEquipmentType();
+            date = record.getDate();
+            startHour = record.getStartHour();
+            endHour = record.getEndHour();
+        }
+    }
+
+    /**
+     * Day entries grouped by equipment type, then by date.
+     */
+    private ConcurrentHashMap<EquipmentType, TypeEntry> index;
+
+    /**
+     * Placement of every indexed booking record.
+     */
+    private ConcurrentHashMap<EquipmentBookRecord, Placement> placements;
+
+    /**
+     * Constructs an empty availability index.
+     */
+    public EquipmentAvailabilityIndex() {
+        index = new ConcurrentHashMap<>();
+        placements = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Adds a booking record using its current date, hours and equipment.
+     * Records for sellable equipment are ignored.
+     *
+     * @param record The booking record to add.
+     */
+    public void add(EquipmentBookRecord record) {
+        Placement placement = placementOf(record);
+        if (placement != null && placements.putIfAbsent(record, placement) == null) {
+            apply(null, placement);
+        }
+    }
+
+    /**
+     * Removes a booking record from the place it was indexed at.
+     *
+     * @param record The booking record to remove.
+     */
+    public void remove(EquipmentBookRecord record) {
+        Placement placement = placements.remove(record);
+        if (placement != null) {
+            apply(placement, null);
+        }
+    }
+
+    /**
+     * Moves a booking record to its current date, hours and equipment.
+     * A record keeping its equipment type is moved in one step under the lock of the type.
+     *
+     * @param record The booking record to move.
+     */
+    public void update(EquipmentBookRecord record) {
+        Placement oldPlacement = placements.get(record);
+        if (oldPlacement == null) {
+            return;
+        }
+        Placement newPlacement = placementOf(record);
+        if (newPlacement == null || newPlacement.type != oldPlacement.type) {
+            remove(record);
+            add(record);
+        } else if (placements.replace(record, oldPlacement, newPlacement)) {
+            apply(oldPlacement, newPlacement);
+        }
+    }
+
+    /**
+     * Retrieves the hours a piece of equipment is booked on a given date.
+     *
+     * @param equipment The equipment to look up.
+     * @param date The date to look up.
+     * @return The bitmap of the booked hours, or 0 if the equipment is free all day.
+     */
+    public int getBookedHours(Equipment equipment, LocalDate date) {
+        DayEntry entry = getEntry(equipment.getEquipmentType(), date);
+        if (entry == null) {
+            return 0;
+        }
+        Integer hours = entry.published.bookedHours.get(equipment);
+        return (hours == null) ? 0 : hours;
+    }
+
+    /**
+     * Retrieves the number of pieces of a type booked at some hour of a time slot.
+     *
+     * @param type The equipment type to look up.
+     * @param date The date to look up.
+     * @param startHour The start hour of the time slot.
+     * @param endHour The end hour of the time slot.
+     * @return The number of booked pieces.
+     */
+    public int getBookedCount(EquipmentType type, LocalDate date, int startHour, int endHour) {
+        DayEntry entry = getEntry(type, date);
+        int start = Math.max(startHour, 0);
+        int end = Math.min(endHour, HOURS);
+        if (entry == null || start >= end) {
+            return 0;
+        }
+        return entry.published.bookedCounts[rangeIndex(start, end)];
+    }
+
+    /**
+     * Clears the index. Must not be called while bookings are being changed.
+     */
+    public void clear() {
+        index.clear();
+        placements.clear();
+    }
+
+    /**
+     * Captures the placement of a booking record if it books borrowable equipment.
+     *
+     * @param record The booking record.
+     * @return The placement, or null if the record is not indexed.
+     */
+    private static Placement placementOf(EquipmentBookRecord record) {
+        ArrayList<Equipment> equipments = record.getBookingEquipment();
+        Equipment first = equipments.isEmpty() ? null : equipments.get(0);
+        if (first == null || first.getCategory() != EquipmentCategory.BORROWABLE) {
+            return null;
+        }
+        return new Placement(record);
+    }
+
+    /**
+     * Removes the bookings of one placement and adds those of another under the lock of their
+     * equipment type, then publishes the days touched.
+     *
+     * @param removed The placement to remove, or null.
+     * @param added The placement to add, or null. Must have the type of the removed one.
+     */
+    private void apply(Placement removed, Placement added) {
+        EquipmentType type = (removed != null) ? removed.type : added.type;
+        TypeEntry typeEntry = index.computeIfAbsent(type, key -> new TypeEntry());
+        synchronized (typeEntry) {
+            if (removed != null) {
+                change(typeEntry, removed, -1);
+            }
+            if (added != null) {
+                change(typeEntry, added, 1);
+            }
+            // the new place first, so readers never miss a moved record
+            if (added != null) {
+                publish(typeEntry, added.date);
+            }
+            if (removed != null && (added == null || !removed.date.equals(added.date))) {
+                publish(typeEntry, removed.date);
+            }
+        }
+    }
+
+    /**
+     * Adds or removes the bookings of a placement without publishing them.
+     * Must be called while holding the lock of the type.
+     *
+     * @param typeEntry The day entries of the type.
+     * @param placement The placement of a booking record.
+     * @param delta 1 to add the bookings, -1 to remove them.
+     */
+    private static void change(TypeEntry typeEntry, Placement placement, int delta) {
+        DayEntry entry = typeEntry.days.computeIfAbsent(placement.date, key -> new DayEntry());
+        for (Equipment equipment : placement.equipments) {
+            if (equipment != null) {
+                entry.update(equipment, placement.startHour, placement.endHour, delta);
+            }
+        }
+    }
+
+    /**
+     * Publishes the counts of a day, dropping the day once nothing is booked.
+     * Must be called while holding the lock of the type.
+     *
+     * @param typeEntry The day entries of the type.
+     * @param date The date to publish.
+     */
+    private static void publish(TypeEntry typeEntry, LocalDate date) {
+        DayEntry entry = typeEntry.days.get(date);
+        if (entry == null) {
+            return;
+        }
+        entry.publish();
+        if (entry.bookingCounts.isEmpty()) {
+            typeEntry.days.remove(date);
+        }
+    }
+
+    /**
+     * Finds the day entry of an equipment type on a given date.
+     *
+     * @param type The equipment type to look up.
+     * @param date The date to look up.
+     * @return The day entry, or null if there is no booking.
+     */
+    private DayEntry getEntry(EquipmentType type, LocalDate date) {
+        TypeEntry typeEntry = index.get(type);
+        return (typeEntry == null) ? null : typeEntry.days.get(date);
+    }
+
+    /**
+     * Builds the bitmap of the hours covered by at least one booking.
+     *
+     * @param counts The number of bookings covering each hour.
+     * @return The bitmap of the booked hours.
+     */
+    private static int bookedHours(int[] counts) {
+        int hours = 0;
+        for (int hour = 0; hour < HOURS; hour++) {
+            if (counts[hour] > 0) {
+                hours |= (1 << hour);
+            }
+        }
+        return hours;
+    }
+
+    /**
+     * Retrieves the position of an hour range in the booked count array.
+     *
+     * @param startHour The start hour of the range.
+     * @param endHour The end hour of the range.
+     * @return The position of the range.
+     */
+    private static int rangeIndex(int startHour, int endHour) {
+        return startHour * (HOURS + 1) + endHour;
+    }
+}
@@ -1,36 +1,163 @@
 package sportapp.manager;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
+import sportapp.Clock;
 import sportapp.User;
+import sportapp.model.BookingEquipmentListener;
+import sportapp.model.BookRecord;
+import sportapp.model.BookingStatus;
+import sportapp.model.BookingStatusListener;
 import sportapp.model.Equipment;
 import sportapp.model.EquipmentBookRecord;
+import sportapp.model.EquipmentCategory;
+import sportapp.model.EquipmentType;
+import sportapp.model.FacilityBookRecord;
+import sportapp.model.HourSlots;
+import sportapp.model.ReservationResult;
 
 /**
  * Manages booking records for equipment.
  * <p>
  * This singleton class provides methods to add, remove, and retrieve booking records
- * for equipment, ensuring centralized management and sorting of records.
+ * for equipment, ensuring centralized management and ordering of records.
  */
 public class EquipmentBookManager {
 
     /**
-     * Singleton instance of EquipmentBookManager.
+     * Number of lock stripes shared by the borrowable equipment types.
      */
-    private static EquipmentBookManager instance;
+    private static final int LOCK_STRIPES = 64;
 
     /**
-     * List of equipment booking records.
+     * Singleton instance of EquipmentBookManager, eagerly initialized for thread safety.
      */
-    private ArrayList<EquipmentBookRecord> bookRecords;
+    private static final EquipmentBookManager instance = new EquipmentBookManager();
+
+    static {
+        // run on the clock in use only, so a simulated clock that is not installed leaves the records alone
+        Clock.scheduleOnClockInUse(instance::expireEndedBookings, Duration.ofHours(1));
+        Clock.scheduleOnClockInUse(instance::releaseExpiredHolds, Duration.ofMinutes(1));
+    }
+
+    /**
+     * Equipment booking records ordered by date and start hour.
+     */
+    private BookRecordTimeline<EquipmentBookRecord> bookRecords;
+
+    /**
+     * Index of booking records by user and status.
+     */
+    private UserBookingIndex<EquipmentBookRecord> userIndex;
+
+    /**
+     * Index of booking records by piece of equipment and date.
+     */
+    private EquipmentBookingIndex bookingIndex;
+
+    /**
+     * Booked hours of borrowable equipment by equipment type and date.
+     */
+    private EquipmentAvailabilityIndex availabilityIndex;
+
+    /**
+     * Booking records ordered by the time their booking ends.
+     */
+    private BookingExpiryQueue<EquipmentBookRecord> expiryQueue;
+
+    /**
+     * PENDING booking records ordered by the time their hold expires.
+     */
+    private BookingExpiryQueue<EquipmentBookRecord> holdQueue;
+
+    /**
+     * PENDING sales of sellable equipment holding a stock reservation.
+     */
+    private Set<EquipmentBookRecord> stockReservations;
+
+    /**
+     * Listeners notified when the status of a managed booking record changes.
+     */
+    private CopyOnWriteArrayList<BookingStatusListener> statusListeners;
+
+    /**
+     * Listener registered on every managed booking record to keep the user index current.
+     */
+    private BookingStatusListener recordListener;
+
+    /**
+     * Listener registered on every managed booking record to refile it when its equipment is replaced.
+     */
+    private BookingEquipmentListener equipmentListener;
+
+    /**
+     * Journal receiving every change to the booking records.
+     */
+    private volatile ChangeJournal journal;
+
+    /**
+     * Strategy choosing which pieces of equipment serve a borrowing request.
+     */
+    private volatile EquipmentAssignmentStrategy assignmentStrategy;
+
+    /**
+     * Locks serializing the reservations of the equipment types mapped to each stripe.
+     */
+    private Object[] reserveLocks;
 
     /**
      * Private constructor to enforce singleton pattern.
      */
     private EquipmentBookManager() {
-        bookRecords = new ArrayList<>();
+        bookRecords = new BookRecordTimeline<>();
+        userIndex = new UserBookingIndex<>();
+        bookingIndex = new EquipmentBookingIndex();
+        availabilityIndex = new EquipmentAvailabilityIndex();
+        expiryQueue = new BookingExpiryQueue<>();
+        holdQueue = new BookingExpiryQueue<>(PendingHoldPolicy.getInstance()::getHoldDeadline);
+        stockReservations = ConcurrentHashMap.newKeySet();
+        statusListeners = new CopyOnWriteArrayList<>();
+        journal = ChangeJournal.NONE;
+        assignmentStrategy = EquipmentAssignmentStrategy.FIRST_FIT;
+        reserveLocks = new Object[LOCK_STRIPES];
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            reserveLocks[i] = new Object();
+        }
+        recordListener = new BookingStatusListener() {
+            @Override
+            public void onStatusChange(BookRecord record, BookingStatus oldStatus, BookingStatus newStatus) {
+                userIndex.move((EquipmentBookRecord) record, oldStatus);
+                if (oldStatus == BookingStatus.PENDING) {
+                    settleStock((EquipmentBookRecord) record, newStatus == BookingStatus.CONFIRMED);
+                    holdQueue.cancel((EquipmentBookRecord) record);
+                    if (newStatus == BookingStatus.CONFIRMED) {
+                        PendingHoldPolicy.getInstance().holdConverted();
+                    }
+                }
+                try {
+                    // queued under the record lock to keep its changes in order; see ChangeJournal
+                    journal.onStatusChange(record, oldStatus, newStatus);
+                } finally {
+                    fireStatusChange(record, oldStatus, newStatus);
+                }
+            }
+
+            @Override
+            public void afterStatusChange(BookRecord record) {
+                awaitJournal(record);
+            }
+        };
+        equipmentListener = (record, oldEquipments) -> {
+            bookingIndex.update(record);
+            availabilityIndex.update(record);
+        };
     }
 
     /**
@@ -39,20 +166,157 @@ public class EquipmentBookManager {
      * @return The singleton instance of EquipmentBookManager.
      */
     public static EquipmentBookManager getInstance() {
-        if (instance == null) {
-            instance = new EquipmentBookManager();
-        }
         return instance;
     }
 
     /**
-     * Adds a booking record to the collection and sorts the records.
+     * Adds a booking record to the collection at its position in date and start hour order.
+     * <p>
+     * A PENDING sale of sellable equipment reserves its quantity in the {@link StockLedger}.
+     * Adding a record that is already managed does nothing.
      *
      * @param record The booking record to add.
+     * @throws IllegalArgumentException If not enough stock is left for the sale.
      */
-    public void addBookRecord(EquipmentBookRecord record) {
-        bookRecords.add(record);
-        sortCollection();
+    public void addBookRecord(EquipmentBookRecord record) throws IllegalArgumentException {
+        // the check, the stock reservation and the insert are one step, so two adds of the
+        // same sale cannot both reserve stock; a removal at the same time also locks the record
+        synchronized (record) {
+            if (bookRecords.contains(record)) {
+                return;
+            }
+            reserveStock(record);
+            if (!bookRecords.add(record)) {
+                settleStock(record, false);
+                return;
+            }
+            record.setStatusListener(recordListener);
+            record.setEquipmentListener(equipmentListener);
+            userIndex.add(record);
+            bookingIndex.add(record);
+            availabilityIndex.add(record);
+            expiryQueue.schedule(record);
+            if (record.getStatus() == BookingStatus.PENDING) {
+                holdQueue.schedule(record);
+                PendingHoldPolicy.getInstance().holdCreated();
+            }
+            journal.recordAdded(record);
+            fireStatusChange(record, null, record.getStatus());
+        }
+        awaitJournal(record);
+    }
+
+    /**
+     * Reserves equipment of one type for the time slot of a facility booking.
+     * <p>
+     * For a borrowable type, the free pieces are found and the booking record is added as one
+     * atomic step under the lock of the type, so two users can never borrow the same piece
+     * for overlapping hours, while reservations of different types do not wait for each
+     * other. The pieces are chosen by the assignment strategy. For a sellable type, the
+     * quantity is reserved in the {@link StockLedger}.
+     *
+     * @param type The equipment type to reserve.
+     * @param facilityRecord The facility booking the equipment is used with.
+     * @param quantity The number of pieces to reserve.
+     * @param user The user making the reservation.
+     * @return The result holding the new pending booking record, or the reason it was not created.
+     * @throws IllegalArgumentException If the type, facility booking or user is null, or the quantity is not positive.
+     */
+    public ReservationResult<EquipmentBookRecord> tryReserve(EquipmentType type, FacilityBookRecord facilityRecord, int quantity, User user) throws IllegalArgumentException {
+        if (type == null || facilityRecord == null || user == null) {
+            throw new IllegalArgumentException("Equipment type, facility booking and user cannot be null");
+        }
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+        EquipmentManager equipmentManager = EquipmentManager.getInstance();
+
+        if (type.getCategory() == EquipmentCategory.SELLABLE) {
+            ArrayList<Equipment> pieces = equipmentManager.getSellableEquipmentByType(type);
+            if (pieces.isEmpty()) {
+                return ReservationResult.rejected(ReservationResult.Outcome.UNAVAILABLE);
+            }
+            EquipmentBookRecord record = new EquipmentBookRecord(facilityRecord, pieces, user, quantity);
+            try {
+                addBookRecord(record);
+            } catch (IllegalArgumentException e) {
+                // not enough stock left
+                return ReservationResult.rejected(ReservationResult.Outcome.UNAVAILABLE);
+            }
+            return ReservationResult.reserved(record);
+        }
+
+        LocalDate date = facilityRecord.getDate();
+        int startHour = facilityRecord.getStartHour();
+        int endHour = facilityRecord.getEndHour();
+        if (startHour < 9 || endHour > 21 || startHour >= endHour) {
+            return ReservationResult.rejected(ReservationResult.Outcome.INVALID_TIME_SLOT);
+        }
+        int slot = HourSlots.hourMask(startHour, endHour);
+
+        synchronized (reserveLockFor(type)) {
+            ArrayList<Equipment> pieces = equipmentManager.getBorrowableEquipmentByType(type);
+            if (pieces.size() < quantity) {
+                return ReservationResult.rejected(ReservationResult.Outcome.UNAVAILABLE);
+            }
+            ArrayList<Equipment> candidates = getFreeEquipments(pieces, date, slot);
+            if (candidates.size() < quantity) {
+                return ReservationResult.conflict(getOverlappingRecords(pieces, date, slot));
+            }
+
+            EquipmentBookRecord record = new EquipmentBookRecord(facilityRecord, assignEquipments(candidates, date, startHour, endHour, quantity), user);
+            addBookRecord(record);
+            return ReservationResult.reserved(record);
+        }
+    }
+
+    /**
+     * Moves a borrowing to a new date and time slot, choosing pieces free at the new time.
+     * <p>
+     * The free pieces are found, assigned and the record is moved as one atomic step under
+     * the lock of the equipment type, like {@link #tryReserve}. The pieces of the record are
+     * still counted as booked at their old time while the new pieces are chosen.
+     *
+     * @param record The borrowing to move.
+     * @param date The new date of the booking.
+     * @param startHour The new start hour of the booking.
+     * @param endHour The new end hour of the booking.
+     * @throws IllegalArgumentException If there is not enough equipment free at the new time.
+     */
+    public void rescheduleBorrowing(EquipmentBookRecord record, LocalDate date, int startHour, int endHour) throws IllegalArgumentException {
+        EquipmentType type = record.getBookingEquipment().get(0).getEquipmentType();
+        int slot = HourSlots.hourMask(startHour, endHour);
+        synchronized (reserveLockFor(type)) {
+            ArrayList<Equipment> candidates = getFreeEquipments(EquipmentManager.getInstance().getBorrowableEquipmentByType(type), date, slot);
+            if (candidates.isEmpty() || candidates.size() < record.getQuantity()) {
+                throw new IllegalArgumentException("Not enough available equipments in selected time slot.");
+            }
+            synchronized (record) {
+                record.setBookingEquipment(assignEquipments(candidates, date, startHour, endHour, record.getQuantity()));
+                updateBookingDateTime(record, date, startHour, endHour);
+            }
+        }
+        journal.awaitDurable();
+    }
+
+    /**
+     * Chooses which of the free pieces of equipment serve a request, using the assignment strategy.
+     *
+     * @param candidates The pieces free for the whole time slot.
+     * @param date The date of the request.
+     * @param startHour The start hour of the time slot.
+     * @param endHour The end hour of the time slot.
+     * @param quantity The number of pieces requested.
+     * @return A new list of the chosen pieces.
+     * @throws IllegalArgumentException If there are fewer candidates than the quantity.
+     */
+    public ArrayList<Equipment> assignEquipments(List<Equipment> candidates, LocalDate date, int startHour, int endHour, int quantity) throws IllegalArgumentException {
+        int openingHours = HourSlots.hourMask(9, 21);
+        int[] freeHours = new int[candidates.size()];
+        for (int i = 0; i < freeHours.length; i++) {
+            freeHours[i] = openingHours & ~getBookedHours(candidates.get(i), date);
+        }
+        return assignmentStrategy.assign(candidates, freeHours, startHour, endHour, quantity);
     }
 
     /**
@@ -61,32 +325,139 @@ public class EquipmentBookManager {
      * @param record The booking record to remove.
      */
     public void removeBooking(EquipmentBookRecord record) {
-        bookRecords.remove(record);
+        // a move of the same record at the same time also locks the record
+        synchronized (record) {
+            if (bookRecords.remove(record)) {
+                settleStock(record, false);
+                record.setStatusListener(null);
+                record.setEquipmentListener(null);
+                userIndex.remove(record);
+                bookingIndex.remove(record);
+                availabilityIndex.remove(record);
+                expiryQueue.cancel(record);
+                holdQueue.cancel(record);
+                journal.recordRemoved(record);
+                fireStatusChange(record, record.getStatus(), null);
+            }
+        }
+        awaitJournal(record);
+    }
+
+    /**
+     * Moves a booking record to a new date and time slot, keeping the collection ordered.
+     * <p>
+     * This method does not check the availability of the new time slot. Changes made to the
+     * booked equipment beforehand are journaled together with the new time slot.
+     *
+     * @param record The booking record to update.
+     * @param date The new date of the booking.
+     * @param startHour The new start hour of the booking.
+     * @param endHour The new end hour of the booking.
+     */
+    public void updateBookingDateTime(EquipmentBookRecord record, LocalDate date, int startHour, int endHour) {
+        // a removal of the same record at the same time also locks the record
+        synchronized (record) {
+            record.setDate(date);
+            record.setStartHour(startHour);
+            record.setEndHour(endHour);
+            bookRecords.reposition(record);
+            if (bookRecords.contains(record)) {
+                bookingIndex.update(record);
+                availabilityIndex.update(record);
+                expiryQueue.schedule(record);
+                journal.recordUpdated(record);
+            }
+        }
+        awaitJournal(record);
     }
 
     /**
      * Retrieves all equipment booking records.
+     * <p>
+     * The returned list is an unmodifiable copy taken at the time of the call, in date and
+     * start hour order; use {@link #reset()} to clear the manager.
      *
      * @return A list of all equipment booking records.
      */
-    public ArrayList<EquipmentBookRecord> getBookRecords() {
-        return this.bookRecords;
+    public List<EquipmentBookRecord> getBookRecords() {
+        return Collections.unmodifiableList(bookRecords.toList());
     }
 
     /**
-     * Retrieves booking records for a specific user.
+     * Retrieves the booking records dated within a range, in date and start hour order.
+     *
+     * @param fromDate The first date of the range (inclusive).
+     * @param toDate The last date of the range (inclusive).
+     * @return A list of the booking records within the range.
+     */
+    public ArrayList<EquipmentBookRecord> getBookRecordsBetween(LocalDate fromDate, LocalDate toDate) {
+        return bookRecords.getRange(fromDate, toDate);
+    }
+
+    /**
+     * Retrieves booking records for a specific user, in date and start hour order.
      *
      * @param user The user whose booking records are to be retrieved.
      * @return A list of booking records for the user.
      */
     public ArrayList<EquipmentBookRecord> getBookingRecordsByUser(User user) {
-        ArrayList<EquipmentBookRecord> result = new ArrayList<>();
-        for (EquipmentBookRecord bookRecord : bookRecords ) {
-          if (bookRecord.getUser().equals(user))
-            result.add(bookRecord);
-        }
+        return userIndex.get(user);
+    }
+
+    /**
+     * Retrieves booking records for a specific user with a given status, in date and start hour order.
+     *
+     * @param user The user whose booking records are to be retrieved.
+     * @param status The status of the booking records.
+     * @return A list of booking records for the user with the status.
+     */
+    public ArrayList<EquipmentBookRecord> getBookingRecordsByUser(User user, BookingStatus status) {
+        return userIndex.get(user, status);
+    }
+
+    /**
+     * Retrieves the hours a piece of borrowable equipment is booked on a given date.
+     *
+     * @param equipment The equipment to look up.
+     * @param date The date to look up.
+     * @return The bitmap of the booked hours, where bit {@code h} covers {@code h}:00 to {@code h+1}:00.
+     */
+    public int getBookedHours(Equipment equipment, LocalDate date) {
+        return availabilityIndex.getBookedHours(equipment, date);
+    }
+
+    /**
+     * Retrieves the number of pieces of a borrowable equipment type booked during a time slot.
+     *
+     * @param type The equipment type to look up.
+     * @param date The date of the time slot.
+     * @param startHour The start hour of the time slot.
+     * @param endHour The end hour of the time slot.
+     * @return The number of pieces booked at some hour of the time slot.
+     */
+    public int getBookedEquipmentCount(EquipmentType type, LocalDate date, int startHour, int endHour) {
+        return availabilityIndex.getBookedCount(type, date, startHour, endHour);
+    }
+
+    /**
+     * Adds a listener notified when the status of any managed booking record changes.
+     * <p>
+     * A record joining the manager is reported as a change from a null status, and a record
+     * leaving it as a change to a null status, so listeners can keep their own views current.
+     *
+     * @param listener The listener to add.
+     */
+    public void addStatusListener(BookingStatusListener listener) {
+        statusListeners.add(listener);
+    }
 
-        return result;
+    /**
+     * Removes a status listener.
+     *
+     * @param listener The listener to remove.
+     */
+    public void removeStatusListener(BookingStatusListener listener) {
+        statusListeners.remove(listener);
     }
 
     /**
@@ -97,14 +468,7 @@ public class EquipmentBookManager {
      * @return A list of booking records for the equipment and date.
      */
     public ArrayList<EquipmentBookRecord> getBookRecordByDate(Equipment target, LocalDate date) {
-        ArrayList<EquipmentBookRecord> result = new ArrayList<>();
-        for (EquipmentBookRecord equipBookRecord: bookRecords) {
-          if ((equipBookRecord.getBookingEquipment().equals(target)) && (equipBookRecord.getDate().equals(date))) {
-            result.add(equipBookRecord);
-          }
-        }
-
-        return result;
+        return bookingIndex.get(target, date);
     }
 
     // public ArrayList<int[]> getAvailableTimeSlot(Equipment target, LocalDate date) {
@@ -144,16 +508,220 @@ public class EquipmentBookManager {
     // }
 
     /**
-     * Sorts the collection of booking records.
+     * Sets the journal receiving every change to the booking records.
+     *
+     * @param journal The journal, or null to stop journaling.
+     */
+    public void setJournal(ChangeJournal journal) {
+        this.journal = (journal == null) ? ChangeJournal.NONE : journal;
+    }
+
+    /**
+     * Retrieves the strategy choosing which pieces of equipment serve a borrowing request.
+     *
+     * @return The assignment strategy.
+     */
+    public EquipmentAssignmentStrategy getAssignmentStrategy() {
+        return assignmentStrategy;
+    }
+
+    /**
+     * Sets the strategy choosing which pieces of equipment serve a borrowing request.
+     *
+     * @param assignmentStrategy The assignment strategy, or null to use the first-fit strategy.
+     */
+    public void setAssignmentStrategy(EquipmentAssignmentStrategy assignmentStrategy) {
+        this.assignmentStrategy = (assignmentStrategy == null) ? EquipmentAssignmentStrategy.FIRST_FIT : assignmentStrategy;
+    }
+
+    /**
+     * Restores the order of booking records whose date or start hour was changed directly.
+     * <p>
+     * Updates made through {@link #updateBookingDateTime} keep the order without calling this.
      */
     public void sortCollection() {
-        Collections.sort(bookRecords);
+        bookRecords.repositionAll();
+        for (EquipmentBookRecord record : bookRecords) {
+            bookingIndex.update(record);
+            availabilityIndex.update(record);
+        }
+        expiryQueue.rescheduleAll();
+    }
+
+    /**
+     * Releases the PENDING booking records whose hold expired at or before a given time.
+     * <p>
+     * The released records are removed, which frees their time slots. Only the records whose
+     * hold has expired are visited.
+     *
+     * @param now The current date and time.
+     * @return A list of the released booking records.
+     */
+    public ArrayList<EquipmentBookRecord> releaseExpiredHolds(LocalDateTime now) {
+        ArrayList<EquipmentBookRecord> released = new ArrayList<>();
+        for (EquipmentBookRecord record : holdQueue.pollExpired(now)) {
+            // a payment confirming the record at the same time also locks the record
+            synchronized (record) {
+                if (record.getStatus() == BookingStatus.PENDING && bookRecords.contains(record)) {
+                    removeBooking(record);
+                    released.add(record);
+                    PendingHoldPolicy.getInstance().holdExpired();
+                }
+            }
+        }
+        journal.awaitDurable();
+        return released;
+    }
+
+    /**
+     * Marks the booking records that ended at or before a given time as ENDED.
+     * <p>
+     * Only the records whose end time has passed are visited.
+     *
+     * @param now The current date and time.
+     * @return A list of the records whose booking ended.
+     */
+    public ArrayList<EquipmentBookRecord> expireEndedBookings(LocalDateTime now) {
+        ArrayList<EquipmentBookRecord> ended = expiryQueue.pollExpired(now);
+        for (EquipmentBookRecord record : ended) {
+            record.setStatus(BookingStatus.ENDED);
+        }
+        return ended;
+    }
+
+    /**
+     * Collects the pieces of equipment with no booked hour in a time slot.
+     *
+     * @param pieces The pieces of equipment.
+     * @param date The date of the time slot.
+     * @param slot The bitmap of the hours of the time slot.
+     * @return A list of the free pieces, in list order.
+     */
+    private ArrayList<Equipment> getFreeEquipments(List<Equipment> pieces, LocalDate date, int slot) {
+        ArrayList<Equipment> free = new ArrayList<>();
+        for (Equipment piece : pieces) {
+            if ((getBookedHours(piece, date) & slot) == 0) {
+                free.add(piece);
+            }
+        }
+        return free;
+    }
+
+    /**
+     * Collects the booking records of some pieces that overlap a time slot.
+     *
+     * @param pieces The pieces of equipment.
+     * @param date The date of the time slot.
+     * @param slot The bitmap of the hours of the time slot.
+     * @return A list of the overlapping booking records, each listed once.
+     */
+    private ArrayList<EquipmentBookRecord> getOverlappingRecords(List<Equipment> pieces, LocalDate date, int slot) {
+        ArrayList<EquipmentBookRecord> overlapping = new ArrayList<>();
+        for (Equipment piece : pieces) {
+            for (EquipmentBookRecord record : bookingIndex.get(piece, date)) {
+                if (((HourSlots.hourMask(record.getStartHour(), record.getEndHour()) & slot) != 0) && !overlapping.contains(record)) {
+                    overlapping.add(record);
+                }
+            }
+        }
+        return overlapping;
+    }
+
+    /**
+     * Retrieves the reservation lock stripe of an equipment type.
+     *
+     * @param type The equipment type.
+     * @return The lock guarding the reservations of the type.
+     */
+    private Object reserveLockFor(EquipmentType type) {
+        return reserveLocks[(type.getEquipmentTypeID().hashCode() & 0x7fffffff) % LOCK_STRIPES];
+    }
+
+    /**
+     * Reserves stock for a PENDING sale of sellable equipment.
+     *
+     * @param record The booking record being added.
+     * @throws IllegalArgumentException If not enough stock is left for the sale.
+     */
+    private void reserveStock(EquipmentBookRecord record) throws IllegalArgumentException {
+        if (record.getStatus() != BookingStatus.PENDING || record.getBookingEquipment().isEmpty()) {
+            return;
+        }
+        Equipment equipment = record.getBookingEquipment().get(0);
+        if (equipment == null || !equipment.isSellable()) {
+            return;
+        }
+        if (!StockLedger.getInstance().reserve(equipment.getEquipmentType(), record.getQuantity())) {
+            throw new IllegalArgumentException("Not enough stock of " + equipment.getEquipmentName() + " left.");
+        }
+        stockReservations.add(record);
+    }
+
+    /**
+     * Settles the stock reservation of a sale that is no longer PENDING.
+     *
+     * @param record The booking record.
+     * @param isSold true if the sale was confirmed, false if it was dropped.
+     */
+    private void settleStock(EquipmentBookRecord record, boolean isSold) {
+        if (!stockReservations.remove(record)) {
+            return;
+        }
+        EquipmentType type = record.getBookingEquipment().get(0).getEquipmentType();
+        if (isSold) {
+            StockLedger.getInstance().commit(type, record.getQuantity());
+        } else {
+            StockLedger.getInstance().release(type, record.getQuantity());
+        }
     }
 
     /**
      * Resets the manager by clearing all booking records.
+     * <p>
+     * Stock reserved by PENDING sales is released, and status listeners are told that every
+     * record left the manager.
      */
     public void reset() {
+        for (EquipmentBookRecord record : stockReservations) {
+            settleStock(record, false);
+        }
+        ArrayList<EquipmentBookRecord> removed = new ArrayList<>();
+        for (EquipmentBookRecord record : bookRecords) {
+            removed.add(record);
+        }
         bookRecords.clear();
+        userIndex.clear();
+        bookingIndex.clear();
+        availabilityIndex.clear();
+        expiryQueue.clear();
+        holdQueue.clear();
+        for (EquipmentBookRecord record : removed) {
+            fireStatusChange(record, record.getStatus(), null);
+        }
+    }
+
+    /**
+     * Waits for the journal to make the changes of a booking record durable, unless the record
+     * is still locked by a caller further up, which then waits once it releases the lock.
+     *
+     * @param record The booking record that changed.
+     */
+    private void awaitJournal(BookRecord record) {
+        if (!Thread.holdsLock(record)) {
+            journal.awaitDurable();
+        }
+    }
+
+    /**
+     * Notifies the status listeners of a change to a managed booking record.
+     *
+     * @param record The booking record that changed.
+     * @param oldStatus The previous status, or null if the record was added.
+     * @param newStatus The new status, or null if the record was removed.
+     */
+    private void fireStatusChange(BookRecord record, BookingStatus oldStatus, BookingStatus newStatus) {
+        for (BookingStatusListener listener : statusListeners) {
+            listener.onStatusChange(record, oldStatus, newStatus);
+        }
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,140 @@
+package sportapp.manager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+
+import sportapp.model.Equipment;
+import sportapp.model.EquipmentBookRecord;
+
+/**
+ * Index of equipment booking records keyed by piece of equipment, then by date.
+ * <p>
+ * The index remembers the date and equipment each record was filed under, so the record can
+ * be moved after its date or equipment has already been changed.
+ */
+public class EquipmentBookingIndex {
+
+    /**
+     * Booking records grouped by equipment, then by date.
+     */
+    private HashMap<Equipment, HashMap<LocalDate, LinkedHashSet<EquipmentBookRecord>>> index;
+
+    /**
+     * Date and equipment every indexed record was filed under.
+     */
+    private HashMap<EquipmentBookRecord, Placement> placements;
+
+    /**
+     * Date and equipment a booking record was filed under.
+     */
+    private static class Placement {
+
+        /**
+         * The date of the booking.
+         */
+        private LocalDate date;
+
+        /**
+         * The booked equipment.
+         */
+        private ArrayList<Equipment> equipments;
+
+        /**
+         * Captures the current date and equipment of a booking record.
+         *
+         * @param record The booking record.
+         */
+        private Placement(EquipmentBookRecord record) {
+            date = record.getDate();
+            equipments = new ArrayList<>(record.getBookingEquipment());
+        }
+    }
+
+    /**
+     * Constructs an empty booking index.
+     */
+    public EquipmentBookingIndex() {
+        index = new HashMap<>();
+        placements = new HashMap<>();
+    }
+
+    /**
+     * Adds a booking record under its current date and equipment.
+     *
+     * @param record The booking record to add.
+     */
+    public synchronized void add(EquipmentBookRecord record) {
+        if (placements.containsKey(record)) {
+            return;
+        }
+        Placement placement = new Placement(record);
+        placements.put(record, placement);
+        for (Equipment equipment : placement.equipments) {
+            if (equipment != null) {
+                index.computeIfAbsent(equipment, key -> new HashMap<>())
+                    .computeIfAbsent(placement.date, key -> new LinkedHashSet<>())
+                    .add(record);
+            }
+        }
+    }
+
+    /**
+     * Removes a booking record from the date and equipment it was filed under.
+     *
+     * @param record The booking record to remove.
+     */
+    public synchronized void remove(EquipmentBookRecord record) {
+        Placement placement = placements.remove(record);
+        if (placement == null) {
+            return;
+        }
+        for (Equipment equipment : placement.equipments) {
+            HashMap<LocalDate, LinkedHashSet<EquipmentBookRecord>> days = (equipment == null) ? null : index.get(equipment);
+            if (days == null) {
+                continue;
+            }
+            LinkedHashSet<EquipmentBookRecord> records = days.get(placement.date);
+            if (records != null && records.remove(record) && records.isEmpty()) {
+                days.remove(placement.date);
+                if (days.isEmpty()) {
+                    index.remove(equipment);
+                }
+            }
+        }
+    }
+
+    /**
+     * Files a booking record under its current date and equipment.
+     *
+     * @param record The booking record to move.
+     */
+    public synchronized void update(EquipmentBookRecord record) {
+        if (placements.containsKey(record)) {
+            remove(record);
+            add(record);
+        }
+    }
+
+    /**
+     * Retrieves the booking records of a piece of equipment on a given date.
+     *
+     * @param equipment The equipment to look up.
+     * @param date The date to look up.
+     * @return A new list of the matching booking records, in the order they were filed.
+     */
+    public synchronized ArrayList<EquipmentBookRecord> get(Equipment equipment, LocalDate date) {
+        HashMap<LocalDate, LinkedHashSet<EquipmentBookRecord>> days = index.get(equipment);
+        LinkedHashSet<EquipmentBookRecord> records = (days == null) ? null : days.get(date);
+        return (records == null) ? new ArrayList<>() : new ArrayList<>(records);
+    }
+
+    /**
+     * Clears the index.
+     */
+    public synchronized void clear() {
+        index.clear();
+        placements.clear();
+    }
+}
@@ -1,5 +1,9 @@
 package sportapp.manager;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import sportapp.model.Equipment;
 import sportapp.model.EquipmentType;
@@ -10,30 +14,33 @@ import sportapp.model.EquipmentType;
  * <p>
  * This singleton class provides methods to manage borrowable and sellable equipment,
  * including adding equipment and retrieving collections.
+ * <p>
+ * Lookups by type read an immutable grouping of the equipment, so any number of sessions can
+ * look up equipment while the inventory is changed.
  */
 public class EquipmentManager {
 
     /**
-     * Singleton instance of EquipmentManager.
+     * Singleton instance of EquipmentManager, eagerly initialized for thread safety.
      */
-    private static EquipmentManager instance = null;
+    private static final EquipmentManager instance = new EquipmentManager();
 
     /**
      * List of borrowable equipment.
      */
-    private ArrayList<Equipment> borrowableEquipments;
+    private Inventory borrowableEquipments;
 
     /**
      * List of sellable equipment.
      */
-    private ArrayList<Equipment> sellableEquipments;
+    private Inventory sellableEquipments;
 
     /**
      * Private constructor to enforce singleton pattern.
      */
     private EquipmentManager() {
-        borrowableEquipments = new ArrayList<Equipment>();
-        sellableEquipments = new ArrayList<Equipment>();
+        borrowableEquipments = new Inventory();
+        sellableEquipments = new Inventory();
     }
 
     /**
@@ -42,28 +49,25 @@ public class EquipmentManager {
      * @return The singleton instance of EquipmentManager.
      */
     public static EquipmentManager getInstance() {
-        if (instance == null) {
-            instance = new EquipmentManager();
-        }
         return instance;
     }
 
     /**
      * Retrieves the collection of borrowable equipment.
      *
-     * @return A list of borrowable equipment.
+     * @return An unmodifiable list of borrowable equipment.
      */
-    public ArrayList<Equipment> getBorrowableCollection() {
-        return borrowableEquipments;
+    public List<Equipment> getBorrowableCollection() {
+        return borrowableEquipments.view;
     }
 
     /**
      * Retrieves the collection of sellable equipment.
      *
-     * @return A list of sellable equipment.
+     * @return An unmodifiable list of sellable equipment.
      */
-    public ArrayList<Equipment> getSellableCollection() {
-        return sellableEquipments;
+    public List<Equipment> getSellableCollection() {
+        return sellableEquipments.view;
     }
 
     /**
@@ -82,6 +86,16 @@ public class EquipmentManager {
         }
     }
 
+    /**
+     * Removes equipment from whichever collection holds it.
+     *
+     * @param equipment The equipment to remove.
+     * @return true if the equipment was removed, false if it was not in the inventory.
+     */
+    public boolean removeEquipment(Equipment equipment) {
+        return borrowableEquipments.remove(equipment) || sellableEquipments.remove(equipment);
+    }
+
     /**
      * Retrieves a list of borrowable equipment of the specified type.
      *
@@ -89,13 +103,17 @@ public class EquipmentManager {
      * @return A list of borrowable equipment of the specified type.
      */
     public ArrayList<Equipment> getBorrowableEquipmentByType(EquipmentType type) {
-        ArrayList<Equipment> result = new ArrayList<>();
-
-        for (Equipment equipment: borrowableEquipments) {
-            if (equipment.getEquipmentType().equals(type)) { result.add(equipment); }
-        }
+        return new ArrayList<>(borrowableEquipments.getByType(type));
+    }
 
-        return result;
+    /**
+     * Retrieves the number of borrowable equipment of the specified type.
+     *
+     * @param type The type of equipment to count.
+     * @return The number of borrowable equipment of the specified type.
+     */
+    public int getBorrowableCountByType(EquipmentType type) {
+        return borrowableEquipments.getByType(type).size();
     }
 
     /**
@@ -105,13 +123,9 @@ public class EquipmentManager {
      * @return A list of sellable equipment of the specified type.
      */
     public ArrayList<Equipment> getSellableEquipmentByType(EquipmentType type) {
-        ArrayList<Equipment> result = new ArrayList<>();
-
-        for (Equipment equipment: sellableEquipments) {
-            if (equipment.getEquipmentType().equals(type)) { result.add(equipment); break; }
-        }
-        
-        return result;
+        List<Equipment> equipments = sellableEquipments.getByType(type);
+        // one sellable equipment stands for the whole stock of its type
+        return equipments.isEmpty() ? new ArrayList<>() : new ArrayList<>(equipments.subList(0, 1));
     }
 
     /**
@@ -121,4 +135,97 @@ public class EquipmentManager {
         borrowableEquipments.clear();
         sellableEquipments.clear();
     }
-}
\ No newline at end of file
+
+    /**
+     * List of equipment that also groups its elements by equipment type.
+     * <p>
+     * The list is only changed through {@link #add}, {@link #remove} and {@link #clear}, which
+     * lock it and replace the grouping of the changed type. Each grouping is immutable and
+     * replaced as a whole, so readers never lock and never see one that is half built.
+     */
+    private static class Inventory {
+
+        /**
+         * Shared result for types without equipment.
+         */
+        private static final List<Equipment> NONE = Collections.emptyList();
+
+        /**
+         * The equipment, in the order it was added.
+         */
+        private final ArrayList<Equipment> equipments = new ArrayList<>();
+
+        /**
+         * Read-only view of the equipment handed out by the manager.
+         */
+        private final List<Equipment> view = Collections.unmodifiableList(equipments);
+
+        /**
+         * Unmodifiable lists of equipment by type, in list order.
+         */
+        private volatile Map<EquipmentType, List<Equipment>> groups = Collections.emptyMap();
+
+        /**
+         * Adds a piece of equipment.
+         *
+         * @param equipment The equipment to add.
+         */
+        private synchronized void add(Equipment equipment) {
+            equipments.add(equipment);
+            ArrayList<Equipment> group = new ArrayList<>(getByType(equipment.getEquipmentType()));
+            group.add(equipment);
+            regroup(equipment.getEquipmentType(), group);
+        }
+
+        /**
+         * Removes a piece of equipment.
+         *
+         * @param equipment The equipment to remove.
+         * @return true if the equipment was in the list, false otherwise.
+         */
+        private synchronized boolean remove(Equipment equipment) {
+            if (!equipments.remove(equipment)) {
+                return false;
+            }
+            ArrayList<Equipment> group = new ArrayList<>(getByType(equipment.getEquipmentType()));
+            group.remove(equipment);
+            regroup(equipment.getEquipmentType(), group);
+            return true;
+        }
+
+        /**
+         * Removes all equipment.
+         */
+        private synchronized void clear() {
+            equipments.clear();
+            groups = Collections.emptyMap();
+        }
+
+        /**
+         * Publishes a grouping with a new list of equipment for one type.
+         * Must be called while holding the lock of the list.
+         *
+         * @param type The equipment type.
+         * @param group The equipment of the type.
+         */
+        private void regroup(EquipmentType type, ArrayList<Equipment> group) {
+            HashMap<EquipmentType, List<Equipment>> changed = new HashMap<>(groups);
+            if (group.isEmpty()) {
+                changed.remove(type);
+            } else {
+                changed.put(type, Collections.unmodifiableList(group));
+            }
+            groups = Collections.unmodifiableMap(changed);
+        }
+
+        /**
+         * Retrieves the equipment of a type.
+         *
+         * @param type The equipment type.
+         * @return An unmodifiable list of the equipment of the type.
+         */
+        private List<Equipment> getByType(EquipmentType type) {
+            return groups.getOrDefault(type, NONE);
+        }
+    }
+}
@@ -1,5 +1,10 @@
 package sportapp.manager;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import sportapp.model.EquipmentType;
 import sportapp.model.EquipmentCategory;
@@ -9,30 +14,121 @@ import sportapp.model.EquipmentCategory;
  * <p>
  * This singleton class provides methods to manage equipment types,
  * including retrieving types by category and sport type.
+ * <p>
+ * The type lists and the lookups by ID and by sport type are read from an immutable index
+ * that is replaced as a whole whenever a type is added or removed, so readers never lock or
+ * allocate, and a list handed out never changes while it is iterated. The lists the index is
+ * built from are only changed through the manager, under its lock.
  */
 public class EquipmentTypeManager {
 
     /**
-     * Singleton instance of EquipmentTypeManager.
+     * Singleton instance of EquipmentTypeManager, eagerly initialized for thread safety.
      */
-    private static EquipmentTypeManager instance = null;
+    private static final EquipmentTypeManager instance = new EquipmentTypeManager();
 
     /**
-     * List of borrowable equipment types.
+     * List of borrowable equipment types, guarded by the manager's lock.
      */
     private ArrayList<EquipmentType> borrowableTypes;
 
     /**
-     * List of sellable equipment types.
+     * List of sellable equipment types, guarded by the manager's lock.
      */
     private ArrayList<EquipmentType> sellableTypes;
 
+    /**
+     * Index of the current borrowable and sellable types.
+     */
+    private volatile TypeIndex typeIndex;
+
+    /**
+     * Immutable index of equipment types by ID and by category and sport type.
+     */
+    private static class TypeIndex {
+
+        /**
+         * Borrowable equipment types, in the order they were added.
+         */
+        private final List<EquipmentType> borrowableTypes;
+
+        /**
+         * Sellable equipment types, in the order they were added.
+         */
+        private final List<EquipmentType> sellableTypes;
+
+        /**
+         * Equipment types by ID.
+         */
+        private final Map<String, EquipmentType> typesById;
+
+        /**
+         * Equipment types by category, then by sport type, in list order.
+         */
+        private final Map<EquipmentCategory, Map<String, List<EquipmentType>>> typesBySportType;
+
+        /**
+         * Builds the index of the borrowable and sellable types.
+         *
+         * @param borrowableTypes The borrowable equipment types.
+         * @param sellableTypes The sellable equipment types.
+         */
+        private TypeIndex(List<EquipmentType> borrowableTypes, List<EquipmentType> sellableTypes) {
+            this.borrowableTypes = Collections.unmodifiableList(new ArrayList<>(borrowableTypes));
+            this.sellableTypes = Collections.unmodifiableList(new ArrayList<>(sellableTypes));
+
+            // sellable types are added last, so they win when both lists share an ID
+            HashMap<String, EquipmentType> byId = new HashMap<>();
+            for (EquipmentType type : borrowableTypes) {
+                byId.put(type.getEquipmentTypeID(), type);
+            }
+            for (EquipmentType type : sellableTypes) {
+                byId.put(type.getEquipmentTypeID(), type);
+            }
+            typesById = Collections.unmodifiableMap(byId);
+
+            EnumMap<EquipmentCategory, Map<String, List<EquipmentType>>> bySportType = new EnumMap<>(EquipmentCategory.class);
+            bySportType.put(EquipmentCategory.BORROWABLE, groupBySportType(borrowableTypes));
+            bySportType.put(EquipmentCategory.SELLABLE, groupBySportType(sellableTypes));
+            typesBySportType = Collections.unmodifiableMap(bySportType);
+        }
+
+        /**
+         * Groups equipment types by sport type.
+         *
+         * @param types The equipment types to group.
+         * @return An unmodifiable map of unmodifiable lists of the types of each sport type.
+         */
+        private static Map<String, List<EquipmentType>> groupBySportType(List<EquipmentType> types) {
+            HashMap<String, List<EquipmentType>> groups = new HashMap<>();
+            for (EquipmentType type : types) {
+                groups.computeIfAbsent(type.getSportType(), key -> new ArrayList<>()).add(type);
+            }
+            for (Map.Entry<String, List<EquipmentType>> group : groups.entrySet()) {
+                group.setValue(Collections.unmodifiableList(group.getValue()));
+            }
+            return Collections.unmodifiableMap(groups);
+        }
+
+        /**
+         * Retrieves the types of a category for a sport type.
+         *
+         * @param category The category of the types.
+         * @param sportType The sport type of the types.
+         * @return An unmodifiable list of the matching types.
+         */
+        private List<EquipmentType> getTypes(EquipmentCategory category, String sportType) {
+            return typesBySportType.get(category).getOrDefault(sportType, Collections.emptyList());
+        }
+    }
+
     /**
      * Private constructor to enforce singleton pattern.
      */
     private EquipmentTypeManager() {
         borrowableTypes = new ArrayList<EquipmentType>();
         sellableTypes = new ArrayList<EquipmentType>();
+        typeIndex = new TypeIndex(borrowableTypes, sellableTypes);
     }
 
     /**
@@ -41,72 +137,56 @@ public class EquipmentTypeManager {
      * @return The singleton instance of EquipmentTypeManager.
      */
     public static EquipmentTypeManager getInstance() {
-        if (instance == null) {
-            instance = new EquipmentTypeManager();
-        }
         return instance;
     }
 
     /**
      * Retrieves the collection of borrowable equipment types.
      *
-     * @return A list of borrowable equipment types.
+     * @return An unmodifiable snapshot of the borrowable equipment types.
      */
-    public ArrayList<EquipmentType> getBorrowableTypes() {
-        return borrowableTypes;
+    public List<EquipmentType> getBorrowableTypes() {
+        return getTypeIndex().borrowableTypes;
     }
 
     /**
      * Retrieves the collection of sellable equipment types.
      *
-     * @return A list of sellable equipment types.
+     * @return An unmodifiable snapshot of the sellable equipment types.
      */
-    public ArrayList<EquipmentType> getSellableTypes() {
-        return sellableTypes;
+    public List<EquipmentType> getSellableTypes() {
+        return getTypeIndex().sellableTypes;
     }
 
     /**
      * Retrieves borrowable equipment types for a specific sport type.
      *
      * @param sportType The sport type to filter equipment types by.
-     * @return A list of borrowable equipment types matching the sport type.
-     */
-    public ArrayList<EquipmentType> getBorrowableTypesBySportType(String sportType) {
-        ArrayList<EquipmentType> targetTypes = new ArrayList<>();
-        
-        for (EquipmentType type: borrowableTypes) {
-          if (type.getSportType().equals(sportType)) {
-            targetTypes.add(type);
-          }
-        }
-        return targetTypes;
-      }
+     * @return An unmodifiable list of borrowable equipment types matching the sport type.
+     */
+    public List<EquipmentType> getBorrowableTypesBySportType(String sportType) {
+        return getTypeIndex().getTypes(EquipmentCategory.BORROWABLE, sportType);
+    }
 
     /**
      * Retrieves sellable equipment types for a specific sport type.
      *
      * @param sportType The sport type to filter equipment types by.
-     * @return A list of sellable equipment types matching the sport type.
-     */
-    public ArrayList<EquipmentType> getSellableTypesBySportType(String sportType) {
-        ArrayList<EquipmentType> targetTypes = new ArrayList<>();
-        
-        for (EquipmentType type: sellableTypes) {
-          if (type.getSportType().equals(sportType)) {
-            targetTypes.add(type);
-          }
-        }
-        return targetTypes;
-      }
+     * @return An unmodifiable list of sellable equipment types matching the sport type.
+     */
+    public List<EquipmentType> getSellableTypesBySportType(String sportType) {
+        return getTypeIndex().getTypes(EquipmentCategory.SELLABLE, sportType);
+    }
 
     /**
      * Adds a new borrowable equipment type.
      *
      * @param type The equipment type to add as borrowable.
      */
-    public void addBorrowableType(EquipmentType type) {
+    public synchronized void addBorrowableType(EquipmentType type) {
         borrowableTypes.add(type);
         type.setCategory(EquipmentCategory.BORROWABLE);
+        typeIndex = new TypeIndex(borrowableTypes, sellableTypes);
     }
 
     /**
@@ -114,9 +194,38 @@ public class EquipmentTypeManager {
      *
      * @param type The equipment type to add as sellable.
      */
-    public void addSellableType(EquipmentType type) {
+    public synchronized void addSellableType(EquipmentType type) {
         sellableTypes.add(type);
         type.setCategory(EquipmentCategory.SELLABLE);
+        typeIndex = new TypeIndex(borrowableTypes, sellableTypes);
+    }
+
+    /**
+     * Removes a borrowable equipment type.
+     *
+     * @param type The equipment type to remove.
+     * @return true if the type was borrowable, false otherwise.
+     */
+    public synchronized boolean removeBorrowableType(EquipmentType type) {
+        if (!borrowableTypes.remove(type)) {
+            return false;
+        }
+        typeIndex = new TypeIndex(borrowableTypes, sellableTypes);
+        return true;
+    }
+
+    /**
+     * Removes a sellable equipment type.
+     *
+     * @param type The equipment type to remove.
+     * @return true if the type was sellable, false otherwise.
+     */
+    public synchronized boolean removeSellableType(EquipmentType type) {
+        if (!sellableTypes.remove(type)) {
+            return false;
+        }
+        typeIndex = new TypeIndex(borrowableTypes, sellableTypes);
+        return true;
     }
 
     /**
@@ -136,25 +245,24 @@ public class EquipmentTypeManager {
      * @return The equipment type matching the ID, or null if not found.
      */
     public EquipmentType getEquipmentTypeByID(String ID) {
-        ID = ID.toUpperCase();
-        EquipmentType result = null;
-        
-        for (EquipmentType type: borrowableTypes) {
-          if (type.getEquipmentTypeID().equals(ID)) {result = type;}
-        }
-        
-        for (EquipmentType type: sellableTypes) {
-          if (type.getEquipmentTypeID().equals(ID)) {result = type;}
-        }
-
-        return result;
+        return getTypeIndex().typesById.get(ID.toUpperCase());
     }
 
     /**
      * Resets the manager, clearing all borrowable and sellable types.
      */
-    public void reset() {
+    public synchronized void reset() {
         borrowableTypes.clear();
         sellableTypes.clear();
+        typeIndex = new TypeIndex(borrowableTypes, sellableTypes);
+    }
+
+    /**
+     * Retrieves the index of the current types.
+     *
+     * @return The current type index.
+     */
+    private TypeIndex getTypeIndex() {
+        return typeIndex;
     }
 }
\ No newline at end of file
@@ -1,19 +1,29 @@
 package sportapp.manager;
 
 
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
+import sportapp.Clock;
 import sportapp.User;
 import sportapp.UserCollection;
+import sportapp.model.BookRecord;
 import sportapp.model.BookingStatus;
+import sportapp.model.BookingStatusListener;
 import sportapp.model.FacilityBookRecord;
+import sportapp.model.ReservationResult;
+import sportapp.model.SportFacility;
 
 /**
  * Manages booking records for facilities.
  * <p>
  * This singleton class provides methods to add, remove, and retrieve booking records
- * for facilities, ensuring centralized management and sorting of records.
+ * for facilities, ensuring centralized management and ordering of records.
  */
 public class FacilityBookManager {
 
@@ -22,16 +32,86 @@ public class FacilityBookManager {
      */
     private static final FacilityBookManager instance = new FacilityBookManager();
 
+    static {
+        // run on the clock in use only, so a simulated clock that is not installed leaves the records alone
+        Clock.scheduleOnClockInUse(instance::expireEndedBookings, Duration.ofHours(1));
+        Clock.scheduleOnClockInUse(instance::releaseExpiredHolds, Duration.ofMinutes(1));
+    }
+
+    /**
+     * Facility booking records ordered by date and start hour.
+     */
+    private BookRecordTimeline<FacilityBookRecord> bookingRecords;
+
+    /**
+     * Index of booking records and occupied hours by facility and date.
+     */
+    private FacilityOccupancyIndex occupancyIndex;
+
+    /**
+     * Index of booking records by user and status.
+     */
+    private UserBookingIndex<FacilityBookRecord> userIndex;
+
+    /**
+     * Booking records ordered by the time their booking ends.
+     */
+    private BookingExpiryQueue<FacilityBookRecord> expiryQueue;
+
+    /**
+     * PENDING booking records ordered by the time their hold expires.
+     */
+    private BookingExpiryQueue<FacilityBookRecord> holdQueue;
+
+    /**
+     * Listeners notified when the status of a managed booking record changes.
+     */
+    private CopyOnWriteArrayList<BookingStatusListener> statusListeners;
+
+    /**
+     * Listener registered on every managed booking record to keep the user index current.
+     */
+    private BookingStatusListener recordListener;
+
     /**
-     * List of facility booking records.
+     * Journal receiving every change to the booking records.
      */
-    private ArrayList<FacilityBookRecord> bookingRecords;
+    private volatile ChangeJournal journal;
 
     /**
      * Private constructor to enforce singleton pattern.
      */
     private FacilityBookManager() {
-        bookingRecords = new ArrayList<>();
+        bookingRecords = new BookRecordTimeline<>();
+        occupancyIndex = new FacilityOccupancyIndex();
+        userIndex = new UserBookingIndex<>();
+        expiryQueue = new BookingExpiryQueue<>();
+        holdQueue = new BookingExpiryQueue<>(PendingHoldPolicy.getInstance()::getHoldDeadline);
+        statusListeners = new CopyOnWriteArrayList<>();
+        journal = ChangeJournal.NONE;
+        recordListener = new BookingStatusListener() {
+            @Override
+            public void onStatusChange(BookRecord record, BookingStatus oldStatus, BookingStatus newStatus) {
+                userIndex.move((FacilityBookRecord) record, oldStatus);
+                if (oldStatus == BookingStatus.PENDING) {
+                    holdQueue.cancel((FacilityBookRecord) record);
+                    if (newStatus == BookingStatus.CONFIRMED) {
+                        PendingHoldPolicy.getInstance().holdConverted();
+                    }
+                }
+                try {
+                    // queued under the record lock to keep its changes in order; see ChangeJournal
+                    journal.onStatusChange(record, oldStatus, newStatus);
+                } finally {
+                    fireStatusChange(record, oldStatus, newStatus);
+                }
+            }
+
+            @Override
+            public void afterStatusChange(BookRecord record) {
+                awaitJournal(record);
+            }
+        };
     }
 
     /**
@@ -44,7 +124,7 @@ public class FacilityBookManager {
     }
 
     /**
-     * Adds a booking record to the collection and sorts the records.
+     * Adds a booking record to the collection at its position in date and start hour order.
      *
      * @param bookingRecord The booking record to add.
      * @throws IllegalArgumentException If the booking record is null or already exists.
@@ -57,7 +137,44 @@ public class FacilityBookManager {
             throw new IllegalArgumentException("Booking record already exists");
         }
         bookingRecords.add(bookingRecord);
-        sortCollection();
+        occupancyIndex.add(bookingRecord);
+        track(bookingRecord);
+    }
+
+    /**
+     * Reserves a facility for a time slot if none of the requested hours are taken.
+     * <p>
+     * The conflict check and the insert happen as one atomic step under the lock of the
+     * facility, so two users can never book overlapping hours of the same facility, while
+     * bookings of different facilities do not wait for each other.
+     *
+     * @param facility The facility to reserve.
+     * @param date The date of the reservation.
+     * @param startHour The start hour of the reservation.
+     * @param endHour The end hour of the reservation.
+     * @param user The user making the reservation.
+     * @return The result holding the new pending booking record, or the reason it was not created.
+     * @throws IllegalArgumentException If the facility, date or user is null.
+     */
+    public ReservationResult<FacilityBookRecord> tryReserve(SportFacility facility, LocalDate date, int startHour, int endHour, User user) throws IllegalArgumentException {
+        if(facility == null || date == null || user == null) {
+            throw new IllegalArgumentException("Facility, date and user cannot be null");
+        }
+        if(!SportFacilityManager.getInstance().checkFacilityExist(facility) || facility.getStatus() != SportFacility.Status.AVAILABLE) {
+            return ReservationResult.rejected(ReservationResult.Outcome.UNAVAILABLE);
+        }
+        if(startHour < 9 || endHour > 21 || startHour >= endHour) {
+            return ReservationResult.rejected(ReservationResult.Outcome.INVALID_TIME_SLOT);
+        }
+
+        FacilityBookRecord bookingRecord = new FacilityBookRecord(facility, user, date, startHour, endHour, BookingStatus.PENDING);
+        ArrayList<FacilityBookRecord> conflicts = occupancyIndex.tryAdd(bookingRecord);
+        if(!conflicts.isEmpty()) {
+            return ReservationResult.conflict(conflicts);
+        }
+        bookingRecords.add(bookingRecord);
+        track(bookingRecord);
+        return ReservationResult.reserved(bookingRecord);
     }
 
     /**
@@ -67,10 +184,163 @@ public class FacilityBookManager {
      * @throws IllegalArgumentException If the booking record is null or does not exist.
      */
     public void removeBooking(FacilityBookRecord bookingRecord) throws IllegalArgumentException {
-        if(bookingRecord == null || !bookingRecords.contains(bookingRecord)) {
+        if(bookingRecord == null) {
             throw new IllegalArgumentException("Booking record does not exist");
         }
-        bookingRecords.remove(bookingRecord);
+        // a move of the same record at the same time also locks the record
+        synchronized (bookingRecord) {
+            if(!bookingRecords.remove(bookingRecord)) {
+                throw new IllegalArgumentException("Booking record does not exist");
+            }
+            occupancyIndex.remove(bookingRecord);
+            bookingRecord.setStatusListener(null);
+            userIndex.remove(bookingRecord);
+            expiryQueue.cancel(bookingRecord);
+            holdQueue.cancel(bookingRecord);
+            journal.recordRemoved(bookingRecord);
+            fireStatusChange(bookingRecord, bookingRecord.getStatus(), null);
+        }
+        awaitJournal(bookingRecord);
+    }
+
+    /**
+     * Moves a booking record to a new date and time slot, keeping the occupancy index in sync.
+     * <p>
+     * This method does not check the availability of the new time slot.
+     *
+     * @param bookingRecord The booking record to update.
+     * @param newDate The new date of the booking.
+     * @param newStartHour The new start hour of the booking.
+     * @param newEndHour The new end hour of the booking.
+     * @throws IllegalArgumentException If the booking record is null.
+     */
+    public void updateBookingDateTime(FacilityBookRecord bookingRecord, LocalDate newDate, int newStartHour, int newEndHour) throws IllegalArgumentException {
+        if(bookingRecord == null) {
+            throw new IllegalArgumentException("Booking record cannot be null");
+        }
+        synchronized (bookingRecord) {
+            boolean isManaged = bookingRecords.contains(bookingRecord);
+            if(isManaged) {
+                occupancyIndex.remove(bookingRecord);
+            }
+            bookingRecord.setDate(newDate);
+            bookingRecord.setStartHour(newStartHour);
+            bookingRecord.setEndHour(newEndHour);
+            if(isManaged) {
+                occupancyIndex.add(bookingRecord);
+                bookingRecords.reposition(bookingRecord);
+                expiryQueue.schedule(bookingRecord);
+                journal.recordUpdated(bookingRecord);
+            }
+        }
+        awaitJournal(bookingRecord);
+    }
+
+    /**
+     * Moves a booking record to a new date and time slot if none of the new hours are taken.
+     * <p>
+     * The conflict check and the move happen as one atomic step under the lock of the
+     * facility, so two users rescheduling into the same hours can never both succeed. The
+     * record is locked as well, so a removal of the same record waits for the move.
+     *
+     * @param bookingRecord The booking record to update.
+     * @param newDate The new date of the booking.
+     * @param newStartHour The new start hour of the booking.
+     * @param newEndHour The new end hour of the booking.
+     * @return The result holding the moved booking record, or the reason it was not moved.
+     * @throws IllegalArgumentException If the booking record or date is null.
+     */
+    public ReservationResult<FacilityBookRecord> tryUpdateBookingDateTime(FacilityBookRecord bookingRecord, LocalDate newDate, int newStartHour, int newEndHour) throws IllegalArgumentException {
+        if(bookingRecord == null || newDate == null) {
+            throw new IllegalArgumentException("Booking record and date cannot be null");
+        }
+        if(newStartHour < 9 || newEndHour > 21 || newStartHour >= newEndHour) {
+            return ReservationResult.rejected(ReservationResult.Outcome.INVALID_TIME_SLOT);
+        }
+        synchronized (bookingRecord) {
+            boolean isManaged = bookingRecords.contains(bookingRecord);
+            ArrayList<FacilityBookRecord> conflicts = occupancyIndex.tryMove(bookingRecord, newDate, newStartHour, newEndHour, isManaged);
+            if(!conflicts.isEmpty()) {
+                return ReservationResult.conflict(conflicts);
+            }
+            if(isManaged) {
+                bookingRecords.reposition(bookingRecord);
+                expiryQueue.schedule(bookingRecord);
+                journal.recordUpdated(bookingRecord);
+            }
+        }
+        awaitJournal(bookingRecord);
+        return ReservationResult.reserved(bookingRecord);
+    }
+
+    /**
+     * Moves a booking record to another facility and time slot if none of the new hours are taken.
+     * <p>
+     * The conflict check and the move happen as one atomic step under the locks of both the old
+     * and the new facility, so two users moving bookings onto the same facility and hours can
+     * never both succeed. If the move is rejected, the record keeps its facility and time slot.
+     * The record is locked as well, so a removal of the same record waits for the move.
+     *
+     * @param bookingRecord The booking record to update.
+     * @param newFacility The new facility of the booking.
+     * @param newDate The new date of the booking.
+     * @param newStartHour The new start hour of the booking.
+     * @param newEndHour The new end hour of the booking.
+     * @return The result holding the moved booking record, or the reason it was not moved.
+     * @throws IllegalArgumentException If the booking record, facility or date is null.
+     */
+    public ReservationResult<FacilityBookRecord> tryUpdateBookingFacility(FacilityBookRecord bookingRecord, SportFacility newFacility, LocalDate newDate, int newStartHour, int newEndHour) throws IllegalArgumentException {
+        if(bookingRecord == null || newFacility == null || newDate == null) {
+            throw new IllegalArgumentException("Booking record, facility and date cannot be null");
+        }
+        if(!SportFacilityManager.getInstance().checkFacilityExist(newFacility) || newFacility.getStatus() != SportFacility.Status.AVAILABLE) {
+            return ReservationResult.rejected(ReservationResult.Outcome.UNAVAILABLE);
+        }
+        if(newStartHour < 9 || newEndHour > 21 || newStartHour >= newEndHour) {
+            return ReservationResult.rejected(ReservationResult.Outcome.INVALID_TIME_SLOT);
+        }
+        synchronized (bookingRecord) {
+            boolean isManaged = bookingRecords.contains(bookingRecord);
+            ArrayList<FacilityBookRecord> conflicts = occupancyIndex.tryMove(bookingRecord, newFacility, newDate, newStartHour, newEndHour, isManaged);
+            if(!conflicts.isEmpty()) {
+                return ReservationResult.conflict(conflicts);
+            }
+            if(isManaged) {
+                bookingRecords.reposition(bookingRecord);
+                expiryQueue.schedule(bookingRecord);
+                journal.recordUpdated(bookingRecord);
+            }
+        }
+        awaitJournal(bookingRecord);
+        return ReservationResult.reserved(bookingRecord);
+    }
+
+    /**
+     * Moves a booking record to another facility, keeping the occupancy index in sync.
+     * <p>
+     * This method does not check the availability of the new facility; it is meant for
+     * replaying saved changes. Sessions use {@link #tryUpdateBookingFacility}.
+     *
+     * @param bookingRecord The booking record to update.
+     * @param newFacility The new facility of the booking.
+     * @throws IllegalArgumentException If the booking record is null.
+     */
+    public void updateBookingFacility(FacilityBookRecord bookingRecord, SportFacility newFacility) throws IllegalArgumentException {
+        if(bookingRecord == null) {
+            throw new IllegalArgumentException("Booking record cannot be null");
+        }
+        synchronized (bookingRecord) {
+            boolean isManaged = bookingRecords.contains(bookingRecord);
+            if(isManaged) {
+                occupancyIndex.remove(bookingRecord);
+            }
+            bookingRecord.setSportFacility(newFacility);
+            if(isManaged) {
+                occupancyIndex.add(bookingRecord);
+                journal.recordUpdated(bookingRecord);
+            }
+        }
+        awaitJournal(bookingRecord);
     }
     
     /**
@@ -89,11 +359,49 @@ public class FacilityBookManager {
 
     /**
      * Retrieves all booking records.
+     * <p>
+     * The returned list is an unmodifiable copy taken at the time of the call, in date and
+     * start hour order; use {@link #reset()} to clear the manager.
      *
-     * @return An ArrayList of all booking records.
+     * @return A list of all booking records.
      */
-    public ArrayList<FacilityBookRecord> getBookingRecords() {
-        return bookingRecords;
+    public List<FacilityBookRecord> getBookingRecords() {
+        return Collections.unmodifiableList(bookingRecords.toList());
+    }
+
+    /**
+     * Retrieves the booking records dated within a range, in date and start hour order.
+     *
+     * @param fromDate The first date of the range (inclusive).
+     * @param toDate The last date of the range (inclusive).
+     * @return An ArrayList of the booking records within the range.
+     */
+    public ArrayList<FacilityBookRecord> getBookingRecordsBetween(LocalDate fromDate, LocalDate toDate) {
+        return bookingRecords.getRange(fromDate, toDate);
+    }
+
+    /**
+     * Retrieves the booking records of a facility on a given date.
+     *
+     * @param facility The facility to look up.
+     * @param date The date to look up.
+     * @return An ArrayList of the matching booking records.
+     */
+    public ArrayList<FacilityBookRecord> getBookingRecordsByDate(SportFacility facility, LocalDate date) {
+        return occupancyIndex.getRecords(facility, date);
+    }
+
+    /**
+     * Retrieves the hour-occupancy bitmap of a facility on a given date.
+     * <p>
+     * Bit {@code h} is set when the hour from {@code h}:00 to {@code h+1}:00 is booked.
+     *
+     * @param facility The facility to look up.
+     * @param date The date to look up.
+     * @return The bitmap of the occupied hours.
+     */
+    public int getOccupiedHours(SportFacility facility, LocalDate date) {
+        return occupancyIndex.getOccupiedHours(facility, date);
     }
 
     /**
@@ -104,22 +412,8 @@ public class FacilityBookManager {
      * @throws IllegalArgumentException If the user is null or does not exist.
      */
     public ArrayList<FacilityBookRecord> getUserBooking(User user) throws IllegalArgumentException {
-        if(user == null) {
-            throw new IllegalArgumentException("User cannot be null");
-        }
-
-        if(!UserCollection.getInstance().checkUserExist(user)) {
-            throw new IllegalArgumentException("User does not exist");
-        }
-
-        ArrayList<FacilityBookRecord> bookingRecords = new ArrayList<>();
-        for(FacilityBookRecord facilityBookRecord : getBookingRecords()) {
-            //need to be confirm the facility book record status name
-            if(facilityBookRecord.getUser() == user && facilityBookRecord.getStatus() == BookingStatus.PENDING) {
-                bookingRecords.add(facilityBookRecord);
-            }
-        }
-        return bookingRecords;
+        checkUser(user);
+        return userIndex.get(user, BookingStatus.PENDING);
     }
     
     /**
@@ -130,35 +424,187 @@ public class FacilityBookManager {
      * @throws IllegalArgumentException If the user is null or does not exist.
      */
     public ArrayList<FacilityBookRecord> getUserConfirmedBooking(User user) throws IllegalArgumentException {
-        if(user == null) {
-            throw new IllegalArgumentException("User cannot be null");
-        }
+        checkUser(user);
+        return userIndex.get(user, BookingStatus.CONFIRMED);
+    }
 
-        if(!UserCollection.getInstance().checkUserExist(user)) {
-            throw new IllegalArgumentException("User does not exist");
-        }
+    /**
+     * Retrieves the booking records of a specific user with a given status, in date and start hour order.
+     *
+     * @param user The user whose bookings are to be retrieved.
+     * @param status The status of the bookings.
+     * @return An ArrayList of the user's booking records with the status.
+     */
+    public ArrayList<FacilityBookRecord> getUserBookingRecords(User user, BookingStatus status) {
+        return userIndex.get(user, status);
+    }
+
+    /**
+     * Retrieves all booking records of a specific user, in date and start hour order.
+     *
+     * @param user The user whose bookings are to be retrieved.
+     * @return An ArrayList of the user's booking records.
+     */
+    public ArrayList<FacilityBookRecord> getUserBookingRecords(User user) {
+        return userIndex.get(user);
+    }
+
+    /**
+     * Adds a listener notified when the status of any managed booking record changes.
+     * <p>
+     * A record joining the manager is reported as a change from a null status, and a record
+     * leaving it as a change to a null status, so listeners can keep their own views current.
+     *
+     * @param listener The listener to add.
+     */
+    public void addStatusListener(BookingStatusListener listener) {
+        statusListeners.add(listener);
+    }
+
+    /**
+     * Removes a status listener.
+     *
+     * @param listener The listener to remove.
+     */
+    public void removeStatusListener(BookingStatusListener listener) {
+        statusListeners.remove(listener);
+    }
+
+    /**
+     * Sets the journal receiving every change to the booking records.
+     *
+     * @param journal The journal, or null to stop journaling.
+     */
+    public void setJournal(ChangeJournal journal) {
+        this.journal = (journal == null) ? ChangeJournal.NONE : journal;
+    }
+
+    /**
+     * Restores the order of booking records whose date or start hour was changed directly.
+     * <p>
+     * Updates made through {@link #updateBookingDateTime} keep the order without calling this.
+     */
+    public void sortCollection() {
+        bookingRecords.repositionAll();
+        expiryQueue.rescheduleAll();
+    }
 
-        ArrayList<FacilityBookRecord> bookingRecords = new ArrayList<>();
-        for(FacilityBookRecord facilityBookRecord : getBookingRecords()) {
-            //need to be confirm the facility book record status name
-            if(facilityBookRecord.getUser() == user && facilityBookRecord.getStatus() == BookingStatus.CONFIRMED) {
-                bookingRecords.add(facilityBookRecord);
+    /**
+     * Releases the PENDING booking records whose hold expired at or before a given time.
+     * <p>
+     * The released records are removed, which frees their time slots. Only the records whose
+     * hold has expired are visited.
+     *
+     * @param now The current date and time.
+     * @return A list of the released booking records.
+     */
+    public ArrayList<FacilityBookRecord> releaseExpiredHolds(LocalDateTime now) {
+        ArrayList<FacilityBookRecord> released = new ArrayList<>();
+        for (FacilityBookRecord record : holdQueue.pollExpired(now)) {
+            // a payment confirming the record at the same time also locks the record
+            synchronized (record) {
+                if (record.getStatus() == BookingStatus.PENDING && bookingRecords.contains(record)) {
+                    removeBooking(record);
+                    released.add(record);
+                    PendingHoldPolicy.getInstance().holdExpired();
+                }
             }
         }
-        return bookingRecords;
+        journal.awaitDurable();
+        return released;
     }
 
     /**
-     * Sorts the collection of booking records.
+     * Marks the booking records that ended at or before a given time as ENDED.
+     * <p>
+     * Only the records whose end time has passed are visited.
+     *
+     * @param now The current date and time.
+     * @return A list of the records whose booking ended.
      */
-    public void sortCollection() {
-        Collections.sort(bookingRecords);
+    public ArrayList<FacilityBookRecord> expireEndedBookings(LocalDateTime now) {
+        ArrayList<FacilityBookRecord> ended = expiryQueue.pollExpired(now);
+        for (FacilityBookRecord record : ended) {
+            record.setStatus(BookingStatus.ENDED);
+        }
+        return ended;
     }
 
     /**
      * Resets the manager by clearing all booking records.
+     * <p>
+     * Status listeners are told that every record left the manager.
      */
     public void reset() {
+        ArrayList<FacilityBookRecord> removed = new ArrayList<>();
+        for (FacilityBookRecord bookingRecord : bookingRecords) {
+            removed.add(bookingRecord);
+        }
         bookingRecords.clear();
+        occupancyIndex.clear();
+        userIndex.clear();
+        expiryQueue.clear();
+        holdQueue.clear();
+        for (FacilityBookRecord bookingRecord : removed) {
+            fireStatusChange(bookingRecord, bookingRecord.getStatus(), null);
+        }
+    }
+
+    /**
+     * Starts tracking the status, end time and hold of a newly added booking record.
+     *
+     * @param bookingRecord The booking record that was added.
+     */
+    private void track(FacilityBookRecord bookingRecord) {
+        bookingRecord.setStatusListener(recordListener);
+        userIndex.add(bookingRecord);
+        expiryQueue.schedule(bookingRecord);
+        if (bookingRecord.getStatus() == BookingStatus.PENDING) {
+            holdQueue.schedule(bookingRecord);
+            PendingHoldPolicy.getInstance().holdCreated();
+        }
+        journal.recordAdded(bookingRecord);
+        fireStatusChange(bookingRecord, null, bookingRecord.getStatus());
+    }
+
+    /**
+     * Waits for the journal to make the changes of a booking record durable, unless the record
+     * is still locked by a caller further up, which then waits once it releases the lock.
+     *
+     * @param record The booking record that changed.
+     */
+    private void awaitJournal(BookRecord record) {
+        if (!Thread.holdsLock(record)) {
+            journal.awaitDurable();
+        }
+    }
+
+    /**
+     * Notifies the status listeners of a change to a managed booking record.
+     *
+     * @param record The booking record that changed.
+     * @param oldStatus The previous status, or null if the record was added.
+     * @param newStatus The new status, or null if the record was removed.
+     */
+    private void fireStatusChange(BookRecord record, BookingStatus oldStatus, BookingStatus newStatus) {
+        for (BookingStatusListener listener : statusListeners) {
+            listener.onStatusChange(record, oldStatus, newStatus);
+        }
+    }
+
+    /**
+     * Checks that a user is not null and exists.
+     *
+     * @param user The user to check.
+     * @throws IllegalArgumentException If the user is null or does not exist.
+     */
+    private void checkUser(User user) throws IllegalArgumentException {
+        if(user == null) {
+            throw new IllegalArgumentException("User cannot be null");
+        }
+
+        if(!UserCollection.getInstance().checkUserExist(user)) {
+            throw new IllegalArgumentException("User does not exist");
+        }
     }
 }
@@ -0,0 +1,325 @@
+package sportapp.manager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+
+import sportapp.model.FacilityBookRecord;
+import sportapp.model.HourSlots;
+import sportapp.model.SportFacility;
+
+/**
+ * Index of facility booking records keyed by sport facility and date.
+ * <p>
+ * Every (facility, date) entry keeps the booking records of that day together with an
+ * hour-occupancy bitmap, where bit {@code h} is set when the hour from {@code h}:00 to
+ * {@code h+1}:00 is taken. Availability queries therefore only look at a single int
+ * instead of scanning the whole booking collection.
+ * <p>
+ * Writes to a facility are serialized by one of a fixed set of striped locks, so bookings
+ * for different facilities proceed in parallel while the conflict check and insert of
+ * {@link #tryAdd} stay atomic for a single facility. A move to another facility holds the
+ * stripes of both facilities, always taken in stripe order so two opposite moves cannot
+ * deadlock.
+ */
+public class FacilityOccupancyIndex {
+
+    /**
+     * Number of lock stripes shared by the facilities.
+     */
+    private static final int LOCK_STRIPES = 64;
+
+    /**
+     * Booking records and occupancy bitmap of one facility on one day.
+     */
+    private static class DayEntry {
+
+        /**
+         * Booking records of the facility on the day.
+         */
+        private ArrayList<FacilityBookRecord> records = new ArrayList<>();
+
+        /**
+         * Bitmap of the occupied hours.
+         */
+        private volatile int occupiedHours = 0;
+
+        /**
+         * Rebuilds the bitmap from the remaining records.
+         */
+        private void recalculate() {
+            int hours = 0;
+            for (FacilityBookRecord record : records) {
+                hours |= HourSlots.hourMask(record.getStartHour(), record.getEndHour());
+            }
+            occupiedHours = hours;
+        }
+    }
+
+    /**
+     * Day entries grouped by facility, then by date.
+     */
+    private ConcurrentHashMap<SportFacility, ConcurrentHashMap<LocalDate, DayEntry>> index;
+
+    /**
+     * Locks guarding the writes of the facilities mapped to each stripe.
+     */
+    private Object[] locks;
+
+    /**
+     * Constructs an empty occupancy index.
+     */
+    public FacilityOccupancyIndex() {
+        index = new ConcurrentHashMap<>();
+        locks = new Object[LOCK_STRIPES];
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Adds a booking record to the index using its current facility, date and hours.
+     *
+     * @param record The booking record to add.
+     */
+    public void add(FacilityBookRecord record) {
+        synchronized (lockFor(record.getSportFacility())) {
+            DayEntry entry = getOrCreateEntry(record.getSportFacility(), record.getDate());
+            entry.records.add(record);
+            entry.occupiedHours |= HourSlots.hourMask(record.getStartHour(), record.getEndHour());
+        }
+    }
+
+    /**
+     * Adds a booking record only if none of its hours are taken, as one atomic step.
+     *
+     * @param record The booking record to add.
+     * @return An empty list if the record was added, otherwise the records it overlaps with.
+     */
+    public ArrayList<FacilityBookRecord> tryAdd(FacilityBookRecord record) {
+        int mask = HourSlots.hourMask(record.getStartHour(), record.getEndHour());
+        synchronized (lockFor(record.getSportFacility())) {
+            DayEntry entry = getOrCreateEntry(record.getSportFacility(), record.getDate());
+            ArrayList<FacilityBookRecord> conflicts = new ArrayList<>();
+            if ((entry.occupiedHours & mask) != 0) {
+                for (FacilityBookRecord existing : entry.records) {
+                    if ((HourSlots.hourMask(existing.getStartHour(), existing.getEndHour()) & mask) != 0) {
+                        conflicts.add(existing);
+                    }
+                }
+                return conflicts;
+            }
+            entry.records.add(record);
+            entry.occupiedHours |= mask;
+            return conflicts;
+        }
+    }
+
+    /**
+     * Moves a booking record to a new date and time slot of its facility only if none of the
+     * new hours are taken by other records, as one atomic step.
+     * <p>
+     * The date and hours of the record are changed under the lock of the facility. A record
+     * that is not indexed is only checked and changed, not added.
+     *
+     * @param record The booking record to move.
+     * @param date The new date of the booking.
+     * @param startHour The new start hour of the booking.
+     * @param endHour The new end hour of the booking.
+     * @param isIndexed true if the record is in the index.
+     * @return An empty list if the record was moved, otherwise the records it would overlap with.
+     */
+    public ArrayList<FacilityBookRecord> tryMove(FacilityBookRecord record, LocalDate date, int startHour, int endHour, boolean isIndexed) {
+        while (true) {
+            SportFacility facility = record.getSportFacility();
+            synchronized (lockFor(facility)) {
+                if (record.getSportFacility() == facility) {
+                    return moveLocked(record, facility, date, startHour, endHour, isIndexed);
+                }
+            }
+            // moved to another facility before the lock was taken
+        }
+    }
+
+    /**
+     * Moves a booking record to a facility, date and time slot only if none of the new hours
+     * are taken by other records, as one atomic step.
+     * <p>
+     * The facility, date and hours of the record are changed while holding the stripes of both
+     * the old and the new facility. A record that is not indexed is only checked and changed,
+     * not added.
+     *
+     * @param record The booking record to move.
+     * @param facility The new facility of the booking.
+     * @param date The new date of the booking.
+     * @param startHour The new start hour of the booking.
+     * @param endHour The new end hour of the booking.
+     * @param isIndexed true if the record is in the index.
+     * @return An empty list if the record was moved, otherwise the records it would overlap with.
+     */
+    public ArrayList<FacilityBookRecord> tryMove(FacilityBookRecord record, SportFacility facility, LocalDate date, int startHour, int endHour, boolean isIndexed) {
+        while (true) {
+            SportFacility oldFacility = record.getSportFacility();
+            int oldStripe = stripeOf(oldFacility);
+            int newStripe = stripeOf(facility);
+            synchronized (locks[Math.min(oldStripe, newStripe)]) {
+                synchronized (locks[Math.max(oldStripe, newStripe)]) {
+                    if (record.getSportFacility() == oldFacility) {
+                        return moveLocked(record, facility, date, startHour, endHour, isIndexed);
+                    }
+                }
+            }
+            // moved to another facility before the locks were taken
+        }
+    }
+
+    /**
+     * Checks the new slot and moves the record.
+     * Must be called while holding the stripes of the old and the new facility.
+     *
+     * @param record The booking record to move.
+     * @param facility The new facility of the booking.
+     * @param date The new date of the booking.
+     * @param startHour The new start hour of the booking.
+     * @param endHour The new end hour of the booking.
+     * @param isIndexed true if the record is in the index.
+     * @return An empty list if the record was moved, otherwise the records it would overlap with.
+     */
+    private ArrayList<FacilityBookRecord> moveLocked(FacilityBookRecord record, SportFacility facility, LocalDate date, int startHour, int endHour, boolean isIndexed) {
+        int mask = HourSlots.hourMask(startHour, endHour);
+        ArrayList<FacilityBookRecord> conflicts = new ArrayList<>();
+        DayEntry entry = getEntry(facility, date);
+        if ((entry != null) && ((entry.occupiedHours & mask) != 0)) {
+            for (FacilityBookRecord existing : entry.records) {
+                if ((existing != record) && ((HourSlots.hourMask(existing.getStartHour(), existing.getEndHour()) & mask) != 0)) {
+                    conflicts.add(existing);
+                }
+            }
+            if (!conflicts.isEmpty()) {
+                return conflicts;
+            }
+        }
+
+        if (isIndexed) {
+            remove(record);
+        }
+        record.setSportFacility(facility);
+        record.setDate(date);
+        record.setStartHour(startHour);
+        record.setEndHour(endHour);
+        if (isIndexed) {
+            add(record);
+        }
+        return conflicts;
+    }
+
+    /**
+     * Removes a booking record from the index using its current facility and date.
+     *
+     * @param record The booking record to remove.
+     */
+    public void remove(FacilityBookRecord record) {
+        SportFacility facility = record.getSportFacility();
+        synchronized (lockFor(facility)) {
+            ConcurrentHashMap<LocalDate, DayEntry> days = index.get(facility);
+            if (days == null) {
+                return;
+            }
+            DayEntry entry = days.get(record.getDate());
+            if (entry == null || !entry.records.remove(record)) {
+                return;
+            }
+
+            if (entry.records.isEmpty()) {
+                days.remove(record.getDate());
+                if (days.isEmpty()) {
+                    index.remove(facility);
+                }
+            } else {
+                entry.recalculate();
+            }
+        }
+    }
+
+    /**
+     * Retrieves the booking records of a facility on a given date.
+     *
+     * @param facility The facility to look up.
+     * @param date The date to look up.
+     * @return A new list of the matching booking records.
+     */
+    public ArrayList<FacilityBookRecord> getRecords(SportFacility facility, LocalDate date) {
+        synchronized (lockFor(facility)) {
+            DayEntry entry = getEntry(facility, date);
+            if (entry == null) {
+                return new ArrayList<>();
+            }
+            return new ArrayList<>(entry.records);
+        }
+    }
+
+    /**
+     * Retrieves the hour-occupancy bitmap of a facility on a given date.
+     *
+     * @param facility The facility to look up.
+     * @param date The date to look up.
+     * @return The bitmap of the occupied hours, or 0 if the facility is free all day.
+     */
+    public int getOccupiedHours(SportFacility facility, LocalDate date) {
+        DayEntry entry = getEntry(facility, date);
+        return (entry == null) ? 0 : entry.occupiedHours;
+    }
+
+    /**
+     * Clears the index.
+     */
+    public void clear() {
+        index.clear();
+    }
+
+    /**
+     * Finds the day entry of a facility on a given date.
+     *
+     * @param facility The facility to look up.
+     * @param date The date to look up.
+     * @return The day entry, or null if there is no booking.
+     */
+    private DayEntry getEntry(SportFacility facility, LocalDate date) {
+        ConcurrentHashMap<LocalDate, DayEntry> days = index.get(facility);
+        return (days == null) ? null : days.get(date);
+    }
+
+    /**
+     * Finds or creates the day entry of a facility on a given date.
+     * Must be called while holding the lock of the facility.
+     *
+     * @param facility The facility to look up.
+     * @param date The date to look up.
+     * @return The day entry.
+     */
+    private DayEntry getOrCreateEntry(SportFacility facility, LocalDate date) {
+        return index
+            .computeIfAbsent(facility, key -> new ConcurrentHashMap<>())
+            .computeIfAbsent(date, key -> new DayEntry());
+    }
+
+    /**
+     * Retrieves the lock stripe of a facility.
+     *
+     * @param facility The facility.
+     * @return The lock guarding the facility.
+     */
+    private Object lockFor(SportFacility facility) {
+        return locks[stripeOf(facility)];
+    }
+
+    /**
+     * Retrieves the number of the lock stripe of a facility.
+     *
+     * @param facility The facility.
+     * @return The stripe number.
+     */
+    private static int stripeOf(SportFacility facility) {
+        return (facility.hashCode() & 0x7fffffff) % LOCK_STRIPES;
+    }
+}
@@ -0,0 +1,161 @@
+package sportapp.manager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+import sportapp.model.BookRecord;
+
+/**
+ * Holds the time-to-live of unpaid PENDING bookings and counts what happens to them.
+ * <p>
+ * A PENDING booking blocks its facility or equipment until it is paid. Once it has been
+ * pending for longer than the hold TTL, the booking managers release it so the slot can be
+ * booked again.
+ * <p>
+ * The counters cover the current run of the application. Bookings restored from disk on
+ * startup are not counted; see {@link sportapp.persistence.DataStore#recover}.
+ */
+public class PendingHoldPolicy {
+
+    /**
+     * Default time a PENDING booking is held before it is released.
+     */
+    public static final Duration DEFAULT_HOLD_TTL = Duration.ofMinutes(15);
+
+    /**
+     * Singleton instance of PendingHoldPolicy.
+     */
+    private static final PendingHoldPolicy instance = new PendingHoldPolicy();
+
+    /**
+     * Time a PENDING booking is held before it is released.
+     */
+    private volatile Duration holdTtl;
+
+    /**
+     * Number of PENDING bookings added to the managers.
+     */
+    private AtomicLong holdsCreated;
+
+    /**
+     * Number of PENDING bookings released because their hold expired.
+     */
+    private AtomicLong holdsExpired;
+
+    /**
+     * Number of PENDING bookings that were confirmed.
+     */
+    private AtomicLong holdsConverted;
+
+    /**
+     * Private constructor to enforce singleton pattern.
+     */
+    private PendingHoldPolicy() {
+        holdTtl = DEFAULT_HOLD_TTL;
+        holdsCreated = new AtomicLong();
+        holdsExpired = new AtomicLong();
+        holdsConverted = new AtomicLong();
+    }
+
+    /**
+     * Retrieves the singleton instance of PendingHoldPolicy.
+     *
+     * @return The singleton instance of PendingHoldPolicy.
+     */
+    public static PendingHoldPolicy getInstance() {
+        return instance;
+    }
+
+    /**
+     * Retrieves the time a PENDING booking is held before it is released.
+     *
+     * @return The hold TTL.
+     */
+    public Duration getHoldTtl() {
+        return holdTtl;
+    }
+
+    /**
+     * Sets the time a PENDING booking is held before it is released.
+     * <p>
+     * A longer TTL applies to existing holds as well. A shorter TTL takes effect for existing
+     * holds once their previous deadline passes.
+     *
+     * @param holdTtl The new hold TTL.
+     * @throws IllegalArgumentException If the TTL is null, zero or negative.
+     */
+    public void setHoldTtl(Duration holdTtl) throws IllegalArgumentException {
+        if (holdTtl == null || holdTtl.isZero() || holdTtl.isNegative()) {
+            throw new IllegalArgumentException("Hold TTL must be positive");
+        }
+        this.holdTtl = holdTtl;
+    }
+
+    /**
+     * Retrieves the date and time the hold of a PENDING booking expires.
+     *
+     * @param record The booking record.
+     * @return The expiry date and time of the hold.
+     */
+    public LocalDateTime getHoldDeadline(BookRecord record) {
+        return record.getCreatedAt().plus(holdTtl);
+    }
+
+    /**
+     * Retrieves the number of PENDING bookings added to the managers.
+     *
+     * @return The number of holds created.
+     */
+    public long getHoldsCreated() {
+        return holdsCreated.get();
+    }
+
+    /**
+     * Retrieves the number of PENDING bookings released because their hold expired.
+     *
+     * @return The number of holds expired.
+     */
+    public long getHoldsExpired() {
+        return holdsExpired.get();
+    }
+
+    /**
+     * Retrieves the number of PENDING bookings that were confirmed.
+     *
+     * @return The number of holds converted.
+     */
+    public long getHoldsConverted() {
+        return holdsConverted.get();
+    }
+
+    /**
+     * Resets the counters to zero.
+     */
+    public void resetCounters() {
+        holdsCreated.set(0);
+        holdsExpired.set(0);
+        holdsConverted.set(0);
+    }
+
+    /**
+     * Counts a new hold.
+     */
+    void holdCreated() {
+        holdsCreated.incrementAndGet();
+    }
+
+    /**
+     * Counts an expired hold.
+     */
+    void holdExpired() {
+        holdsExpired.incrementAndGet();
+    }
+
+    /**
+     * Counts a confirmed hold.
+     */
+    void holdConverted() {
+        holdsConverted.incrementAndGet();
+    }
+}
@@ -0,0 +1,216 @@
+package sportapp.manager;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import sportapp.model.EquipmentType;
+
+/**
+ * Keeps the stock of sellable equipment types.
+ * <p>
+ * Units move from available to reserved while a sale is PENDING, and leave the ledger once it
+ * is CONFIRMED. A reservation takes units with a compare-and-set loop on the available count,
+ * so concurrent checkouts never lock and never take more units than are available.
+ * <p>
+ * Types whose stock was never set are not tracked: every reservation for them succeeds and
+ * nothing is counted.
+ */
+public class StockLedger {
+
+    /**
+     * Singleton instance of StockLedger.
+     */
+    private static final StockLedger instance = new StockLedger();
+
+    /**
+     * Stock of one sellable equipment type.
+     */
+    private static class Stock {
+
+        /**
+         * Units that can still be reserved.
+         */
+        private AtomicLong available = new AtomicLong();
+
+        /**
+         * Units reserved by PENDING sales.
+         */
+        private LongAdder reserved = new LongAdder();
+
+        /**
+         * Units sold since the stock was set.
+         */
+        private LongAdder sold = new LongAdder();
+    }
+
+    /**
+     * Stock of the tracked types by equipment type ID.
+     */
+    private ConcurrentHashMap<String, Stock> stocks;
+
+    /**
+     * Private constructor to enforce singleton pattern.
+     */
+    private StockLedger() {
+        stocks = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Retrieves the singleton instance of StockLedger.
+     *
+     * @return The singleton instance of StockLedger.
+     */
+    public static StockLedger getInstance() {
+        return instance;
+    }
+
+    /**
+     * Sets the stock of an equipment type, discarding its reservations.
+     *
+     * @param type The sellable equipment type.
+     * @param available The number of units in stock.
+     * @throws IllegalArgumentException If the number of units is negative.
+     */
+    public void setStock(EquipmentType type, long available) {
+        restoreStock(type, available, 0);
+    }
+
+    /**
+     * Sets the available and reserved units of an equipment type, as saved earlier.
+     *
+     * @param type The sellable equipment type.
+     * @param available The number of units that can still be reserved.
+     * @param reserved The number of reserved units.
+     * @throws IllegalArgumentException If either number is negative.
+     */
+    public void restoreStock(EquipmentType type, long available, long reserved) {
+        if (available < 0 || reserved < 0) {
+            throw new IllegalArgumentException("Stock cannot be negative.");
+        }
+        Stock stock = new Stock();
+        stock.available.set(available);
+        stock.reserved.add(reserved);
+        stocks.put(type.getEquipmentTypeID(), stock);
+    }
+
+    /**
+     * Adds units to the stock of a tracked equipment type.
+     *
+     * @param type The sellable equipment type.
+     * @param quantity The number of units to add.
+     * @throws IllegalArgumentException If the quantity is not positive or the type is not tracked.
+     */
+    public void addStock(EquipmentType type, long quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive.");
+        }
+        Stock stock = stocks.get(type.getEquipmentTypeID());
+        if (stock == null) {
+            throw new IllegalArgumentException("No stock is kept for " + type.getEquipmentTypeID() + ".");
+        }
+        stock.available.addAndGet(quantity);
+    }
+
+    /**
+     * Checks if the stock of an equipment type is tracked.
+     *
+     * @param type The equipment type.
+     * @return true if the stock of the type was set, false otherwise.
+     */
+    public boolean isTracked(EquipmentType type) {
+        return stocks.containsKey(type.getEquipmentTypeID());
+    }
+
+    /**
+     * Retrieves the number of units of an equipment type that can still be reserved.
+     *
+     * @param type The equipment type.
+     * @return The number of available units, or Long.MAX_VALUE if the type is not tracked.
+     */
+    public long getAvailable(EquipmentType type) {
+        Stock stock = stocks.get(type.getEquipmentTypeID());
+        return (stock == null) ? Long.MAX_VALUE : stock.available.get();
+    }
+
+    /**
+     * Retrieves the number of units of an equipment type reserved by PENDING sales.
+     *
+     * @param type The equipment type.
+     * @return The number of reserved units, or 0 if the type is not tracked.
+     */
+    public long getReserved(EquipmentType type) {
+        Stock stock = stocks.get(type.getEquipmentTypeID());
+        return (stock == null) ? 0 : stock.reserved.sum();
+    }
+
+    /**
+     * Retrieves the number of units of an equipment type sold since its stock was set.
+     *
+     * @param type The equipment type.
+     * @return The number of sold units, or 0 if the type is not tracked.
+     */
+    public long getSold(EquipmentType type) {
+        Stock stock = stocks.get(type.getEquipmentTypeID());
+        return (stock == null) ? 0 : stock.sold.sum();
+    }
+
+    /**
+     * Reserves units of an equipment type if enough are available.
+     *
+     * @param type The equipment type.
+     * @param quantity The number of units to reserve.
+     * @return true if the units were reserved or the type is not tracked, false if too few are available.
+     */
+    public boolean reserve(EquipmentType type, long quantity) {
+        Stock stock = stocks.get(type.getEquipmentTypeID());
+        if (stock == null) {
+            return true;
+        }
+        while (true) {
+            long available = stock.available.get();
+            if (available < quantity) {
+                return false;
+            }
+            if (stock.available.compareAndSet(available, available - quantity)) {
+                stock.reserved.add(quantity);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Turns reserved units into sold units once a sale is confirmed.
+     *
+     * @param type The equipment type.
+     * @param quantity The number of reserved units.
+     */
+    public void commit(EquipmentType type, long quantity) {
+        Stock stock = stocks.get(type.getEquipmentTypeID());
+        if (stock != null) {
+            stock.reserved.add(-quantity);
+            stock.sold.add(quantity);
+        }
+    }
+
+    /**
+     * Returns reserved units to the available stock once a sale is dropped.
+     *
+     * @param type The equipment type.
+     * @param quantity The number of reserved units.
+     */
+    public void release(EquipmentType type, long quantity) {
+        Stock stock = stocks.get(type.getEquipmentTypeID());
+        if (stock != null) {
+            stock.reserved.add(-quantity);
+            stock.available.addAndGet(quantity);
+        }
+    }
+
+    /**
+     * Stops tracking the stock of every equipment type.
+     */
+    public void reset() {
+        stocks.clear();
+    }
+}
@@ -0,0 +1,147 @@
+package sportapp.manager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import sportapp.User;
+import sportapp.model.BookRecord;
+import sportapp.model.BookingStatus;
+
+/**
+ * Index of booking records by user, bucketed by booking status.
+ * <p>
+ * Looking up the bookings of a user costs O(user's bookings) instead of a scan over all
+ * booking records. Results are returned in date and start hour order.
+ *
+ * @param <T> The type of booking record.
+ */
+public class UserBookingIndex<T extends BookRecord> {
+
+    /**
+     * Order of the returned booking records.
+     */
+    private static final Comparator<BookRecord> DATE_TIME_ORDER =
+        Comparator.comparing(BookRecord::getDate).thenComparingInt(BookRecord::getStartHour);
+
+    /**
+     * Booking records of each user, bucketed by status.
+     */
+    private ConcurrentHashMap<User, EnumMap<BookingStatus, LinkedHashSet<T>>> index;
+
+    /**
+     * Constructs an empty user booking index.
+     */
+    public UserBookingIndex() {
+        index = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Adds a booking record under its user and current status.
+     *
+     * @param record The booking record to add.
+     */
+    public void add(T record) {
+        if (record.getUser() == null || record.getStatus() == null) {
+            return;
+        }
+        EnumMap<BookingStatus, LinkedHashSet<T>> buckets = index.computeIfAbsent(record.getUser(), user -> new EnumMap<>(BookingStatus.class));
+        synchronized (buckets) {
+            buckets.computeIfAbsent(record.getStatus(), status -> new LinkedHashSet<>()).add(record);
+        }
+    }
+
+    /**
+     * Removes a booking record from the bucket of its current status.
+     *
+     * @param record The booking record to remove.
+     */
+    public void remove(T record) {
+        remove(record, record.getStatus());
+    }
+
+    /**
+     * Moves a booking record to the bucket of its new status.
+     * <p>
+     * Records that are not in the index are ignored.
+     *
+     * @param record The booking record whose status changed.
+     * @param oldStatus The previous status of the booking.
+     */
+    public void move(T record, BookingStatus oldStatus) {
+        if (remove(record, oldStatus)) {
+            add(record);
+        }
+    }
+
+    /**
+     * Retrieves the booking records of a user with a given status.
+     *
+     * @param user The user.
+     * @param status The status of the bookings.
+     * @return A list of the matching booking records.
+     */
+    public ArrayList<T> get(User user, BookingStatus status) {
+        ArrayList<T> result = new ArrayList<>();
+        EnumMap<BookingStatus, LinkedHashSet<T>> buckets = (user == null) ? null : index.get(user);
+        if (buckets == null) {
+            return result;
+        }
+        synchronized (buckets) {
+            LinkedHashSet<T> bucket = buckets.get(status);
+            if (bucket != null) {
+                result.addAll(bucket);
+            }
+        }
+        result.sort(DATE_TIME_ORDER);
+        return result;
+    }
+
+    /**
+     * Retrieves all booking records of a user.
+     *
+     * @param user The user.
+     * @return A list of the booking records of the user.
+     */
+    public ArrayList<T> get(User user) {
+        ArrayList<T> result = new ArrayList<>();
+        EnumMap<BookingStatus, LinkedHashSet<T>> buckets = (user == null) ? null : index.get(user);
+        if (buckets == null) {
+            return result;
+        }
+        synchronized (buckets) {
+            for (LinkedHashSet<T> bucket : buckets.values()) {
+                result.addAll(bucket);
+            }
+        }
+        result.sort(DATE_TIME_ORDER);
+        return result;
+    }
+
+    /**
+     * Clears the index.
+     */
+    public void clear() {
+        index.clear();
+    }
+
+    /**
+     * Removes a booking record from the bucket of a given status.
+     *
+     * @param record The booking record to remove.
+     * @param status The status bucket to remove it from.
+     * @return true if the record was removed, false if it was not in the bucket.
+     */
+    private boolean remove(T record, BookingStatus status) {
+        EnumMap<BookingStatus, LinkedHashSet<T>> buckets = (record.getUser() == null) ? null : index.get(record.getUser());
+        if (buckets == null || status == null) {
+            return false;
+        }
+        synchronized (buckets) {
+            LinkedHashSet<T> bucket = buckets.get(status);
+            return bucket != null && bucket.remove(record);
+        }
+    }
+}
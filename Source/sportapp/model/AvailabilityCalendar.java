@@ -0,0 +1,155 @@
+package sportapp.model;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Represents the availability of several sport facilities over a range of days.
+ * <p>
+ * The grid stores one hour-occupancy bitmap per facility and day in a single int array,
+ * where bit {@code h} is set when the hour from {@code h}:00 to {@code h+1}:00 is booked.
+ */
+public class AvailabilityCalendar {
+
+    /**
+     * The first day of the calendar.
+     */
+    private LocalDate startDate;
+
+    /**
+     * The number of days in the calendar.
+     */
+    private int days;
+
+    /**
+     * The facilities in the calendar, in row order.
+     */
+    private ArrayList<SportFacility> facilities;
+
+    /**
+     * Row of each facility in the grid.
+     */
+    private HashMap<SportFacility, Integer> rows;
+
+    /**
+     * Occupancy bitmaps, one per facility and day, stored row by row.
+     */
+    private int[] occupiedHours;
+
+    /**
+     * Constructs an empty AvailabilityCalendar for the specified facilities and days.
+     *
+     * @param facilities The facilities in the calendar.
+     * @param startDate The first day of the calendar.
+     * @param days The number of days in the calendar.
+     */
+    public AvailabilityCalendar(ArrayList<SportFacility> facilities, LocalDate startDate, int days) {
+        this.startDate = startDate;
+        this.days = days;
+        this.facilities = new ArrayList<>(facilities);
+        this.rows = new HashMap<>();
+        for (int i = 0; i < this.facilities.size(); i++) {
+            rows.put(this.facilities.get(i), i);
+        }
+        this.occupiedHours = new int[this.facilities.size() * days];
+    }
+
+    /**
+     * Retrieves the first day of the calendar.
+     *
+     * @return The first day.
+     */
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    /**
+     * Retrieves the last day of the calendar.
+     *
+     * @return The last day.
+     */
+    public LocalDate getEndDate() {
+        return startDate.plusDays(days - 1);
+    }
+
+    /**
+     * Retrieves the facilities in the calendar.
+     *
+     * @return A list of the facilities.
+     */
+    public ArrayList<SportFacility> getFacilities() {
+        return new ArrayList<>(facilities);
+    }
+
+    /**
+     * Marks hours of a facility on a given day as booked.
+     *
+     * @param facility The facility.
+     * @param date The day.
+     * @param hours The bitmap of the booked hours.
+     */
+    public void markOccupied(SportFacility facility, LocalDate date, int hours) {
+        int cell = cellOf(facility, date);
+        if (cell >= 0) {
+            occupiedHours[cell] |= hours;
+        }
+    }
+
+    /**
+     * Retrieves the hour-occupancy bitmap of a facility on a given day.
+     *
+     * @param facility The facility.
+     * @param date The day.
+     * @return The bitmap of the booked hours.
+     * @throws IllegalArgumentException If the facility or day is not in the calendar.
+     */
+    public int getOccupiedHours(SportFacility facility, LocalDate date) throws IllegalArgumentException {
+        int cell = cellOf(facility, date);
+        if (cell < 0) {
+            throw new IllegalArgumentException("Facility or date is not in the calendar");
+        }
+        return occupiedHours[cell];
+    }
+
+    /**
+     * Checks whether a facility is free for a whole time slot on a given day.
+     *
+     * @param facility The facility.
+     * @param date The day.
+     * @param startHour The start hour of the time slot.
+     * @param endHour The end hour of the time slot.
+     * @return true if none of the hours are booked, false otherwise.
+     */
+    public boolean isFree(SportFacility facility, LocalDate date, int startHour, int endHour) {
+        return (getOccupiedHours(facility, date) & HourSlots.hourMask(startHour, endHour)) == 0;
+    }
+
+    /**
+     * Retrieves the free time slots of a facility on a given day within the opening hours.
+     *
+     * @param facility The facility.
+     * @param date The day.
+     * @return A list of free time slots represented as arrays of start and end hours.
+     */
+    public ArrayList<int[]> getAvailableTimeSlot(SportFacility facility, LocalDate date) {
+        return HourSlots.calculateFreeSlots(getOccupiedHours(facility, date), 9, 21);
+    }
+
+    /**
+     * Finds the grid cell of a facility on a given day.
+     *
+     * @param facility The facility.
+     * @param date The day.
+     * @return The index of the cell, or -1 if the facility or day is not in the calendar.
+     */
+    private int cellOf(SportFacility facility, LocalDate date) {
+        Integer row = rows.get(facility);
+        long day = ChronoUnit.DAYS.between(startDate, date);
+        if (row == null || day < 0 || day >= days) {
+            return -1;
+        }
+        return row * days + (int) day;
+    }
+}
@@ -1,8 +1,11 @@
 package sportapp.model;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicLong;
 
+import sportapp.Clock;
 import sportapp.User;
 
 /**
@@ -13,6 +16,16 @@ import sportapp.User;
  */
 public abstract class BookRecord {
 
+    /**
+     * The last booking ID handed out.
+     */
+    private static final AtomicLong lastBookingId = new AtomicLong();
+
+    /**
+     * The unique identifier of the booking.
+     */
+    private long bookingId;
+
     /**
      * The user associated with the booking.
      */
@@ -21,22 +34,32 @@ public abstract class BookRecord {
     /**
      * The date of the booking.
      */
-    protected LocalDate date;
+    protected volatile LocalDate date;
 
     /**
      * The start hour of the booking.
      */
-    protected int startHour;
+    protected volatile int startHour;
 
     /**
      * The end hour of the booking.
      */
-    protected int endHour;
+    protected volatile int endHour;
 
     /**
      * The status of the booking.
      */
-    protected BookingStatus status;
+    protected volatile BookingStatus status;
+
+    /**
+     * The listener notified when the status changes.
+     */
+    private volatile BookingStatusListener statusListener;
+
+    /**
+     * The date and time the booking record was created.
+     */
+    private LocalDateTime createdAt;
 
     /**
      * Constructs a new booking record with the specified details.
@@ -53,6 +76,47 @@ public abstract class BookRecord {
         this.startHour = startHour;
         this.endHour = endHour;
         this.status = status;
+        this.createdAt = Clock.getInstance().getDateTime();
+        this.bookingId = lastBookingId.incrementAndGet();
+    }
+
+    /**
+     * Retrieves the unique identifier of the booking.
+     *
+     * @return The booking ID.
+     */
+    public long getBookingId() {
+        return bookingId;
+    }
+
+    /**
+     * Restores the identifier of a booking loaded from storage.
+     * <p>
+     * Later bookings receive IDs greater than the restored one.
+     *
+     * @param bookingId The booking ID.
+     */
+    public void setBookingId(long bookingId) {
+        this.bookingId = bookingId;
+        lastBookingId.accumulateAndGet(bookingId, Math::max);
+    }
+
+    /**
+     * Retrieves the date and time the booking record was created.
+     *
+     * @return The creation date and time.
+     */
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Restores the creation date and time of a booking loaded from storage.
+     *
+     * @param createdAt The creation date and time.
+     */
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
     }
 
     /**
@@ -133,7 +197,64 @@ public abstract class BookRecord {
      * @param status The new status of the booking.
      */
     public void setStatus(BookingStatus status) {
+        BookingStatusListener listener;
+        synchronized (this) {
+            listener = changeStatus(status);
+        }
+        if (listener != null) {
+            listener.afterStatusChange(this);
+        }
+    }
+
+    /**
+     * Sets the status of the booking only if it still has the expected status.
+     * <p>
+     * Status changes are serialized on the record, so a booking confirmed by one session and
+     * ended or released by another at the same time takes exactly one of the two paths.
+     *
+     * @param expectedStatus The status the booking must have.
+     * @param status The new status of the booking.
+     * @return true if the status was changed, false if the booking had another status.
+     */
+    public boolean compareAndSetStatus(BookingStatus expectedStatus, BookingStatus status) {
+        BookingStatusListener listener;
+        synchronized (this) {
+            if (this.status != expectedStatus) {
+                return false;
+            }
+            listener = changeStatus(status);
+        }
+        if (listener != null) {
+            listener.afterStatusChange(this);
+        }
+        return true;
+    }
+
+    /**
+     * Changes the status and notifies the listener.
+     * Must be called while holding the lock of the record.
+     *
+     * @param status The new status of the booking.
+     * @return The listener that was notified, or null if nothing was notified.
+     */
+    private BookingStatusListener changeStatus(BookingStatus status) {
+        BookingStatus oldStatus = this.status;
         this.status = status;
+        BookingStatusListener listener = this.statusListener;
+        if (listener == null || oldStatus == status) {
+            return null;
+        }
+        listener.onStatusChange(this, oldStatus, status);
+        return listener;
+    }
+
+    /**
+     * Sets the listener notified when the status of the booking changes.
+     *
+     * @param statusListener The listener, or null to stop notifications.
+     */
+    public void setStatusListener(BookingStatusListener statusListener) {
+        this.statusListener = statusListener;
     }
 
     /**
@@ -0,0 +1,20 @@
+package sportapp.model;
+
+import java.util.ArrayList;
+
+/**
+ * Listener notified when the equipment of an equipment booking record is replaced.
+ * <p>
+ * The equipment booking manager registers as the listener of the records it holds, so its
+ * per-equipment indexes follow the records when a reschedule swaps the booked items.
+ */
+public interface BookingEquipmentListener {
+
+    /**
+     * Called after the equipment of a booking record has been replaced.
+     *
+     * @param record The booking record whose equipment changed.
+     * @param oldEquipments The previously booked equipment.
+     */
+    void onEquipmentChange(EquipmentBookRecord record, ArrayList<Equipment> oldEquipments);
+}
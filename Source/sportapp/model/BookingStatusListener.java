@@ -0,0 +1,30 @@
+package sportapp.model;
+
+/**
+ * Listener notified when the status of a booking record changes.
+ * <p>
+ * Booking managers register as the listener of the records they hold, so their indexes
+ * stay current no matter which part of the application updates the status.
+ */
+public interface BookingStatusListener {
+
+    /**
+     * Called after the status of a booking record has changed.
+     *
+     * @param record The booking record whose status changed.
+     * @param oldStatus The previous status of the booking.
+     * @param newStatus The new status of the booking.
+     */
+    void onStatusChange(BookRecord record, BookingStatus oldStatus, BookingStatus newStatus);
+
+    /**
+     * Called after a status change once the lock of the booking record has been released.
+     * <p>
+     * {@link #onStatusChange} runs while the record is locked; work that may block, such as
+     * waiting for a log entry to reach the disk, belongs here instead.
+     *
+     * @param record The booking record whose status changed.
+     */
+    default void afterStatusChange(BookRecord record) {
+    }
+}
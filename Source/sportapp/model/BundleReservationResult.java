@@ -0,0 +1,141 @@
+package sportapp.model;
+
+import java.util.ArrayList;
+
+/**
+ * Represents the outcome of reserving a facility together with equipment.
+ * <p>
+ * A successful bundle holds the facility booking record and one equipment booking record per
+ * requested equipment type. A failed bundle holds no record at all, together with the step
+ * that failed and the existing records that blocked it.
+ */
+public class BundleReservationResult {
+
+    /**
+     * The outcome of the step that decided the reservation.
+     */
+    private ReservationResult.Outcome outcome;
+
+    /**
+     * The facility booking record created by a successful reservation.
+     */
+    private FacilityBookRecord facilityRecord;
+
+    /**
+     * The equipment booking records created by a successful reservation.
+     */
+    private ArrayList<EquipmentBookRecord> equipmentRecords;
+
+    /**
+     * The equipment type that could not be reserved.
+     */
+    private EquipmentType failedType;
+
+    /**
+     * The existing booking records that caused a conflict.
+     */
+    private ArrayList<? extends BookRecord> conflicts;
+
+    /**
+     * Constructs a BundleReservationResult with the specified details.
+     *
+     * @param outcome The outcome of the reservation attempt.
+     * @param facilityRecord The created facility booking record, or null if none was kept.
+     * @param equipmentRecords The created equipment booking records.
+     * @param failedType The equipment type that could not be reserved, or null.
+     * @param conflicts The conflicting booking records.
+     */
+    private BundleReservationResult(ReservationResult.Outcome outcome, FacilityBookRecord facilityRecord, ArrayList<EquipmentBookRecord> equipmentRecords, EquipmentType failedType, ArrayList<? extends BookRecord> conflicts) {
+        this.outcome = outcome;
+        this.facilityRecord = facilityRecord;
+        this.equipmentRecords = equipmentRecords;
+        this.failedType = failedType;
+        this.conflicts = conflicts;
+    }
+
+    /**
+     * Creates the result of a successful bundle reservation.
+     *
+     * @param facilityRecord The created facility booking record.
+     * @param equipmentRecords The created equipment booking records.
+     * @return The successful result.
+     */
+    public static BundleReservationResult reserved(FacilityBookRecord facilityRecord, ArrayList<EquipmentBookRecord> equipmentRecords) {
+        return new BundleReservationResult(ReservationResult.Outcome.RESERVED, facilityRecord, equipmentRecords, null, new ArrayList<>());
+    }
+
+    /**
+     * Creates the result of a bundle whose facility could not be reserved.
+     *
+     * @param result The failed facility reservation.
+     * @return The failed result.
+     */
+    public static BundleReservationResult facilityFailed(ReservationResult<FacilityBookRecord> result) {
+        return new BundleReservationResult(result.getOutcome(), null, new ArrayList<>(), null, result.getConflicts());
+    }
+
+    /**
+     * Creates the result of a bundle whose equipment could not be reserved.
+     *
+     * @param type The equipment type that could not be reserved.
+     * @param result The failed equipment reservation.
+     * @return The failed result.
+     */
+    public static BundleReservationResult equipmentFailed(EquipmentType type, ReservationResult<EquipmentBookRecord> result) {
+        return new BundleReservationResult(result.getOutcome(), null, new ArrayList<>(), type, result.getConflicts());
+    }
+
+    /**
+     * Retrieves the outcome of the reservation attempt.
+     *
+     * @return The outcome.
+     */
+    public ReservationResult.Outcome getOutcome() {
+        return outcome;
+    }
+
+    /**
+     * Checks whether the whole bundle was reserved.
+     *
+     * @return true if the facility and all equipment were reserved, false otherwise.
+     */
+    public boolean isReserved() {
+        return outcome == ReservationResult.Outcome.RESERVED;
+    }
+
+    /**
+     * Retrieves the facility booking record created by the reservation.
+     *
+     * @return The facility booking record, or null if the reservation failed.
+     */
+    public FacilityBookRecord getFacilityRecord() {
+        return facilityRecord;
+    }
+
+    /**
+     * Retrieves the equipment booking records created by the reservation.
+     *
+     * @return A list of the equipment booking records, empty if the reservation failed.
+     */
+    public ArrayList<EquipmentBookRecord> getEquipmentRecords() {
+        return equipmentRecords;
+    }
+
+    /**
+     * Retrieves the equipment type that could not be reserved.
+     *
+     * @return The equipment type, or null if the facility failed or the bundle was reserved.
+     */
+    public EquipmentType getFailedType() {
+        return failedType;
+    }
+
+    /**
+     * Retrieves the existing booking records that blocked the reservation.
+     *
+     * @return A list of the conflicting booking records, empty unless the outcome is CONFLICT.
+     */
+    public ArrayList<? extends BookRecord> getConflicts() {
+        return conflicts;
+    }
+}
@@ -51,6 +51,15 @@ public class Equipment {
         return String.format("%s-%03d", equipmentShortName, equipmentID);
     }
 
+    /**
+     * Retrieves the number of the equipment within its type.
+     *
+     * @return The equipment number.
+     */
+    public int getEquipmentNumber() {
+        return equipmentID;
+    }
+
     /**
      * Retrieves the full name of the equipment.
      *
@@ -15,12 +15,17 @@ public class EquipmentBookRecord extends BookRecord implements Comparable<Equipm
     /**
      * The list of equipment included in the booking.
      */
-    private ArrayList<Equipment> bookingEquipments;
+    private volatile ArrayList<Equipment> bookingEquipments;
 
     /**
      * The quantity of equipment booked.
      */
-    private int quantity;
+    private volatile int quantity;
+
+    /**
+     * The listener notified when the booked equipment is replaced.
+     */
+    private volatile BookingEquipmentListener equipmentListener;
 
     /**
      * Constructs an EquipmentBookRecord for testing purposes.
@@ -99,8 +104,22 @@ public class EquipmentBookRecord extends BookRecord implements Comparable<Equipm
      * @param equips The new list of equipment.
      */
     public void setBookingEquipment(ArrayList<Equipment> equips) {
+        ArrayList<Equipment> oldEquipments = this.bookingEquipments;
         this.bookingEquipments = equips;
         this.quantity = bookingEquipments.size();
+        BookingEquipmentListener listener = this.equipmentListener;
+        if (listener != null && oldEquipments != equips) {
+            listener.onEquipmentChange(this, oldEquipments);
+        }
+    }
+
+    /**
+     * Sets the listener notified when the booked equipment is replaced.
+     *
+     * @param equipmentListener The listener, or null to stop notifications.
+     */
+    public void setEquipmentListener(BookingEquipmentListener equipmentListener) {
+        this.equipmentListener = equipmentListener;
     }
 
     /**
@@ -15,7 +15,7 @@ public class FacilityBookRecord extends BookRecord implements Comparable<Facilit
     /**
      * The sport facility associated with the booking.
      */
-    private SportFacility sportFacility;
+    private volatile SportFacility sportFacility;
 
     /**
      * Constructs a FacilityBookRecord with the specified details.
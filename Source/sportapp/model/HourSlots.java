@@ -0,0 +1,62 @@
+package sportapp.model;
+
+import java.util.ArrayList;
+
+/**
+ * Converts between hour ranges and hour bitmaps.
+ * <p>
+ * In a bitmap, bit {@code h} covers the hour from {@code h}:00 to {@code h+1}:00, so the hours
+ * of a day fit in one int and overlaps are checked with a single AND.
+ */
+public class HourSlots {
+
+    /**
+     * Constructs a HourSlots instance.
+     * <p>
+     * This class only provides static methods.
+     */
+    private HourSlots() {
+    }
+
+    /**
+     * Builds the bitmap covering the hours from start hour (inclusive) to end hour (exclusive).
+     *
+     * @param startHour The start hour.
+     * @param endHour The end hour.
+     * @return The bitmap of the hours, or 0 if the range is empty.
+     */
+    public static int hourMask(int startHour, int endHour) {
+        int start = Math.max(startHour, 0);
+        int end = Math.min(endHour, 24);
+        if (start >= end) {
+            return 0;
+        }
+        return ((1 << end) - 1) & ~((1 << start) - 1);
+    }
+
+    /**
+     * Converts an hour-occupancy bitmap into the list of free time slots within the opening hours.
+     *
+     * @param occupiedHours The bitmap of the occupied hours.
+     * @param openingHour The opening hour of the facility.
+     * @param closingHour The closing hour of the facility.
+     * @return A list of free time slots represented as arrays of start and end hours.
+     */
+    public static ArrayList<int[]> calculateFreeSlots(int occupiedHours, int openingHour, int closingHour) {
+        ArrayList<int[]> availableTimeSlot = new ArrayList<>();
+        int gapStart = -1;
+        for (int hour = openingHour; hour < closingHour; hour++) {
+            boolean isOccupied = (occupiedHours & (1 << hour)) != 0;
+            if (!isOccupied && gapStart < 0) {
+                gapStart = hour;
+            } else if (isOccupied && gapStart >= 0) {
+                availableTimeSlot.add(new int[]{gapStart, hour});
+                gapStart = -1;
+            }
+        }
+        if (gapStart >= 0) {
+            availableTimeSlot.add(new int[]{gapStart, closingHour});
+        }
+        return availableTimeSlot;
+    }
+}
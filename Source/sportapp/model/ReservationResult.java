@@ -0,0 +1,137 @@
+package sportapp.model;
+
+import java.util.ArrayList;
+
+/**
+ * Represents the outcome of a reservation attempt in the sport management system.
+ * <p>
+ * Instead of throwing an exception, reservation operations return this result, which holds
+ * either the created booking record or the reason and the existing records that blocked it.
+ *
+ * @param <T> The type of booking record being reserved.
+ */
+public class ReservationResult<T extends BookRecord> {
+
+    /**
+     * Represents the possible outcomes of a reservation attempt.
+     */
+    public enum Outcome {
+
+        /**
+         * The reservation succeeded and the booking record was created.
+         */
+        RESERVED,
+
+        /**
+         * The requested time slot overlaps existing bookings.
+         */
+        CONFLICT,
+
+        /**
+         * The requested time slot is outside the opening hours or empty.
+         */
+        INVALID_TIME_SLOT,
+
+        /**
+         * The requested facility or equipment does not exist or cannot be booked.
+         */
+        UNAVAILABLE
+    }
+
+    /**
+     * The outcome of the reservation attempt.
+     */
+    private Outcome outcome;
+
+    /**
+     * The booking record created by a successful reservation.
+     */
+    private T bookRecord;
+
+    /**
+     * The existing booking records that caused a conflict.
+     */
+    private ArrayList<T> conflicts;
+
+    /**
+     * Constructs a ReservationResult with the specified details.
+     *
+     * @param outcome The outcome of the reservation attempt.
+     * @param bookRecord The created booking record, or null if none was created.
+     * @param conflicts The conflicting booking records.
+     */
+    private ReservationResult(Outcome outcome, T bookRecord, ArrayList<T> conflicts) {
+        this.outcome = outcome;
+        this.bookRecord = bookRecord;
+        this.conflicts = conflicts;
+    }
+
+    /**
+     * Creates the result of a successful reservation.
+     *
+     * @param <T> The type of booking record.
+     * @param bookRecord The created booking record.
+     * @return The successful result.
+     */
+    public static <T extends BookRecord> ReservationResult<T> reserved(T bookRecord) {
+        return new ReservationResult<>(Outcome.RESERVED, bookRecord, new ArrayList<>());
+    }
+
+    /**
+     * Creates the result of a reservation blocked by existing bookings.
+     *
+     * @param <T> The type of booking record.
+     * @param conflicts The existing booking records that overlap the request.
+     * @return The conflict result.
+     */
+    public static <T extends BookRecord> ReservationResult<T> conflict(ArrayList<T> conflicts) {
+        return new ReservationResult<>(Outcome.CONFLICT, null, conflicts);
+    }
+
+    /**
+     * Creates the result of a reservation rejected before checking for conflicts.
+     *
+     * @param <T> The type of booking record.
+     * @param outcome The reason of the rejection.
+     * @return The rejected result.
+     */
+    public static <T extends BookRecord> ReservationResult<T> rejected(Outcome outcome) {
+        return new ReservationResult<>(outcome, null, new ArrayList<>());
+    }
+
+    /**
+     * Retrieves the outcome of the reservation attempt.
+     *
+     * @return The outcome.
+     */
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    /**
+     * Checks whether the reservation succeeded.
+     *
+     * @return true if the booking record was created, false otherwise.
+     */
+    public boolean isReserved() {
+        return outcome == Outcome.RESERVED;
+    }
+
+    /**
+     * Retrieves the booking record created by the reservation.
+     *
+     * @return The created booking record, or null if the reservation failed.
+     */
+    public T getBookRecord() {
+        return bookRecord;
+    }
+
+    /**
+     * Retrieves the existing booking records that blocked the reservation.
+     *
+     * @return A list of the conflicting booking records, empty unless the outcome is CONFLICT.
+     */
+    public ArrayList<T> getConflicts() {
+        return conflicts;
+    }
+}
@@ -0,0 +1,682 @@
+package sportapp.persistence;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+import sportapp.User;
+import sportapp.UserCollection;
+import sportapp.UserSecurityAnswer;
+import sportapp.manager.ChangeJournal;
+import sportapp.manager.EquipmentBookManager;
+import sportapp.manager.EquipmentManager;
+import sportapp.manager.FacilityBookManager;
+import sportapp.manager.SportFacilityManager;
+import sportapp.model.BookRecord;
+import sportapp.model.BookingStatus;
+import sportapp.model.Equipment;
+import sportapp.model.EquipmentBookRecord;
+import sportapp.model.FacilityBookRecord;
+import sportapp.model.SportFacility;
+
+/**
+ * Persists booking and user changes in a write-ahead log and replays them on startup.
+ * <p>
+ * Facilities, equipment types and equipment are created by {@code DataInit} on every start,
+ * so logged records refer to them by name and ID. Users and bookings are referred to by their
+ * IDs as they were when the change was logged.
+ */
+public class BookingLog implements ChangeJournal, Closeable {
+
+    /**
+     * Entry type of a user registration.
+     */
+    private static final byte USER_REGISTERED = 1;
+
+    /**
+     * Entry type of a new facility booking.
+     */
+    private static final byte FACILITY_BOOKED = 2;
+
+    /**
+     * Entry type of a new equipment booking.
+     */
+    private static final byte EQUIPMENT_BOOKED = 3;
+
+    /**
+     * Entry type of a changed facility booking.
+     */
+    private static final byte FACILITY_UPDATED = 4;
+
+    /**
+     * Entry type of a changed equipment booking.
+     */
+    private static final byte EQUIPMENT_UPDATED = 5;
+
+    /**
+     * Entry type of a removed booking.
+     */
+    private static final byte BOOKING_CANCELLED = 6;
+
+    /**
+     * Entry type of a booking status change.
+     */
+    private static final byte STATUS_CHANGED = 7;
+
+    /**
+     * Entry type of a changed password or security answer.
+     */
+    private static final byte CREDENTIALS_CHANGED = 8;
+
+    /**
+     * Entry type of a membership upgrade.
+     */
+    private static final byte MEMBERSHIP_CHANGED = 9;
+
+    /**
+     * The underlying log file.
+     */
+    private WriteAheadLog wal;
+
+    /**
+     * Users by the ID they were logged with.
+     */
+    private HashMap<Integer, User> users;
+
+    /**
+     * Bookings by ID.
+     */
+    private HashMap<Long, BookRecord> bookings;
+
+    /**
+     * Equipment by formatted equipment ID.
+     */
+    private HashMap<String, Equipment> equipments;
+
+    /**
+     * Number of entries that referred to unknown users, facilities, equipment or bookings.
+     */
+    private int skippedCount;
+
+    /**
+     * Sequence number of the last entry each thread handed over while holding the lock of a
+     * booking record, or null if the thread has nothing to wait for.
+     */
+    private final ThreadLocal<Long> deferredSequence = new ThreadLocal<>();
+
+    /**
+     * Constructs a booking log on top of a write-ahead log.
+     *
+     * @param wal The write-ahead log.
+     */
+    public BookingLog(WriteAheadLog wal) {
+        this.wal = wal;
+    }
+
+    /**
+     * Opens the booking log stored in a file.
+     *
+     * @param path The log file.
+     * @return The booking log.
+     * @throws IOException If the file cannot be opened.
+     */
+    public static BookingLog open(Path path) throws IOException {
+        return new BookingLog(new WriteAheadLog(path));
+    }
+
+    /**
+     * Retrieves the underlying write-ahead log.
+     *
+     * @return The write-ahead log.
+     */
+    public WriteAheadLog getWriteAheadLog() {
+        return wal;
+    }
+
+    /**
+     * Applies every logged change to the managers and the user collection.
+     * <p>
+     * Call this before {@link #attach}, so the replayed changes are not logged again. Replaying
+     * is idempotent: an entry for a booking that already exists updates it instead, so entries
+     * already covered by a snapshot can safely be applied again.
+     *
+     * @return The number of entries applied.
+     * @throws IOException If the log cannot be read or an entry is malformed.
+     */
+    public int replay() throws IOException {
+        users = new HashMap<>();
+        for (User user : UserCollection.getInstance().findUser()) {
+            users.put(user.getUserID(), user);
+        }
+        bookings = new HashMap<>();
+        for (BookRecord record : FacilityBookManager.getInstance().getBookingRecords()) {
+            bookings.put(record.getBookingId(), record);
+        }
+        for (BookRecord record : EquipmentBookManager.getInstance().getBookRecords()) {
+            bookings.put(record.getBookingId(), record);
+        }
+        equipments = new HashMap<>();
+        for (Equipment equipment : EquipmentManager.getInstance().getBorrowableCollection()) {
+            equipments.put(equipment.getEquipmentID(), equipment);
+        }
+        for (Equipment equipment : EquipmentManager.getInstance().getSellableCollection()) {
+            equipments.put(equipment.getEquipmentID(), equipment);
+        }
+        skippedCount = 0;
+
+        int applied = 0;
+        for (byte[] entry : WriteAheadLog.readEntries(wal.getPath())) {
+            if (apply(new DataInputStream(new ByteArrayInputStream(entry)))) {
+                applied++;
+            } else {
+                skippedCount++;
+            }
+        }
+
+        users = null;
+        bookings = null;
+        equipments = null;
+        return applied;
+    }
+
+    /**
+     * Retrieves the number of entries skipped by the last replay.
+     *
+     * @return The number of skipped entries.
+     */
+    public int getSkippedCount() {
+        return skippedCount;
+    }
+
+    /**
+     * Starts logging the changes made to the managers and the user collection.
+     */
+    public void attach() {
+        FacilityBookManager.getInstance().setJournal(this);
+        EquipmentBookManager.getInstance().setJournal(this);
+        UserCollection.getInstance().setJournal(this);
+    }
+
+    /**
+     * Stops logging and closes the log file.
+     *
+     * @throws IOException If the file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        FacilityBookManager.getInstance().setJournal(null);
+        EquipmentBookManager.getInstance().setJournal(null);
+        UserCollection.getInstance().setJournal(null);
+        wal.close();
+    }
+
+    @Override
+    public void recordAdded(BookRecord record) {
+        write(record, out -> {
+            out.writeByte((record instanceof FacilityBookRecord) ? FACILITY_BOOKED : EQUIPMENT_BOOKED);
+            writeRecord(out, record);
+        });
+    }
+
+    @Override
+    public void recordUpdated(BookRecord record) {
+        write(record, out -> {
+            out.writeByte((record instanceof FacilityBookRecord) ? FACILITY_UPDATED : EQUIPMENT_UPDATED);
+            writeRecord(out, record);
+        });
+    }
+
+    @Override
+    public void recordRemoved(BookRecord record) {
+        write(record, out -> {
+            out.writeByte(BOOKING_CANCELLED);
+            out.writeLong(record.getBookingId());
+        });
+    }
+
+    @Override
+    public void onStatusChange(BookRecord record, BookingStatus oldStatus, BookingStatus newStatus) {
+        write(record, out -> {
+            out.writeByte(STATUS_CHANGED);
+            out.writeLong(record.getBookingId());
+            out.writeUTF(newStatus.name());
+        });
+    }
+
+    @Override
+    public void userRegistered(User user) {
+        write(null, out -> {
+            out.writeByte(USER_REGISTERED);
+            out.writeInt(user.getUserID());
+            out.writeUTF(user.getUsername());
+            writeCredentials(out, user);
+        });
+    }
+
+    @Override
+    public void credentialsChanged(User user) {
+        write(null, out -> {
+            out.writeByte(CREDENTIALS_CHANGED);
+            out.writeInt(user.getUserID());
+            writeCredentials(out, user);
+        });
+    }
+
+    @Override
+    public void membershipChanged(User user) {
+        write(null, out -> {
+            out.writeByte(MEMBERSHIP_CHANGED);
+            out.writeInt(user.getUserID());
+            StateSnapshot.writeMembership(out, user);
+        });
+    }
+
+    /**
+     * Writes the stored password and security answer of a user.
+     *
+     * @param out The stream to write to.
+     * @param user The user.
+     * @throws IOException If the fields cannot be written.
+     */
+    private static void writeCredentials(DataOutputStream out, User user) throws IOException {
+        out.writeUTF(user.getPassword());
+        UserSecurityAnswer answer = user.getSecurityAnswer();
+        out.writeBoolean(answer != null);
+        if (answer != null) {
+            out.writeUTF(answer.getQuestion());
+            out.writeUTF(answer.getAnswer());
+        }
+    }
+
+    /**
+     * Writes the fields of an entry.
+     */
+    private interface EntryWriter {
+
+        /**
+         * Writes the fields of an entry.
+         *
+         * @param out The stream to write to.
+         * @throws IOException If the fields cannot be written.
+         */
+        void writeTo(DataOutputStream out) throws IOException;
+    }
+
+    @Override
+    public void awaitDurable() throws UncheckedIOException {
+        Long sequence = deferredSequence.get();
+        if (sequence == null) {
+            return;
+        }
+        deferredSequence.remove();
+        try {
+            wal.awaitDurable(sequence);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write the booking log", e);
+        }
+    }
+
+    /**
+     * Encodes an entry and appends it to the log.
+     * <p>
+     * The entry is queued in order right away. If the calling thread holds the lock of the
+     * booking record, waiting for the disk is left to {@link #awaitDurable}, so other changes
+     * to the record are not held up by the flush.
+     *
+     * @param record The booking record the entry is about, or null for a user entry.
+     * @param writer Writes the fields of the entry.
+     * @throws UncheckedIOException If the entry cannot be written.
+     */
+    private void write(BookRecord record, EntryWriter writer) throws UncheckedIOException {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            writer.writeTo(out);
+            out.flush();
+            long sequence = wal.enqueue(bytes.toByteArray());
+            if (record != null && Thread.holdsLock(record)) {
+                deferredSequence.set(sequence);
+            } else {
+                wal.awaitDurable(sequence);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write the booking log", e);
+        }
+    }
+
+    /**
+     * Writes the fields of a booking record.
+     *
+     * @param out The stream to write to.
+     * @param record The booking record.
+     * @throws IOException If the fields cannot be written.
+     */
+    static void writeRecord(DataOutputStream out, BookRecord record) throws IOException {
+        out.writeLong(record.getBookingId());
+        out.writeInt(record.getUser().getUserID());
+        out.writeLong(record.getDate().toEpochDay());
+        out.writeInt(record.getStartHour());
+        out.writeInt(record.getEndHour());
+        out.writeUTF(record.getStatus().name());
+        out.writeLong(record.getCreatedAt().toLocalDate().toEpochDay());
+        out.writeLong(record.getCreatedAt().toLocalTime().toNanoOfDay());
+        if (record instanceof FacilityBookRecord) {
+            out.writeUTF(((FacilityBookRecord) record).getSportFacility().getName());
+        } else {
+            EquipmentBookRecord equipmentRecord = (EquipmentBookRecord) record;
+            out.writeInt(equipmentRecord.getQuantity());
+            out.writeInt(equipmentRecord.getBookingEquipment().size());
+            for (Equipment equipment : equipmentRecord.getBookingEquipment()) {
+                out.writeUTF(equipment.getEquipmentID());
+            }
+        }
+    }
+
+    /**
+     * Applies one logged change.
+     *
+     * @param in The fields of the entry.
+     * @return true if the change was applied, false if it referred to unknown data.
+     * @throws IOException If the entry is malformed.
+     */
+    private boolean apply(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case USER_REGISTERED:
+                return applyUserRegistered(in);
+            case FACILITY_BOOKED:
+            case FACILITY_UPDATED:
+                return applyFacilityRecord(in, type == FACILITY_BOOKED);
+            case EQUIPMENT_BOOKED:
+            case EQUIPMENT_UPDATED:
+                return applyEquipmentRecord(in, type == EQUIPMENT_BOOKED);
+            case BOOKING_CANCELLED:
+                return applyCancelled(in.readLong());
+            case STATUS_CHANGED:
+                return applyStatusChanged(in.readLong(), BookingStatus.valueOf(in.readUTF()));
+            case CREDENTIALS_CHANGED:
+                return applyCredentialsChanged(in);
+            case MEMBERSHIP_CHANGED:
+                return applyMembershipChanged(in);
+            default:
+                throw new IOException("Unknown booking log entry type " + type);
+        }
+    }
+
+    /**
+     * Registers a logged user unless a user with the same name already exists.
+     *
+     * @param in The fields of the entry.
+     * @return true, as a registration never refers to other data.
+     * @throws IOException If the entry is malformed.
+     */
+    private boolean applyUserRegistered(DataInputStream in) throws IOException {
+        int userId = in.readInt();
+        String username = in.readUTF();
+        String password = in.readUTF();
+        UserSecurityAnswer answer = in.readBoolean() ? new UserSecurityAnswer(in.readUTF(), in.readUTF()) : null;
+
+        UserCollection userCollection = UserCollection.getInstance();
+        User user = userCollection.findUserByName(username);
+        if (user == null) {
+            user = new User(username, userId, password, answer);
+            userCollection.restoreUser(user);
+        }
+        users.put(userId, user);
+        return true;
+    }
+
+    /**
+     * Replaces the stored password and security answer of a logged user.
+     *
+     * @param in The fields of the entry.
+     * @return true if the credentials were replaced, false if the user is unknown.
+     * @throws IOException If the entry is malformed.
+     */
+    private boolean applyCredentialsChanged(DataInputStream in) throws IOException {
+        User user = users.get(in.readInt());
+        String password = in.readUTF();
+        UserSecurityAnswer answer = in.readBoolean() ? new UserSecurityAnswer(in.readUTF(), in.readUTF()) : null;
+        if (user == null) {
+            return false;
+        }
+        user.restoreCredentials(password, answer);
+        return true;
+    }
+
+    /**
+     * Upgrades the membership of a logged user.
+     *
+     * @param in The fields of the entry.
+     * @return true if the membership was applied, false if the user is unknown.
+     * @throws IOException If the entry is malformed.
+     */
+    private boolean applyMembershipChanged(DataInputStream in) throws IOException {
+        User user = users.get(in.readInt());
+        if (user == null) {
+            in.readByte();
+            return false;
+        }
+        StateSnapshot.readMembership(in, user);
+        return true;
+    }
+
+    /**
+     * Adds or updates a logged facility booking.
+     *
+     * @param in The fields of the entry.
+     * @param isNew Whether the entry adds a new booking.
+     * @return true if the change was applied, false if it referred to unknown data.
+     * @throws IOException If the entry is malformed.
+     */
+    private boolean applyFacilityRecord(DataInputStream in, boolean isNew) throws IOException {
+        RecordFields fields = readFields(in, users);
+        SportFacility facility = SportFacilityManager.getInstance().getSportFacilityByName(in.readUTF());
+        if (fields.user == null || facility == null) {
+            return false;
+        }
+
+        FacilityBookManager manager = FacilityBookManager.getInstance();
+        BookRecord existing = bookings.get(fields.bookingId);
+        if (isNew && existing == null) {
+            FacilityBookRecord record = new FacilityBookRecord(facility, fields.user, fields.date, fields.startHour, fields.endHour, fields.status);
+            fields.restore(record);
+            manager.addBooking(record);
+            bookings.put(record.getBookingId(), record);
+            return true;
+        }
+
+        if (!(existing instanceof FacilityBookRecord)) {
+            return false;
+        }
+        FacilityBookRecord record = (FacilityBookRecord) existing;
+        if (record.getSportFacility() != facility) {
+            manager.updateBookingFacility(record, facility);
+        }
+        manager.updateBookingDateTime(record, fields.date, fields.startHour, fields.endHour);
+        if (isNew) {
+            record.setStatus(fields.status);
+        }
+        return true;
+    }
+
+    /**
+     * Adds or updates a logged equipment booking.
+     *
+     * @param in The fields of the entry.
+     * @param isNew Whether the entry adds a new booking.
+     * @return true if the change was applied, false if it referred to unknown data.
+     * @throws IOException If the entry is malformed.
+     */
+    private boolean applyEquipmentRecord(DataInputStream in, boolean isNew) throws IOException {
+        RecordFields fields = readFields(in, users);
+        int quantity = in.readInt();
+        int count = in.readInt();
+        ArrayList<Equipment> bookedEquipments = new ArrayList<>();
+        boolean isResolved = (fields.user != null);
+        for (int i = 0; i < count; i++) {
+            Equipment equipment = equipments.get(in.readUTF());
+            if (equipment == null) {
+                isResolved = false;
+            }
+            bookedEquipments.add(equipment);
+        }
+        if (!isResolved || bookedEquipments.isEmpty()) {
+            return false;
+        }
+
+        EquipmentBookManager manager = EquipmentBookManager.getInstance();
+        BookRecord existing = bookings.get(fields.bookingId);
+        if (isNew && existing == null) {
+            EquipmentBookRecord record;
+            if (quantity == bookedEquipments.size()) {
+                record = new EquipmentBookRecord(bookedEquipments, fields.user, fields.date, fields.startHour, fields.endHour, fields.status);
+            } else {
+                record = new EquipmentBookRecord(bookedEquipments.get(0), fields.user, fields.date, fields.startHour, fields.endHour, fields.status, quantity);
+            }
+            fields.restore(record);
+            try {
+                manager.addBookRecord(record);
+            } catch (IllegalArgumentException e) {
+                // the sale no longer fits the stock
+                return false;
+            }
+            bookings.put(record.getBookingId(), record);
+            return true;
+        }
+
+        if (!(existing instanceof EquipmentBookRecord)) {
+            return false;
+        }
+        EquipmentBookRecord record = (EquipmentBookRecord) existing;
+        if (quantity == bookedEquipments.size()) {
+            record.setBookingEquipment(bookedEquipments);
+        }
+        manager.updateBookingDateTime(record, fields.date, fields.startHour, fields.endHour);
+        if (isNew) {
+            record.setStatus(fields.status);
+        }
+        return true;
+    }
+
+    /**
+     * Removes a logged booking.
+     *
+     * @param bookingId The ID of the booking.
+     * @return true if the booking was removed, false if it is unknown.
+     */
+    private boolean applyCancelled(long bookingId) {
+        BookRecord record = bookings.remove(bookingId);
+        if (record instanceof FacilityBookRecord) {
+            FacilityBookManager manager = FacilityBookManager.getInstance();
+            if (manager.isBookingExist((FacilityBookRecord) record)) {
+                manager.removeBooking((FacilityBookRecord) record);
+            }
+            return true;
+        }
+        if (record instanceof EquipmentBookRecord) {
+            EquipmentBookManager.getInstance().removeBooking((EquipmentBookRecord) record);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Changes the status of a logged booking.
+     *
+     * @param bookingId The ID of the booking.
+     * @param status The new status.
+     * @return true if the status was changed, false if the booking is unknown.
+     */
+    private boolean applyStatusChanged(long bookingId, BookingStatus status) {
+        BookRecord record = bookings.get(bookingId);
+        if (record == null) {
+            return false;
+        }
+        record.setStatus(status);
+        return true;
+    }
+
+    /**
+     * Reads the fields shared by all booking records.
+     *
+     * @param in The fields of the entry.
+     * @param users Users by the ID they were written with.
+     * @return The shared fields.
+     * @throws IOException If the entry is malformed.
+     */
+    static RecordFields readFields(DataInputStream in, Map<Integer, User> users) throws IOException {
+        RecordFields fields = new RecordFields();
+        fields.bookingId = in.readLong();
+        fields.user = users.get(in.readInt());
+        fields.date = LocalDate.ofEpochDay(in.readLong());
+        fields.startHour = in.readInt();
+        fields.endHour = in.readInt();
+        fields.status = BookingStatus.valueOf(in.readUTF());
+        LocalDate createdDate = LocalDate.ofEpochDay(in.readLong());
+        fields.createdAt = LocalDateTime.of(createdDate, LocalTime.ofNanoOfDay(in.readLong()));
+        return fields;
+    }
+
+    /**
+     * Fields shared by all stored booking records.
+     */
+    static class RecordFields {
+
+        /**
+         * The ID of the booking.
+         */
+        long bookingId;
+
+        /**
+         * The user of the booking, or null if unknown.
+         */
+        User user;
+
+        /**
+         * The date of the booking.
+         */
+        LocalDate date;
+
+        /**
+         * The start hour of the booking.
+         */
+        int startHour;
+
+        /**
+         * The end hour of the booking.
+         */
+        int endHour;
+
+        /**
+         * The status of the booking.
+         */
+        BookingStatus status;
+
+        /**
+         * The creation date and time of the booking.
+         */
+        LocalDateTime createdAt;
+
+        /**
+         * Restores the ID and creation time of a rebuilt booking record.
+         *
+         * @param record The rebuilt booking record.
+         */
+        void restore(BookRecord record) {
+            record.setBookingId(bookingId);
+            record.setCreatedAt(createdAt);
+        }
+    }
+}
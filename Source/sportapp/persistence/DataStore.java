@@ -0,0 +1,187 @@
+package sportapp.persistence;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import sportapp.UserCollection;
+import sportapp.manager.EquipmentBookManager;
+import sportapp.manager.FacilityBookManager;
+import sportapp.manager.PendingHoldPolicy;
+
+/**
+ * Keeps the application state on disk as a snapshot followed by a log of later changes.
+ * <p>
+ * At startup the latest snapshot is loaded and only the log written after it is replayed.
+ * A checkpoint writes a new snapshot and drops the part of the log it covers, so the log
+ * stays short no matter how long the application runs.
+ */
+public class DataStore implements Closeable {
+
+    /**
+     * The snapshot file.
+     */
+    private Path snapshotPath;
+
+    /**
+     * The log of changes made after the snapshot.
+     */
+    private BookingLog bookingLog;
+
+    /**
+     * Thread taking the periodic checkpoints, or null if none were started.
+     * <p>
+     * Checkpoints write the whole state to disk, so they get their own thread instead of
+     * holding up the hold releases and session expiries on the clock scheduler.
+     */
+    private ScheduledExecutorService checkpointer;
+
+    /**
+     * The periodic checkpoints, or null if none are scheduled.
+     */
+    private ScheduledFuture<?> checkpoints;
+
+    /**
+     * Number of log entries appended when the last checkpoint was taken.
+     */
+    private long checkpointedAppends;
+
+    /**
+     * Constructs a data store.
+     *
+     * @param bookingLog The log of changes.
+     * @param snapshotPath The snapshot file.
+     */
+    public DataStore(BookingLog bookingLog, Path snapshotPath) {
+        this.bookingLog = bookingLog;
+        this.snapshotPath = snapshotPath;
+    }
+
+    /**
+     * Opens the data store kept in a log file and a snapshot file.
+     *
+     * @param logPath The log file.
+     * @param snapshotPath The snapshot file.
+     * @return The data store.
+     * @throws IOException If the log cannot be opened.
+     */
+    public static DataStore open(Path logPath, Path snapshotPath) throws IOException {
+        return new DataStore(BookingLog.open(logPath), snapshotPath);
+    }
+
+    /**
+     * Retrieves the log of changes.
+     *
+     * @return The booking log.
+     */
+    public BookingLog getBookingLog() {
+        return bookingLog;
+    }
+
+    /**
+     * Loads the snapshot, if any, and replays the log written after it.
+     * <p>
+     * Call this before {@link #attach}, so the recovered changes are not logged again. The
+     * restored bookings pass through the managers like new ones, so the hold counters of the
+     * {@link PendingHoldPolicy} are reset afterwards and count this run only.
+     *
+     * @return A report of the recovery.
+     * @throws IOException If the snapshot or the log cannot be read.
+     */
+    public RecoveryReport recover() throws IOException {
+        long start = System.nanoTime();
+        boolean snapshotLoaded = StateSnapshot.load(snapshotPath);
+        long snapshotMillis = (System.nanoTime() - start) / 1_000_000;
+
+        start = System.nanoTime();
+        int replayed = bookingLog.replay();
+        long replayMillis = (System.nanoTime() - start) / 1_000_000;
+        PendingHoldPolicy.getInstance().resetCounters();
+
+        int bookingCount = FacilityBookManager.getInstance().getBookingRecords().size()
+                + EquipmentBookManager.getInstance().getBookRecords().size();
+        int skipped = StateSnapshot.getSkippedCount() + bookingLog.getSkippedCount();
+        return new RecoveryReport(snapshotLoaded, snapshotMillis, replayed, skipped, replayMillis,
+                UserCollection.getInstance().findUser().size(), bookingCount);
+    }
+
+    /**
+     * Starts logging the changes made to the managers and the user collection.
+     */
+    public void attach() {
+        bookingLog.attach();
+    }
+
+    /**
+     * Writes a snapshot of the current state and drops the log entries it covers.
+     * <p>
+     * The log position is taken before the snapshot is written. Every change logged before
+     * that position has already been applied to the managers, so it is in the snapshot; changes
+     * made while the snapshot is written stay in the log and are replayed on top of it.
+     *
+     * @throws IOException If the snapshot or the compacted log cannot be written.
+     */
+    public synchronized void checkpoint() throws IOException {
+        WriteAheadLog wal = bookingLog.getWriteAheadLog();
+        long appends = wal.getAppendCount();
+        long covered = wal.getWrittenLength();
+        StateSnapshot.write(snapshotPath);
+        wal.discardBefore(covered);
+        checkpointedAppends = appends;
+    }
+
+    /**
+     * Takes a checkpoint periodically, skipping it when nothing was logged since the last one.
+     *
+     * @param periodMillis The time between checkpoints, in milliseconds.
+     * @throws IllegalArgumentException If the period is not positive.
+     */
+    public synchronized void startCheckpoints(long periodMillis) {
+        if (periodMillis <= 0) {
+            throw new IllegalArgumentException("Checkpoint period must be positive");
+        }
+        if (checkpoints != null) {
+            checkpoints.cancel(false);
+        }
+        if (checkpointer == null) {
+            checkpointer = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "data-store-checkpoint");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        checkpoints = checkpointer.scheduleAtFixedRate(() -> {
+            try {
+                synchronized (DataStore.this) {
+                    if (bookingLog.getWriteAheadLog().getAppendCount() != checkpointedAppends) {
+                        checkpoint();
+                    }
+                }
+            } catch (IOException | RuntimeException ex) {
+                System.err.println("Checkpoint failed: " + ex.getMessage());
+            }
+        }, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the periodic checkpoints, stops logging and closes the log file.
+     *
+     * @throws IOException If the log cannot be closed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (checkpoints != null) {
+            checkpoints.cancel(false);
+            checkpoints = null;
+        }
+        if (checkpointer != null) {
+            checkpointer.shutdown();
+            checkpointer = null;
+        }
+        bookingLog.close();
+    }
+}
@@ -0,0 +1,138 @@
+package sportapp.persistence;
+
+/**
+ * Summary of how the application state was recovered at startup.
+ */
+public class RecoveryReport {
+
+    /**
+     * Whether a snapshot was loaded.
+     */
+    private boolean snapshotLoaded;
+
+    /**
+     * Time spent loading the snapshot, in milliseconds.
+     */
+    private long snapshotMillis;
+
+    /**
+     * Number of log entries replayed after the snapshot.
+     */
+    private int replayedCount;
+
+    /**
+     * Number of log entries and snapshot booking records skipped because they referred to unknown data.
+     */
+    private int skippedCount;
+
+    /**
+     * Time spent replaying the log, in milliseconds.
+     */
+    private long replayMillis;
+
+    /**
+     * Number of users after recovery.
+     */
+    private int userCount;
+
+    /**
+     * Number of booking records after recovery.
+     */
+    private int bookingCount;
+
+    /**
+     * Constructs a recovery report.
+     *
+     * @param snapshotLoaded Whether a snapshot was loaded.
+     * @param snapshotMillis Time spent loading the snapshot, in milliseconds.
+     * @param replayedCount Number of log entries replayed.
+     * @param skippedCount Number of log entries skipped.
+     * @param replayMillis Time spent replaying the log, in milliseconds.
+     * @param userCount Number of users after recovery.
+     * @param bookingCount Number of booking records after recovery.
+     */
+    public RecoveryReport(boolean snapshotLoaded, long snapshotMillis, int replayedCount, int skippedCount, long replayMillis, int userCount, int bookingCount) {
+        this.snapshotLoaded = snapshotLoaded;
+        this.snapshotMillis = snapshotMillis;
+        this.replayedCount = replayedCount;
+        this.skippedCount = skippedCount;
+        this.replayMillis = replayMillis;
+        this.userCount = userCount;
+        this.bookingCount = bookingCount;
+    }
+
+    /**
+     * Retrieves whether a snapshot was loaded.
+     *
+     * @return true if a snapshot was loaded, false otherwise.
+     */
+    public boolean isSnapshotLoaded() {
+        return snapshotLoaded;
+    }
+
+    /**
+     * Retrieves the time spent loading the snapshot.
+     *
+     * @return The time in milliseconds.
+     */
+    public long getSnapshotMillis() {
+        return snapshotMillis;
+    }
+
+    /**
+     * Retrieves the number of log entries replayed after the snapshot.
+     *
+     * @return The number of replayed entries.
+     */
+    public int getReplayedCount() {
+        return replayedCount;
+    }
+
+    /**
+     * Retrieves the number of log entries and snapshot booking records skipped during recovery.
+     *
+     * @return The number of skipped entries and records.
+     */
+    public int getSkippedCount() {
+        return skippedCount;
+    }
+
+    /**
+     * Retrieves the time spent replaying the log.
+     *
+     * @return The time in milliseconds.
+     */
+    public long getReplayMillis() {
+        return replayMillis;
+    }
+
+    /**
+     * Retrieves the number of users after recovery.
+     *
+     * @return The number of users.
+     */
+    public int getUserCount() {
+        return userCount;
+    }
+
+    /**
+     * Retrieves the number of booking records after recovery.
+     *
+     * @return The number of booking records.
+     */
+    public int getBookingCount() {
+        return bookingCount;
+    }
+
+    /**
+     * Returns a string representation of the report.
+     *
+     * @return A one-line summary of the recovery.
+     */
+    @Override
+    public String toString() {
+        String snapshot = snapshotLoaded ? String.format("snapshot loaded in %d ms", snapshotMillis) : "no snapshot";
+        return String.format("Recovered %d users and %d bookings (%s, %d log entries replayed in %d ms, %d skipped).",
+                userCount, bookingCount, snapshot, replayedCount, replayMillis, skippedCount);
+    }
+}
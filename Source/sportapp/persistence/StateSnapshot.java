@@ -0,0 +1,540 @@
+package sportapp.persistence;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+import sportapp.GoldMemberShip;
+import sportapp.PlatinumMemberShip;
+import sportapp.User;
+import sportapp.UserCollection;
+import sportapp.UserSecurityAnswer;
+import sportapp.manager.EquipmentBookManager;
+import sportapp.manager.EquipmentManager;
+import sportapp.manager.EquipmentTypeManager;
+import sportapp.manager.FacilityBookManager;
+import sportapp.manager.SportFacilityManager;
+import sportapp.manager.StockLedger;
+import sportapp.model.Equipment;
+import sportapp.model.EquipmentBookRecord;
+import sportapp.model.EquipmentType;
+import sportapp.model.FacilityBookRecord;
+import sportapp.model.SportFacility;
+import sportapp.model.SportFacilityType;
+
+/**
+ * Binary snapshot of the users, facilities, equipment types, equipment, sellable stock and
+ * booking records.
+ * <p>
+ * A snapshot is written to a temporary file and atomically moved into place, and ends with a
+ * CRC32 checksum of its content. It is read back through a memory-mapped buffer. Snapshots
+ * are taken while the application runs, so a snapshot may already contain some changes that
+ * are also in the log after it; replaying those again is harmless.
+ * <p>
+ * The booking records are collected before anything else, so the users, facilities and
+ * equipment they refer to are written after them. A booking whose user or equipment was
+ * removed while the snapshot was written is skipped and counted when the snapshot is read,
+ * the same way the log skips entries that refer to unknown data.
+ */
+public class StateSnapshot {
+
+    /**
+     * Magic number at the start of every snapshot file.
+     */
+    private static final int MAGIC = 0x53505332;
+
+    /**
+     * Membership tier of a basic member.
+     */
+    private static final byte BASIC = 0;
+
+    /**
+     * Membership tier of a gold member.
+     */
+    private static final byte GOLD = 1;
+
+    /**
+     * Membership tier of a platinum member.
+     */
+    private static final byte PLATINUM = 2;
+
+    /**
+     * Number of booking records skipped by the last load.
+     */
+    private static int skippedCount;
+
+    /**
+     * Constructs a StateSnapshot instance.
+     * <p>
+     * This class only provides static methods.
+     */
+    private StateSnapshot() {
+    }
+
+    /**
+     * Writes a snapshot of the current state of the managers and the user collection.
+     *
+     * @param path The snapshot file.
+     * @throws IOException If the snapshot cannot be written.
+     */
+    public static void write(Path path) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        CRC32 crc = new CRC32();
+        // collected before the data they refer to; see the class comment
+        ArrayList<FacilityBookRecord> facilityRecords = new ArrayList<>(FacilityBookManager.getInstance().getBookingRecords());
+        ArrayList<EquipmentBookRecord> equipmentRecords = new ArrayList<>(EquipmentBookManager.getInstance().getBookRecords());
+        try (FileOutputStream file = new FileOutputStream(temp.toFile())) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(file, crc)));
+            out.writeInt(MAGIC);
+            writeUsers(out);
+            writeFacilities(out);
+            writeEquipment(out);
+            writeStock(out);
+            writeBookings(out, facilityRecords, equipmentRecords);
+            out.flush();
+            new DataOutputStream(file).writeInt((int) crc.getValue());
+            file.getChannel().force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Replaces the state of the managers and the user collection with a snapshot.
+     *
+     * @param path The snapshot file.
+     * @return true if the snapshot was loaded, false if the file does not exist.
+     * @throws IOException If the snapshot cannot be read or is corrupt.
+     */
+    public static boolean load(Path path) throws IOException {
+        skippedCount = 0;
+        if (!Files.exists(path)) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < 8) {
+                throw new IOException("Snapshot " + path + " is truncated");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            ByteBuffer content = buffer.duplicate().limit((int) size - 4);
+            CRC32 crc = new CRC32();
+            crc.update(content.duplicate());
+            if ((int) crc.getValue() != buffer.getInt((int) size - 4)) {
+                throw new IOException("Snapshot " + path + " is corrupt");
+            }
+
+            DataInputStream in = new DataInputStream(new BufferInputStream(content));
+            if (in.readInt() != MAGIC) {
+                throw new IOException(path + " is not a snapshot");
+            }
+            // drop the bookings first, as they refer to everything else
+            FacilityBookManager.getInstance().reset();
+            EquipmentBookManager.getInstance().reset();
+            HashMap<Integer, User> users = readUsers(in);
+            readFacilities(in);
+            HashMap<String, Equipment> equipments = readEquipment(in);
+            readStock(in);
+            skippedCount = readBookings(in, users, equipments);
+        }
+        return true;
+    }
+
+    /**
+     * Retrieves the number of booking records skipped by the last load because they referred
+     * to an unknown user, facility or piece of equipment.
+     *
+     * @return The number of skipped booking records.
+     */
+    public static int getSkippedCount() {
+        return skippedCount;
+    }
+
+    /**
+     * Writes the users.
+     *
+     * @param out The stream to write to.
+     * @throws IOException If the users cannot be written.
+     */
+    private static void writeUsers(DataOutputStream out) throws IOException {
+        ArrayList<User> users = new ArrayList<>(UserCollection.getInstance().findUser());
+        out.writeInt(users.size());
+        for (User user : users) {
+            out.writeInt(user.getUserID());
+            out.writeUTF(user.getUsername());
+            out.writeUTF(user.getPassword());
+            UserSecurityAnswer answer = user.getSecurityAnswer();
+            out.writeBoolean(answer != null);
+            if (answer != null) {
+                out.writeUTF(answer.getQuestion());
+                out.writeUTF(answer.getAnswer());
+            }
+            writeMembership(out, user);
+        }
+    }
+
+    /**
+     * Writes the membership tier of a user.
+     *
+     * @param out The stream to write to.
+     * @param user The user.
+     * @throws IOException If the tier cannot be written.
+     */
+    static void writeMembership(DataOutputStream out, User user) throws IOException {
+        if (user.getMembership() instanceof PlatinumMemberShip) {
+            out.writeByte(PLATINUM);
+        } else if (user.getMembership() instanceof GoldMemberShip) {
+            out.writeByte(GOLD);
+        } else {
+            out.writeByte(BASIC);
+        }
+    }
+
+    /**
+     * Reads a membership tier and upgrades a user to it.
+     *
+     * @param in The stream to read from.
+     * @param user The user.
+     * @throws IOException If the tier cannot be read.
+     */
+    static void readMembership(DataInputStream in, User user) throws IOException {
+        byte tier = in.readByte();
+        if (tier == GOLD) {
+            user.upgradeToGold();
+        } else if (tier == PLATINUM) {
+            user.upgradeToPlatinum();
+        }
+    }
+
+    /**
+     * Reads the users into the user collection.
+     *
+     * @param in The stream to read from.
+     * @return The users by ID.
+     * @throws IOException If the users cannot be read.
+     */
+    private static HashMap<Integer, User> readUsers(DataInputStream in) throws IOException {
+        UserCollection userCollection = UserCollection.getInstance();
+        userCollection.clear();
+        HashMap<Integer, User> users = new HashMap<>();
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            int userId = in.readInt();
+            String username = in.readUTF();
+            String password = in.readUTF();
+            UserSecurityAnswer answer = in.readBoolean() ? new UserSecurityAnswer(in.readUTF(), in.readUTF()) : null;
+            User user = new User(username, userId, password, answer);
+            readMembership(in, user);
+            userCollection.restoreUser(user);
+            users.put(userId, user);
+        }
+        return users;
+    }
+
+    /**
+     * Writes the sport facilities.
+     *
+     * @param out The stream to write to.
+     * @throws IOException If the facilities cannot be written.
+     */
+    private static void writeFacilities(DataOutputStream out) throws IOException {
+        ArrayList<SportFacility> facilities = new ArrayList<>(SportFacilityManager.getInstance().getSportFacilities());
+        out.writeInt(facilities.size());
+        for (SportFacility facility : facilities) {
+            SportFacilityType type = facility.getSportFacilityType();
+            out.writeUTF(facility.getName());
+            out.writeUTF(type.getFacilityTypeName());
+            out.writeUTF(type.getSportType());
+            out.writeDouble(type.getPricePerHour());
+            out.writeUTF(facility.getStatus().name());
+        }
+    }
+
+    /**
+     * Reads the sport facilities into the facility manager.
+     *
+     * @param in The stream to read from.
+     * @throws IOException If the facilities cannot be read.
+     */
+    private static void readFacilities(DataInputStream in) throws IOException {
+        SportFacilityManager facilityManager = SportFacilityManager.getInstance();
+        facilityManager.reset();
+        HashMap<String, SportFacilityType> types = new HashMap<>();
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            String name = in.readUTF();
+            String typeName = in.readUTF();
+            String sportType = in.readUTF();
+            double pricePerHour = in.readDouble();
+            SportFacility.Status status = SportFacility.Status.valueOf(in.readUTF());
+            SportFacilityType type = types.computeIfAbsent(typeName, key -> new SportFacilityType(typeName, sportType, pricePerHour));
+            facilityManager.addSportFacility(new SportFacility(name, type, status));
+        }
+    }
+
+    /**
+     * Writes the equipment types and equipment.
+     *
+     * @param out The stream to write to.
+     * @throws IOException If the equipment cannot be written.
+     */
+    private static void writeEquipment(DataOutputStream out) throws IOException {
+        EquipmentTypeManager typeManager = EquipmentTypeManager.getInstance();
+        writeEquipmentTypes(out, new ArrayList<>(typeManager.getBorrowableTypes()));
+        writeEquipmentTypes(out, new ArrayList<>(typeManager.getSellableTypes()));
+
+        EquipmentManager equipmentManager = EquipmentManager.getInstance();
+        ArrayList<Equipment> equipments = new ArrayList<>(equipmentManager.getBorrowableCollection());
+        equipments.addAll(equipmentManager.getSellableCollection());
+        out.writeInt(equipments.size());
+        for (Equipment equipment : equipments) {
+            out.writeUTF(equipment.getEquipmentType().getEquipmentTypeID());
+            out.writeInt(equipment.getEquipmentNumber());
+        }
+    }
+
+    /**
+     * Writes a list of equipment types.
+     *
+     * @param out The stream to write to.
+     * @param types The equipment types.
+     * @throws IOException If the types cannot be written.
+     */
+    private static void writeEquipmentTypes(DataOutputStream out, ArrayList<EquipmentType> types) throws IOException {
+        out.writeInt(types.size());
+        for (EquipmentType type : types) {
+            out.writeUTF(type.getEquipmentTypeID());
+            out.writeUTF(type.getEquipmentTypeName());
+            out.writeUTF(type.getEquipmentTypeShortName());
+            out.writeUTF(type.getSportType());
+            out.writeDouble(type.getPrice());
+        }
+    }
+
+    /**
+     * Reads the equipment types and equipment into their managers.
+     *
+     * @param in The stream to read from.
+     * @return The equipment by formatted equipment ID.
+     * @throws IOException If the equipment cannot be read.
+     */
+    private static HashMap<String, Equipment> readEquipment(DataInputStream in) throws IOException {
+        EquipmentTypeManager typeManager = EquipmentTypeManager.getInstance();
+        typeManager.reset();
+        HashMap<String, EquipmentType> types = new HashMap<>();
+        for (EquipmentType type : readEquipmentTypes(in)) {
+            typeManager.addBorrowableType(type);
+            types.put(type.getEquipmentTypeID(), type);
+        }
+        for (EquipmentType type : readEquipmentTypes(in)) {
+            typeManager.addSellableType(type);
+            types.put(type.getEquipmentTypeID(), type);
+        }
+
+        EquipmentManager equipmentManager = EquipmentManager.getInstance();
+        equipmentManager.reset();
+        HashMap<String, Equipment> equipments = new HashMap<>();
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            EquipmentType type = types.get(in.readUTF());
+            int number = in.readInt();
+            if (type == null) {
+                throw new IOException("Snapshot refers to an unknown equipment type");
+            }
+            Equipment equipment = new Equipment(number, type);
+            equipmentManager.addEquipment(equipment);
+            equipments.put(equipment.getEquipmentID(), equipment);
+        }
+        return equipments;
+    }
+
+    /**
+     * Reads a list of equipment types.
+     *
+     * @param in The stream to read from.
+     * @return The equipment types.
+     * @throws IOException If the types cannot be read.
+     */
+    private static ArrayList<EquipmentType> readEquipmentTypes(DataInputStream in) throws IOException {
+        ArrayList<EquipmentType> types = new ArrayList<>();
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            types.add(new EquipmentType(in.readUTF(), in.readUTF(), in.readUTF(), in.readUTF(), in.readDouble()));
+        }
+        return types;
+    }
+
+    /**
+     * Writes the stock of the tracked sellable equipment types.
+     *
+     * @param out The stream to write to.
+     * @throws IOException If the stock cannot be written.
+     */
+    private static void writeStock(DataOutputStream out) throws IOException {
+        StockLedger ledger = StockLedger.getInstance();
+        ArrayList<EquipmentType> tracked = new ArrayList<>();
+        for (EquipmentType type : EquipmentTypeManager.getInstance().getSellableTypes()) {
+            if (ledger.isTracked(type)) {
+                tracked.add(type);
+            }
+        }
+        out.writeInt(tracked.size());
+        for (EquipmentType type : tracked) {
+            out.writeUTF(type.getEquipmentTypeID());
+            out.writeLong(ledger.getAvailable(type));
+            out.writeLong(ledger.getReserved(type));
+        }
+    }
+
+    /**
+     * Reads the stock of the sellable equipment types into the stock ledger.
+     * <p>
+     * Reserved units are returned to the available stock here; reading the PENDING sales
+     * afterwards reserves them again.
+     *
+     * @param in The stream to read from.
+     * @throws IOException If the stock cannot be read.
+     */
+    private static void readStock(DataInputStream in) throws IOException {
+        EquipmentTypeManager typeManager = EquipmentTypeManager.getInstance();
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            EquipmentType type = typeManager.getEquipmentTypeByID(in.readUTF());
+            long available = in.readLong();
+            long reserved = in.readLong();
+            if (type == null) {
+                throw new IOException("Snapshot refers to an unknown equipment type");
+            }
+            StockLedger.getInstance().setStock(type, available + reserved);
+        }
+    }
+
+    /**
+     * Writes the facility and equipment booking records.
+     *
+     * @param out The stream to write to.
+     * @param facilityRecords The facility booking records.
+     * @param equipmentRecords The equipment booking records.
+     * @throws IOException If the records cannot be written.
+     */
+    private static void writeBookings(DataOutputStream out, ArrayList<FacilityBookRecord> facilityRecords, ArrayList<EquipmentBookRecord> equipmentRecords) throws IOException {
+        out.writeInt(facilityRecords.size());
+        for (FacilityBookRecord record : facilityRecords) {
+            BookingLog.writeRecord(out, record);
+        }
+        out.writeInt(equipmentRecords.size());
+        for (EquipmentBookRecord record : equipmentRecords) {
+            BookingLog.writeRecord(out, record);
+        }
+    }
+
+    /**
+     * Reads the facility and equipment booking records into their managers.
+     * <p>
+     * Records referring to an unknown user, facility or piece of equipment are skipped.
+     *
+     * @param in The stream to read from.
+     * @param users The users by ID.
+     * @param equipments The equipment by formatted equipment ID.
+     * @return The number of skipped records.
+     * @throws IOException If the records cannot be read.
+     */
+    private static int readBookings(DataInputStream in, HashMap<Integer, User> users, HashMap<String, Equipment> equipments) throws IOException {
+        FacilityBookManager facilityBookManager = FacilityBookManager.getInstance();
+        SportFacilityManager facilityManager = SportFacilityManager.getInstance();
+        int skipped = 0;
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            BookingLog.RecordFields fields = BookingLog.readFields(in, users);
+            SportFacility facility = facilityManager.getSportFacilityByName(in.readUTF());
+            if (fields.user == null || facility == null) {
+                skipped++;
+                continue;
+            }
+            FacilityBookRecord record = new FacilityBookRecord(facility, fields.user, fields.date, fields.startHour, fields.endHour, fields.status);
+            fields.restore(record);
+            facilityBookManager.addBooking(record);
+        }
+
+        EquipmentBookManager equipmentBookManager = EquipmentBookManager.getInstance();
+        count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            BookingLog.RecordFields fields = BookingLog.readFields(in, users);
+            int quantity = in.readInt();
+            int size = in.readInt();
+            ArrayList<Equipment> bookedEquipments = new ArrayList<>();
+            boolean isKnown = (fields.user != null) && (size > 0);
+            for (int j = 0; j < size; j++) {
+                Equipment equipment = equipments.get(in.readUTF());
+                if (equipment == null) {
+                    isKnown = false;
+                }
+                bookedEquipments.add(equipment);
+            }
+            if (!isKnown) {
+                skipped++;
+                continue;
+            }
+            EquipmentBookRecord record;
+            if (quantity == bookedEquipments.size()) {
+                record = new EquipmentBookRecord(bookedEquipments, fields.user, fields.date, fields.startHour, fields.endHour, fields.status);
+            } else {
+                record = new EquipmentBookRecord(bookedEquipments.get(0), fields.user, fields.date, fields.startHour, fields.endHour, fields.status, quantity);
+            }
+            fields.restore(record);
+            equipmentBookManager.addBookRecord(record);
+        }
+        return skipped;
+    }
+
+    /**
+     * Input stream reading from a byte buffer, such as a memory-mapped file.
+     */
+    private static class BufferInputStream extends InputStream {
+
+        /**
+         * The buffer to read from.
+         */
+        private ByteBuffer buffer;
+
+        /**
+         * Constructs a stream reading the remaining bytes of a buffer.
+         *
+         * @param buffer The buffer to read from.
+         */
+        private BufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? (buffer.get() & 0xff) : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+    }
+}
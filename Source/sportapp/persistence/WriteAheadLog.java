@@ -0,0 +1,406 @@
+package sportapp.persistence;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log file whose entries are durable once {@link #append} returns.
+ * <p>
+ * Each entry is framed by its length and a CRC32 checksum, so a write torn by a crash is
+ * detected and cut off when the log is opened again. Appends from many threads are batched
+ * by a single flusher thread: while one batch is being written and forced to disk, new
+ * entries collect in memory and are forced together in the next batch, so one fsync covers
+ * every caller waiting at that moment.
+ * <p>
+ * Once a snapshot covers the start of the log, {@link #discardBefore} drops that part so the
+ * log only holds the changes made after the snapshot.
+ */
+public class WriteAheadLog implements Closeable {
+
+    /**
+     * The log file.
+     */
+    private Path path;
+
+    /**
+     * Channel used to write and force the log file.
+     */
+    private FileChannel channel;
+
+    /**
+     * Lock guarding the channel while a batch is written or the log is compacted.
+     */
+    private final Object ioLock = new Object();
+
+    /**
+     * Lock guarding the pending batch and the sequence numbers.
+     */
+    private final Object lock = new Object();
+
+    /**
+     * Framed entries waiting for the next flush.
+     */
+    private ByteArrayOutputStream pending;
+
+    /**
+     * Sequence number of the last appended entry.
+     */
+    private long appendedSequence;
+
+    /**
+     * Sequence number of the last entry forced to disk.
+     */
+    private long durableSequence;
+
+    /**
+     * The error that stopped the flusher, if any.
+     */
+    private IOException failure;
+
+    /**
+     * Whether the log has been closed.
+     */
+    private boolean closed;
+
+    /**
+     * Thread writing and forcing the batches.
+     */
+    private Thread flusher;
+
+    /**
+     * Number of entries appended.
+     */
+    private AtomicLong appendCount;
+
+    /**
+     * Number of batches forced to disk.
+     */
+    private AtomicLong syncCount;
+
+    /**
+     * Opens a log file for appending, creating it if needed and cutting off a torn tail.
+     *
+     * @param path The log file.
+     * @throws IOException If the file cannot be opened.
+     */
+    public WriteAheadLog(Path path) throws IOException {
+        this.path = path;
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        long validLength = scan(path, null);
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.truncate(validLength);
+        channel.position(validLength);
+
+        pending = new ByteArrayOutputStream();
+        appendCount = new AtomicLong();
+        syncCount = new AtomicLong();
+        flusher = new Thread(this::flushLoop, "wal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Reads the intact entries of a log file, in order.
+     *
+     * @param path The log file.
+     * @return A list of the entry payloads, empty if the file does not exist.
+     * @throws IOException If the file cannot be read.
+     */
+    public static ArrayList<byte[]> readEntries(Path path) throws IOException {
+        ArrayList<byte[]> entries = new ArrayList<>();
+        scan(path, entries);
+        return entries;
+    }
+
+    /**
+     * Retrieves the log file.
+     *
+     * @return The path of the log file.
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Appends an entry and waits until it has been forced to disk.
+     *
+     * @param payload The entry to append.
+     * @throws IOException If the log is closed or the entry could not be written.
+     */
+    public void append(byte[] payload) throws IOException {
+        awaitDurable(enqueue(payload));
+    }
+
+    /**
+     * Appends an entry without waiting for it to reach the disk.
+     * <p>
+     * Entries are written in the order they were enqueued. Pass the returned sequence number
+     * to {@link #awaitDurable} to wait for the entry, for example after releasing a lock that
+     * kept the entries of several threads in order.
+     *
+     * @param payload The entry to append.
+     * @return The sequence number of the entry.
+     * @throws IOException If the log is closed or has failed.
+     */
+    public long enqueue(byte[] payload) throws IOException {
+        synchronized (lock) {
+            if (closed) {
+                throw new IOException("Write-ahead log is closed");
+            }
+            checkFailure();
+            writeFrame(pending, payload);
+            appendCount.incrementAndGet();
+            lock.notifyAll();
+            return ++appendedSequence;
+        }
+    }
+
+    /**
+     * Waits until the entries up to a sequence number have been forced to disk.
+     *
+     * @param sequence A sequence number returned by {@link #enqueue}.
+     * @throws IOException If the entries could not be written.
+     */
+    public void awaitDurable(long sequence) throws IOException {
+        synchronized (lock) {
+            boolean interrupted = false;
+            while (durableSequence < sequence && failure == null) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            if (durableSequence < sequence) {
+                checkFailure();
+            }
+        }
+    }
+
+    /**
+     * Retrieves the number of entries appended since the log was opened.
+     *
+     * @return The number of entries appended.
+     */
+    public long getAppendCount() {
+        return appendCount.get();
+    }
+
+    /**
+     * Retrieves the number of batches forced to disk since the log was opened.
+     *
+     * @return The number of fsyncs.
+     */
+    public long getSyncCount() {
+        return syncCount.get();
+    }
+
+    /**
+     * Retrieves the length of the entries written to the file so far.
+     * <p>
+     * The length always falls on an entry boundary, so it can be passed to {@link #discardBefore}.
+     *
+     * @return The length of the written part of the log.
+     * @throws IOException If the file cannot be accessed.
+     */
+    public long getWrittenLength() throws IOException {
+        synchronized (ioLock) {
+            return channel.position();
+        }
+    }
+
+    /**
+     * Drops the entries before a given position, keeping the ones written after it.
+     * <p>
+     * The remaining entries are copied to a new file that atomically replaces the log, so a
+     * crash leaves either the old or the compacted log behind.
+     *
+     * @param offset A length previously returned by {@link #getWrittenLength}.
+     * @throws IOException If the log cannot be rewritten.
+     */
+    public void discardBefore(long offset) throws IOException {
+        synchronized (ioLock) {
+            long end = channel.position();
+            Path compacted = path.resolveSibling(path.getFileName() + ".tmp");
+            try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                long position = offset;
+                while (position < end) {
+                    position += channel.transferTo(position, end - position, out);
+                }
+                out.force(true);
+            }
+            channel.close();
+            Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            channel.position(channel.size());
+        }
+    }
+
+    /**
+     * Flushes the pending entries and closes the log file.
+     *
+     * @throws IOException If the file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            lock.notifyAll();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (ioLock) {
+            channel.close();
+        }
+    }
+
+    /**
+     * Writes batches to the file until the log is closed.
+     */
+    private void flushLoop() {
+        while (true) {
+            byte[] batch;
+            long target;
+            synchronized (lock) {
+                while (pending.size() == 0 && !closed) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        // keep flushing until closed
+                    }
+                }
+                if (pending.size() == 0) {
+                    return;
+                }
+                batch = pending.toByteArray();
+                pending.reset();
+                target = appendedSequence;
+            }
+
+            try {
+                synchronized (ioLock) {
+                    ByteBuffer buffer = ByteBuffer.wrap(batch);
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                    channel.force(false);
+                }
+                syncCount.incrementAndGet();
+            } catch (IOException e) {
+                synchronized (lock) {
+                    failure = e;
+                    lock.notifyAll();
+                }
+                return;
+            }
+
+            synchronized (lock) {
+                durableSequence = target;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Throws the error that stopped the flusher, if any.
+     * Must be called while holding the lock.
+     *
+     * @throws IOException If the flusher failed.
+     */
+    private void checkFailure() throws IOException {
+        if (failure != null) {
+            throw new IOException("Write-ahead log failed", failure);
+        }
+    }
+
+    /**
+     * Writes an entry with its length and checksum.
+     *
+     * @param out The stream to write to.
+     * @param payload The entry to write.
+     */
+    private static void writeFrame(ByteArrayOutputStream out, byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        DataOutputStream data = new DataOutputStream(out);
+        try {
+            data.writeInt(payload.length);
+            data.writeInt((int) crc.getValue());
+            data.write(payload);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Reads the intact entries at the start of a log file.
+     *
+     * @param path The log file.
+     * @param entries The list receiving the entry payloads, or null to only measure.
+     * @return The length of the intact part of the file.
+     * @throws IOException If the file cannot be read.
+     */
+    private static long scan(Path path, ArrayList<byte[]> entries) throws IOException {
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        long fileLength = Files.size(path);
+        long validLength = 0;
+        try (InputStream in = Files.newInputStream(path);
+             DataInputStream data = new DataInputStream(new BufferedInputStream(in))) {
+            while (true) {
+                int length;
+                int checksum;
+                byte[] payload;
+                try {
+                    length = data.readInt();
+                    checksum = data.readInt();
+                    if (length < 0 || length > fileLength - validLength - 8) {
+                        break;
+                    }
+                    payload = new byte[length];
+                    data.readFully(payload);
+                } catch (EOFException e) {
+                    break;
+                }
+
+                CRC32 crc = new CRC32();
+                crc.update(payload);
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+                if (entries != null) {
+                    entries.add(payload);
+                }
+                validLength += 8 + length;
+            }
+        }
+        return validLength;
+    }
+}
@@ -1,8 +1,12 @@
 package sportapp.screen;
+import java.time.Duration;
 import java.util.Scanner;
 
+import sportapp.CredentialVerifier;
+import sportapp.LoginThrottle;
 import sportapp.Route;
 import sportapp.Screen;
+import sportapp.SessionContext;
 import sportapp.SportApp;
 import sportapp.User;
 import sportapp.UserCollection;
@@ -11,6 +15,8 @@ import sportapp.UserCollection;
  * Represents the login screen in the sport management system.
  * <p>
  * This screen allows users to log in by providing their username and password.
+ * Attempts are limited per username by the {@link LoginThrottle}; a throttled attempt is
+ * turned away before the password is checked.
  */
 
 public class LoginScreen implements Screen {
@@ -39,8 +45,25 @@ public class LoginScreen implements Screen {
 
         System.out.print("Please enter your password: ");
         password = scanner.nextLine();
-        
-        if ((loginUser == null) || (loginUser.verifyPassword(password) == false)) {
+
+        LoginThrottle throttle = LoginThrottle.getInstance();
+        Duration retryAfter = throttle.tryAcquire(username);
+        if (!retryAfter.isZero()) {
+            long seconds = (retryAfter.toMillis() + 999) / 1000;
+            System.out.printf("Too many login attempts for this account. Please try again in %d seconds.\n", seconds);
+            return Route.PORTAL;
+        }
+
+        boolean verified;
+        try {
+            verified = CredentialVerifier.getInstance().verifyPassword(loginUser, password);
+        } catch (IllegalStateException ex) {
+            System.out.println(ex.getMessage());
+            return Route.PORTAL;
+        }
+
+        if ((loginUser == null) || (verified == false)) {
+            throttle.recordFailure(username);
             System.out.println("Your username or password is incorrect.");
             System.out.println("Continue? (Y/N)");
             String option = scanner.nextLine();
@@ -49,8 +72,23 @@ public class LoginScreen implements Screen {
             else { return Route.PORTAL; }
         }
 
-        SportApp.setCurrentUser(loginUser);
+        throttle.recordSuccess(username);
         System.out.println("Login successfully! Now jump to Home Page.");
         return Route.HOME;
     }
+
+    /**
+     * Displays the login screen and starts a session for the user on success.
+     * @param scanner input scanner
+     * @param session session context of the console
+     * @return next application route
+     */
+    @Override
+    public Route display(Scanner scanner, SessionContext session) {
+        Route route = display(scanner, (User) null);
+        if (route == Route.HOME) {
+            session.signIn(loginUser);
+        }
+        return route;
+    }
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ import java.util.Scanner;
 
 import sportapp.Route;
 import sportapp.Screen;
+import sportapp.SessionContext;
 import sportapp.User;
 
 /**
@@ -25,4 +26,16 @@ public class LogoutScreen implements Screen {
         System.out.println("You have been logged out. Now jump to Portal.");
         return Route.PORTAL;
     }
+
+    /**
+     * Ends the session of the console and displays the logout message.
+     * @param scanner input scanner
+     * @param session session context of the console
+     * @return next application route
+     */
+    @Override
+    public Route display(Scanner scanner, SessionContext session) {
+        session.signOut();
+        return display(scanner, (User) null);
+    }
 }
\ No newline at end of file
@@ -4,6 +4,7 @@ import java.util.Scanner;
 import sportapp.PasswordStrengthAnalysis;
 import sportapp.Route;
 import sportapp.Screen;
+import sportapp.SessionContext;
 import sportapp.SportApp;
 import sportapp.User;
 import sportapp.UserCollection;
@@ -16,6 +17,7 @@ import sportapp.UserSecurityAnswer;
  */
 public class RegisterScreen implements Screen {
     private static UserCollection userCollection = UserCollection.getInstance();
+    private User registeredUser;
 
     /**
      * Constructs a RegisterScreen instance.
@@ -27,6 +29,7 @@ public class RegisterScreen implements Screen {
     }
 
     public Route display(Scanner scanner, User user) {
+        registeredUser = null;
         String username = "";
         String password = "";
         String question = "";
@@ -68,8 +71,13 @@ public class RegisterScreen implements Screen {
         answer = scanner.nextLine();
         
         UserSecurityAnswer securityAnswer = new UserSecurityAnswer(question, answer);
-        User newUser = userCollection.addUser(username, password, securityAnswer);
-        SportApp.setCurrentUser(newUser);
+        User newUser = userCollection.registerUser(username, password, securityAnswer);
+        if (newUser == null) {
+            // someone else registered the name while this user was typing
+            System.out.println("The username has already been taken. Please register again.");
+            return Route.PORTAL;
+        }
+        registeredUser = newUser;
 
         System.out.println("\nRegistered successfully!");
         System.out.printf("Username: %s\n", username);
@@ -80,4 +88,19 @@ public class RegisterScreen implements Screen {
         
         return Route.HOME;
     }
+
+    /**
+     * Displays the register screen and starts a session for the new user on success.
+     * @param scanner input scanner
+     * @param session session context of the console
+     * @return next application route
+     */
+    @Override
+    public Route display(Scanner scanner, SessionContext session) {
+        Route route = display(scanner, (User) null);
+        if (route == Route.HOME && registeredUser != null) {
+            session.signIn(registeredUser);
+        }
+        return route;
+    }
 }
\ No newline at end of file
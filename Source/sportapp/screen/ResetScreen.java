@@ -1,7 +1,10 @@
 package sportapp.screen;
+import java.time.Duration;
 import java.util.Scanner;
 
 import sportapp.PasswordStrengthAnalysis;
+import sportapp.CredentialVerifier;
+import sportapp.LoginThrottle;
 import sportapp.Route;
 import sportapp.Screen;
 import sportapp.SportApp;
@@ -13,6 +16,8 @@ import sportapp.UserCollection;
  * <p>
  * This screen allows users to reset their password by verifying their security question
  * and setting a new password that meets the application's strength requirements.
+ * Answers count against the same {@link LoginThrottle} budget as passwords, so the security
+ * question is no easier to guess than the password.
  */
 public class ResetScreen implements Screen {
     private static UserCollection userCollection = UserCollection.getInstance();
@@ -41,19 +46,37 @@ public class ResetScreen implements Screen {
         System.out.println("Please answer this question:");
         String answer = scanner.nextLine();
         
-        while (myUser.verifySercurityAnswer(answer) == false) {
-            System.out.println("Your answer is wrong. Please try again.");
-            System.out.println("Continue? (Y/N)");
-            String choice = scanner.nextLine();
-        
-            if(SportApp.ContinueOrNot(choice, scanner) == false){
-                return Route.PORTAL;
+        LoginThrottle throttle = LoginThrottle.getInstance();
+        try {
+            while (true) {
+                Duration retryAfter = throttle.tryAcquire(username);
+                if (!retryAfter.isZero()) {
+                    long seconds = (retryAfter.toMillis() + 999) / 1000;
+                    System.out.printf("Too many attempts for this account. Please try again in %d seconds.\n", seconds);
+                    return Route.PORTAL;
+                }
+                if (CredentialVerifier.getInstance().verifySecurityAnswer(myUser, answer)) {
+                    break;
+                }
+
+                throttle.recordFailure(username);
+                System.out.println("Your answer is wrong. Please try again.");
+                System.out.println("Continue? (Y/N)");
+                String choice = scanner.nextLine();
+            
+                if(SportApp.ContinueOrNot(choice, scanner) == false){
+                    return Route.PORTAL;
+                }
+            
+                System.out.println(myUser.getQuestion());
+                System.out.println("Please answer this question:");
+                answer = scanner.nextLine();
             }
-        
-            System.out.println(myUser.getQuestion());
-            System.out.println("Please answer this question:");
-            answer = scanner.nextLine();
+        } catch (IllegalStateException ex) {
+            System.out.println(ex.getMessage());
+            return Route.PORTAL;
         }
+        throttle.recordSuccess(username);
         
         System.out.println("Please enter your new password: (A strong password should be at least 8 characters long and include uppercase letters, lowercase letters, digits, and special characters.)");
         String newPassword = scanner.nextLine();
@@ -14,6 +14,7 @@ import sportapp.model.Equipment;
 import sportapp.model.EquipmentType;
 import sportapp.model.EquipmentBookRecord;
 import sportapp.model.FacilityBookRecord;
+import sportapp.model.ReservationResult;
 
 /**
  * Provides the user interface for borrowing equipment in the sport management system.
@@ -177,25 +178,27 @@ public class BorrowEquipmentUI {
 
   /**
    * Borrows the equipment for the user.
+   * <p>
+   * The free pieces are checked again when the booking is made, so equipment taken by
+   * someone else since the table was shown is never borrowed twice.
    *
    * @param targetType The target equipment type.
    * @param quantity The quantity of equipment to borrow.
    */
   public void borrowEquipment(EquipmentType targetType, int quantity) {
-    // available nums > quantity, enough to do borrow
-    ArrayList<Equipment> targetEquips = new ArrayList<>();
-    for (int i=0; i<quantity; i++) {
-      targetEquips.add(availableEquipments.get(targetType).get(i));
-    }
-
-    EquipmentBookRecord bookRecord = new EquipmentBookRecord(
-      facilityBookRecord, 
-      targetEquips, 
+    ReservationResult<EquipmentBookRecord> result = bookRecordCollection.tryReserve(
+      targetType,
+      facilityBookRecord,
+      quantity,
       currentUser
     );
+    if (!result.isReserved()) {
+      System.out.println("ERROR: Not enough equipments for you to borrow.");
+      return;
+    }
 
-    bookRecordCollection.addBookRecord(bookRecord);
-    
+    EquipmentBookRecord bookRecord = result.getBookRecord();
+    ArrayList<Equipment> targetEquips = bookRecord.getBookingEquipment();
     for (Equipment equip: targetEquips) {
       System.out.printf("Success borrow %s %s by %s\n", 
         equip.getEquipmentID(), 
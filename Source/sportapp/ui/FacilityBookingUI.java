@@ -6,23 +6,33 @@ import java.time.format.DateTimeParseException;
 import java.util.Scanner;
 
 import sportapp.Clock;
+import sportapp.EquipmentBookingControl;
 import sportapp.FacilityBookingControl;
 import sportapp.User;
+import sportapp.manager.BundleReservationManager;
+import sportapp.manager.EquipmentTypeManager;
 import sportapp.manager.FacilityBookManager;
 import sportapp.manager.SportFacilityManager;
-import sportapp.model.BookingStatus;
-import sportapp.model.FacilityBookRecord;
+import sportapp.model.BundleReservationResult;
+import sportapp.model.Equipment;
+import sportapp.model.EquipmentBookRecord;
+import sportapp.model.EquipmentType;
 import sportapp.model.SportFacility;
 import sportapp.Route;
 import sportapp.Screen;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * Provides the user interface for booking sport facilities in the sport management system.
  * <p>
  * This class allows users to view available facilities, select a facility to book,
- * and manage the booking process.
+ * and manage the booking process. Borrowable equipment for the sport can be chosen with the
+ * time slot, and the facility and equipment are then reserved together, so a booking never
+ * ends up with only one of them.
  */
 public class FacilityBookingUI implements Screen {
 
@@ -51,6 +61,21 @@ public class FacilityBookingUI implements Screen {
      */
     private FacilityBookingControl facilityBookingControl;
 
+    /**
+     * Controller for checking the free equipment of a time slot.
+     */
+    private EquipmentBookingControl equipmentBookingControl;
+
+    /**
+     * Manager for handling equipment types.
+     */
+    private EquipmentTypeManager typeManager;
+
+    /**
+     * Manager for reserving a facility together with equipment.
+     */
+    private BundleReservationManager bundleManager;
+
     /**
      * Constructs a FacilityBookingUI with the specified scanner and user.
      *
@@ -63,6 +88,9 @@ public class FacilityBookingUI implements Screen {
         this.facilityManager = SportFacilityManager.getInstance();
         this.bookingManager = FacilityBookManager.getInstance();
         this.facilityBookingControl = new FacilityBookingControl();
+        this.equipmentBookingControl = new EquipmentBookingControl();
+        this.typeManager = EquipmentTypeManager.getInstance();
+        this.bundleManager = BundleReservationManager.getInstance();
     }
 
     /**
@@ -212,16 +240,97 @@ public class FacilityBookingUI implements Screen {
         }
 
         // --- The rest of your code to create and confirm the booking ---
-        FacilityBookRecord newBooking = new FacilityBookRecord(facility, currentUser, date, startHourInput, endHourInput, BookingStatus.PENDING);
-        bookingManager.addBooking(newBooking);
+        Map<EquipmentType, Integer> items = selectEquipment(facility, date, startHourInput, endHourInput);
+        BundleReservationResult reservation = bundleManager.tryReserve(facility, date, startHourInput, endHourInput, currentUser, items);
+        if (!reservation.isReserved()) {
+            if (reservation.getFailedType() != null) {
+                System.out.println("Sorry, there are no longer enough " + reservation.getFailedType().getEquipmentTypeName()
+                    + " for that time slot. Nothing has been booked; please try again.");
+                return;
+            }
+            switch (reservation.getOutcome()) {
+                case UNAVAILABLE:
+                    System.out.println("Sorry, " + facility.getName() + " is no longer open for booking. Please choose another facility.");
+                    break;
+                case INVALID_TIME_SLOT:
+                    System.out.println("Sorry, the time slot must be within operating hours (0900 to 2100). Please try another time slot.");
+                    break;
+                default:
+                    System.out.println("Sorry, the requested time slot has just been taken. Please try another time slot.");
+                    break;
+            }
+            return;
+        }
         // System.out.println("number of existing booking after " + bookingManager.getBookingRecords().size());
         System.out.println("User: " + currentUser.getUsername());
 
         System.out.println("Booking confirmed for: " + facility.getName());
         System.out.println("Date: " + date);
         System.out.printf("Time: %d:00 - %d:00\n", startHourInput, endHourInput);
+        for (EquipmentBookRecord equipmentRecord : reservation.getEquipmentRecords()) {
+            for (Equipment equip : equipmentRecord.getBookingEquipment()) {
+                System.out.printf("Borrowed: %s %s\n", equip.getEquipmentID(), equip.getEquipmentName());
+            }
+        }
         System.out.println("\nLate return of facility will face penalty!");
     }
+
+    /**
+     * Offers the free borrowable equipment of the facility's sport for a time slot, to be
+     * reserved together with the facility. Nothing is asked if no equipment is free.
+     *
+     * @param facility The facility being booked.
+     * @param date The date of the booking.
+     * @param startHour The start hour of the booking.
+     * @param endHour The end hour of the booking.
+     * @return The chosen quantity of each equipment type, empty if none.
+     */
+    private Map<EquipmentType, Integer> selectEquipment(SportFacility facility, LocalDate date, int startHour, int endHour) {
+        Map<EquipmentType, Integer> items = new LinkedHashMap<>();
+        String sportType = facility.getSportFacilityType().getSportType();
+        Map<EquipmentType, Integer> freeQuantities = new TreeMap<>(equipmentBookingControl.getAvailableEquipmentsQuantityByType(
+            new ArrayList<>(typeManager.getBorrowableTypesBySportType(sportType)), date, startHour, endHour));
+        freeQuantities.values().removeIf(quantity -> quantity == 0);
+        if (freeQuantities.isEmpty()) {
+            return items;
+        }
+
+        System.out.print("Do you want to borrow equipment for this booking? (y/n): ");
+        if (!scanner.nextLine().trim().equalsIgnoreCase("y")) {
+            return items;
+        }
+        System.out.println("Free equipment for " + sportType + ":");
+        for (Map.Entry<EquipmentType, Integer> free : freeQuantities.entrySet()) {
+            System.out.printf("%-6s %-30s %d free\n", free.getKey().getEquipmentTypeID(), free.getKey().getEquipmentTypeName(), free.getValue());
+        }
+
+        while (true) {
+            System.out.print("Please input Equipment Type ID (e.g ET-001) or [D] when done: ");
+            String input = scanner.nextLine().trim().toUpperCase();
+            if (input.equals("D")) {
+                return items;
+            }
+            EquipmentType type = typeManager.getEquipmentTypeByID(input);
+            if (type == null || !freeQuantities.containsKey(type)) {
+                System.out.println("ERROR: Equipment Type not found.");
+                continue;
+            }
+
+            System.out.print("Please input the quantity: ");
+            try {
+                int quantity = Integer.parseInt(scanner.nextLine().trim());
+                if (quantity <= 0) {
+                    System.out.println("Error: Input is incorrect. Please try again.");
+                } else if (quantity > freeQuantities.get(type)) {
+                    System.out.println("ERROR: Not enough equipments for you to borrow.");
+                } else {
+                    items.put(type, quantity);
+                }
+            } catch (NumberFormatException e) {
+                System.out.println("Error: Input is incorrect. Please try again.");
+            }
+        }
+    }
 }
 
 
@@ -1,6 +1,7 @@
 package sportapp.ui;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Scanner;
 
 import sportapp.User;
@@ -8,6 +9,7 @@ import sportapp.User;
 import sportapp.manager.EquipmentBookManager;
 import sportapp.manager.EquipmentManager;
 import sportapp.manager.EquipmentTypeManager;
+import sportapp.manager.StockLedger;
 import sportapp.model.Equipment;
 import sportapp.model.EquipmentBookRecord;
 import sportapp.model.EquipmentType;
@@ -76,7 +78,7 @@ public class SellEquipmentUI {
         this.facilityBookRecord = facilityBookRecord;
 
         // Display Equipment Table
-        ArrayList<EquipmentType> types = typeCollection.getSellableTypesBySportType(sportType);
+        List<EquipmentType> types = typeCollection.getSellableTypesBySportType(sportType);
         if (types.isEmpty()) {
             System.out.printf("There are no sellable equipments for %s Court.\n", sportType);
             return false;
@@ -133,6 +135,8 @@ public class SellEquipmentUI {
                     System.out.println("Error: Input is incorrect. Please try again.\n");
                 } else if (quantity > 50) {
                     System.out.println("Error: You can only buy at most 50 equipments at once.\n");
+                } else if (quantity > StockLedger.getInstance().getAvailable(targetType)) {
+                    System.out.printf("Error: Only %d left in stock.\n\n", StockLedger.getInstance().getAvailable(targetType));
                 } else {
                     break;
                 }
@@ -160,7 +164,12 @@ public class SellEquipmentUI {
             quantity
         );
 
-        bookRecordCollection.addBookRecord(record);
+        try {
+            bookRecordCollection.addBookRecord(record);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error: " + e.getMessage());
+            return;
+        }
 
         System.out.printf("%s %s x %d putted into pending list successfully.\n", 
             targetEquips.get(0).getEquipmentID(), 
@@ -174,7 +183,7 @@ public class SellEquipmentUI {
      *
      * @param types The list of equipment types to display.
      */
-    private void displayEquipmentTable(ArrayList<EquipmentType> types) {
+    private void displayEquipmentTable(List<EquipmentType> types) {
         System.out.println("\n==================== Equipment Sales =====================");
         System.out.printf("|| %-6s || %-30s || %-8s ||\n", 
             "ID",
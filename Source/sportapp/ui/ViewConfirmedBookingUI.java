@@ -145,12 +145,12 @@ public class ViewConfirmedBookingUI implements Screen {
         while (inLoop) {
             try {
             	cbm.resetUserCollection(currUser);
-                if (cbm.isCollectionEmpty()) {
+                if (cbm.isCollectionEmpty(currUser)) {
                     System.out.println("The collection of the user is empty. No display can be shown.");
                     return Route.HOME;
                 }
 
-            	cbm.displayConfirmedRecord(2);
+            	cbm.displayConfirmedRecord(currUser, 2);
                 System.out.println("Booking Options:");
                 System.out.println("1. Update date and time");
                 System.out.println("2. Update facility");
@@ -221,7 +221,7 @@ public class ViewConfirmedBookingUI implements Screen {
         
         SportFacility ChosenFacility= null;
 
-        if (inputChoice > availableFacilities.size() || inputChoice < 0) {
+        if (inputChoice >= availableFacilities.size() || inputChoice < 0) {
             throw new Exception("Invalid Input");
         }
         ChosenFacility = availableFacilities.get(inputChoice);
@@ -309,10 +309,10 @@ public class ViewConfirmedBookingUI implements Screen {
      * @throws Exception if the update process encounters an error.
      */
     public void updateDateTime() throws Exception {
-        ConfirmedBookingControl confirmedBookingControl = new ConfirmedBookingControl();
+        ConfirmedBookingControl confirmedBookingControl = new ConfirmedBookingControl(currUser);
         System.out.print("\nInput which type of booking to update with (1: Equipment, 2: Facility): ");
         confirmedBookingControl.setType(scanner.nextInt() - 1);
-        boolean didDisplay = cbm.displayConfirmedRecord(confirmedBookingControl.currTargetType.ordinal());
+        boolean didDisplay = cbm.displayConfirmedRecord(currUser, confirmedBookingControl.currTargetType.ordinal());
         if (!didDisplay) 
             return;
 
@@ -346,10 +346,10 @@ public class ViewConfirmedBookingUI implements Screen {
      * @throws Exception if the update process encounters an error.
      */
     public void updateSportFacility() throws Exception {
-        ConfirmedBookingControl confirmedBookingControl = new ConfirmedBookingControl();
+        ConfirmedBookingControl confirmedBookingControl = new ConfirmedBookingControl(currUser);
         confirmedBookingControl.setType(1);
 
-        boolean didDisplay = cbm.displayConfirmedRecord(OBJECT_TYPE.OBJECT_TYPE_FACILITY.ordinal());
+        boolean didDisplay = cbm.displayConfirmedRecord(currUser, OBJECT_TYPE.OBJECT_TYPE_FACILITY.ordinal());
         if (!didDisplay) 
             return;
         
@@ -404,7 +404,7 @@ public class ViewConfirmedBookingUI implements Screen {
      * @throws Exception if the cancelation process encounters an error.
      */
     public void cancelBooking() throws Exception {
-        ConfirmedBookingControl confirmedBookingControl = new ConfirmedBookingControl();
+        ConfirmedBookingControl confirmedBookingControl = new ConfirmedBookingControl(currUser);
 
         System.out.print("\nInput which type of booking to update with (1: Equipment, 2: Facility): ");
         int objectType = scanner.nextInt() - 1;
@@ -412,7 +412,7 @@ public class ViewConfirmedBookingUI implements Screen {
         confirmedBookingControl.setType(objectType);
 
 
-        boolean didDisplay = cbm.displayConfirmedRecord(confirmedBookingControl.currTargetType.ordinal());
+        boolean didDisplay = cbm.displayConfirmedRecord(currUser, confirmedBookingControl.currTargetType.ordinal());
         if (!didDisplay) 
             return;
         System.out.printf("Choose %s to update with (input integer): ", objectTypeList.get(objectType));
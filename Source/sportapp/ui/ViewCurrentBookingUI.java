@@ -5,6 +5,7 @@ import java.util.*;
 // import sportapp.manager.EquipmentBookManager;
 // import sportapp.model.*;
 
+import sportapp.Clock;
 import sportapp.PaymentCalculator;
 import sportapp.Route;
 import sportapp.Screen;
@@ -228,13 +229,13 @@ public class ViewCurrentBookingUI implements Screen {
 
         if (selection.isFacility()) {
             FacilityBookRecord booking = selection.getFacility();
-            if (booking.getDate().isEqual(LocalDate.now())) {
+            if (booking.getDate().isEqual(Clock.getInstance().getToday())) {
                 System.out.println("You can only cancel today's Booking");
                 return;
             }
         }else if (selection.isEquipment()) {
             EquipmentBookRecord booking = selection.getEquipment();
-            if (booking.getDate().isEqual(LocalDate.now())) {
+            if (booking.getDate().isEqual(Clock.getInstance().getToday())) {
                 System.out.println("You can only cancel today's Booking");
                 return;
             }
@@ -407,7 +408,7 @@ public class ViewCurrentBookingUI implements Screen {
             
             try {
                 LocalDate date = LocalDate.parse(input);
-                if (date.isBefore(LocalDate.now())) {
+                if (date.isBefore(Clock.getInstance().getToday())) {
                     System.out.println("Date must be in the future. Please try again.");
                     continue;
                 }
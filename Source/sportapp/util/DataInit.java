@@ -8,6 +8,7 @@ import sportapp.manager.EquipmentManager;
 import sportapp.manager.EquipmentTypeManager;
 import sportapp.manager.FacilityBookManager;
 import sportapp.manager.SportFacilityManager;
+import sportapp.manager.StockLedger;
 import sportapp.model.BookingStatus;
 import sportapp.model.Equipment;
 import sportapp.model.EquipmentBookRecord;
@@ -105,6 +106,7 @@ public class DataInit {
 
         for (EquipmentType type: typeCollection.getSellableTypes()) {
             equipmentCollection.addEquipment(new Equipment(1, type));
+            StockLedger.getInstance().setStock(type, 100);
         }
 
         if (loadRecord.equals("true")) {